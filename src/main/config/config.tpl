@@ -22,6 +22,7 @@ play_online_host: ${play_online_host}
 ai:
   place_tile_delay: ${ai_place_tile_delay} # miliseconds to wait before computer player place tile
   class_name: ${ai_class_name}
+  search_parallelism: ${ai_search_parallelism} # number of threads used by computer player to search for best move
 
 players:
   # Colors as Java awt.Color constant or in hex-value. (third-party themes can ignore these colors)
@@ -86,5 +87,8 @@ debug:
 
   # area or figure
   area_highlight: ${area_highlight}
+
+  # replay whole game on load and compare it with state loaded from checkpoint
+  checkpoint_validation: ${checkpoint_validation}
 ${end}
 
@@ -2,6 +2,9 @@ package com.jcloisterzone;
 
 import static com.jcloisterzone.ui.I18nUtils._tr;
 
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,7 +57,9 @@ import io.vavr.collection.Vector;
 /**
  * See https://boardgamegeek.com/wiki/page/Carcassonne_series
  */
-public class Expansion {
+public class Expansion implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     // Basic sets
     public static Expansion BASIC = new Expansion("BASIC", "BA", _tr("Basic game"),
@@ -137,7 +142,7 @@ public class Expansion {
     private final String label;
     private final Class<? extends Capability<?>>[] capabilities;
     private final ExpansionType type;
-    private Plugin origin;
+    private transient Plugin origin;
 
     public Expansion(String name, String code, String label, ExpansionType type) {
         this(name, code, label, null, type);
@@ -182,6 +187,10 @@ public class Expansion {
         return label;
     }
 
+    private Object readResolve() throws ObjectStreamException {
+        return valueOf(name);
+    }
+
     public static Expansion valueOf(String name) {
         for (Expansion exp : values()) {
             if (exp.name.equals(name)) return exp;
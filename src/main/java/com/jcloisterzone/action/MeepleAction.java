@@ -51,12 +51,23 @@ public class MeepleAction implements SelectFeatureAction {
         return options.find(t -> t._2.contains(fp)).get()._1;
     }
 
+    /**
+     * Returns options keyed by id of meeple which can be deployed on them.
+     */
+    public Map<String, Set<FeaturePointer>> getMeepleOptions() {
+        return options;
+    }
+
     @Override
     public WsInGameMessage select(FeaturePointer fp) {
+        return select(fp, getMeepleIdFor(fp));
+    }
+
+    public WsInGameMessage select(FeaturePointer fp, String meepleId) {
         if (fp.getLocation() == Location.FLYING_MACHINE) {
-           return new DeployFlierMessage(fp, getMeepleIdFor(fp));
+           return new DeployFlierMessage(fp, meepleId);
         }
-        return new DeployMeepleMessage(fp, getMeepleIdFor(fp));
+        return new DeployMeepleMessage(fp, meepleId);
     }
 
     @Override
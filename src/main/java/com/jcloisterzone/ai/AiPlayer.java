@@ -21,11 +21,18 @@ public interface AiPlayer extends Function1<GameState, WsInGameMessage> {
     default void onGameStart(GameSetup setup, Player me) {
     }
 
+    /**
+     * Called when game is over. Player should release threads and caches created for the game.
+     */
+    default void onGameOver() {
+    }
+
     default Vector<WsInGameMessage> getPossibleActions(GameState state) {
         ActionsState as = state.getPlayerActions();
 
         Vector<WsInGameMessage> messages = as.getActions().flatMap(action ->
-            action.getOptions().map(o -> Helpers.createMessage(action, o)).toVector()
+            // map iterator, not set - messages have identity hash code and set of them has random order
+            action.getOptions().iterator().map(o -> Helpers.createMessage(action, o)).toVector()
         );
 
         if (as.isPassAllowed()) {
@@ -8,7 +8,9 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.eventbus.Subscribe;
 import com.jcloisterzone.Player;
+import com.jcloisterzone.ai.player.MctsAiPlayer;
 import com.jcloisterzone.event.GameChangedEvent;
+import com.jcloisterzone.event.GameOverEvent;
 import com.jcloisterzone.game.state.GameState;
 import com.jcloisterzone.ui.GameController;
 import com.jcloisterzone.wsio.message.CommitMessage;
@@ -34,6 +36,15 @@ public class AiPlayerAdapter {
         this.aiPlayer = aiPlayer;
 
         tilePlaceDelay = gc.getConfig().getAi().getPlace_tile_delay();
+        Integer parallelism = gc.getConfig().getAi().getSearch_parallelism();
+        if (parallelism != null) {
+            if (aiPlayer instanceof RankingAiPlayer) {
+                ((RankingAiPlayer) aiPlayer).setParallelism(parallelism);
+            }
+            if (aiPlayer instanceof MctsAiPlayer) {
+                ((MctsAiPlayer) aiPlayer).setParallelism(parallelism);
+            }
+        }
         aiPlayer.onGameStart(gc.getGame().getSetup(), player);
     }
 
@@ -53,6 +64,12 @@ public class AiPlayerAdapter {
         }
     }
 
+    @Subscribe
+    public void onGameOver(GameOverEvent ev) {
+        // queued after pending move search
+        executor.submit(aiPlayer::onGameOver);
+    }
+
     private void sendWithDelay(WsMessage msg, int delay) {
         if (delay > 0) {
             try {
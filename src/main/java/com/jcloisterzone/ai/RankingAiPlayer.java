@@ -1,5 +1,7 @@
 package com.jcloisterzone.ai;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -10,6 +12,7 @@ import com.jcloisterzone.game.GameSetup;
 import com.jcloisterzone.game.GameStatePhaseReducer;
 import com.jcloisterzone.game.capability.PortalCapability;
 import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.game.state.PositionHash;
 import com.jcloisterzone.wsio.message.PlaceTileMessage;
 import com.jcloisterzone.wsio.message.WsInGameMessage;
 import com.jcloisterzone.wsio.message.WsSaltMessage;
@@ -22,65 +25,65 @@ public abstract class RankingAiPlayer implements AiPlayer {
 
     protected final transient Logger logger = LoggerFactory.getLogger(getClass());
 
+    public static final int DEFAULT_TRANSPOSITION_TABLE_SIZE = 1 << 16;
+
     private GameStateRanking stateRanking;
     private GameStatePhaseReducer phaseReducer;
 
     private Player me;
     private Vector<WsInGameMessage> messages = Vector.empty();
 
+    private int parallelism = 1;
+    private ForkJoinPool searchPool;
+    // reducer is shared by search threads, ranking is not thread safe, each thread gets own instance
+    private ThreadLocal<GameStateRanking> searchRankings;
+    // different message chains often lead to same position, rank it only once
+    // (cleared before each decision, ranking can depend also on state which isn't part of the key, like the tile pack)
+    private final TranspositionTable rankedPositions = new TranspositionTable(DEFAULT_TRANSPOSITION_TABLE_SIZE);
+
     protected abstract GameStateRanking createStateRanking(Player me);
 
     @Override
     public void onGameStart(GameSetup setup, Player me) {
         this.me = me;
-        phaseReducer = new GameStatePhaseReducer(setup, 0);
+        phaseReducer = new GameStatePhaseReducer(setup);
         stateRanking = createStateRanking(me);
+        onGameOver(); // player can be reused, release resources of previous game
+
+        if (parallelism > 1) {
+            searchPool = new ForkJoinPool(parallelism);
+            searchRankings = ThreadLocal.withInitial(() -> createStateRanking(this.me));
+        }
+    }
+
+    @Override
+    public void onGameOver() {
+        if (searchPool != null) {
+            searchPool.shutdown();
+        }
+        searchPool = null;
+        searchRankings = null;
+        messages = Vector.empty();
+        rankedPositions.clear();
     }
 
     @Override
     public WsInGameMessage apply(GameState state) {
         if (messages.isEmpty()) {
-            Double bestSoFar = Double.NEGATIVE_INFINITY;
-            Queue<Tuple2<GameState, Vector<WsInGameMessage>>> queue = Queue.of(new Tuple2<>(state, Vector.empty()));
-
-            while (!queue.isEmpty()) {
-                Tuple2<Tuple2<GameState, Vector<WsInGameMessage>>, Queue<Tuple2<GameState, Vector<WsInGameMessage>>>> t = queue.dequeue();
-                queue = t._2;
-                Tuple2<GameState, Vector<WsInGameMessage>> item = t._1;
-                GameState itemState = item._1;
-
-                for (WsInGameMessage msg : getPossibleActions(itemState)) {
-                    Vector<WsInGameMessage> chain = item._2.append(msg);
-                    GameState newState = phaseReducer.apply(itemState, msg);
-                    boolean end = newState.getActivePlayer() != me || newState.getTurnPlayer() != state.getTurnPlayer() || msg instanceof WsSaltMessage;
-
-                    if (!end && msg instanceof PlaceTileMessage &&
-                        newState.getLastPlaced().getTile().hasModifier(PortalCapability.MAGIC_PORTAL)) {
-                        // hack to avoid bad performance on Portal tile
-                        // rank just placement then rang meeple placement separately
-                        // still not perfect because it can miss good on tile meeple placement
-                        end = true;
-                    }
-
-                    if (end) {
-                        Double ranking = stateRanking.apply(newState);
-
-//                      String chainStr = chain.map(_msg -> _msg.getClass().getSimpleName()).toJavaStream().collect(Collectors.joining(", "));
-//                      System.err.println(String.format(">>> %f\n%s", ranking, chainStr));
-
-                        if (ranking > bestSoFar) {
-                            bestSoFar = ranking;
-                            messages = chain;
-                        }
-                    } else {
-                        queue = queue.enqueue(new Tuple2<>(newState, chain));
-                    }
-                }
+            rankedPositions.clear();
+            Tuple2<Double, Vector<WsInGameMessage>> best;
+            if (searchPool == null) {
+                best = search(phaseReducer, stateRanking, state, state, Vector.empty());
+            } else {
+                best = searchPool.invoke(new RootSearchTask(state));
             }
+            messages = best._2;
 
             if (logger.isDebugEnabled()) {
                 String chainStr = messages.map(_msg -> _msg.getClass().getSimpleName()).toJavaStream().collect(Collectors.joining(", "));
-                logger.debug(String.format("Best ranking %s, %s", bestSoFar, chainStr));
+                logger.debug(String.format("Best ranking %s, %s", best._1, chainStr));
+                logger.debug(String.format("Transposition table size %d, hits %d, misses %d",
+                    rankedPositions.size(), rankedPositions.getHits(), rankedPositions.getMisses()));
             }
         }
 
@@ -90,4 +93,134 @@ public abstract class RankingAiPlayer implements AiPlayer {
         return msg;
     }
 
+    /**
+     * Breadth-first walk over all message chains leading from {@code from} to the end of {@code root} turn part.
+     * Returns best ranking and its chain (prefixed with {@code chainPrefix}).
+     */
+    private Tuple2<Double, Vector<WsInGameMessage>> search(GameStatePhaseReducer reducer, GameStateRanking ranking,
+            GameState root, GameState from, Vector<WsInGameMessage> chainPrefix) {
+        Double bestSoFar = Double.NEGATIVE_INFINITY;
+        Vector<WsInGameMessage> bestChain = Vector.empty();
+        Queue<Tuple2<GameState, Vector<WsInGameMessage>>> queue = Queue.of(new Tuple2<>(from, chainPrefix));
+
+        while (!queue.isEmpty()) {
+            Tuple2<Tuple2<GameState, Vector<WsInGameMessage>>, Queue<Tuple2<GameState, Vector<WsInGameMessage>>>> t = queue.dequeue();
+            queue = t._2;
+            Tuple2<GameState, Vector<WsInGameMessage>> item = t._1;
+            GameState itemState = item._1;
+
+            for (WsInGameMessage msg : getPossibleActions(itemState)) {
+                Vector<WsInGameMessage> chain = item._2.append(msg);
+                GameState newState = reducer.apply(itemState, msg);
+
+                if (isSearchEnd(root, msg, newState)) {
+                    Double value = rank(ranking, newState);
+
+//                  String chainStr = chain.map(_msg -> _msg.getClass().getSimpleName()).toJavaStream().collect(Collectors.joining(", "));
+//                  System.err.println(String.format(">>> %f\n%s", value, chainStr));
+
+                    if (value > bestSoFar) {
+                        bestSoFar = value;
+                        bestChain = chain;
+                    }
+                } else {
+                    queue = queue.enqueue(new Tuple2<>(newState, chain));
+                }
+            }
+        }
+        return new Tuple2<>(bestSoFar, bestChain);
+    }
+
+    private Double rank(GameStateRanking ranking, GameState state) {
+        long key = PositionHash.ofTurn(state);
+        Double value = rankedPositions.get(key);
+        if (value == null) {
+            value = ranking.apply(state);
+            rankedPositions.put(key, value);
+        }
+        return value;
+    }
+
+    public TranspositionTable getRankedPositions() {
+        return rankedPositions;
+    }
+
+    private boolean isSearchEnd(GameState root, WsInGameMessage msg, GameState newState) {
+        boolean end = newState.getActivePlayer() != me || newState.getTurnPlayer() != root.getTurnPlayer() || msg instanceof WsSaltMessage;
+
+        if (!end && msg instanceof PlaceTileMessage &&
+            newState.getLastPlaced().getTile().hasModifier(PortalCapability.MAGIC_PORTAL)) {
+            // hack to avoid bad performance on Portal tile
+            // rank just placement then rang meeple placement separately
+            // still not perfect because it can miss good on tile meeple placement
+            end = true;
+        }
+        return end;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets number of threads used for move search. Must be called before {@link #onGameStart(GameSetup, Player)}.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Splits first level actions into subtasks and merges their results in action order,
+     * so the chosen chain doesn't depend on thread scheduling.
+     */
+    private class RootSearchTask extends RecursiveTask<Tuple2<Double, Vector<WsInGameMessage>>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final GameState root;
+
+        public RootSearchTask(GameState root) {
+            this.root = root;
+        }
+
+        @Override
+        protected Tuple2<Double, Vector<WsInGameMessage>> compute() {
+            Vector<BranchSearchTask> branches = getPossibleActions(root).map(msg -> new BranchSearchTask(root, msg));
+            invokeAll(branches.toJavaList());
+
+            Tuple2<Double, Vector<WsInGameMessage>> best = new Tuple2<>(Double.NEGATIVE_INFINITY, Vector.empty());
+            for (BranchSearchTask branch : branches) {
+                Tuple2<Double, Vector<WsInGameMessage>> result = branch.join();
+                if (result._1 > best._1) {
+                    best = result;
+                }
+            }
+            return best;
+        }
+    }
+
+    private class BranchSearchTask extends RecursiveTask<Tuple2<Double, Vector<WsInGameMessage>>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final GameState root;
+        private final WsInGameMessage msg;
+
+        public BranchSearchTask(GameState root, WsInGameMessage msg) {
+            this.root = root;
+            this.msg = msg;
+        }
+
+        @Override
+        protected Tuple2<Double, Vector<WsInGameMessage>> compute() {
+            GameStateRanking ranking = searchRankings.get();
+            GameState newState = phaseReducer.apply(root, msg);
+            Vector<WsInGameMessage> chain = Vector.of(msg);
+
+            if (isSearchEnd(root, msg, newState)) {
+                return new Tuple2<>(rank(ranking, newState), chain);
+            }
+            return search(phaseReducer, ranking, root, newState, chain);
+        }
+    }
 }
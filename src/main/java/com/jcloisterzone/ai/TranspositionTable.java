@@ -0,0 +1,86 @@
+package com.jcloisterzone.ai;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of ranked positions keyed by position hash. Table can be shared between search threads.
+ *
+ * Lock-free direct-mapped table, every key has exactly one slot and newer entry replaces older one.
+ * Key is stored XORed with value bits. Entry torn by concurrent writes doesn't pass the check
+ * and it is reported as missing.
+ */
+public class TranspositionTable {
+
+    // never produced by Double.doubleToLongBits, which collapses all NaNs to canonical one
+    private static final long EMPTY = 0x7ff8dead0000beefL;
+
+    private final long[] checks;
+    private final long[] values;
+    private final int mask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param capacity number of slots, rounded up to power of two
+     */
+    public TranspositionTable(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        checks = new long[size];
+        values = new long[size];
+        mask = size - 1;
+        Arrays.fill(values, EMPTY);
+    }
+
+    private int slot(long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+
+    public Double get(long key) {
+        int i = slot(key);
+        long bits = values[i];
+        if (bits == EMPTY || (checks[i] ^ bits) != key) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return Double.longBitsToDouble(bits);
+    }
+
+    public void put(long key, Double value) {
+        int i = slot(key);
+        long bits = Double.doubleToLongBits(value);
+        values[i] = bits;
+        checks[i] = key ^ bits;
+    }
+
+    /**
+     * Number of occupied slots.
+     */
+    public int size() {
+        int size = 0;
+        for (long bits : values) {
+            if (bits != EMPTY) size++;
+        }
+        return size;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Must not be called while table is used by search.
+     */
+    public void clear() {
+        Arrays.fill(checks, 0L);
+        Arrays.fill(values, EMPTY);
+        hits.reset();
+        misses.reset();
+    }
+}
@@ -10,7 +10,15 @@ import io.vavr.collection.Vector;
 
 public class DummyAiPlayer implements AiPlayer {
 
-    private Random random = new Random();
+    private final Random random;
+
+    public DummyAiPlayer() {
+        random = new Random();
+    }
+
+    public DummyAiPlayer(long seed) {
+        random = new Random(seed);
+    }
 
     @Override
     public WsInGameMessage apply(GameState state) {
@@ -37,7 +37,7 @@ import io.vavr.collection.Map;
 import io.vavr.collection.Set;
 import io.vavr.collection.Stream;
 
-class LegacyRanking implements GameStateRanking {
+public class LegacyRanking implements GameStateRanking {
 
     protected final transient Logger logger = LoggerFactory.getLogger("AI Ranking");
 
@@ -57,7 +57,15 @@ class LegacyRanking implements GameStateRanking {
     private int numberOfPlayers;
     private int remainingTurns;
     private PlacedTile lastPlaced;
-    private Map<Position, Double> positionProbability;
+    private HashMap<Position, EdgePattern> openPlacements;
+
+    // Probability of filling open position depends only on its border and on remaining tiles.
+    // Pack doesn't change during one AI decision, so probability is kept for each border pattern
+    // until pack patterns change. Open positions are maintained by game state, only positions
+    // around placed tile are new in ranked state.
+    private Map<EdgePattern, Integer> probabilityPackPatterns;
+    private int probabilityPlayers;
+    private final java.util.HashMap<Integer, Double> borderProbability = new java.util.HashMap<>();
 
     private java.util.HashMap<Edge, CompletableRanking> edges;
     private java.util.List<CompletableRanking> occupiedCompletables;
@@ -76,7 +84,13 @@ class LegacyRanking implements GameStateRanking {
         this.state = state;
         numberOfPlayers = state.getPlayers().length();
         lastPlaced = state.getLastPlaced();
-        positionProbability = getPositionProbability();
+        openPlacements = state.getOpenPlacements();
+        Map<EdgePattern, Integer> packPatterns = state.getTilePack().getPatterns();
+        if (packPatterns != probabilityPackPatterns || numberOfPlayers != probabilityPlayers) {
+            probabilityPackPatterns = packPatterns;
+            probabilityPlayers = numberOfPlayers;
+            borderProbability.clear();
+        }
         remainingTurns = (int) Math.ceil(state.getTilePack().totalSize() / numberOfPlayers);
         edges = new java.util.HashMap<>();
         occupiedCompletables = new ArrayList<>();
@@ -127,23 +141,30 @@ class LegacyRanking implements GameStateRanking {
         return p == me ? pts : -pts;
     }
 
-    private Map<Position, Double> getPositionProbability() {
+    /**
+     * Gets probability that open position will be filled, {@code null} if position is not open.
+     */
+    private Double getPositionProbability(Position pos) {
+        EdgePattern border = openPlacements.get(pos).getOrNull();
+        return border == null ? null : getBorderProbability(border);
+    }
 
-        Map<EdgePattern, Integer> packPatterns = state.getTilePack().getPatterns();
-        return state.getAvailablePlacements().toMap(avail -> {
+    private double getBorderProbability(EdgePattern border) {
+        Double prob = borderProbability.get(border.getMask());
+        if (prob == null) {
             int matchingTiles = 0;
-            for (Tuple2<EdgePattern, Integer> pattern : packPatterns) {
-                if (avail._2.isMatchingAnyRotation(pattern._1)) {
+            for (Tuple2<EdgePattern, Integer> pattern : probabilityPackPatterns) {
+                if (border.isMatchingAnyRotation(pattern._1)) {
                     matchingTiles += pattern._2;
-                    continue;
                 }
             }
-            double prob = 0.0;
+            prob = 0.0;
             if (matchingTiles > 0) {
                 prob = 1.0 - Math.pow(1.0 - (1.0 / numberOfPlayers), matchingTiles);
             }
-            return new Tuple2<Position, Double>(avail._1, prob);
-        });
+            borderProbability.put(border.getMask(), prob);
+        }
+        return prob;
     }
 
     private double ratePoints() {
@@ -164,13 +185,13 @@ class LegacyRanking implements GameStateRanking {
             Position pos = cl.getTilePositions().get();
             adjacent = Stream.ofAll(Position.ADJACENT_AND_DIAGONAL.values())
                 .map(offset -> pos.add(offset))
-                .filter(p -> positionProbability.containsKey(p));
+                .filter(p -> openPlacements.containsKey(p));
 
 
         } else if (completable instanceof CompletableFeature) {
             CompletableFeature<?> cf = (CompletableFeature<?>) completable;
             adjacent = Stream.ofAll(cf.getOpenEdges().map(edge -> {
-                if (positionProbability.containsKey(edge.getP1())) {
+                if (openPlacements.containsKey(edge.getP1())) {
                     return edge.getP1();
                 } else {
                     return edge.getP2();
@@ -180,7 +201,7 @@ class LegacyRanking implements GameStateRanking {
 
         if (adjacent != null) {
             prob = adjacent
-              .map(p -> positionProbability.get(p).getOrNull())
+              .map(p -> getPositionProbability(p))
               .foldLeft(1.0, (res, p) -> res * p);
         }
 
@@ -404,14 +425,15 @@ class LegacyRanking implements GameStateRanking {
 
     private double rateConnections() {
         double r = 0.0;
-        for (Tuple2<Position, Double> pp : positionProbability) {
-            if (pp._2 < 0.55) continue;
-            Position pos = pp._1;
+        for (Tuple2<Position, EdgePattern> open : openPlacements) {
+            double prob = getBorderProbability(open._2);
+            if (prob < 0.55) continue;
+            Position pos = open._1;
             for (Location loc : Location.SIDES) {
                 r += rateConnection(
                    new Edge(pos, loc),
                    new Edge(pos, loc.rotateCW(Rotation.R90)),
-                   pp._2
+                   prob
                 );
             }
         }
@@ -0,0 +1,358 @@
+package com.jcloisterzone.ai.player;
+
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.jcloisterzone.Player;
+import com.jcloisterzone.ai.AiPlayer;
+import com.jcloisterzone.game.GameSetup;
+import com.jcloisterzone.game.RandomGenerator;
+import com.jcloisterzone.game.GameStatePhaseReducer;
+import com.jcloisterzone.game.phase.GameOverPhase;
+import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.game.state.PlayersState;
+import com.jcloisterzone.reducers.FinalScoring;
+import com.jcloisterzone.wsio.message.WsInGameMessage;
+import com.jcloisterzone.wsio.message.WsSaltMessage;
+
+import io.vavr.collection.Vector;
+
+/**
+ * Monte Carlo Tree Search player.
+ *
+ * Tree covers messages of own turn. Leaves are evaluated by random playouts
+ * over next {@code playoutHorizon} tiles. Tile draw is driven by random generator carried in the state,
+ * so generator is reseeded before each move applied by the search (including repeated visits
+ * of turn end node, which draws next tile) and at playout start. Thus every visit samples
+ * different draw from remaining tile pack.
+ *
+ * With parallelism greater than one, each thread grows its own tree (root parallelization)
+ * and root children visits are summed when move is chosen.
+ */
+public class MctsAiPlayer implements AiPlayer {
+
+    protected final transient Logger logger = LoggerFactory.getLogger(getClass());
+
+    public static final long DEFAULT_TIME_BUDGET = 2000;
+    public static final int DEFAULT_PLAYOUT_HORIZON = 4;
+
+    private static final double UCT_C = Math.sqrt(2.0);
+    private static final double REWARD_SCALE = 10.0;
+
+    private Player me;
+
+    private long timeBudget = DEFAULT_TIME_BUDGET;
+    private int playoutBudget = 0;
+    private int playoutHorizon = DEFAULT_PLAYOUT_HORIZON;
+    private int parallelism = 1;
+
+    private ForkJoinPool searchPool;
+    private Vector<SearchTree> trees;
+
+    private int lastPlayouts;
+    private double lastPlayoutsPerSecond;
+
+    @Override
+    public void onGameStart(GameSetup setup, Player me) {
+        this.me = me;
+        onGameOver(); // player can be reused, release resources of previous game
+        GameStatePhaseReducer phaseReducer = new GameStatePhaseReducer(setup);
+        trees = Vector.range(0, parallelism).map(i -> new SearchTree(phaseReducer, new Random(i)));
+        searchPool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+    }
+
+    @Override
+    public void onGameOver() {
+        if (searchPool != null) {
+            searchPool.shutdown();
+        }
+        searchPool = null;
+        trees = null;
+    }
+
+    @Override
+    public WsInGameMessage apply(GameState state) {
+        long start = System.currentTimeMillis();
+        long deadline;
+        if (timeBudget > 0) {
+            deadline = start + timeBudget;
+        } else if (playoutBudget > 0) {
+            deadline = Long.MAX_VALUE;
+        } else {
+            // search must be limited at least by one of budgets
+            deadline = start + DEFAULT_TIME_BUDGET;
+        }
+        AtomicInteger playouts = new AtomicInteger();
+
+        for (SearchTree tree : trees) {
+            tree.setRoot(state);
+        }
+
+        if (searchPool == null) {
+            trees.get().search(deadline, playouts);
+        } else {
+            searchPool.invokeAll(trees.map(tree -> (Callable<Void>) () -> {
+                tree.search(deadline, playouts);
+                return null;
+            }).toJavaList());
+        }
+
+        Vector<WsInGameMessage> actions = trees.get().root.actions;
+        int[] visits = new int[actions.size()];
+        for (SearchTree tree : trees) {
+            for (Node child : tree.root.children) {
+                if (child != null) {
+                    visits[child.actionIndex] += child.visits;
+                }
+            }
+        }
+        int best = 0;
+        for (int i = 1; i < visits.length; i++) {
+            if (visits[i] > visits[best]) best = i;
+        }
+        for (SearchTree tree : trees) {
+            tree.chosen = best;
+        }
+
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+        lastPlayouts = playouts.get();
+        lastPlayoutsPerSecond = 1000.0 * lastPlayouts / elapsed;
+        logger.info(String.format("%d playouts in %d ms (%.1f playouts/s), best move visited %d times",
+            lastPlayouts, elapsed, lastPlayoutsPerSecond, visits[best]));
+
+        return actions.get(best);
+    }
+
+    /**
+     * Applies message to state with freshly seeded random generator, so tiles drawn
+     * by the message are sampled independently on each call.
+     */
+    static GameState applySampled(GameStatePhaseReducer phaseReducer, GameState state, WsInGameMessage msg, Random random) {
+        return phaseReducer.apply(state.setRandom(new RandomGenerator(random.nextLong())), msg);
+    }
+
+    private boolean isTurnEnd(GameState root, WsInGameMessage msg, GameState newState) {
+        return !me.equals(newState.getActivePlayer()) || !newState.getTurnPlayer().equals(root.getTurnPlayer()) || msg instanceof WsSaltMessage;
+    }
+
+    private double evaluate(GameState state) {
+        if (state.getPhase() != GameOverPhase.class) {
+            state = (new FinalScoring()).apply(state);
+        }
+        PlayersState ps = state.getPlayers();
+        int myPoints = ps.getScore().get(me.getIndex()).getPoints();
+        int bestOpponentPoints = Integer.MIN_VALUE;
+        for (Player player : ps.getPlayers()) {
+            if (!player.equals(me)) {
+                bestOpponentPoints = Math.max(bestOpponentPoints, ps.getScore().get(player.getIndex()).getPoints());
+            }
+        }
+        if (bestOpponentPoints == Integer.MIN_VALUE) {
+            return 0.5 + 0.5 * Math.tanh(myPoints / REWARD_SCALE);
+        }
+        return 0.5 + 0.5 * Math.tanh((myPoints - bestOpponentPoints) / REWARD_SCALE);
+    }
+
+    public long getTimeBudget() {
+        return timeBudget;
+    }
+
+    /**
+     * Sets wall-clock budget per move in milliseconds. Zero means no time limit,
+     * when playout budget is not set too, {@link #DEFAULT_TIME_BUDGET} is used.
+     */
+    public void setTimeBudget(long timeBudget) {
+        if (timeBudget < 0) {
+            throw new IllegalArgumentException("Time budget can't be negative");
+        }
+        this.timeBudget = timeBudget;
+    }
+
+    public int getPlayoutBudget() {
+        return playoutBudget;
+    }
+
+    /**
+     * Sets number of playouts per move. Zero means no playout limit.
+     */
+    public void setPlayoutBudget(int playoutBudget) {
+        if (playoutBudget < 0) {
+            throw new IllegalArgumentException("Playout budget can't be negative");
+        }
+        this.playoutBudget = playoutBudget;
+    }
+
+    public int getPlayoutHorizon() {
+        return playoutHorizon;
+    }
+
+    /**
+     * Sets number of tiles placed by playout before its result is evaluated.
+     */
+    public void setPlayoutHorizon(int playoutHorizon) {
+        this.playoutHorizon = playoutHorizon;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets number of search threads. Must be called before {@link #onGameStart(GameSetup, Player)}.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public int getLastPlayouts() {
+        return lastPlayouts;
+    }
+
+    public double getLastPlayoutsPerSecond() {
+        return lastPlayoutsPerSecond;
+    }
+
+    private static class Node {
+        private Node parent;
+        private final int actionIndex;
+        private final WsInGameMessage move;
+        private final boolean turnEnd;
+        // null for turn end node, its state is sampled again for each playout
+        private GameState state;
+        private Vector<WsInGameMessage> actions;
+        private Node[] children;
+        private int expanded;
+
+        private int visits;
+        private double value;
+
+        public Node(Node parent, int actionIndex, WsInGameMessage move, GameState state, boolean turnEnd) {
+            this.parent = parent;
+            this.actionIndex = actionIndex;
+            this.move = move;
+            this.state = state;
+            this.turnEnd = turnEnd;
+        }
+    }
+
+    /**
+     * Search tree owned by single thread. Reducer is shared, random is not.
+     */
+    private class SearchTree {
+
+        private final GameStatePhaseReducer phaseReducer;
+        private final Random random;
+
+        private Node root;
+        private int chosen = -1;
+
+        public SearchTree(GameStatePhaseReducer phaseReducer, Random random) {
+            this.phaseReducer = phaseReducer;
+            this.random = random;
+        }
+
+        /**
+         * Reuses subtree of previously chosen move if state continues in same turn.
+         */
+        private void setRoot(GameState state) {
+            Node reused = null;
+            if (root != null && chosen != -1 && root.children != null
+                    && state.getTurnNumber() == root.state.getTurnNumber()
+                    && me.equals(state.getActivePlayer())) {
+                Node child = root.children[chosen];
+                if (child != null && !child.turnEnd) {
+                    reused = child;
+                    reused.parent = null;
+                    reused.state = state;
+                }
+            }
+            root = reused == null ? new Node(null, -1, null, state, false) : reused;
+            chosen = -1;
+            expandActions(root);
+        }
+
+        private void expandActions(Node node) {
+            if (node.actions == null) {
+                node.actions = getPossibleActions(node.state);
+                node.children = new Node[node.actions.size()];
+            }
+        }
+
+        private void search(long deadline, AtomicInteger playouts) {
+            while (System.currentTimeMillis() < deadline) {
+                if (playoutBudget > 0 && playouts.get() >= playoutBudget) {
+                    return;
+                }
+
+                Node node = root;
+                GameState leafState;
+
+                // selection
+                while (!node.turnEnd && node.expanded == node.children.length && node.children.length > 0) {
+                    node = selectChild(node);
+                }
+
+                // expansion
+                if (node.turnEnd) {
+                    // state isn't stored, next tile is drawn again on every visit
+                    leafState = applySampled(phaseReducer, node.parent.state, node.move, random);
+                } else if (node.expanded < node.children.length) {
+                    int idx = node.expanded++;
+                    WsInGameMessage msg = node.actions.get(idx);
+                    leafState = applySampled(phaseReducer, node.state, msg, random);
+                    boolean end = isTurnEnd(root.state, msg, leafState);
+                    Node child = new Node(node, idx, msg, end ? null : leafState, end);
+                    if (!end) {
+                        expandActions(child);
+                    }
+                    node.children[idx] = child;
+                    node = child;
+                } else {
+                    leafState = node.state;
+                }
+
+                double reward = playout(leafState);
+                playouts.incrementAndGet();
+
+                // backpropagation
+                while (node != null) {
+                    node.visits++;
+                    node.value += reward;
+                    node = node.parent;
+                }
+            }
+        }
+
+        private Node selectChild(Node node) {
+            double logVisits = Math.log(node.visits);
+            Node best = null;
+            double bestUct = Double.NEGATIVE_INFINITY;
+            for (Node child : node.children) {
+                double uct = child.value / child.visits + UCT_C * Math.sqrt(logVisits / child.visits);
+                if (uct > bestUct) {
+                    bestUct = uct;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        private double playout(GameState state) {
+            state = state.setRandom(new RandomGenerator(random.nextLong()));
+            int limit = state.getPlacedTiles().size() + playoutHorizon;
+            while (state.getPhase() != GameOverPhase.class && state.getPlacedTiles().size() < limit) {
+                Vector<WsInGameMessage> actions = getPossibleActions(state);
+                if (actions.isEmpty()) {
+                    break;
+                }
+                state = phaseReducer.apply(state, actions.get(random.nextInt(actions.size())));
+            }
+            return evaluate(state);
+        }
+    }
+}
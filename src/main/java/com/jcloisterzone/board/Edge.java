@@ -119,7 +119,8 @@ public class Edge implements Serializable {
 
     @Override
     public int hashCode() {
-        return Objects.hash(p1, p2);
+        // same value as Objects.hash(p1, p2), without varargs array
+        return 31 * (31 + p1.hashCode()) + p2.hashCode();
     }
 
     @Override
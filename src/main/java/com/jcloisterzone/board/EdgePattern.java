@@ -1,8 +1,6 @@
 package com.jcloisterzone.board;
 
 import java.io.Serializable;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.stream.Stream;
 
 import com.jcloisterzone.Immutable;
@@ -74,6 +72,15 @@ public class EdgePattern implements Serializable {
         );
     }
 
+    /**
+     * Gets the bit mask of edges, 4 bits per edge in order North, East, South, and West from the lowest bits.
+     *
+     * @return the bit mask of edges
+     */
+    public int getMask() {
+        return mask;
+    }
+
     /**
      * Gets the {@link EdgeType} of the four edges in order North, East, South, and West.
      *
@@ -123,9 +130,7 @@ public class EdgePattern implements Serializable {
      */
     public EdgePattern rotate(Rotation rot) {
         if (rot == Rotation.R0) return this;
-        java.util.List<EdgeType> l = Arrays.asList(getEdges());
-        Collections.rotate(l, rot.ordinal());
-        return new EdgePattern(l.get(0), l.get(1), l.get(2), l.get(3));
+        return new EdgePattern(TileFitTable.rotate(mask, rot));
     }
 
     /**
@@ -173,12 +178,14 @@ public class EdgePattern implements Serializable {
      * @return the canonized version of {@code this}
      */
     public EdgePattern canonize() {
-        EdgePattern min = this;
+        int min = canonize(mask);
+        return min == mask ? this : new EdgePattern(min);
+    }
+
+    private static int canonize(int mask) {
+        int min = mask;
         for (Rotation rot : Rotation.values()) {
-            EdgePattern ep = rotate(rot);
-            if (ep.mask < min.mask) {
-                min = ep;
-            }
+            min = Math.min(min, TileFitTable.rotate(mask, rot));
         }
         return min;
     }
@@ -205,12 +212,17 @@ public class EdgePattern implements Serializable {
      * @return {@code true} if {@code this} matches some rotation of {@code ep}, {@code false} otherwise
      */
     public boolean isMatchingAnyRotation(EdgePattern ep) {
-        for (Rotation rot : Rotation.values()) {
-            if (rotate(rot).isMatchingExact(ep)) {
-                return true;
-            }
-        }
-        return false;
+        return TileFitTable.isMatchingAnyRotation(mask, ep.mask);
+    }
+
+    /**
+     * Gets rotations in which {@code this} (tile edges) exactly matches {@code border}, looked up in precomputed table.
+     *
+     * @param border the edges required by adjacent tiles
+     * @return bit mask of matching rotations, bit {@code 1 << rotation.ordinal()} is set for each matching rotation
+     */
+    public int getMatchingRotations(EdgePattern border) {
+        return TileFitTable.getMatchingRotations(mask, border.mask);
     }
 
     /**
@@ -269,7 +281,7 @@ public class EdgePattern implements Serializable {
         if (this == obj) return true;
         if (!(obj instanceof EdgePattern)) return false;
         EdgePattern that = (EdgePattern) obj;
-        return that.canonize().mask == canonize().mask;
+        return canonize(that.mask) == canonize(mask);
     }
 
     @Override
@@ -14,6 +14,14 @@ public enum EdgeType {
     private int mask;
     private char ch;
 
+    private static final EdgeType[] BY_MASK = new EdgeType[16];
+
+    static {
+        for (EdgeType e : values()) {
+            BY_MASK[e.mask] = e;
+        }
+    }
+
     /**
      * Instantiates a new {@code EdgeType}.
      *
@@ -48,10 +56,11 @@ public enum EdgeType {
      * @throws IllegalArgumentException if {@code mask} does not match any instance
      */
     static EdgeType forMask(int mask) {
-        for (EdgeType e : values()) {
-            if (e.mask == mask) return e;
+        EdgeType e = mask >= 0 && mask < BY_MASK.length ? BY_MASK[mask] : null;
+        if (e == null) {
+            throw new IllegalArgumentException("Invalid Edge mask " + mask);
         }
-        throw new IllegalArgumentException("Invalid Edge mask " + mask);
+        return e;
     }
 
     /**
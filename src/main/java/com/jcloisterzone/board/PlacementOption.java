@@ -1,5 +1,6 @@
 package com.jcloisterzone.board;
 
+import java.io.Serializable;
 import java.util.Objects;
 
 import com.jcloisterzone.board.pointer.FeaturePointer;
@@ -7,7 +8,9 @@ import com.jcloisterzone.board.pointer.FeaturePointer;
 /**
  * Represents allowed tile placement on particular board position.
  */
-public class PlacementOption implements Comparable<PlacementOption> {
+public class PlacementOption implements Comparable<PlacementOption>, Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private final Position position;
     private final Rotation rotation;
@@ -70,7 +73,8 @@ public class PlacementOption implements Comparable<PlacementOption> {
 
     @Override
     public int hashCode() {
-        return Objects.hash(position, rotation, mandatoryBridge);
+        // enum hash code is identity based, use ordinal to get same set order in every run
+        return Objects.hash(position, rotation == null ? null : rotation.ordinal(), mandatoryBridge);
     }
 
     @Override
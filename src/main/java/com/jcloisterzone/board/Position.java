@@ -103,6 +103,17 @@ public class Position implements BoardPointer, Comparable<Position> {
         return new Position(x,y);
     }
 
+    /**
+     * Packs position to single long (x in upper, y in lower 32 bits), used as primitive key.
+     */
+    public long pack() {
+        return pack(x, y);
+    }
+
+    public static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+
     public int squareDistance(Position p) {
         //orthogonal distance
         return Math.abs(x - p.x) + Math.abs(y - p.y);
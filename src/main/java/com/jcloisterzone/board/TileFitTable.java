@@ -0,0 +1,135 @@
+package com.jcloisterzone.board;
+
+/**
+ * Precomputed rotations in which tile edges fit to border of empty board position.
+ *
+ * Tile edges are always known, so each of them is one of four types (2 bits, 256 tile patterns),
+ * border edge can be also unknown (5 values, 625 border patterns). Table row for tile pattern
+ * contains bit mask of fitting rotations for each border pattern.
+ * Table is built once when first edge pattern is matched (on tile pack load).
+ */
+final class TileFitTable {
+
+    private static final int TILE_PATTERNS = 256;
+    private static final int BORDER_PATTERNS = 625;
+
+    /** edge mask to edge index, -1 for invalid masks, UNKNOWN has index 4 */
+    private static final int[] EDGE_INDEX = new int[16];
+
+    /** fitting rotations, bit {@code 1 << rotation.ordinal()} is set if rotated tile fits */
+    private static final byte[] FIT = new byte[TILE_PATTERNS * BORDER_PATTERNS];
+
+    static {
+        java.util.Arrays.fill(EDGE_INDEX, -1);
+        EDGE_INDEX[EdgeType.ROAD.getMask()] = 0;
+        EDGE_INDEX[EdgeType.CITY.getMask()] = 1;
+        EDGE_INDEX[EdgeType.FARM.getMask()] = 2;
+        EDGE_INDEX[EdgeType.RIVER.getMask()] = 3;
+        EDGE_INDEX[EdgeType.UNKNOWN.getMask()] = 4;
+
+        int[] edgeMasks = new int[5];
+        for (EdgeType type : EdgeType.values()) {
+            edgeMasks[EDGE_INDEX[type.getMask()]] = type.getMask();
+        }
+
+        for (int t = 0; t < TILE_PATTERNS; t++) {
+            int tileMask = 0;
+            for (int i = 0, idx = t; i < 4; i++, idx /= 4) {
+                tileMask |= edgeMasks[idx % 4] << (4 * i);
+            }
+            for (int b = 0; b < BORDER_PATTERNS; b++) {
+                int borderMask = 0;
+                for (int i = 0, idx = b; i < 4; i++, idx /= 5) {
+                    borderMask |= edgeMasks[idx % 5] << (4 * i);
+                }
+                int rotations = 0;
+                for (Rotation rot : Rotation.values()) {
+                    if (isMatchingExact(rotate(tileMask, rot), borderMask)) {
+                        rotations |= 1 << rot.ordinal();
+                    }
+                }
+                FIT[t * BORDER_PATTERNS + b] = (byte) rotations;
+            }
+        }
+    }
+
+    private TileFitTable() {
+    }
+
+    /**
+     * Rotates edge mask clockwise, same as {@link EdgePattern#rotate(Rotation)}.
+     */
+    static int rotate(int mask, Rotation rot) {
+        int shift = 4 * rot.ordinal();
+        return ((mask << shift) | (mask >>> (16 - shift))) & 0xffff;
+    }
+
+    static boolean isMatchingExact(int mask, int otherMask) {
+        int m = mask & otherMask;
+        return ((m & 0xf) != 0) &&
+                ((m & (0xf << 4)) != 0) &&
+                ((m & (0xf << 8)) != 0) &&
+                ((m & (0xf << 12)) != 0);
+    }
+
+    private static int tileIndex(int mask) {
+        int index = 0;
+        for (int i = 3; i >= 0; i--) {
+            int edge = EDGE_INDEX[(mask >> (4 * i)) & 0xf];
+            if (edge < 0 || edge > 3) return -1;
+            index = index * 4 + edge;
+        }
+        return index;
+    }
+
+    private static int borderIndex(int mask) {
+        int index = 0;
+        for (int i = 3; i >= 0; i--) {
+            int edge = EDGE_INDEX[(mask >> (4 * i)) & 0xf];
+            if (edge < 0) return -1;
+            index = index * 5 + edge;
+        }
+        return index;
+    }
+
+    /**
+     * Gets rotations of tile fitting to border as bit mask. Patterns which are not
+     * regular tile and border (eg. unknown edge on tile) are computed directly.
+     */
+    static int getMatchingRotations(int tileMask, int borderMask) {
+        int rotations = lookup(tileMask, borderMask);
+        if (rotations >= 0) {
+            return rotations;
+        }
+        rotations = 0;
+        for (Rotation rot : Rotation.values()) {
+            if (isMatchingExact(rotate(tileMask, rot), borderMask)) {
+                rotations |= 1 << rot.ordinal();
+            }
+        }
+        return rotations;
+    }
+
+    /**
+     * Checks if some rotation of first pattern matches second one. Relation is symmetric,
+     * so patterns can be passed in any order.
+     */
+    static boolean isMatchingAnyRotation(int mask, int otherMask) {
+        int rotations = lookup(mask, otherMask);
+        if (rotations < 0) {
+            rotations = lookup(otherMask, mask);
+        }
+        if (rotations < 0) {
+            rotations = getMatchingRotations(mask, otherMask);
+        }
+        return rotations != 0;
+    }
+
+    private static int lookup(int tileMask, int borderMask) {
+        int t = tileIndex(tileMask);
+        if (t < 0) return -1;
+        int b = borderIndex(borderMask);
+        if (b < 0) return -1;
+        return FIT[t * BORDER_PATTERNS + b];
+    }
+}
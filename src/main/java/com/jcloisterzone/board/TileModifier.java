@@ -1,11 +1,15 @@
 package com.jcloisterzone.board;
 
+import java.io.Serializable;
+
 /**
  *
  * Represents a tag that can be attached to {@link Tile}s. A tag is usually associated with a special
  * behaviour.
  */
-public class TileModifier {
+public class TileModifier implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private String name;
 
@@ -13,6 +17,19 @@ public class TileModifier {
 		this.name = name;
 	}
 
+	// modifiers are compared by name, so deserialized tiles match static modifier instances
+	@Override
+	public int hashCode() {
+		return name.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (obj == null || obj.getClass() != getClass()) return false;
+		return name.equals(((TileModifier) obj).name);
+	}
+
 	@Override
 	public String toString() {
 		return name;
@@ -1,6 +1,7 @@
 package com.jcloisterzone.board;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -11,6 +12,7 @@ import com.jcloisterzone.Immutable;
 import com.jcloisterzone.game.RandomGenerator;
 
 import io.vavr.Tuple2;
+import io.vavr.Tuple3;
 import io.vavr.collection.HashMap;
 import io.vavr.collection.LinkedHashMap;
 import io.vavr.collection.Map;
@@ -20,6 +22,10 @@ import io.vavr.control.Option;
 
 /**
  * Represents a stack of tiles that can be drawn. It handles active/unactivated tiles and only draws from active ones.
+ *
+ * Sizes, active groups and pattern histograms are derived from groups once per instance.
+ * Random draw which doesn't deplete group passes them updated to the new pack, so draw doesn't iterate
+ * over groups or tiles.
  */
 @Immutable
 public class TilePack implements Serializable {
@@ -35,6 +41,25 @@ public class TilePack implements Serializable {
 
     private final int hiddenUnderHills;
 
+    // lazily computed histogram of tile patterns, pack is immutable so it's computed once per instance
+    private transient volatile Map<EdgePattern, Integer> patterns;
+    // same for tiles in active groups only
+    private transient volatile Map<EdgePattern, Integer> activePatterns;
+    private transient volatile Counters counters;
+
+    /** Active groups in draw order and tile counts. */
+    private static final class Counters {
+        final TileGroup[] activeGroups;
+        final int activeTiles;
+        final int allTiles;
+
+        Counters(TileGroup[] activeGroups, int activeTiles, int allTiles) {
+            this.activeGroups = activeGroups;
+            this.activeTiles = activeTiles;
+            this.allTiles = allTiles;
+        }
+    }
+
     /**
      * Instantiates a new {@code TilePack}.
      *
@@ -89,28 +114,71 @@ public class TilePack implements Serializable {
         return setHiddenUnderHills(hiddenUnderHills + 1);
     }
 
-    private Stream<TileGroup> getActiveGroups() {
-        return Stream.ofAll(groups.values()).filter(TileGroup::isActive);
-    }
-
-    private Stream<Tile> getActiveTiles() {
-        return getActiveGroups().flatMap(TileGroup::getTiles);
+    private Counters getCounters() {
+        Counters result = counters;
+        if (result == null) {
+            java.util.List<TileGroup> activeGroups = new ArrayList<>();
+            int activeTiles = 0;
+            int allTiles = 0;
+            for (TileGroup group : groups.values()) {
+                allTiles += group.size();
+                if (group.isActive()) {
+                    activeGroups.add(group);
+                    activeTiles += group.size();
+                }
+            }
+            result = new Counters(activeGroups.toArray(new TileGroup[activeGroups.size()]), activeTiles, allTiles);
+            counters = result;
+        }
+        return result;
     }
 
-    public Map<EdgePattern, Integer> getPatterns() {
-        return Stream.ofAll(groups.values()).flatMap(TileGroup::getTiles)
+    private static Map<EdgePattern, Integer> createPatterns(Iterable<TileGroup> groups) {
+        return Stream.ofAll(groups).flatMap(TileGroup::getTiles)
             .map(Tile::getEdgePattern)
             .map(EdgePattern::canonize)
             .foldLeft(HashMap.empty(), (m, e) -> m.put(e, m.getOrElse(e, 0) + 1));
     }
 
+    private static Map<EdgePattern, Integer> removePattern(Map<EdgePattern, Integer> patterns, Tile tile) {
+        if (patterns == null) {
+            return null;
+        }
+        EdgePattern pattern = tile.getEdgePattern().canonize();
+        int count = patterns.get(pattern).get() - 1;
+        return count == 0 ? patterns.remove(pattern) : patterns.put(pattern, count);
+    }
+
+    /**
+     * Gets count of tiles for each (canonized) edge pattern.
+     *
+     * @return tile counts by edge pattern
+     */
+    public Map<EdgePattern, Integer> getPatterns() {
+        Map<EdgePattern, Integer> result = patterns;
+        if (result == null) {
+            result = createPatterns(groups.values());
+            patterns = result;
+        }
+        return result;
+    }
+
+    private Map<EdgePattern, Integer> getActivePatterns() {
+        Map<EdgePattern, Integer> result = activePatterns;
+        if (result == null) {
+            result = createPatterns(Vector.of(getCounters().activeGroups));
+            activePatterns = result;
+        }
+        return result;
+    }
+
     /**
      * Returns the total size of this pack, including active and non-active groups.
      *
      * @return the total size of this pack
      */
     public int totalSize() {
-        return Stream.ofAll(groups.values()).map(TileGroup::size).sum().intValue() - hiddenUnderHills;
+        return getCounters().allTiles - hiddenUnderHills;
     }
 
     /**
@@ -119,7 +187,7 @@ public class TilePack implements Serializable {
      * @return the size of this pack
      */
     public int size() {
-        return getActiveGroups().map(TileGroup::size).sum().intValue() - hiddenUnderHills;
+        return getCounters().activeTiles - hiddenUnderHills;
     }
 
     /**
@@ -196,18 +264,30 @@ public class TilePack implements Serializable {
     /**
      * Draws random tile  {@code index}.
      *
-     * @param radom random number generator
-     * @return a tuple containing both the tile drawn and the tile pack it belongs to
+     * @param random random number generator
+     * @return a tuple containing the tile drawn, the tile pack it belongs to and the generator for next draw
      * @throws IllegalArgumentException if {@code index} is not strictly less than the size of the pack
      */
-    public Tuple2<Tile, TilePack> drawTile(RandomGenerator random) {
-        int index = random.nextInt(getInternalSize());
-        for (TileGroup group : getActiveGroups()) {
+    public Tuple3<Tile, TilePack, RandomGenerator> drawTile(RandomGenerator random) {
+        Tuple2<Integer, RandomGenerator> rnd = random.nextInt(getInternalSize());
+        int index = rnd._1;
+        Counters c = getCounters();
+        for (int i = 0; i < c.activeGroups.length; i++) {
+            TileGroup group = c.activeGroups[i];
             if (index < group.size()) {
                 Vector<Tile> tiles = group.getTiles();
                 Tile tile = tiles.get(index);
                 group = group.setTiles(tiles.removeAt(index));
-                return new Tuple2<>(tile, updateGroup(group));
+                TilePack pack = updateGroup(group);
+                if (!group.isEmpty()) {
+                    // active groups are same, only drawn tile is removed
+                    TileGroup[] activeGroups = c.activeGroups.clone();
+                    activeGroups[i] = group;
+                    pack.counters = new Counters(activeGroups, c.activeTiles - 1, c.allTiles - 1);
+                    pack.patterns = removePattern(patterns, tile);
+                    pack.activePatterns = removePattern(activePatterns, tile);
+                }
+                return new Tuple3<>(tile, pack, rnd._2);
             } else {
                 index -= group.size();
             }
@@ -242,7 +322,7 @@ public class TilePack implements Serializable {
      * @throws IllegalArgumentException if there is no no tile with id {@code tileId}
      */
     public Tuple2<Tile, TilePack> drawTile(String tileId) {
-        for (TileGroup group: getActiveGroups()) {
+        for (TileGroup group: getCounters().activeGroups) {
             try {
                 return drawTile(group.getName(), tileId);
             } catch (IllegalArgumentException e) {
@@ -295,9 +375,14 @@ public class TilePack implements Serializable {
      * @return the number of matching tiles
      */
     public int getSizeForEdgePattern(EdgePattern edgePattern) {
-        return getActiveTiles()
-            .filter(tile -> edgePattern.isMatchingAnyRotation(tile.getEdgePattern()))
-            .size();
+        // matching any rotation doesn't depend on rotation of tile pattern, canonized patterns can be used
+        int size = 0;
+        for (Tuple2<EdgePattern, Integer> t : getActivePatterns()) {
+            if (edgePattern.isMatchingAnyRotation(t._1)) {
+                size += t._2;
+            }
+        }
+        return size;
     }
 
     /**
@@ -97,7 +97,8 @@ public class FeaturePointer implements BoardPointer {
 
     @Override
     public int hashCode() {
-        return Objects.hash(position, location);
+        // same value as Objects.hash(position, location), without varargs array
+        return 31 * (31 + Objects.hashCode(position)) + Objects.hashCode(location);
     }
 
     @Override
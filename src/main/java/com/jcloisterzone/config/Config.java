@@ -196,6 +196,7 @@ public class Config {
         private Map<String, String> tile_definitions;
         private HashMap<String, Object> game_annotation;
         private String area_highlight;
+        private Boolean checkpoint_validation;
 
         public boolean isAutostartEnabled() {
             return autostart != null && (autostart.getPreset() != null || Boolean.TRUE.equals(autostart.getOnline()));
@@ -238,6 +239,12 @@ public class Config {
         public void setArea_highlight(String area_highlight) {
             this.area_highlight = area_highlight;
         }
+        public Boolean getCheckpoint_validation() {
+            return checkpoint_validation;
+        }
+        public void setCheckpoint_validation(Boolean checkpoint_validation) {
+            this.checkpoint_validation = checkpoint_validation;
+        }
     }
 
     public static class ConfirmConfig {
@@ -318,6 +325,7 @@ public class Config {
     public static class AiConfig {
         private Integer place_tile_delay;
         private String class_name;
+        private Integer search_parallelism;
 
         public Integer getPlace_tile_delay() {
             return place_tile_delay;
@@ -331,6 +339,12 @@ public class Config {
         public void setClass_name(String class_name) {
             this.class_name = class_name;
         }
+        public Integer getSearch_parallelism() {
+            return search_parallelism;
+        }
+        public void setSearch_parallelism(Integer search_parallelism) {
+            this.search_parallelism = search_parallelism;
+        }
     }
 
     public static class PlayersConfig {
@@ -42,6 +42,7 @@ public class ConfigLoader {
     public static final int DEFAULT_SCORE_DISPLAY_DURATION = 9;
     public static final int DEFAULT_AI_PLACE_TILE_DELAY = 250;
     public static final String DEFAULT_AI_CLASS_NAME = LegacyAiPlayer.class.getName();
+    public static final int DEFAULT_AI_SEARCH_PARALLELISM = 1;
     public static final String DEFAULT_THEME = "light";
     public static final int DEFAULT_SCREENSHOT_SCALE = 120;
     public static final String DEFAULT_PLAY_ONLINE_HOST = "play.jcloisterzone.com";
@@ -144,6 +145,7 @@ public class ConfigLoader {
         config.setScore_display_duration(DEFAULT_SCORE_DISPLAY_DURATION);
         config.getAi().setPlace_tile_delay(DEFAULT_AI_PLACE_TILE_DELAY);
         config.getAi().setClass_name(DEFAULT_AI_CLASS_NAME);
+        config.getAi().setSearch_parallelism(DEFAULT_AI_SEARCH_PARALLELISM);
         config.setTheme(DEFAULT_THEME);
         config.setClient_name("");
         config.setPlay_online_host(DEFAULT_PLAY_ONLINE_HOST);
@@ -201,6 +203,7 @@ public class ConfigLoader {
         if (config.getAi() != null) {
             model.put("ai_place_tile_delay", config.getAi().getPlace_tile_delay());
             model.put("ai_class_name", config.getAi().getClass_name());
+            model.put("ai_search_parallelism", config.getAi().getSearch_parallelism());
         }
 
         PlayersConfig pc = config.getPlayers();
@@ -246,6 +249,7 @@ public class ConfigLoader {
                 model.put("game_annotation", indent(2, yaml.dumpAs(dc.getGame_annotation(), Tag.MAP, FlowStyle.BLOCK)));
             }
             model.put("area_highlight", dc.getArea_highlight());
+            model.put("checkpoint_validation", dc.getCheckpoint_validation());
         }
 
         String result = engine.transform(template, model);
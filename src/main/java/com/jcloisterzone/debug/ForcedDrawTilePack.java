@@ -6,6 +6,7 @@ import com.jcloisterzone.board.TilePack;
 import com.jcloisterzone.game.RandomGenerator;
 
 import io.vavr.Tuple2;
+import io.vavr.Tuple3;
 import io.vavr.collection.LinkedHashMap;
 import io.vavr.collection.Queue;
 
@@ -78,17 +79,15 @@ public class ForcedDrawTilePack extends TilePack {
     }
 
     @Override
-    public Tuple2<Tile, TilePack> drawTile(RandomGenerator random) {
+    public Tuple3<Tile, TilePack, RandomGenerator> drawTile(RandomGenerator random) {
         if (!drawQueue.isEmpty()) {
             Tuple2<String, Queue<String>> q = drawQueue.dequeue();
             Tuple2<Tile, TilePack> res = drawTile(q._1);
-            return res.map2(_pack -> {
-                ForcedDrawTilePack pack = (ForcedDrawTilePack) _pack;
-                return pack.setDrawList(q._2);
-            });
+            return new Tuple3<>(res._1, ((ForcedDrawTilePack) res._2).setDrawList(q._2), random);
         }
-        Tuple2<Tile, TilePack> res = super.drawTile(random);
-        return decreaseTileLimit(res);
+        Tuple3<Tile, TilePack, RandomGenerator> res = super.drawTile(random);
+        Tuple2<Tile, TilePack> limited = decreaseTileLimit(new Tuple2<>(res._1, res._2));
+        return new Tuple3<>(limited._1, limited._2, res._3);
     }
 
     @Override
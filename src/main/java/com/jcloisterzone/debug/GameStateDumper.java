@@ -14,14 +14,12 @@ public class GameStateDumper {
     public static void dumpFeatures(GameState state) {
         System.out.println("----- features < " + System.identityHashCode(state));
         Seq<Feature> features = state.getFeatureMap()
-            .values().distinct()
+            .values()
             .sortBy(f -> f.getClass().getSimpleName());
 
         for (Feature f : features) {
             System.out.println(f.toString() + " (" + System.identityHashCode(f) + ")");
-            List<FeaturePointer> places = state.getFeatureMap()
-                .filter((fp, _f) -> f == _f)
-                .keySet().toList().sortBy(fp -> fp.getPosition());
+            List<FeaturePointer> places = f.getPlaces().sortBy(fp -> fp.getPosition());
             System.out.println(" - places:");
             for (FeaturePointer fp : places) {
                 System.out.println("   - " + fp.toString());
@@ -3,8 +3,8 @@ package com.jcloisterzone.event;
 import com.jcloisterzone.event.play.PlayEvent;
 import com.jcloisterzone.game.state.GameState;
 
-import io.vavr.collection.Queue;
 import io.vavr.collection.Stream;
+import io.vavr.collection.Vector;
 
 //temporary event for transition to new architecture?
 public class GameChangedEvent extends Event {
@@ -12,8 +12,7 @@ public class GameChangedEvent extends Event {
     private final GameState prev;
     private final GameState curr;
 
-    private transient Queue<PlayEvent> newEvents;
-    private transient Queue<PlayEvent> removedEvents;
+    private transient int sharedPlayEvents = -1;
 
     public GameChangedEvent(GameState prev, GameState curr) {
         this.prev = prev;
@@ -28,26 +27,51 @@ public class GameChangedEvent extends Event {
         return prev;
     }
 
-    public Queue<PlayEvent> getNewPlayEvents() {
-        if (newEvents == null) {
+    /**
+     * Gets number of play events common to previous and current state.
+     * Event log is append-only, so events are same up to this index and states differ
+     * only in range {@code [shared, size)}. Undo truncates the log, so only removed
+     * range is non empty.
+     */
+    public int getSharedPlayEventsCount() {
+        if (sharedPlayEvents == -1) {
             if (prev == null || prev.getEvents() == null) {
-                newEvents = curr.getEvents();
+                sharedPlayEvents = 0;
             } else {
-                newEvents = curr.getEvents().removeAll(prev.getEvents());
+                sharedPlayEvents = countSharedEvents(prev.getEvents(), curr.getEvents());
             }
         }
-        return newEvents;
+        return sharedPlayEvents;
     }
 
-    public Queue<PlayEvent> getRemovedPlayEvents() {
-        if (removedEvents == null) {
-            if (prev == null || prev.getEvents() == null) {
-                removedEvents = Queue.empty();
+    private static int countSharedEvents(Vector<PlayEvent> a, Vector<PlayEvent> b) {
+        int size = Math.min(a.size(), b.size());
+        if (size == 0 || a.get(size - 1) == b.get(size - 1)) {
+            // one log is prefix of the other (new events or undo)
+            return size;
+        }
+        // logs diverged (undo followed by another move), find first different event
+        int lo = 0, hi = size - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a.get(mid) == b.get(mid)) {
+                lo = mid + 1;
             } else {
-                removedEvents = prev.getEvents().removeAll(curr.getEvents());
+                hi = mid;
             }
         }
-        return removedEvents;
+        return lo;
+    }
+
+    public Vector<PlayEvent> getNewPlayEvents() {
+        return curr.getEvents().drop(getSharedPlayEventsCount());
+    }
+
+    public Vector<PlayEvent> getRemovedPlayEvents() {
+        if (prev == null || prev.getEvents() == null) {
+            return Vector.empty();
+        }
+        return prev.getEvents().drop(getSharedPlayEventsCount());
     }
 
     public Stream<PlayEvent> getPlayEventsSymmetricDifference() {
@@ -8,6 +8,7 @@ import com.jcloisterzone.board.Position;
 import com.jcloisterzone.board.Rotation;
 import com.jcloisterzone.board.pointer.FeaturePointer;
 import com.jcloisterzone.figure.Pig;
+import com.jcloisterzone.game.state.FeatureMap;
 import com.jcloisterzone.game.state.GameState;
 
 import io.vavr.collection.List;
@@ -103,20 +104,24 @@ public class Farm extends TileFeature implements Scoreable, MultiTileFeature<Far
 
     private int getCityPoints(GameState state, int pointsPerCity) {
         int points = adjoiningCityOfCarcassonne ? pointsPerCity : 0;
-        Set<Feature> features = adjoiningCities.map(fp -> state.getFeature(fp));
-
-        for (Feature feature : features) {
+        FeatureMap featureMap = state.getFeatureMap();
+        // more adjoining places can belong to same city, each city is counted once
+        java.util.List<Feature> counted = new java.util.ArrayList<>();
+
+        for (FeaturePointer fp : adjoiningCities) {
+            Feature feature = featureMap.getCompletedCity(fp);
+            if (feature == null || counted.contains(feature)) {
+                continue;
+            }
+            counted.add(feature);
             if (feature instanceof Castle) {
                 // adjoining Castle provides 1 more point then common city
                 points += pointsPerCity + 1;
             } else {
-                City city = (City) feature;
-                if (city.isCompleted(state)) {
+                points += pointsPerCity;
+                if (((City) feature).isBesieged()) {
+                    // besieged cities has double value
                     points += pointsPerCity;
-                    if (city.isBesieged()) {
-                        // besieged cities has double value
-                        points += pointsPerCity;
-                    }
                 }
             }
         }
@@ -1,5 +1,7 @@
 package com.jcloisterzone.feature;
 
+import java.io.Serializable;
+
 import com.jcloisterzone.board.Location;
 import com.jcloisterzone.board.Position;
 import com.jcloisterzone.board.Rotation;
@@ -14,7 +16,9 @@ import io.vavr.collection.Stream;
 /**
  * Represents a flying machine from The Flier expansion.
  */
-public class FlyingMachine implements Structure {
+public class FlyingMachine implements Structure, Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private FeaturePointer place;
     private Location direction;
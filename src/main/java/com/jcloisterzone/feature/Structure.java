@@ -8,8 +8,6 @@ import com.jcloisterzone.figure.Special;
 import com.jcloisterzone.game.state.GameState;
 
 import io.vavr.Tuple2;
-import io.vavr.collection.HashSet;
-import io.vavr.collection.Set;
 import io.vavr.collection.Stream;
 
 /**
@@ -18,9 +16,8 @@ import io.vavr.collection.Stream;
 public interface Structure extends Feature {
 
     default Stream<Tuple2<Meeple, FeaturePointer>> getMeeples2(GameState state) {
-        Set<FeaturePointer> fps = HashSet.ofAll(getPlaces());
-        return Stream.ofAll(state.getDeployedMeeples())
-            .filter(t -> fps.contains(t._2));
+        return Stream.ofAll(getPlaces())
+            .flatMap(fp -> state.getMeeplesOnPlace(fp).map(m -> new Tuple2<>(m, fp)));
     }
 
     default Stream<Meeple> getMeeples(GameState state) {
@@ -14,7 +14,7 @@ public abstract class Meeple extends Figure<FeaturePointer> {
 
     private static final long serialVersionUID = 251811435063355665L;
 
-    private transient final Player player;
+    private final Player player;
 
     public Meeple(String id, Player player) {
         super(id);
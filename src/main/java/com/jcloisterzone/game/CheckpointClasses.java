@@ -0,0 +1,111 @@
+package com.jcloisterzone.game;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Exact list of classes which can appear in serialized {@link ReplayCheckpoint} state.
+ *
+ * Checkpoints come from save files and network, so nothing else is deserialized.
+ * When new class becomes part of game state it must be added here, otherwise
+ * its checkpoints are refused and game is loaded by full replay.
+ */
+final class CheckpointClasses {
+
+    private static final Set<String> ALLOWED = new HashSet<>();
+
+    static {
+        // arrays used by vavr collections and game state, by name of array class
+        add("",
+            "[I", "[J", "[Ljava.lang.Object;", "[Ljava.lang.Class;",
+            "[Lcom.jcloisterzone.feature.Feature;", "[Lcom.jcloisterzone.game.state.PlacedTile;",
+            "[[Lcom.jcloisterzone.game.state.PlacedTile;");
+        add("java.lang",
+            "Boolean", "Double", "Enum", "Integer", "Long", "Number");
+        add("io.vavr",
+            "Tuple2", "Tuple3");
+        add("io.vavr.collection",
+            "Array", "ArrayType$ObjectArrayType", "BitMappedTrie", "HashArrayMappedTrieModule$ArrayNode",
+            "HashArrayMappedTrieModule$EmptyNode", "HashArrayMappedTrieModule$IndexedNode",
+            "HashArrayMappedTrieModule$LeafList", "HashArrayMappedTrieModule$LeafSingleton", "HashMap",
+            "HashSet$SerializationProxy", "LinkedHashMap", "LinkedHashSet$SerializationProxy",
+            "List$Cons$SerializationProxy", "List$Nil", "Queue", "Vector");
+        add("io.vavr.control",
+            "Option$None", "Option$Some");
+
+        add("com.jcloisterzone",
+            "Expansion", "ExpansionType", "Player", "PlayerScore", "PointCategory");
+        add("com.jcloisterzone.action",
+            "AbstractPlayerAction", "BazaarBidAction", "BazaarSelectBuyOrSellAction", "BazaarSelectTileAction",
+            "BridgeAction", "CaptureFollowerAction", "CastleAction", "ConfirmAction",
+            "CornCircleSelectDeployOrRemoveAction", "EscapeAction", "FairyNextToAction", "FairyOnTileAction",
+            "FerriesAction", "FlockAction", "GoldPieceAction", "LittleBuildingAction", "MeepleAction",
+            "MoveDragonAction", "NeutralFigureAction", "PrincessAction", "RemovMageOrWithAction", "ReturnMeepleAction",
+            "SelectFollowerAction", "SelectPrisonerToExchangeAction", "SelectTileAction", "TilePlacementAction",
+            "TowerPieceAction", "TunnelAction");
+        add("com.jcloisterzone.board",
+            "Corner", "Edge", "EdgePattern", "EdgeType", "Location", "PlacementOption", "Position", "Rotation",
+            "ShortEdge", "Tile", "TileGroup", "TileModifier", "TilePack", "TileSymmetry");
+        add("com.jcloisterzone.board.pointer",
+            "FeaturePointer", "MeeplePointer");
+        add("com.jcloisterzone.event.play",
+            "CastleCreated", "DoubleTurnEvent", "FlierRollEvent", "FollowerCaptured", "MeepleDeployed",
+            "MeepleReturned", "NeutralFigureMoved", "NeutralFigureReturned", "PlayEvent", "PlayEvent$PlayEventMeta",
+            "PlayerTurnEvent", "PrisonersExchangeEvent", "ScoreEvent", "TileDiscardedEvent", "TilePlacedEvent",
+            "TokenPlacedEvent", "TokenReceivedEvent");
+        add("com.jcloisterzone.feature",
+            "Bridge", "Castle", "City", "Cloister", "CompletableFeature", "Farm", "FlyingMachine", "Quarter", "River",
+            "Road", "TileFeature", "Tower", "YagaHut");
+        add("com.jcloisterzone.figure",
+            "Barn", "BigFollower", "Builder", "Figure", "Follower", "Mayor", "Meeple", "Phantom", "Pig", "Shepherd",
+            "SmallFollower", "Special", "Wagon");
+        add("com.jcloisterzone.figure.neutral",
+            "Count", "Dragon", "Fairy", "Mage", "NeutralFigure", "Witch");
+        add("com.jcloisterzone.game",
+            "Capability", "PlayerSlot", "PlayerSlot$SlotState", "RandomGenerator", "Rule");
+        add("com.jcloisterzone.game.capability",
+            "AbbeyCapability", "AbbeyCapability$AbbeyToken", "BarnCapability", "BazaarCapability",
+            "BazaarCapabilityModel", "BazaarItem", "BigFollowerCapability", "BridgeCapability",
+            "BridgeCapability$BrigeToken", "BuilderCapability", "BuilderState", "CastleCapability",
+            "CastleCapability$CastleToken", "CathedralCapability", "CornCircleCapability",
+            "CornCircleCapability$CornCircleModifier", "CountCapability", "CountCapabilityModel", "DragonCapability",
+            "FairyCapability", "FerriesCapability", "FerriesCapability$FerryToken", "FerriesCapabilityModel",
+            "FestivalCapability", "FlierCapability", "GermanMonasteriesCapability", "GoldminesCapability",
+            "GoldminesCapability$GoldToken", "HillCapability", "InnCapability", "KingAndRobberBaronCapability",
+            "KingAndRobberBaronCapability$BiggestFeatureAward", "KingAndRobberBaronCapability$MaxCompletedSize",
+            "LittleBuildingsCapability", "LittleBuildingsCapability$LittleBuilding", "MageAndWitchCapability",
+            "MayorCapability", "PhantomCapability", "PigCapability", "PigHerdCapability", "PortalCapability", "PrincessCapability",
+            "RiverCapability", "SheepCapability", "SheepCapability$SheepToken", "ShrineCapability", "SiegeCapability",
+            "StandardGameCapability", "TowerCapability", "TowerCapability$TowerToken", "TradeGoodsCapability",
+            "TradeGoodsCapability$TradeGoods", "TunnelCapability", "TunnelCapability$Tunnel", "VineyardCapability",
+            "WagonCapability", "WindRoseCapability", "WindRoseCapability$WindRoseModifier", "YagaCapability");
+        add("com.jcloisterzone.game.phase",
+            "AbbeyPhase", "ActionPhase", "BazaarPhase", "CastlePhase", "ChangeFerriesPhase", "CleanUpTurnPartPhase",
+            "CleanUpTurnPhase", "CocCountPhase", "CocFinalScoringPhase", "CocFollowerPhase", "CocScoringPhase",
+            "CommitAbbeyPassPhase", "CommitActionPhase", "CornCirclePhase", "DragonMovePhase", "DragonPhase",
+            "EscapePhase", "FairyPhase", "GameOverPhase", "GoldPiecePhase", "MageAndWitchPhase", "PhantomPhase",
+            "PlaceFerryPhase", "ScoringPhase", "ShepherdPhase", "TilePhase", "TowerCapturePhase", "WagonPhase");
+        add("com.jcloisterzone.game.state",
+            "ActionsState", "CapabilitiesState", "FeatureMap$SerializedForm", "Flag", "GameState", "MemoizedValue",
+            "NeutralFiguresState", "PlacedTile", "PlacedTileIndex", "PlacedTunnelToken", "PlayersState");
+        add("com.jcloisterzone.wsio.message",
+            "BazaarBuyOrSellMessage$BuyOrSellOption", "CornCircleRemoveOrDeployMessage$CornCircleOption",
+            "FlockMessage$FlockOption", "ReturnMeepleMessage$ReturnMeepleSource");
+    }
+
+    private CheckpointClasses() {
+    }
+
+    private static void add(String pkg, String... names) {
+        for (String name : names) {
+            ALLOWED.add(pkg.isEmpty() ? name : pkg + "." + name);
+        }
+    }
+
+    /**
+     * Checks class name as returned by {@link Class#getName()}.
+     */
+    static boolean isAllowed(String name) {
+        return ALLOWED.contains(name);
+    }
+}
@@ -1,5 +1,6 @@
 package com.jcloisterzone.game;
 
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.function.Function;
@@ -46,7 +47,7 @@ import io.vavr.Tuple2;
 import io.vavr.collection.Array;
 import io.vavr.collection.LinkedHashMap;
 import io.vavr.collection.List;
-import io.vavr.collection.Queue;
+import io.vavr.collection.Vector;
 
 
 /**
@@ -57,6 +58,11 @@ public class Game implements EventProxy {
 
     protected final transient Logger logger = LoggerFactory.getLogger(getClass());
 
+    /** number of replay messages between state checkpoints */
+    public static final int CHECKPOINT_INTERVAL = 50;
+    /** number of newest checkpoints kept */
+    public static final int CHECKPOINT_LIMIT = 2;
+
     private Connection connection;
 
     private final String gameId;
@@ -75,6 +81,7 @@ public class Game implements EventProxy {
     private boolean aiPlayersRegistered;
 
     private List<UndoHistoryItem> undoHistory = List.empty();
+    private List<ReplayCheckpoint> checkpoints = List.empty(); // newest first
 
     private final EventBus eventBus = new EventBus(new EventBusExceptionHandler("game event bus"));
 
@@ -135,6 +142,13 @@ public class Game implements EventProxy {
         return replay;
     }
 
+    /**
+     * Gets state checkpoints, newest first.
+     */
+    public List<ReplayCheckpoint> getCheckpoints() {
+        return checkpoints;
+    }
+
     public void replaceState(GameState state) {
         if (this.state == state) {
             return;
@@ -165,7 +179,7 @@ public class Game implements EventProxy {
 
         if (logger.isDebugEnabled()) {
             StringBuilder sb;
-            Queue<PlayEvent> playEvents = ev.getNewPlayEvents();
+            Vector<PlayEvent> playEvents = ev.getNewPlayEvents();
             if (!playEvents.isEmpty()) {
                 sb = new StringBuilder();
                 sb.append("play events:");
@@ -224,11 +238,28 @@ public class Game implements EventProxy {
         Tuple2<UndoHistoryItem, List<UndoHistoryItem>> head = undoHistory.pop2();
         undoHistory = head._2;
         replay = head._1.getReplay();
+        int replaySize = replay.size();
+        checkpoints = checkpoints.filter(cp -> cp.getReplayIndex() <= replaySize);
         // note: seed should be unchanged for current usage
         // when seed is changed undo history is cleared
         replaceState(head._1.getState());
     }
 
+    /**
+     * Called when server refused move sent by this client. State is changed only by messages broadcast
+     * by server, thus it's still in sync and it's posted again to let player choose other move.
+     *
+     * @return false if move was sent by own AI player, which would repeat it and game can't continue
+     */
+    public boolean handleMoveRefused() {
+        Player player = state.getActivePlayer();
+        if (player != null && player.getSlot().isOwn() && player.getSlot().isAi()) {
+            return false;
+        }
+        post(new GameChangedEvent(state, state));
+        return true;
+    }
+
     public String getMessageId() {
         return getMessageId(state);
     }
@@ -253,18 +284,7 @@ public class Game implements EventProxy {
             }
         }
         // first, try to derive new state to verify that message is valid
-        long origSalt = phaseReducer.getRandom().getSalt();
-        GameState newState = null;
-        try {
-            if (msg instanceof WsSaltMessage) {
-                phaseReducer.getRandom().setSalt(((WsSaltMessage)msg).getSalt());
-            }
-            newState = phaseReducer.apply(state, msg);
-        } catch (Exception e) {
-            // revert salt back as message never received
-            phaseReducer.getRandom().setSalt(origSalt);
-            throw e;
-        }
+        GameState newState = phaseReducer.apply(state, msg);
 
         Player oldActivePlayer = state.getActivePlayer();
         Player newActivePlayer = newState.getActivePlayer();
@@ -278,9 +298,17 @@ public class Game implements EventProxy {
         	clearUndo();
         }
         replay = replay.prepend(msg);
+        createCheckpoint(replay.size(), newState);
         replaceState(newState);
     }
 
+    private void createCheckpoint(int replayIndex, GameState state) {
+        if (replayIndex % CHECKPOINT_INTERVAL == 0) {
+            ReplayCheckpoint checkpoint = new ReplayCheckpoint(replayIndex, messageIdTurnSequence, state);
+            checkpoints = checkpoints.filter(cp -> cp.getReplayIndex() < replayIndex).prepend(checkpoint).take(CHECKPOINT_LIMIT);
+        }
+    }
+
     private void updateMessageIdSequence(GameState oldState, GameState newState) {
         if (oldState.getTurnNumber() == newState.getTurnNumber()) {
             messageIdTurnSequence++;
@@ -340,13 +368,26 @@ public class Game implements EventProxy {
     }
 
     public void start(GameController gc, List<WsReplayableMessage> replay, HashMap<String, Object> savedGameAnnotations) {
+        start(gc, replay, List.empty(), savedGameAnnotations);
+    }
+
+    /**
+     * Starts game and applies replay. When some of given checkpoints matches the replay,
+     * game state is restored from nearest one and only remaining messages are replayed.
+     *
+     * @param gc game controller
+     * @param replay messages to replay
+     * @param checkpoints available state checkpoints, can be empty
+     * @param savedGameAnnotations game annotations from saved game or {@code null}
+     */
+    public void start(GameController gc, List<WsReplayableMessage> replay, List<ReplayCheckpoint> checkpoints, HashMap<String, Object> savedGameAnnotations) {
         this.replay = replay.reverse();
-        phaseReducer = new GameStatePhaseReducer(setup, initialSeed);
+        phaseReducer = new GameStatePhaseReducer(setup);
         GameStateBuilder builder = new GameStateBuilder(setup, slots, gc.getConfig());
+        DebugConfig debugConfig = gc.getConfig().getDebug();
         if (savedGameAnnotations != null) {
             gameAnnotations = savedGameAnnotations;
         } else {
-            DebugConfig debugConfig = gc.getConfig().getDebug();
             if (debugConfig != null) {
                 gameAnnotations = debugConfig.getGame_annotation();
             }
@@ -365,20 +406,72 @@ public class Game implements EventProxy {
         gc.onGameStarted(this);
 
         // 4. trigger initial board changes - make it after started event to propagate all event correctly to GameView
+        int replaySize = replay.size();
+        // last message is always replayed to get its message id
+        ReplayCheckpoint checkpoint = checkpoints
+            .filter(cp -> cp.getReplayIndex() > 0 && cp.getReplayIndex() < replaySize)
+            .maxBy(ReplayCheckpoint::getReplayIndex)
+            .getOrNull();
+        this.checkpoints = checkpoints.filter(cp -> cp.getReplayIndex() <= replaySize).sortBy(cp -> -cp.getReplayIndex()).take(CHECKPOINT_LIMIT);
+
+        GameState readyState = builder.createReadyState(state).setRandom(new RandomGenerator(initialSeed));
+        if (checkpoint != null) {
+            try {
+                checkpoint.unpack(slots);
+            } catch (UncheckedIOException | IllegalArgumentException e) {
+                // eg. checkpoint created by older version
+                logger.warn("Checkpoint can't be loaded, replaying whole game", e);
+                checkpoint = null;
+            }
+        }
+        if (checkpoint == null) {
+            state = applyReplay(enterFirstPhase(readyState), replay, 0);
+        } else {
+            messageIdTurnSequence = checkpoint.getMessageIdTurnSequence();
+            state = applyReplay(checkpoint.getState(), replay.drop(checkpoint.getReplayIndex()), checkpoint.getReplayIndex());
+            if (Boolean.TRUE.equals(debugConfig == null ? null : debugConfig.getCheckpoint_validation())) {
+                validateCheckpoint(readyState, replay, checkpoint, state);
+            }
+        }
+        replaceState(state);
+    }
+
+    private GameState enterFirstPhase(GameState state) {
         Phase firstPhase = phaseReducer.getFirstPhase();
-        state = builder.createReadyState(state);
         state = state.setPhase(firstPhase.getClass());
-        state = phaseReducer.applyStepResult(firstPhase.enter(state));
-        for (WsReplayableMessage msg : replay) {
+        return phaseReducer.applyStepResult(firstPhase.enter(state));
+    }
+
+    private GameState applyReplay(GameState state, List<WsReplayableMessage> messages, int replayIndex) {
+        for (WsReplayableMessage msg : messages) {
             msg.setMessageId(getMessageId(state));
-            if (msg instanceof WsSaltMessage) {
-                phaseReducer.getRandom().setSalt(((WsSaltMessage) msg).getSalt());
-            }
             GameState prev = state;
             state = phaseReducer.apply(state, msg);
             updateMessageIdSequence(prev, state);
+            createCheckpoint(++replayIndex, state);
         }
-        replaceState(state);
+        return state;
+    }
+
+    /**
+     * Cross-checks state loaded from checkpoint against state created by full replay.
+     */
+    private void validateCheckpoint(GameState readyState, List<WsReplayableMessage> replay, ReplayCheckpoint checkpoint, GameState loaded) {
+        List<ReplayCheckpoint> loadedCheckpoints = checkpoints;
+        int loadedSequence = messageIdTurnSequence;
+        messageIdTurnSequence = 0;
+        GameState replayed = applyReplay(enterFirstPhase(readyState), replay, 0);
+        checkpoints = loadedCheckpoints;
+
+        String difference = ReplayCheckpoint.findDifference(loaded, replayed);
+        if (difference == null && loadedSequence != messageIdTurnSequence) {
+            difference = "message id";
+        }
+        messageIdTurnSequence = loadedSequence;
+        if (difference != null) {
+            throw new IllegalStateException("State loaded from " + checkpoint + " differs from replayed state: " + difference);
+        }
+        logger.info("Checkpoint validated, {} of {} messages skipped", checkpoint.getReplayIndex(), replay.size());
     }
 
     private void createAiPlayers(GameController gc) {
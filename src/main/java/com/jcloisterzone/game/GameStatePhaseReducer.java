@@ -1,7 +1,12 @@
 package com.jcloisterzone.game;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,23 +48,33 @@ import com.jcloisterzone.game.phase.WagonPhase;
 import com.jcloisterzone.game.state.GameState;
 import com.jcloisterzone.wsio.MessageParser;
 import com.jcloisterzone.wsio.message.WsInGameMessage;
+import com.jcloisterzone.wsio.message.WsSaltMessage;
 
 import io.vavr.Function2;
 
 /**
  * Derives new game state by applying WsMessage.
+ *
+ * Reducer is stateless once created. Phases don't keep any game data and random generator
+ * is part of the game state, so single reducer instance can be shared by many games
+ * and search threads.
  */
 public class GameStatePhaseReducer implements Function2<GameState, WsInGameMessage, GameState> {
 
     protected final transient Logger logger = LoggerFactory.getLogger(getClass());
 
+    // handlers dispatch table, built once for each phase class
+    private static final ClassValue<Map<Class<?>, MethodHandle>> HANDLERS = new ClassValue<Map<Class<?>, MethodHandle>>() {
+        @Override
+        protected Map<Class<?>, MethodHandle> computeValue(Class<?> phaseClass) {
+            return createHandlers(phaseClass);
+        }
+    };
+
     private final ClassToInstanceMap<Phase> phases = MutableClassToInstanceMap.create();
     private final Phase firstPhase;
-    private final RandomGenerator random;
-
-    public GameStatePhaseReducer(GameSetup setup, long initialSeed) {
-        random = new RandomGenerator(initialSeed);
 
+    public GameStatePhaseReducer(GameSetup setup) {
         Phase over, last, next = null;
         //if there isn't assignment - phase is out of standard flow
         over = addPhase(setup, next, GameOverPhase.class);
@@ -116,7 +131,7 @@ public class GameStatePhaseReducer implements Function2<GameState, WsInGameMessa
 
         Phase phase;
         try {
-            phase = phaseClass.getConstructor(RandomGenerator.class).newInstance(random);
+            phase = phaseClass.getConstructor().newInstance();
         } catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException
                 | NoSuchMethodException | SecurityException e) {
             throw new RuntimeException(e);
@@ -128,25 +143,43 @@ public class GameStatePhaseReducer implements Function2<GameState, WsInGameMessa
         return phase;
     }
 
-    private StepResult applyMessageOnPhase(Phase phase, GameState state, WsInGameMessage message) {
-        for (Method m : phase.getClass().getMethods()) {
+    /**
+     * Collects phase message handlers by exact message class.
+     * Handlers are adapted to (Phase, GameState, WsInGameMessage)StepResult type to be invoked exactly.
+     */
+    private static Map<Class<?>, MethodHandle> createHandlers(Class<?> phaseClass) {
+        MethodType handlerType = MethodType.methodType(StepResult.class, Phase.class, GameState.class, WsInGameMessage.class);
+        Map<Class<?>, MethodHandle> handlers = new HashMap<>();
+        for (Method m : phaseClass.getMethods()) {
             if (m.getAnnotation(PhaseMessageHandler.class) == null) {
                 continue;
             }
             Class<?> params[] = m.getParameterTypes();
             assert params.length == 2;
+            assert m.getReturnType().equals(StepResult.class) : String.format("Bad return type %s.%s()", phaseClass.getSimpleName(), m.getName());
 
-            Class<?> acceptedMessageClass = params[1];
-            // check exact class instead of isInstance -
+            // exact class is used as key instead of isInstance check -
             // eg. DeployFlierMessage extends DeployMeepleMessage but can have separate handlers
-            if (!acceptedMessageClass.equals(message.getClass())) {
+            Class<?> acceptedMessageClass = params[1];
+            if (handlers.containsKey(acceptedMessageClass)) {
                 continue;
             }
             try {
-                assert m.getReturnType().equals(StepResult.class) : String.format("Bad return type %s.%s()", phase.getClass().getSimpleName(), m.getName());
-                return (StepResult) m.invoke(phase, state, message);
-            } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-                throw new RuntimeException(e.getCause() == null ? e : e.getCause());
+                handlers.put(acceptedMessageClass, MethodHandles.publicLookup().unreflect(m).asType(handlerType));
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return handlers;
+    }
+
+    private StepResult applyMessageOnPhase(Phase phase, GameState state, WsInGameMessage message) {
+        MethodHandle handler = HANDLERS.get(phase.getClass()).get(message.getClass());
+        if (handler != null) {
+            try {
+                return (StepResult) handler.invokeExact(phase, state, message);
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
             }
         }
 
@@ -166,6 +199,9 @@ public class GameStatePhaseReducer implements Function2<GameState, WsInGameMessa
 
     @Override
     public GameState apply(GameState state, WsInGameMessage message) {
+        if (message instanceof WsSaltMessage) {
+            state = state.setRandom(state.getRandom().setSalt(((WsSaltMessage) message).getSalt()));
+        }
         Phase phase = getPhase(state.getPhase());
         StepResult stepResult = applyMessageOnPhase(phase, state, message);
         return applyStepResult(stepResult);
@@ -178,8 +214,4 @@ public class GameStatePhaseReducer implements Function2<GameState, WsInGameMessa
     public Phase getPhase(Class<? extends Phase> cls) {
         return phases.get(cls);
     }
-
-    public RandomGenerator getRandom() {
-        return random;
-    }
 }
@@ -1,25 +1,86 @@
 package com.jcloisterzone.game;
 
-import java.util.Random;
+import java.io.Serializable;
 
-public class RandomGenerator {
+import com.jcloisterzone.Immutable;
 
-    private final Random random;
-    private long salt = 0;
+import io.vavr.Tuple2;
+
+/**
+ * Random number generator carried in game state.
+ *
+ * Generator is a value, each draw returns new generator together with the number.
+ * So states can be shared by several threads and undo or checkpoint restores also the generator.
+ * Numbers are same as produced by {@link java.util.Random} created with same seed.
+ */
+@Immutable
+public class RandomGenerator implements Serializable {
+
+    private static final long serialVersionUID = 2L;
+
+    // linear congruential generator constants used by java.util.Random
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private final long seed;
+    private final long salt;
 
     public RandomGenerator(long seed) {
-        random = new Random(seed);
+        this((seed ^ MULTIPLIER) & MASK, 0L);
     }
 
-    public void setSalt(long salt) {
+    private RandomGenerator(long seed, long salt) {
+        this.seed = seed;
         this.salt = salt;
     }
 
+    public RandomGenerator setSalt(long salt) {
+        if (salt == this.salt) return this;
+        return new RandomGenerator(seed, salt);
+    }
+
     public long getSalt() {
         return salt;
     }
 
-    public int nextInt(int bound) {
-        return (random.nextInt(bound) + ((int)(salt % bound))) % bound;
+    private static long nextSeed(long seed) {
+        return (seed * MULTIPLIER + ADDEND) & MASK;
+    }
+
+    /**
+     * Returns random number from interval {@code [0, bound)} and generator for next draw.
+     */
+    public Tuple2<Integer, RandomGenerator> nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        // same algorithm as java.util.Random.nextInt(int)
+        long s = nextSeed(seed);
+        int r = (int) (s >>> 17);
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            r = (int) ((bound * (long) r) >> 31);
+        } else {
+            for (int u = r; u - (r = u % bound) + m < 0; ) {
+                s = nextSeed(s);
+                u = (int) (s >>> 17);
+            }
+        }
+        int value = (r + ((int)(salt % bound))) % bound;
+        return new Tuple2<>(value, new RandomGenerator(s, salt));
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(seed) * 31 + Long.hashCode(salt);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof RandomGenerator)) return false;
+        RandomGenerator other = (RandomGenerator) obj;
+        return seed == other.seed && salt == other.salt;
     }
-}
\ No newline at end of file
+}
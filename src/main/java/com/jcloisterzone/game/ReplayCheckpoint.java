@@ -0,0 +1,301 @@
+package com.jcloisterzone.game;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.jcloisterzone.PlayerScore;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.board.pointer.FeaturePointer;
+import com.jcloisterzone.event.play.PlayEvent;
+import com.jcloisterzone.game.state.GameState;
+
+import io.vavr.collection.Seq;
+
+/**
+ * Snapshot of game state taken after {@code replayIndex} replay messages.
+ * Game loading starts from nearest checkpoint and replays only the remaining messages.
+ *
+ * State (including random generator and its current salt) is stored as gzipped java serialization
+ * encoded to base64, so checkpoint can be part of JSON save file or game message.
+ * Loading is restricted to {@link CheckpointClasses} and bounded in size, depth and number of objects.
+ */
+public class ReplayCheckpoint implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // limits are far above real states (hundreds of kB, graph depth below 30, tens of thousands objects)
+    static final long MAX_BYTES = 16 * 1024 * 1024;
+    static final int MAX_DEPTH = 64;
+    static final int MAX_REFERENCES = 1_000_000;
+    static final int MAX_ARRAY_LENGTH = 100_000;
+
+    private int replayIndex;
+    private int messageIdTurnSequence;
+    private String data;
+
+    private transient GameState state;
+
+    public ReplayCheckpoint() {
+    }
+
+    public ReplayCheckpoint(int replayIndex, int messageIdTurnSequence, GameState state) {
+        this.replayIndex = replayIndex;
+        this.messageIdTurnSequence = messageIdTurnSequence;
+        this.state = state;
+    }
+
+    /**
+     * Gets number of replay messages applied to checkpoint state.
+     */
+    public int getReplayIndex() {
+        return replayIndex;
+    }
+
+    public int getMessageIdTurnSequence() {
+        return messageIdTurnSequence;
+    }
+
+    /**
+     * Serializes state if it was not serialized yet. Must be called before checkpoint
+     * is written to save file or sent to other client.
+     *
+     * @return this checkpoint
+     */
+    public ReplayCheckpoint pack() {
+        if (data == null) {
+            try {
+                ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                try (ObjectOutputStream oos = new ObjectOutputStream(new GZIPOutputStream(bos))) {
+                    oos.writeObject(state);
+                }
+                data = Base64.getEncoder().encodeToString(bos.toByteArray());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Deserializes state if needed. Player slots in restored state are replaced by
+     * slots of the loading game, because slot ownership is different on each client.
+     *
+     * @param slots player slots of loading game
+     */
+    public void unpack(PlayerSlot[] slots) {
+        if (state != null) {
+            return;
+        }
+        if (data == null) {
+            throw new IllegalArgumentException("Invalid checkpoint, no data");
+        }
+        try (ObjectInputStream ois = new CheckpointInputStream(new LimitedInputStream(
+                new GZIPInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(data))), MAX_BYTES), slots)) {
+            state = (GameState) ois.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IllegalArgumentException("Invalid checkpoint", e);
+        }
+    }
+
+    /**
+     * Gets serialized state, {@code null} until checkpoint is packed.
+     */
+    public String getData() {
+        return data;
+    }
+
+    public GameState getState() {
+        return state;
+    }
+
+    /**
+     * Compares state loaded from checkpoint with state created by full replay.
+     *
+     * Serialized forms can't be compared directly, play events contain wall clock time
+     * and object sharing differs between the states. So only observable parts of state
+     * are compared: position hash (placed tiles, meeples, neutral figures, scores), phase, turn,
+     * tile pack, features, score stats, events and random generator.
+     *
+     * @return name of first different part or {@code null} if states match
+     */
+    public static String findDifference(GameState state, GameState other) {
+        if (state.getPositionHash() != other.getPositionHash()) {
+            return "position hash";
+        }
+        if (state.getPhase() != other.getPhase() || state.getTurnNumber() != other.getTurnNumber()
+                || !Objects.equals(state.getTurnPlayer(), other.getTurnPlayer())) {
+            return "phase";
+        }
+        if (!describeTilePack(state).equals(describeTilePack(other))) {
+            return "tile pack";
+        }
+        if (!describeFeatures(state).equals(describeFeatures(other))) {
+            return "features";
+        }
+        if (!state.getPlayers().getScore().map(PlayerScore::getStats).equals(other.getPlayers().getScore().map(PlayerScore::getStats))) {
+            return "score";
+        }
+        if (!state.getEvents().map(PlayEvent::toString).equals(other.getEvents().map(PlayEvent::toString))) {
+            return "events";
+        }
+        if (!Objects.equals(state.getRandom(), other.getRandom())) {
+            return "random generator";
+        }
+        return null;
+    }
+
+    private static Seq<String> describeTilePack(GameState state) {
+        Tile drawn = state.getDrawnTile();
+        return state.getTilePack().getGroups().values()
+            .map(g -> g.getName() + (g.isActive() ? "" : "(inactive)") + g.getTiles().map(Tile::getId))
+            .prepend(drawn == null ? "" : drawn.getId());
+    }
+
+    private static Seq<String> describeFeatures(GameState state) {
+        return state.getFeatureMap().values()
+            .map(f -> f.getClass().getSimpleName() + f.getPlaces().map(FeaturePointer::toString).sorted())
+            .sorted();
+    }
+
+    @Override
+    public String toString() {
+        return "ReplayCheckpoint(" + replayIndex + ")";
+    }
+
+    /**
+     * Checkpoints come from save files and network, only classes listed in {@link CheckpointClasses} can be deserialized.
+     * Depth, array length and number of objects are limited by serialization filter where runtime supports it
+     * (Java 9+ or Java 8u121+), number of objects is also counted independently of filter.
+     */
+    private static class CheckpointInputStream extends ObjectInputStream {
+
+        private static final String FILTER_PATTERN = "maxdepth=" + MAX_DEPTH + ";maxrefs=" + MAX_REFERENCES
+            + ";maxarray=" + MAX_ARRAY_LENGTH + ";maxbytes=" + MAX_BYTES;
+
+        private final PlayerSlot[] slots;
+        private int objects;
+
+        public CheckpointInputStream(InputStream in, PlayerSlot[] slots) throws IOException {
+            super(in);
+            this.slots = slots;
+            enableResolveObject(true);
+            setLimits();
+        }
+
+        private void setLimits() throws IOException {
+            try {
+                // public API since Java 9, sources are Java 8 compatible
+                Class<?> filterClass = Class.forName("java.io.ObjectInputFilter");
+                Class<?> configClass = Class.forName("java.io.ObjectInputFilter$Config");
+                Object filter = configClass.getMethod("createFilter", String.class).invoke(null, FILTER_PATTERN);
+                ObjectInputStream.class.getMethod("setObjectInputFilter", filterClass).invoke(this, filter);
+                return;
+            } catch (ClassNotFoundException | NoSuchMethodException e) {
+                // Java 8
+            } catch (ReflectiveOperationException e) {
+                throw new IOException("Can't set checkpoint limits", e);
+            }
+            try {
+                Class<?> filterClass = Class.forName("sun.misc.ObjectInputFilter");
+                Class<?> configClass = Class.forName("sun.misc.ObjectInputFilter$Config");
+                Object filter = configClass.getMethod("createFilter", String.class).invoke(null, FILTER_PATTERN);
+                Method setFilter = configClass.getMethod("setObjectInputFilter", ObjectInputStream.class, filterClass);
+                setFilter.invoke(null, this, filter);
+            } catch (ClassNotFoundException | NoSuchMethodException e) {
+                // Java 8 before update 121, only byte and object count limits apply
+            } catch (ReflectiveOperationException e) {
+                throw new IOException("Can't set checkpoint limits", e);
+            }
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            if (!CheckpointClasses.isAllowed(desc.getName())) {
+                throw new InvalidClassException(desc.getName(), "Class is not allowed in checkpoint");
+            }
+            return super.resolveClass(desc);
+        }
+
+        @Override
+        protected Object resolveObject(Object obj) throws IOException {
+            if (++objects > MAX_REFERENCES) {
+                throw new InvalidObjectException("Too many objects in checkpoint");
+            }
+            if (obj instanceof PlayerSlot) {
+                int number = ((PlayerSlot) obj).getNumber();
+                if (number < 0 || number >= slots.length || slots[number] == null) {
+                    throw new InvalidObjectException("Checkpoint doesn't match player slots");
+                }
+                return slots[number];
+            }
+            return obj;
+        }
+    }
+
+    /**
+     * Fails when more than {@code limit} bytes are read, protects against highly compressed data.
+     */
+    private static class LimitedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        public LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        private void consumed(long n) throws IOException {
+            remaining -= n;
+            if (remaining < 0) {
+                throw new IOException("Checkpoint is too large");
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                consumed(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                consumed(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            consumed(skipped);
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.jcloisterzone.board.Location;
 import com.jcloisterzone.board.Position;
 import com.jcloisterzone.board.pointer.FeaturePointer;
 import com.jcloisterzone.feature.Farm;
+import com.jcloisterzone.feature.Feature;
 import com.jcloisterzone.figure.Barn;
 import com.jcloisterzone.figure.MeepleIdProvider;
 import com.jcloisterzone.figure.Special;
@@ -82,10 +83,8 @@ public final class BarnCapability extends Capability<FeaturePointer> {
     }
 
     private Tuple2<FeaturePointer, Farm> getFarmLocationPartOf(GameState state, FeaturePointer fp) {
-        return state.getFeatureMap()
-            .find(t -> fp.isPartOf(t._1))
-            .map(t -> t.map2(f -> (Farm) f))
-            .getOrNull();
+        Tuple2<FeaturePointer, Feature> t = state.getFeaturePartOf2(fp);
+        return t == null ? null : t.map2(f -> (Farm) f);
     }
 
     private boolean containsCorner(Tuple2<FeaturePointer, Farm> t, Corner c) {
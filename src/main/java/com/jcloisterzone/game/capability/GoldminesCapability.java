@@ -21,6 +21,7 @@ import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.ScoreFeatureReducer;
 import com.jcloisterzone.game.Token;
 import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.game.state.PositionHash;
 import com.jcloisterzone.game.state.PlacedTile;
 import com.jcloisterzone.game.state.PlayersState;
 import com.jcloisterzone.reducers.AddPoints;
@@ -140,7 +141,13 @@ public class GoldminesCapability  extends Capability<Map<Position, Integer>> {
             player = player.getNextPlayer(state);
         }
 
+        long hash = state.getPositionHash();
+        for (Entry<Position, Integer> entry : initialGoldCount.entrySet()) {
+            Position pos = entry.getKey();
+            hash ^= PositionHash.gold(pos, entry.getValue()) ^ PositionHash.gold(pos, placedGold.get(pos).getOrElse(0));
+        }
         state = setModel(state, placedGold);
+        state = state.setPositionHash(hash);
         for (Entry<Player, Integer> entry : awardedGold.entrySet()) {
             Player pl = entry.getKey();
             int count = entry.getValue();
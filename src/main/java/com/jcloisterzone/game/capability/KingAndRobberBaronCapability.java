@@ -16,6 +16,7 @@ import com.jcloisterzone.game.state.MemoizedValue;
 import com.jcloisterzone.game.state.PlayersState;
 import com.jcloisterzone.reducers.AddPoints;
 
+import io.vavr.Function1;
 import io.vavr.collection.HashMap;
 import io.vavr.collection.HashSet;
 import io.vavr.collection.Set;
@@ -82,7 +83,7 @@ public final class KingAndRobberBaronCapability extends Capability<Void> {
         return state;
     }
 
-    private int getMaxSize(GameState state, Class<? extends Completable> cls, Set<Scoreable> exclude) {
+    private static int getMaxSize(GameState state, Class<? extends Completable> cls, Set<Scoreable> exclude) {
         return state.getFeatures(cls)
             .filter(c -> !exclude.contains(c))
             .filter(c -> c.isCompleted(state))
@@ -91,7 +92,24 @@ public final class KingAndRobberBaronCapability extends Capability<Void> {
             .getOrElse(0);
     }
 
-    private MemoizedValue<Integer> _getBiggestCitySize = new MemoizedValue<>(state -> getMaxSize(state, City.class, HashSet.empty()));
+    /** Named function, capability is part of checkpointed state and lambdas are not allowed there. */
+    private static final class MaxCompletedSize implements Function1<GameState, Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Class<? extends Completable> cls;
+
+        MaxCompletedSize(Class<? extends Completable> cls) {
+            this.cls = cls;
+        }
+
+        @Override
+        public Integer apply(GameState state) {
+            return getMaxSize(state, cls, HashSet.empty());
+        }
+    }
+
+    private MemoizedValue<Integer> _getBiggestCitySize = new MemoizedValue<>(new MaxCompletedSize(City.class));
 
     public int getBiggestCitySize(GameState state) {
         return _getBiggestCitySize.apply(state);
@@ -115,7 +133,7 @@ public final class KingAndRobberBaronCapability extends Capability<Void> {
             .size();
     }
 
-    private MemoizedValue<Integer> _getLongestRoadSize = new MemoizedValue<>(state -> getMaxSize(state, Road.class, HashSet.empty()));
+    private MemoizedValue<Integer> _getLongestRoadSize = new MemoizedValue<>(new MaxCompletedSize(Road.class));
 
     public int getLongestRoadSize(GameState state) {
         return _getLongestRoadSize.apply(state);
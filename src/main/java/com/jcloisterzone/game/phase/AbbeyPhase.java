@@ -7,7 +7,6 @@ import com.jcloisterzone.action.TilePlacementAction;
 import com.jcloisterzone.board.PlacementOption;
 import com.jcloisterzone.board.Rotation;
 import com.jcloisterzone.game.Capability;
-import com.jcloisterzone.game.RandomGenerator;
 import com.jcloisterzone.game.capability.AbbeyCapability;
 import com.jcloisterzone.game.capability.AbbeyCapability.AbbeyToken;
 import com.jcloisterzone.game.capability.BazaarCapability;
@@ -25,10 +24,6 @@ import io.vavr.collection.Stream;
 @RequiredCapability(AbbeyCapability.class)
 public class AbbeyPhase extends Phase {
 
-    public AbbeyPhase(RandomGenerator random) {
-        super(random);
-    }
-
     @Override
     public StepResult enter(GameState state) {
         BazaarCapabilityModel bazaarModel = state.getCapabilityModel(BazaarCapability.class);
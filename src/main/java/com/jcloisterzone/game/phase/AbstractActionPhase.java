@@ -1,5 +1,7 @@
 package com.jcloisterzone.game.phase;
 
+import java.util.IdentityHashMap;
+
 import com.jcloisterzone.Player;
 import com.jcloisterzone.action.MeepleAction;
 import com.jcloisterzone.action.PlayerAction;
@@ -18,7 +20,6 @@ import com.jcloisterzone.figure.DeploymentCheckResult;
 import com.jcloisterzone.figure.Meeple;
 import com.jcloisterzone.figure.Special;
 import com.jcloisterzone.game.Capability;
-import com.jcloisterzone.game.RandomGenerator;
 import com.jcloisterzone.game.capability.BarnCapability;
 import com.jcloisterzone.game.capability.PortalCapability;
 import com.jcloisterzone.game.state.ActionsState;
@@ -34,15 +35,10 @@ import com.jcloisterzone.wsio.message.PayRansomMessage;
 import io.vavr.Tuple2;
 import io.vavr.collection.List;
 import io.vavr.collection.Set;
-import io.vavr.collection.Stream;
 import io.vavr.collection.Vector;
 
 public abstract class AbstractActionPhase extends Phase {
 
-    public AbstractActionPhase(RandomGenerator random) {
-        super(random);
-    }
-
     private boolean isMeepleDeploymentAllowedByCapabilities(GameState state, Position pos) {
         for (Capability<?> cap : state.getCapabilities().toSeq()) {
             if (!cap.isMeepleDeploymentAllowed(state, pos)) {
@@ -52,73 +48,81 @@ public abstract class AbstractActionPhase extends Phase {
         return true;
     }
 
+    private boolean isMonasteryOccupied(GameState state, Position pos) {
+        return !state.getMeeplesOnPlace(new FeaturePointer(pos, Location.MONASTERY)).isEmpty()
+            || !state.getMeeplesOnPlace(new FeaturePointer(pos, Location.CLOISTER)).isEmpty();
+    }
+
+    /**
+     * Collects deployment places of all meeple types. Places are collected once and shared by all types,
+     * feature state (open, occupied) is evaluated once per structure, not for each its place and meeple type.
+     * This matters mainly on Magic Portal turns when all placed tiles are examined.
+     */
     protected Vector<PlayerAction<?>> prepareMeepleActions(GameState state, Vector<Class<? extends Meeple>> meepleTypes) {
         Player player = state.getTurnPlayer();
         Vector<Meeple> availMeeples = player.getMeeplesFromSupply(state, meepleTypes);
+        if (availMeeples.isEmpty()) {
+            return Vector.empty();
+        }
 
         PlacedTile lastPlaced = state.getLastPlaced();
         Position currentTilePos = lastPlaced.getPosition();
-        Stream<PlacedTile> tiles;
+        Iterable<PlacedTile> tiles;
 
         if (lastPlaced.getTile().hasModifier(PortalCapability.MAGIC_PORTAL) && !state.getFlags().contains(Flag.PORTAL_USED)) {
-            tiles = Stream.ofAll(state.getPlacedTiles().values());
+            tiles = state.getPlacedTiles().values();
         } else {
-            tiles = Stream.of(lastPlaced);
+            tiles = List.of(lastPlaced);
         }
 
-        Stream<Tuple2<FeaturePointer, Structure>> placesFp = tiles.flatMap(tile -> {
+        boolean flyingMachineUsed = state.hasFlag(Flag.FLYING_MACHINE_USED);
+        java.util.Map<Structure, Boolean> openStructures = new IdentityHashMap<>();
+        java.util.Map<Structure, Boolean> occupiedStructures = new IdentityHashMap<>();
+
+        // all places (for special meeples) and places on unoccupied structures
+        Vector<Tuple2<FeaturePointer, Structure>> places = Vector.empty();
+        Vector<Tuple2<FeaturePointer, Structure>> freePlaces = Vector.empty();
+
+        for (PlacedTile tile : tiles) {
             Position pos = tile.getPosition();
             boolean isCurrentTile = pos.equals(currentTilePos);
 
             if (!isMeepleDeploymentAllowedByCapabilities(state, pos)) {
-                return Stream.empty();
-            }
-
-            Stream<Tuple2<Location, Structure>> places = state.getTileFeatures2(pos, Structure.class);
-
-            //towers are handled by Tower capability (needs collect towers on all tiles)
-            places = places.filter(t -> !(t._2 instanceof Tower));
-            places = places.flatMap(t -> {
-               Structure struct = t._2;
-               if (struct instanceof Cloister && ((Cloister)struct).isMonastery()) {
-                   return List.of(t, new Tuple2<>(Location.MONASTERY, t._2));
-               }
-               return List.of(t);
-            });
-
-
-            if (!isCurrentTile) {
-                //exclude completed
-                places = places.filter(t -> {
-                    if (t._1 == Location.MONASTERY) {
-                        return true;
-                    }
-                    return !(t._2 instanceof Completable) || ((Completable)t._2).isOpen(state);
-                });
+                continue;
             }
 
-            if (state.hasFlag(Flag.FLYING_MACHINE_USED)) {
-                places = places.filter(t -> t._1 != Location.FLYING_MACHINE);
+            for (Tuple2<Location, Structure> t : state.getTileFeatures2(pos, Structure.class)) {
+                Structure struct = t._2;
+                //towers are handled by Tower capability (needs collect towers on all tiles)
+                if (struct instanceof Tower) continue;
+                if (flyingMachineUsed && t._1 == Location.FLYING_MACHINE) continue;
+
+                //exclude completed, abbot can be placed also to completed monastery
+                boolean completed = !isCurrentTile && struct instanceof Completable
+                    && !openStructures.computeIfAbsent(struct, s -> ((Completable) s).isOpen(state));
+                boolean isMonastery = struct instanceof Cloister && ((Cloister)struct).isMonastery();
+                if (completed && !isMonastery) continue;
+
+                boolean free = !occupiedStructures.computeIfAbsent(struct, s -> s.isOccupied(state))
+                    && !(isMonastery && isMonasteryOccupied(state, pos));
+
+                if (!completed) {
+                    Tuple2<FeaturePointer, Structure> place = new Tuple2<>(new FeaturePointer(pos, t._1), struct);
+                    places = places.append(place);
+                    if (free) freePlaces = freePlaces.append(place);
+                }
+                if (isMonastery) {
+                    Tuple2<FeaturePointer, Structure> place = new Tuple2<>(new FeaturePointer(pos, Location.MONASTERY), struct);
+                    places = places.append(place);
+                    if (free) freePlaces = freePlaces.append(place);
+                }
             }
+        }
 
-            return places.map(t -> t.map1(loc -> new FeaturePointer(pos, loc)));
-        });
-
+        Vector<Tuple2<FeaturePointer, Structure>> _places = places;
+        Vector<Tuple2<FeaturePointer, Structure>> _freePlaces = freePlaces;
         Vector<PlayerAction<?>> actions = availMeeples.map(meeple -> {
-            Set<FeaturePointer> locations = placesFp
-                .filter(t -> {
-                    if (meeple instanceof Special) return true;
-                    Structure struct = t._2;
-                    boolean isMonastery = struct instanceof Cloister && ((Cloister)struct).isMonastery();
-                    if (isMonastery) {
-                        boolean isOccupied = !state.getDeployedMeeples()
-                           .values()
-                           .filter(fp -> fp.getPosition().equals(t._1.getPosition()) && (fp.getLocation() == Location.MONASTERY || fp.getLocation() == Location.CLOISTER))
-                           .isEmpty();
-                        if (isOccupied) return false;
-                    }
-                    return !t._2.isOccupied(state);
-                })
+            Set<FeaturePointer> locations = (meeple instanceof Special ? _places : _freePlaces)
                 .filter(t -> meeple.isDeploymentAllowed(state, t._1, t._2) == DeploymentCheckResult.OK)
                 .map(t -> t._1)
                 .toSet();
@@ -174,7 +178,9 @@ public abstract class AbstractActionPhase extends Phase {
         FlyingMachine flyingMachine = (FlyingMachine) state.getFeature(msg.getPointer());
         Meeple meeple = state.getActivePlayer().getMeepleFromSupply(state, msg.getMeepleId());
 
-        int distance = getRandom().nextInt(3) + 1;
+        Tuple2<Integer, GameState> roll = nextRandomInt(state, 3);
+        int distance = roll._1 + 1;
+        state = roll._2;
         state = state.addFlag(Flag.FLYING_MACHINE_USED);
         state = state.appendEvent(new FlierRollEvent(
             PlayEventMeta.createWithActivePlayer(state), placedTile.getPosition(), distance)
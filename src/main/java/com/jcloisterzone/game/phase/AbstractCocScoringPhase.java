@@ -14,7 +14,6 @@ import com.jcloisterzone.feature.Farm;
 import com.jcloisterzone.feature.Feature;
 import com.jcloisterzone.feature.Road;
 import com.jcloisterzone.feature.Scoreable;
-import com.jcloisterzone.game.RandomGenerator;
 import com.jcloisterzone.game.capability.AbbeyCapability;
 import com.jcloisterzone.game.state.ActionsState;
 import com.jcloisterzone.game.state.GameState;
@@ -29,10 +28,6 @@ import io.vavr.collection.Vector;
 
 public abstract class AbstractCocScoringPhase extends Phase {
 
-    public AbstractCocScoringPhase(RandomGenerator random) {
-        super(random);
-    }
-
     protected abstract Function<Feature, Boolean> getAllowedFeaturesFilter(GameState state);
     protected abstract boolean isLast(GameState state, Player player, boolean actionUsed);
 
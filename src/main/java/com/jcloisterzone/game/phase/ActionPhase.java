@@ -22,7 +22,6 @@ import com.jcloisterzone.figure.Wagon;
 import com.jcloisterzone.figure.neutral.Fairy;
 import com.jcloisterzone.figure.neutral.NeutralFigure;
 import com.jcloisterzone.game.Capability;
-import com.jcloisterzone.game.RandomGenerator;
 import com.jcloisterzone.game.Rule;
 import com.jcloisterzone.game.Token;
 import com.jcloisterzone.game.capability.BridgeCapability.BrigeToken;
@@ -34,6 +33,7 @@ import com.jcloisterzone.game.capability.TunnelCapability.Tunnel;
 import com.jcloisterzone.game.state.ActionsState;
 import com.jcloisterzone.game.state.Flag;
 import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.game.state.PositionHash;
 import com.jcloisterzone.reducers.MoveNeutralFigure;
 import com.jcloisterzone.reducers.PlaceBridge;
 import com.jcloisterzone.reducers.PlaceLittleBuilding;
@@ -49,10 +49,6 @@ import io.vavr.collection.Vector;
 
 public class ActionPhase extends AbstractActionPhase {
 
-    public ActionPhase(RandomGenerator random) {
-        super(random);
-    }
-
     @Override
     public StepResult enter(GameState state) {
         Player player = state.getTurnPlayer();
@@ -135,9 +131,12 @@ public class ActionPhase extends AbstractActionPhase {
     private StepResult handlePlaceTower(GameState state, PlaceTokenMessage msg) {
         FeaturePointer ptr = (FeaturePointer) msg.getPointer();
         Tower tower = (Tower) state.getFeatureMap().get(ptr).getOrElseThrow(() -> new IllegalArgumentException("No tower"));
+        FeaturePointer towerFp = tower.getPlaces().get();
+        long hash = state.getPositionHash() ^ PositionHash.tower(towerFp, tower.getHeight());
         tower = tower.increaseHeight();
 
         state = state.setFeatureMap(state.getFeatureMap().put(ptr, tower));
+        state = state.setPositionHash(hash ^ PositionHash.tower(towerFp, tower.getHeight()));
         state = state.appendEvent(new TokenPlacedEvent(
             PlayEventMeta.createWithActivePlayer(state), TowerToken.TOWER_PIECE, ptr)
         );
@@ -22,16 +22,12 @@ import com.jcloisterzone.wsio.message.BazaarBuyOrSellMessage;
 import com.jcloisterzone.wsio.message.BazaarBuyOrSellMessage.BuyOrSellOption;
 import com.jcloisterzone.wsio.message.PassMessage;
 
-import io.vavr.Tuple2;
+import io.vavr.Tuple3;
 import io.vavr.collection.Queue;
 
 @RequiredCapability(BazaarCapability.class)
 public class BazaarPhase extends Phase {
 
-    public BazaarPhase(RandomGenerator random) {
-        super(random);
-    }
-
     @Override
     public StepResult enter(GameState state) {
         if (!state.hasFlag(Flag.BAZAAR_AUCTION)) {
@@ -48,8 +44,8 @@ public class BazaarPhase extends Phase {
         Queue<BazaarItem> supply = Queue.empty();
 
         for (int i = 0; i < size; i++) {
-            Tuple2<Tile, TilePack> t = tilePack.drawTile(getRandom());
-            state = state.setTilePack(t._2);
+            Tuple3<Tile, TilePack, RandomGenerator> t = tilePack.drawTile(state.getRandom());
+            state = state.setTilePack(t._2).setRandom(t._3);
             supply = supply.append(new BazaarItem(t._1, 0, null, null));
         }
 
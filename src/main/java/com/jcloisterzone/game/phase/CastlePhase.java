@@ -8,29 +8,22 @@ import com.jcloisterzone.event.play.CastleCreated;
 import com.jcloisterzone.event.play.PlayEvent.PlayEventMeta;
 import com.jcloisterzone.feature.Castle;
 import com.jcloisterzone.feature.City;
-import com.jcloisterzone.feature.Feature;
 import com.jcloisterzone.figure.Follower;
-import com.jcloisterzone.game.RandomGenerator;
 import com.jcloisterzone.game.capability.CastleCapability;
 import com.jcloisterzone.game.capability.CastleCapability.CastleToken;
 import com.jcloisterzone.game.state.ActionsState;
 import com.jcloisterzone.game.state.GameState;
 import com.jcloisterzone.game.state.PlacedTile;
+import com.jcloisterzone.game.state.PositionHash;
 import com.jcloisterzone.wsio.message.PlaceTokenMessage;
 
-import io.vavr.Tuple2;
 import io.vavr.collection.HashSet;
 import io.vavr.collection.List;
-import io.vavr.collection.Map;
 import io.vavr.collection.Set;
 
 @RequiredCapability(CastleCapability.class)
 public class CastlePhase extends Phase {
 
-    public CastlePhase(RandomGenerator random) {
-        super(random);
-    }
-
     private Set<FeaturePointer> getPlayerOptions(GameState state, Player player) {
         if (state.getPlayers().getPlayerTokenCount(player.getIndex(), CastleToken.CASTLE) == 0) {
             return HashSet.empty();
@@ -84,12 +77,11 @@ public class CastlePhase extends Phase {
         City city = (City) state.getFeature((FeaturePointer) msg.getPointer());
         Castle castle = new Castle(city.getPlaces());
 
-        Map<FeaturePointer, Feature> update = city.getPlaces().toMap(ptr -> new Tuple2<>(ptr, castle));
-
         state = state.mapPlayers(ps ->
            ps.addTokenCount(player.getIndex(), CastleToken.CASTLE, -1)
         );
-        state = state.mapFeatureMap(m -> update.merge(m));
+        state = state.mapFeatureMap(m -> m.put(castle));
+        state = state.setPositionHash(state.getPositionHash() ^ PositionHash.castle(castle));
         state = state.appendEvent(new CastleCreated(
            PlayEventMeta.createWithPlayer(player),
            castle
@@ -5,7 +5,6 @@ import com.jcloisterzone.board.Location;
 import com.jcloisterzone.board.Position;
 import com.jcloisterzone.board.pointer.FeaturePointer;
 import com.jcloisterzone.feature.Road;
-import com.jcloisterzone.game.RandomGenerator;
 import com.jcloisterzone.game.Token;
 import com.jcloisterzone.game.capability.FerriesCapability;
 import com.jcloisterzone.game.capability.FerriesCapability.FerryToken;
@@ -22,10 +21,6 @@ import io.vavr.collection.Set;
 @RequiredCapability(FerriesCapability.class)
 public class ChangeFerriesPhase extends Phase {
 
-    public ChangeFerriesPhase(RandomGenerator random) {
-        super(random);
-    }
-
     @Override
     public StepResult enter(GameState state) {
         PlacedTile lastPlaced = state.getLastPlaced();
@@ -37,6 +32,7 @@ public class ChangeFerriesPhase extends Phase {
 
         Set<FeaturePointer> options = state.getTileFeatures2(pos, Road.class)
             .flatMap(t -> t._2.findNearest(state, new FeaturePointer(pos, t._1), fp -> ferries.find(f -> fp.isPartOf(f)).isDefined()))
+            .map(fp -> ferries.find(f -> fp.isPartOf(f)).get()) // nearest is only part of ferry location
             .distinct()
             .filter(ferry -> !model.getMovedFerries().containsKey(ferry.getPosition()))
             .flatMap(ferry -> {
@@ -52,7 +48,7 @@ public class ChangeFerriesPhase extends Phase {
                     .combinations(2)
                     .map(pair -> pair.reduce(Location::union))
                     .map(loc -> loc.rotateCW(ferryTile.getRotation()))
-                    .filter(loc -> loc != ferry.getLocation())
+                    .filter(loc -> !loc.equals(ferry.getLocation()))
                     .map(loc -> new FeaturePointer(ferryPos, loc))
                     .toList();
             })
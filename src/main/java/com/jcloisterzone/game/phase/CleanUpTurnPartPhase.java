@@ -3,7 +3,6 @@ package com.jcloisterzone.game.phase;
 import com.jcloisterzone.event.play.DoubleTurnEvent;
 import com.jcloisterzone.event.play.PlayEvent.PlayEventMeta;
 import com.jcloisterzone.game.Capability;
-import com.jcloisterzone.game.RandomGenerator;
 import com.jcloisterzone.game.capability.AbbeyCapability;
 import com.jcloisterzone.game.capability.BuilderCapability;
 import com.jcloisterzone.game.capability.BuilderState;
@@ -15,10 +14,6 @@ import com.jcloisterzone.game.state.GameState;
  */
 public class CleanUpTurnPartPhase extends Phase {
 
-    public CleanUpTurnPartPhase(RandomGenerator random) {
-        super(random);
-    }
-
     @Override
     public StepResult enter(GameState state) {
         BuilderState builderState = state.getCapabilityModel(BuilderCapability.class);
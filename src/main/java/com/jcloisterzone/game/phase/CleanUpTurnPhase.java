@@ -1,7 +1,6 @@
 package com.jcloisterzone.game.phase;
 
 import com.jcloisterzone.game.Capability;
-import com.jcloisterzone.game.RandomGenerator;
 import com.jcloisterzone.game.state.GameState;
 import com.jcloisterzone.reducers.SetNextPlayer;
 
@@ -12,10 +11,6 @@ import io.vavr.collection.HashSet;
  */
 public class CleanUpTurnPhase extends Phase {
 
-    public CleanUpTurnPhase(RandomGenerator random) {
-        super(random);
-    }
-
     @Override
     public StepResult enter(GameState state) {
         for (Capability<?> cap : state.getCapabilities().toSeq()) {
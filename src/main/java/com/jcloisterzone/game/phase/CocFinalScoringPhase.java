@@ -8,7 +8,6 @@ import com.jcloisterzone.feature.Completable;
 import com.jcloisterzone.feature.Farm;
 import com.jcloisterzone.feature.Feature;
 import com.jcloisterzone.figure.Follower;
-import com.jcloisterzone.game.RandomGenerator;
 import com.jcloisterzone.game.capability.CountCapability;
 import com.jcloisterzone.game.state.GameState;
 import com.jcloisterzone.reducers.DeployMeeple;
@@ -16,10 +15,6 @@ import com.jcloisterzone.wsio.message.DeployMeepleMessage;
 
 public class CocFinalScoringPhase extends AbstractCocScoringPhase {
 
-    public CocFinalScoringPhase(RandomGenerator random) {
-        super(random);
-    }
-
     @Override
     protected boolean isLast(GameState state, Player player, boolean actionUsed) {
         Player lastNoPass = state.getCapabilityModel(CountCapability.class).getFinalScoringLastMeepleDeployPlayer();
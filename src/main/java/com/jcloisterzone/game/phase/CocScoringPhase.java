@@ -12,7 +12,6 @@ import com.jcloisterzone.feature.Farm;
 import com.jcloisterzone.feature.Feature;
 import com.jcloisterzone.figure.Barn;
 import com.jcloisterzone.figure.Follower;
-import com.jcloisterzone.game.RandomGenerator;
 import com.jcloisterzone.game.capability.AbbeyCapability;
 import com.jcloisterzone.game.capability.BarnCapability;
 import com.jcloisterzone.game.capability.CountCapability;
@@ -27,10 +26,6 @@ import io.vavr.Tuple2;
 @RequiredCapability(CountCapability.class)
 public class CocScoringPhase extends AbstractCocScoringPhase {
 
-    public CocScoringPhase(RandomGenerator random) {
-        super(random);
-    }
-
     @Override
     protected boolean isLast(GameState state, Player player, boolean actionUsed) {
         return state.getTurnPlayer().equals(player);
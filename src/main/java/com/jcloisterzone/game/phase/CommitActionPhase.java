@@ -2,17 +2,12 @@ package com.jcloisterzone.game.phase;
 
 import com.jcloisterzone.Player;
 import com.jcloisterzone.action.ConfirmAction;
-import com.jcloisterzone.game.RandomGenerator;
 import com.jcloisterzone.game.state.ActionsState;
 import com.jcloisterzone.game.state.GameState;
 import com.jcloisterzone.wsio.message.CommitMessage;
 
 public class CommitActionPhase extends Phase {
 
-    public CommitActionPhase(RandomGenerator random) {
-        super(random);
-    }
-
     @Override
     public StepResult enter(GameState state) {
         Player player = state.getTurnPlayer();
@@ -17,7 +17,6 @@ import com.jcloisterzone.figure.Meeple;
 import com.jcloisterzone.figure.Phantom;
 import com.jcloisterzone.figure.SmallFollower;
 import com.jcloisterzone.figure.Wagon;
-import com.jcloisterzone.game.RandomGenerator;
 import com.jcloisterzone.game.capability.CornCircleCapability;
 import com.jcloisterzone.game.capability.CornCircleCapability.CornCircleModifier;
 import com.jcloisterzone.game.state.ActionsState;
@@ -40,10 +39,6 @@ import io.vavr.collection.Vector;
 @RequiredCapability(CornCircleCapability.class)
 public class CornCirclePhase extends Phase {
 
-    public CornCirclePhase(RandomGenerator random) {
-        super(random);
-    }
-
     private Class<? extends Feature> getCornType(GameState state) {
         PlacedTile placedTile = state.getLastPlaced();
 
@@ -8,7 +8,6 @@ import com.jcloisterzone.board.pointer.FeaturePointer;
 import com.jcloisterzone.figure.Meeple;
 import com.jcloisterzone.figure.neutral.Dragon;
 import com.jcloisterzone.figure.neutral.NeutralFigure;
-import com.jcloisterzone.game.RandomGenerator;
 import com.jcloisterzone.game.capability.CountCapability;
 import com.jcloisterzone.game.capability.DragonCapability;
 import com.jcloisterzone.game.state.ActionsState;
@@ -26,10 +25,6 @@ import io.vavr.collection.Vector;
 @RequiredCapability(DragonCapability.class)
 public class DragonMovePhase extends Phase {
 
-    public DragonMovePhase(RandomGenerator random) {
-        super(random);
-    }
-
     private Vector<Position> getVisitedPositions(GameState state) {
         Vector<Position> visited = state.getCapabilityModel(DragonCapability.class);
         return visited == null ? Vector.empty() : visited;
@@ -11,7 +11,6 @@ import com.jcloisterzone.board.pointer.FeaturePointer;
 import com.jcloisterzone.board.pointer.MeeplePointer;
 import com.jcloisterzone.feature.City;
 import com.jcloisterzone.figure.Meeple;
-import com.jcloisterzone.game.RandomGenerator;
 import com.jcloisterzone.game.Rule;
 import com.jcloisterzone.game.capability.SiegeCapability;
 import com.jcloisterzone.game.state.ActionsState;
@@ -27,10 +26,6 @@ import io.vavr.collection.Stream;
 @RequiredCapability(SiegeCapability.class)
 public class EscapePhase extends Phase {
 
-    public EscapePhase(RandomGenerator random) {
-        super(random);
-    }
-
     @Override
     public StepResult enter(GameState state) {
         Player player = state.getTurnPlayer();
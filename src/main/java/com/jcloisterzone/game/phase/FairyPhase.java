@@ -7,7 +7,6 @@ import com.jcloisterzone.board.pointer.FeaturePointer;
 import com.jcloisterzone.board.pointer.MeeplePointer;
 import com.jcloisterzone.event.play.ScoreEvent;
 import com.jcloisterzone.figure.Meeple;
-import com.jcloisterzone.game.RandomGenerator;
 import com.jcloisterzone.game.capability.FairyCapability;
 import com.jcloisterzone.game.state.GameState;
 import com.jcloisterzone.reducers.AddPoints;
@@ -18,10 +17,6 @@ import io.vavr.Tuple2;
 @RequiredCapability(FairyCapability.class)
 public class FairyPhase extends Phase {
 
-    public FairyPhase(RandomGenerator random) {
-        super(random);
-    }
-
     @Override
     public StepResult enter(GameState state) {
         BoardPointer ptr = state.getNeutralFigures().getFairyDeployment();
@@ -1,6 +1,5 @@
 package com.jcloisterzone.game.phase;
 
-import com.jcloisterzone.game.RandomGenerator;
 import com.jcloisterzone.game.state.GameState;
 import com.jcloisterzone.reducers.FinalScoring;
 import com.jcloisterzone.wsio.message.GameOverMessage;
@@ -8,10 +7,6 @@ import com.jcloisterzone.wsio.message.GameOverMessage;
 
 public class GameOverPhase extends Phase {
 
-    public GameOverPhase(RandomGenerator random) {
-        super(random);
-    }
-
     @Override
     public StepResult enter(GameState state) {
         state = state.setPlayerActions(null);
@@ -4,13 +4,13 @@ import com.jcloisterzone.action.GoldPieceAction;
 import com.jcloisterzone.board.Position;
 import com.jcloisterzone.event.play.PlayEvent.PlayEventMeta;
 import com.jcloisterzone.event.play.TokenPlacedEvent;
-import com.jcloisterzone.game.RandomGenerator;
 import com.jcloisterzone.game.Token;
 import com.jcloisterzone.game.capability.GoldminesCapability;
 import com.jcloisterzone.game.capability.GoldminesCapability.GoldToken;
 import com.jcloisterzone.game.state.ActionsState;
 import com.jcloisterzone.game.state.GameState;
 import com.jcloisterzone.game.state.PlacedTile;
+import com.jcloisterzone.game.state.PositionHash;
 import com.jcloisterzone.wsio.message.PlaceTokenMessage;
 
 import io.vavr.collection.Set;
@@ -18,10 +18,6 @@ import io.vavr.collection.Set;
 @RequiredCapability(GoldminesCapability.class)
 public class GoldPiecePhase extends Phase {
 
-    public GoldPiecePhase(RandomGenerator random) {
-        super(random);
-    }
-
     @Override
     public StepResult enter(GameState state) {
         PlacedTile placedTile = state.getLastPlaced();
@@ -46,10 +42,11 @@ public class GoldPiecePhase extends Phase {
     }
 
     private GameState placeGoldToken(GameState state, Position pos) {
-        state = state.mapCapabilityModel(GoldminesCapability.class, placedGold -> {
-            int currValue = placedGold.get(pos).getOrElse(0);
-            return placedGold.put(pos, currValue + 1);
-        });
+        int currValue = state.getCapabilityModel(GoldminesCapability.class).get(pos).getOrElse(0);
+        state = state.mapCapabilityModel(GoldminesCapability.class, placedGold -> placedGold.put(pos, currValue + 1));
+        state = state.setPositionHash(state.getPositionHash()
+            ^ PositionHash.gold(pos, currValue)
+            ^ PositionHash.gold(pos, currValue + 1));
         state = state.appendEvent(new TokenPlacedEvent(PlayEventMeta.createWithoutPlayer(), GoldToken.GOLD, pos));
         return state;
     }
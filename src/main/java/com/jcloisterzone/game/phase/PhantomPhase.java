@@ -4,7 +4,6 @@ import com.jcloisterzone.Player;
 import com.jcloisterzone.action.MeepleAction;
 import com.jcloisterzone.action.PlayerAction;
 import com.jcloisterzone.figure.Phantom;
-import com.jcloisterzone.game.RandomGenerator;
 import com.jcloisterzone.game.capability.PhantomCapability;
 import com.jcloisterzone.game.capability.TowerCapability;
 import com.jcloisterzone.game.state.ActionsState;
@@ -16,10 +15,6 @@ import io.vavr.collection.Vector;
 @RequiredCapability(PhantomCapability.class)
 public class PhantomPhase extends AbstractActionPhase {
 
-    public PhantomPhase(RandomGenerator random) {
-        super(random);
-    }
-
     @Override
     public StepResult enter(GameState state) {
         Player player = state.getTurnPlayer();
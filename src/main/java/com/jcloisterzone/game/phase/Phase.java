@@ -9,20 +9,19 @@ import com.jcloisterzone.reducers.PayRansom;
 import com.jcloisterzone.wsio.message.PassMessage;
 import com.jcloisterzone.wsio.message.PayRansomMessage;
 
+import io.vavr.Tuple2;
 
+/**
+ * Step of game flow. Phase instances are shared by all games handled by a reducer
+ * (possibly from several threads), so all game data must be kept in {@link GameState}.
+ */
 public abstract class Phase {
 
     protected final transient Logger logger = LoggerFactory.getLogger(getClass());
 
-    private final RandomGenerator random;
-
     //TODO change to class ? but what about skipping phase in handlePass
     private Phase defaultNext;
 
-    public Phase(RandomGenerator random) {
-        this.random = random;
-    }
-
     public Phase getDefaultNext() {
         return defaultNext;
     }
@@ -74,8 +73,14 @@ public abstract class Phase {
         return promote(state);
     }
 
-    public RandomGenerator getRandom() {
-        return random;
+    /**
+     * Draws random number from interval {@code [0, bound)} by generator carried in the state.
+     *
+     * @return drawn number and state with updated generator
+     */
+    protected Tuple2<Integer, GameState> nextRandomInt(GameState state, int bound) {
+        Tuple2<Integer, RandomGenerator> t = state.getRandom().nextInt(bound);
+        return new Tuple2<>(t._1, state.setRandom(t._2));
     }
 
     @Override
@@ -7,7 +7,6 @@ import com.jcloisterzone.board.Rotation;
 import com.jcloisterzone.board.Tile;
 import com.jcloisterzone.board.pointer.FeaturePointer;
 import com.jcloisterzone.feature.Road;
-import com.jcloisterzone.game.RandomGenerator;
 import com.jcloisterzone.game.Token;
 import com.jcloisterzone.game.capability.FerriesCapability;
 import com.jcloisterzone.game.capability.FerriesCapability.FerryToken;
@@ -23,10 +22,6 @@ import io.vavr.collection.Set;
 @RequiredCapability(FerriesCapability.class)
 public class PlaceFerryPhase extends Phase {
 
-    public PlaceFerryPhase(RandomGenerator random) {
-        super(random);
-    }
-
     @Override
     public StepResult enter(GameState state) {
         PlacedTile placedTile = state.getLastPlaced();
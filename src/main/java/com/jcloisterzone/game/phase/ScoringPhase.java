@@ -12,7 +12,6 @@ import com.jcloisterzone.figure.Builder;
 import com.jcloisterzone.figure.Meeple;
 import com.jcloisterzone.figure.Wagon;
 import com.jcloisterzone.game.Capability;
-import com.jcloisterzone.game.RandomGenerator;
 import com.jcloisterzone.game.ScoreFeatureReducer;
 import com.jcloisterzone.game.capability.AbbeyCapability;
 import com.jcloisterzone.game.capability.BarnCapability;
@@ -41,20 +40,14 @@ import io.vavr.control.Option;
 
 public class ScoringPhase extends Phase {
 
-    private java.util.Map<Completable, ScoreFeatureReducer> completedMutable = new java.util.HashMap<>();
-
-    public ScoringPhase(RandomGenerator random) {
-        super(random);
-    }
-
-    private GameState scoreCompletedOnTile(GameState state, PlacedTile tile) {
+    private GameState scoreCompletedOnTile(GameState state, PlacedTile tile, java.util.Map<Completable, ScoreFeatureReducer> completed) {
         for (Tuple2<Location, Completable> t : state.getTileFeatures2(tile.getPosition(), Completable.class)) {
-            state = scoreCompleted(state, t._2, tile);
+            state = scoreCompleted(state, t._2, tile, completed);
         }
         return state;
     }
 
-    private GameState scoreClosedByFerries(GameState state) {
+    private GameState scoreClosedByFerries(GameState state, java.util.Map<Completable, ScoreFeatureReducer> completed) {
         /*
             A scoring is handled by placement itself
             must take care about B & C
@@ -79,19 +72,19 @@ public class ScoringPhase extends Phase {
 
             for (FeaturePointer fp : affected) {
                 Road road = (Road) state.getFeature(fp);
-                state = scoreCompleted(state, road, null);
+                state = scoreCompleted(state, road, null, completed);
             }
         }
         return state;
     }
 
-    private GameState scoreCompletedNearAbbey(GameState state, Position pos) {
+    private GameState scoreCompletedNearAbbey(GameState state, Position pos, java.util.Map<Completable, ScoreFeatureReducer> completed) {
         for (Tuple2<Location, PlacedTile> t : state.getAdjacentTiles2(pos)) {
             PlacedTile pt = t._2;
             FeaturePointer fp = new FeaturePointer(pt.getPosition(), t._1.rev());
             Feature feature = state.getFeaturePartOf(fp);
             if (feature instanceof Completable) {
-                state = scoreCompleted(state, (Completable) feature, null);
+                state = scoreCompleted(state, (Completable) feature, null, completed);
             }
             if (feature instanceof City) {
                 // also check if second city on multi edge is completed
@@ -100,7 +93,7 @@ public class ScoringPhase extends Phase {
                 Tuple2<ShortEdge, FeaturePointer> multiEdge = city.getMultiEdges().find(me -> me._1.equals(edge)).getOrNull();
                 if (multiEdge != null) {
                     City another = (City) state.getFeature(multiEdge._2);
-                    state = scoreCompleted(state, another, null);
+                    state = scoreCompleted(state, another, null, completed);
                 }
             }
         }
@@ -113,6 +106,8 @@ public class ScoringPhase extends Phase {
         Position pos = lastPlaced.getPosition();
 
         Map<Wagon, FeaturePointer> deployedWagonsBefore = getDeployedWagons(state);
+        // phase instance is shared, features scored in this step are collected in local map
+        java.util.Map<Completable, ScoreFeatureReducer> completedMutable = new java.util.HashMap<>();
 
         if (state.getCapabilities().contains(BarnCapability.class)) {
             FeaturePointer placedBarnPtr = state.getCapabilityModel(BarnCapability.class);
@@ -138,13 +133,13 @@ public class ScoringPhase extends Phase {
             }
         }
 
-        state = scoreCompletedOnTile(state, lastPlaced);
+        state = scoreCompletedOnTile(state, lastPlaced, completedMutable);
         if (AbbeyCapability.isAbbey(lastPlaced.getTile())) {
-            state = scoreCompletedNearAbbey(state, pos);
+            state = scoreCompletedNearAbbey(state, pos, completedMutable);
         }
 
         if (state.getCapabilities().contains(FerriesCapability.class)) {
-            state = scoreClosedByFerries(state);
+            state = scoreClosedByFerries(state, completedMutable);
         }
 
         if (state.getCapabilities().contains(TunnelCapability.class)) {
@@ -157,7 +152,7 @@ public class ScoringPhase extends Phase {
             assert tunnelModified.size() <= 1;
 
             for (Feature road : tunnelModified) {
-                state = scoreCompleted(state, (Completable) road, null);
+                state = scoreCompleted(state, (Completable) road, null, completedMutable);
             }
         }
 
@@ -167,7 +162,7 @@ public class ScoringPhase extends Phase {
 
         for (CloisterLike cloister : state.getFeatures(CloisterLike.class)) {
             if (neighbourPositions.contains(cloister.getPlaces().get().getPosition())) {
-                state = scoreCompleted(state, cloister, null);
+                state = scoreCompleted(state, cloister, null, completedMutable);
             }
         }
 
@@ -197,7 +192,6 @@ public class ScoringPhase extends Phase {
             state = state.setCapabilityModel(WagonCapability.class, model);
         }
 
-        completedMutable.clear();
         return next(state);
     }
 
@@ -207,7 +201,8 @@ public class ScoringPhase extends Phase {
            .mapKeys(m -> (Wagon) m);
     }
 
-    private GameState scoreCompleted(GameState state, Completable completable, PlacedTile triggerBuilderForPlaced) {
+    private GameState scoreCompleted(GameState state, Completable completable, PlacedTile triggerBuilderForPlaced,
+            java.util.Map<Completable, ScoreFeatureReducer> completed) {
         if (triggerBuilderForPlaced != null && state.getCapabilities().contains(BuilderCapability.class)) {
             Player player = state.getTurnPlayer();
             GameState _state = state;
@@ -223,12 +218,12 @@ public class ScoringPhase extends Phase {
             }
         }
 
-        if (completable.isCompleted(state) && !completedMutable.containsKey(completable)) {
+        if (completable.isCompleted(state) && !completed.containsKey(completable)) {
             ScoreCompletable scoreReducer = new ScoreCompletable(completable, false);
             state = scoreReducer.apply(state);
             state = (new UndeployMeeples(completable, false)).apply(state);
 
-            completedMutable.put(completable, scoreReducer);
+            completed.put(completable, scoreReducer);
         }
 
         return state;
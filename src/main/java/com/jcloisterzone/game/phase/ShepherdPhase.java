@@ -9,7 +9,6 @@ import com.jcloisterzone.event.play.TokenPlacedEvent;
 import com.jcloisterzone.feature.Farm;
 import com.jcloisterzone.figure.Meeple;
 import com.jcloisterzone.figure.Shepherd;
-import com.jcloisterzone.game.RandomGenerator;
 import com.jcloisterzone.game.capability.SheepCapability;
 import com.jcloisterzone.game.capability.SheepCapability.SheepToken;
 import com.jcloisterzone.game.state.ActionsState;
@@ -30,10 +29,6 @@ import io.vavr.collection.Vector;
 public class ShepherdPhase extends Phase {
 
 
-	public ShepherdPhase(RandomGenerator random) {
-		super(random);
-	}
-
 	@Override
 	public StepResult enter(GameState state) {
 		PlacedTile lastPlaced = state.getLastPlaced();
@@ -106,7 +101,9 @@ public class ShepherdPhase extends Phase {
 	}
 
 	private StepResult expandFlock(GameState state, FeaturePointer shepherdFp) {
-		SheepToken drawnToken = drawTokenFromBag(state);
+		Tuple2<SheepToken, GameState> drawn = drawTokenFromBag(state);
+		SheepToken drawnToken = drawn._1;
+		state = drawn._2;
 
 		state = state.appendEvent(new TokenPlacedEvent(PlayEventMeta.createWithoutPlayer(), drawnToken, shepherdFp));
 
@@ -133,9 +130,10 @@ public class ShepherdPhase extends Phase {
 		return next(state);
 	}
 
-	private SheepToken drawTokenFromBag(GameState state) {
+	private Tuple2<SheepToken, GameState> drawTokenFromBag(GameState state) {
 		Vector<SheepToken> bag = state.getCapabilities().get(SheepCapability.class).getBagConent(state);
-		return bag.get(getRandom().nextInt(bag.size()));
+		Tuple2<Integer, GameState> t = nextRandomInt(state, bag.size());
+		return new Tuple2<>(bag.get(t._1), t._2);
 	}
 
 }
@@ -24,12 +24,14 @@ import com.jcloisterzone.game.capability.HillCapability;
 import com.jcloisterzone.game.state.ActionsState;
 import com.jcloisterzone.game.state.Flag;
 import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.game.state.PositionHash;
 import com.jcloisterzone.reducers.PlaceBridge;
 import com.jcloisterzone.reducers.PlaceTile;
 import com.jcloisterzone.wsio.message.PassMessage;
 import com.jcloisterzone.wsio.message.PlaceTileMessage;
 
 import io.vavr.Tuple2;
+import io.vavr.Tuple3;
 import io.vavr.collection.Queue;
 import io.vavr.collection.Set;
 import io.vavr.collection.Vector;
@@ -37,14 +39,10 @@ import io.vavr.collection.Vector;
 
 public class TilePhase extends Phase {
 
-    public TilePhase(RandomGenerator random) {
-        super(random);
-    }
-
     public GameState drawTile(GameState state) {
         TilePack tps = state.getTilePack();
-        Tuple2<Tile, TilePack> t = tps.drawTile(getRandom());
-        return state.setTilePack(t._2).setDrawnTile(t._1);
+        Tuple3<Tile, TilePack, RandomGenerator> t = tps.drawTile(state.getRandom());
+        return state.setTilePack(t._2).setDrawnTile(t._1).setRandom(t._3);
     }
 
     public GameState drawTile(GameState state, String tileId) {
@@ -176,6 +174,7 @@ public class TilePhase extends Phase {
                 //bridge on just placed tile -> just update tile definition
                 tile = tile.addBridge(bridgeLoc.rotateCCW(rot));
                 state = state.mapCapabilityModel(BridgeCapability.class, model -> model.add(mandatoryBridge));
+                state = state.setPositionHash(state.getPositionHash() ^ PositionHash.bridge(mandatoryBridge));
             } else {
                 state = (new PlaceBridge(mandatoryBridge, true)).apply(state);
             }
@@ -10,7 +10,6 @@ import com.jcloisterzone.event.play.TokenPlacedEvent;
 import com.jcloisterzone.feature.Castle;
 import com.jcloisterzone.feature.Tower;
 import com.jcloisterzone.figure.Follower;
-import com.jcloisterzone.game.RandomGenerator;
 import com.jcloisterzone.game.capability.TowerCapability;
 import com.jcloisterzone.game.capability.TowerCapability.TowerToken;
 import com.jcloisterzone.game.state.ActionsState;
@@ -28,10 +27,6 @@ import io.vavr.collection.Stream;
 @RequiredCapability(TowerCapability.class)
 public class TowerCapturePhase extends Phase {
 
-    public TowerCapturePhase(RandomGenerator random) {
-        super(random);
-    }
-
     @Override
     public StepResult enter(GameState state) {
         TokenPlacedEvent event = (TokenPlacedEvent) state.getEvents().last();
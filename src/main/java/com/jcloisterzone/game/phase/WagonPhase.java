@@ -7,7 +7,6 @@ import com.jcloisterzone.feature.Completable;
 import com.jcloisterzone.feature.Feature;
 import com.jcloisterzone.figure.Meeple;
 import com.jcloisterzone.figure.Wagon;
-import com.jcloisterzone.game.RandomGenerator;
 import com.jcloisterzone.game.capability.WagonCapability;
 import com.jcloisterzone.game.state.ActionsState;
 import com.jcloisterzone.game.state.GameState;
@@ -22,10 +21,6 @@ import io.vavr.collection.Set;
 @RequiredCapability(WagonCapability.class)
 public class WagonPhase extends Phase {
 
-    public WagonPhase(RandomGenerator random) {
-        super(random);
-    }
-
     @Override
     public StepResult enter(GameState state) {
         Queue<Tuple2<Wagon, FeaturePointer>> model = state.getCapabilityModel(WagonCapability.class);
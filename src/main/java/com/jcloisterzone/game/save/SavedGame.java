@@ -15,6 +15,7 @@ import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
 import com.jcloisterzone.game.GameSetup;
 import com.jcloisterzone.game.PlayerSlot;
+import com.jcloisterzone.game.ReplayCheckpoint;
 import com.jcloisterzone.game.Rule;
 import com.jcloisterzone.ui.JCloisterZone;
 import com.jcloisterzone.wsio.message.WsReplayableMessage;
@@ -39,6 +40,7 @@ public class SavedGame implements Serializable {
     private long[] clocks;
     private SavedGameSetup setup;
     private List<WsReplayableMessage> replay;
+    private List<ReplayCheckpoint> checkpoints;
     private HashMap<String, Object> annotations;
 
     /**
@@ -76,6 +78,7 @@ public class SavedGame implements Serializable {
         setup.setRules(game.getSetup().getRules().toJavaMap());
         setup.setCapabilities(game.getSetup().getCapabilities().toJavaSet());
         replay = game.getReplay().reverse().toJavaList();
+        checkpoints = game.getCheckpoints().map(ReplayCheckpoint::pack).toJavaList();
     }
 
     /**
@@ -114,6 +117,24 @@ public class SavedGame implements Serializable {
         this.replay = replay;
     }
 
+    /**
+     * Gets state checkpoints. Can be {@code null} for games saved by older versions.
+     *
+     * @return the state checkpoints
+     */
+    public List<ReplayCheckpoint> getCheckpoints() {
+        return checkpoints;
+    }
+
+    /**
+     * Sets state checkpoints.
+     *
+     * @param checkpoints the state checkpoints
+     */
+    public void setCheckpoints(List<ReplayCheckpoint> checkpoints) {
+        this.checkpoints = checkpoints;
+    }
+
     /**
      * Gets the game id.
      *
@@ -0,0 +1,307 @@
+package com.jcloisterzone.game.state;
+
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Comparator;
+import java.util.Iterator;
+
+import com.jcloisterzone.Immutable;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.pointer.FeaturePointer;
+import com.jcloisterzone.feature.Castle;
+import com.jcloisterzone.feature.City;
+import com.jcloisterzone.feature.Feature;
+
+import io.vavr.Tuple2;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import io.vavr.collection.Set;
+import io.vavr.control.Option;
+
+/**
+ * Persistent union-find (disjoint set) index of board features.
+ *
+ * Every feature pointer links to its parent pointer, feature value is stored only once,
+ * at the root pointer of its set. Merge of two features links their roots
+ * so cost doesn't depend on number of places of merged features.
+ *
+ * Union is done by rank, so lookup follows O(log n) parent links.
+ *
+ * Places of completed cities and castles are indexed directly, farm scoring resolves
+ * adjoining cities by single lookup (see {@link #getCompletedCity(FeaturePointer)}).
+ */
+@Immutable
+public class FeatureMap implements Iterable<Tuple2<FeaturePointer, Feature>>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final FeatureMap EMPTY = new FeatureMap(HashMap.empty(), HashMap.empty(), HashMap.empty(), HashMap.empty(), HashMap.empty());
+
+    // root pointer is linked to itself
+    private final HashMap<FeaturePointer, FeaturePointer> parents;
+    private final HashMap<FeaturePointer, Feature> roots;
+    // only ranks greater than zero are stored
+    private final HashMap<FeaturePointer, Integer> ranks;
+    // secondary index for "part of" lookups, feature pointers grouped by tile position
+    private final HashMap<Position, List<FeaturePointer>> tilePlaces;
+    // every place of completed city or castle mapped to the feature
+    private final HashMap<FeaturePointer, Feature> completedCities;
+
+    private FeatureMap(
+            HashMap<FeaturePointer, FeaturePointer> parents,
+            HashMap<FeaturePointer, Feature> roots,
+            HashMap<FeaturePointer, Integer> ranks,
+            HashMap<Position, List<FeaturePointer>> tilePlaces,
+            HashMap<FeaturePointer, Feature> completedCities) {
+        this.parents = parents;
+        this.roots = roots;
+        this.ranks = ranks;
+        this.tilePlaces = tilePlaces;
+        this.completedCities = completedCities;
+    }
+
+    public static FeatureMap empty() {
+        return EMPTY;
+    }
+
+    FeaturePointer findRoot(FeaturePointer fp) {
+        FeaturePointer ptr = parents.get(fp).getOrNull();
+        if (ptr == null) {
+            return null;
+        }
+        while (true) {
+            FeaturePointer parent = parents.get(ptr).get();
+            if (parent.equals(ptr)) {
+                return ptr;
+            }
+            ptr = parent;
+        }
+    }
+
+    private int getRank(FeaturePointer root) {
+        return ranks.get(root).getOrElse(0);
+    }
+
+    private static HashMap<Position, List<FeaturePointer>> addTilePlace(HashMap<Position, List<FeaturePointer>> tilePlaces, FeaturePointer fp) {
+        return tilePlaces.put(fp.getPosition(), tilePlaces.get(fp.getPosition()).getOrElse(List.empty()).prepend(fp));
+    }
+
+    private static boolean isCompletedCity(Feature feature) {
+        // completed city can't be merged anymore, it's only replaced by castle
+        return feature instanceof Castle || (feature instanceof City && ((City) feature).getOpenEdges().isEmpty());
+    }
+
+    private static HashMap<FeaturePointer, Feature> removeCompletedCity(HashMap<FeaturePointer, Feature> completedCities, Feature feature) {
+        if (feature != null && isCompletedCity(feature)) {
+            for (FeaturePointer fp : feature.getPlaces()) {
+                completedCities = completedCities.remove(fp);
+            }
+        }
+        return completedCities;
+    }
+
+    private static HashMap<FeaturePointer, Feature> addCompletedCity(HashMap<FeaturePointer, Feature> completedCities, Feature feature) {
+        if (isCompletedCity(feature)) {
+            for (FeaturePointer fp : feature.getPlaces()) {
+                completedCities = completedCities.put(fp, feature);
+            }
+        }
+        return completedCities;
+    }
+
+    public Option<Feature> get(FeaturePointer fp) {
+        FeaturePointer root = findRoot(fp);
+        return root == null ? Option.none() : roots.get(root);
+    }
+
+    /**
+     * Returns completed city or castle on given place or null if feature on the place isn't completed city.
+     */
+    public Feature getCompletedCity(FeaturePointer fp) {
+        return completedCities.get(fp).getOrNull();
+    }
+
+    public boolean containsKey(FeaturePointer fp) {
+        return parents.containsKey(fp);
+    }
+
+    public Set<FeaturePointer> keySet() {
+        return parents.keySet();
+    }
+
+    /**
+     * Returns "full" feature pointer which contains given pointer or null if there is no such.
+     * Only pointers on same position are examined.
+     */
+    public FeaturePointer findPartOf(FeaturePointer fp) {
+        for (FeaturePointer fullFp : tilePlaces.get(fp.getPosition()).getOrElse(List.empty())) {
+            if (fp.isPartOf(fullFp)) {
+                return fullFp;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns all features, each one exactly once.
+     */
+    public Seq<Feature> values() {
+        return roots.values();
+    }
+
+    public int size() {
+        return parents.size();
+    }
+
+    /**
+     * Replaces feature of set containing {@code fp}. New feature must have same places.
+     * If {@code fp} is not in the map yet, it's added as single place feature.
+     */
+    public FeatureMap put(FeaturePointer fp, Feature feature) {
+        FeaturePointer root = findRoot(fp);
+        if (root == null) {
+            return new FeatureMap(parents.put(fp, fp), roots.put(fp, feature), ranks, addTilePlace(tilePlaces, fp),
+                addCompletedCity(completedCities, feature));
+        }
+        HashMap<FeaturePointer, Feature> completedCities = removeCompletedCity(this.completedCities, roots.get(root).get());
+        return new FeatureMap(parents, roots.put(root, feature), ranks, tilePlaces, addCompletedCity(completedCities, feature));
+    }
+
+    /**
+     * Links every place of {@code feature} directly to new root.
+     * Can split existing set, in such case all features of original set must be put.
+     */
+    public FeatureMap put(Feature feature) {
+        FeaturePointer root = feature.getPlaces().get();
+        HashMap<FeaturePointer, FeaturePointer> parents = this.parents;
+        HashMap<FeaturePointer, Feature> roots = this.roots;
+        HashMap<FeaturePointer, Integer> ranks = this.ranks;
+        HashMap<Position, List<FeaturePointer>> tilePlaces = this.tilePlaces;
+        HashMap<FeaturePointer, Feature> completedCities = this.completedCities;
+        boolean single = true;
+        for (FeaturePointer fp : feature.getPlaces()) {
+            // place of replaced completed city, remaining places of split set are put by caller
+            completedCities = completedCities.remove(fp);
+            if (!fp.equals(root)) {
+                single = false;
+                if (roots.containsKey(fp)) {
+                    roots = roots.remove(fp);
+                    ranks = ranks.remove(fp);
+                }
+            }
+            if (!this.parents.containsKey(fp)) {
+                tilePlaces = addTilePlace(tilePlaces, fp);
+            }
+            parents = parents.put(fp, root);
+        }
+        roots = roots.put(root, feature);
+        ranks = single ? ranks.remove(root) : ranks.put(root, 1);
+        return new FeatureMap(parents, roots, ranks, tilePlaces, addCompletedCity(completedCities, feature));
+    }
+
+    /**
+     * Joins sets of given pointers into one set with {@code merged} feature.
+     * Pointers which are not in the map yet are added to resulting set.
+     */
+    public FeatureMap union(Feature merged, Iterable<FeaturePointer> parts) {
+        java.util.List<FeaturePointer> newPlaces = new java.util.ArrayList<>();
+        java.util.List<FeaturePointer> partRoots = new java.util.ArrayList<>();
+        FeaturePointer best = null;
+        int bestRank = -1;
+        for (FeaturePointer fp : parts) {
+            FeaturePointer root = findRoot(fp);
+            if (root == null) {
+                if (!newPlaces.contains(fp)) {
+                    newPlaces.add(fp);
+                }
+            } else if (!partRoots.contains(root)) {
+                partRoots.add(root);
+                int rank = getRank(root);
+                if (rank > bestRank) {
+                    best = root;
+                    bestRank = rank;
+                }
+            }
+        }
+
+        HashMap<FeaturePointer, FeaturePointer> parents = this.parents;
+        HashMap<FeaturePointer, Feature> roots = this.roots;
+        HashMap<FeaturePointer, Integer> ranks = this.ranks;
+        HashMap<Position, List<FeaturePointer>> tilePlaces = this.tilePlaces;
+        HashMap<FeaturePointer, Feature> completedCities = this.completedCities;
+        for (FeaturePointer root : partRoots) {
+            completedCities = removeCompletedCity(completedCities, roots.get(root).get());
+        }
+
+        if (best == null) {
+            best = newPlaces.remove(0);
+            bestRank = 0;
+            parents = parents.put(best, best);
+            tilePlaces = addTilePlace(tilePlaces, best);
+        }
+        int rank = bestRank;
+        for (FeaturePointer root : partRoots) {
+            if (root != best) {
+                rank = Math.max(rank, getRank(root) + 1);
+                parents = parents.put(root, best);
+                roots = roots.remove(root);
+                ranks = ranks.remove(root);
+            }
+        }
+        if (!newPlaces.isEmpty()) {
+            rank = Math.max(rank, 1);
+            for (FeaturePointer fp : newPlaces) {
+                parents = parents.put(fp, best);
+                tilePlaces = addTilePlace(tilePlaces, fp);
+            }
+        }
+        roots = roots.put(best, merged);
+        if (rank != bestRank) {
+            ranks = ranks.put(best, rank);
+        }
+        return new FeatureMap(parents, roots, ranks, tilePlaces, addCompletedCity(completedCities, merged));
+    }
+
+    @Override
+    public Iterator<Tuple2<FeaturePointer, Feature>> iterator() {
+        return parents.keySet().iterator().map(fp -> new Tuple2<>(fp, get(fp).get()));
+    }
+
+    // Links depend on order of merges. Only features are serialized (sorted by first place)
+    // so same board has always same serialized form and the index is rebuilt on read.
+    private Object writeReplace() {
+        Feature[] features = roots.values()
+            .sorted(FIRST_PLACE_ORDER)
+            .toJavaArray(Feature.class);
+        return new SerializedForm(features);
+    }
+
+    private void readObject(ObjectInputStream in) throws InvalidObjectException {
+        throw new InvalidObjectException("Serialized form required");
+    }
+
+    private static final Comparator<Feature> FIRST_PLACE_ORDER = Comparator
+        .comparing((Feature f) -> f.getPlaces().get().getPosition())
+        .thenComparing(f -> f.getPlaces().get().getLocation().getMask());
+
+    private static class SerializedForm implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Feature[] features;
+
+        public SerializedForm(Feature[] features) {
+            this.features = features;
+        }
+
+        private Object readResolve() {
+            FeatureMap map = EMPTY;
+            for (Feature feature : features) {
+                map = map.put(feature);
+            }
+            return map;
+        }
+    }
+}
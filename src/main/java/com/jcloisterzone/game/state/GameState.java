@@ -5,14 +5,17 @@ import java.util.function.Function;
 
 import com.jcloisterzone.Immutable;
 import com.jcloisterzone.Player;
+import com.jcloisterzone.board.EdgePattern;
+import com.jcloisterzone.board.EdgeType;
+import com.jcloisterzone.board.Location;
 import com.jcloisterzone.board.Position;
 import com.jcloisterzone.board.Tile;
 import com.jcloisterzone.board.TilePack;
 import com.jcloisterzone.board.pointer.FeaturePointer;
 import com.jcloisterzone.event.play.PlayEvent;
-import com.jcloisterzone.feature.Feature;
 import com.jcloisterzone.figure.Meeple;
 import com.jcloisterzone.game.Capability;
+import com.jcloisterzone.game.RandomGenerator;
 import com.jcloisterzone.game.Rule;
 import com.jcloisterzone.game.phase.Phase;
 import com.jcloisterzone.game.state.mixins.ActionsMixin;
@@ -24,22 +27,23 @@ import com.jcloisterzone.game.state.mixins.PlacementsMixin;
 import com.jcloisterzone.game.state.mixins.PlayersMixin;
 import com.jcloisterzone.game.state.mixins.RulesMixin;
 
+import io.vavr.Tuple2;
 import io.vavr.collection.Array;
 import io.vavr.collection.HashMap;
 import io.vavr.collection.HashSet;
 import io.vavr.collection.LinkedHashMap;
 import io.vavr.collection.List;
 import io.vavr.collection.Map;
-import io.vavr.collection.Queue;
 import io.vavr.collection.Seq;
 import io.vavr.collection.Set;
+import io.vavr.collection.Vector;
 
 @Immutable
 public class GameState implements ActionsMixin, BoardMixin,
         RulesMixin, CapabilitiesMixin, PlayersMixin, EventsMixin,
         FlagsMixin, PlacementsMixin, Serializable {
 
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 6L;
 
     //TODO group some fields into sub states
 
@@ -52,43 +56,61 @@ public class GameState implements ActionsMixin, BoardMixin,
     private final Tile drawnTile;
 
     private final LinkedHashMap<Position, PlacedTile> placedTiles;
+    // primitive keyed copy of placedTiles for fast lookups
+    private final PlacedTileIndex placedTileIndex;
+    // empty positions adjacent to placed tiles with edges required by their neighbours
+    private final HashMap<Position, EdgePattern> openPlacements;
     private final List<Tile> discardedTiles;
-    private final Map<FeaturePointer, Feature> featureMap;
+    private final FeatureMap featureMap;
 
     private final NeutralFiguresState neutralFigures;
     private final LinkedHashMap<Meeple, FeaturePointer> deployedMeeples;
+    // reverse index of deployedMeeples, meeples grouped by feature place (in deployment order)
+    // feature places are not changed by merge, so index is not affected by feature merges
+    private final HashMap<FeaturePointer, List<Meeple>> meeplesByPlace;
 
     //Flags for marking once per turn actions (like princess, portal, ransom ...)
     private final Set<Flag> flags;
 
     private final ActionsState playerActions;
-    private final Queue<PlayEvent> events;
+    private final Vector<PlayEvent> events;
 
     private final Class<? extends Phase> phase;
     private final int turnNumber;
 
+    // Zobrist hash of tiles, meeples, neutral figures and scores, maintained by reducers
+    private final long positionHash;
+
+    private final RandomGenerator random;
+
     public static GameState createInitial(
             Map<Rule, Object> rules,
             Seq<Capability<?>> capabilities,
             Array<Player> players,
             int turnPlayerIndex) {
-        return new GameState(
+        GameState state = new GameState(
             rules,
             CapabilitiesState.createInitial(capabilities),
             PlayersState.createInitial(players, turnPlayerIndex),
             null,
             null,
             LinkedHashMap.empty(),
-            List.empty(),
+            PlacedTileIndex.empty(),
             HashMap.empty(),
+            List.empty(),
+            FeatureMap.empty(),
             new NeutralFiguresState(),
             LinkedHashMap.empty(),
+            HashMap.empty(),
             null,
             HashSet.empty(),
-            Queue.empty(),
+            Vector.empty(),
             null,
-            1
+            1,
+            0L,
+            null
         );
+        return state.setPositionHash(PositionHash.of(state));
     }
 
 
@@ -99,29 +121,39 @@ public class GameState implements ActionsMixin, BoardMixin,
             PlayersState players,
             TilePack tilePack, Tile drawnTile,
             LinkedHashMap<Position, PlacedTile> placedTiles,
-            List<Tile> discardedTiles, Map<FeaturePointer, Feature> featureMap,
+            PlacedTileIndex placedTileIndex,
+            HashMap<Position, EdgePattern> openPlacements,
+            List<Tile> discardedTiles, FeatureMap featureMap,
             NeutralFiguresState neutralFigures,
             LinkedHashMap<Meeple, FeaturePointer> deployedMeeples,
+            HashMap<FeaturePointer, List<Meeple>> meeplesByPlace,
             ActionsState playerActions,
             Set<Flag> flags,
-            Queue<PlayEvent> events,
+            Vector<PlayEvent> events,
             Class<? extends Phase> phase,
-            int turnNumber) {
+            int turnNumber,
+            long positionHash,
+            RandomGenerator random) {
         this.rules = rules;
         this.capabilities = capabilities;
         this.players = players;
         this.tilePack = tilePack;
         this.drawnTile = drawnTile;
         this.placedTiles = placedTiles;
+        this.placedTileIndex = placedTileIndex;
+        this.openPlacements = openPlacements;
         this.discardedTiles = discardedTiles;
         this.featureMap = featureMap;
         this.neutralFigures = neutralFigures;
         this.deployedMeeples = deployedMeeples;
+        this.meeplesByPlace = meeplesByPlace;
         this.playerActions = playerActions;
         this.flags = flags;
         this.events = events;
         this.phase = phase;
         this.turnNumber = turnNumber;
+        this.positionHash = positionHash;
+        this.random = random;
     }
 
     @Override
@@ -129,24 +161,26 @@ public class GameState implements ActionsMixin, BoardMixin,
         if (capabilities == this.capabilities) return this;
         return new GameState(
             rules, capabilities, players,
-            tilePack, drawnTile, placedTiles, discardedTiles,
+            tilePack, drawnTile, placedTiles, placedTileIndex, openPlacements, discardedTiles,
             featureMap, neutralFigures,
-            deployedMeeples, playerActions,
+            deployedMeeples, meeplesByPlace, playerActions,
             flags, events,
-            phase, turnNumber
+            phase, turnNumber, positionHash, random
         );
     }
 
     @Override
     public GameState setPlayers(PlayersState players) {
         if (players == this.players) return this;
+        // tokens are changed from many places, keep their keys in sync here
+        long positionHash = this.positionHash ^ PositionHash.tokensChange(this.players, players);
         return new GameState(
             rules, capabilities, players,
-            tilePack, drawnTile, placedTiles, discardedTiles,
+            tilePack, drawnTile, placedTiles, placedTileIndex, openPlacements, discardedTiles,
             featureMap, neutralFigures,
-            deployedMeeples, playerActions,
+            deployedMeeples, meeplesByPlace, playerActions,
             flags, events,
-            phase, turnNumber
+            phase, turnNumber, positionHash, random
         );
     }
 
@@ -154,11 +188,11 @@ public class GameState implements ActionsMixin, BoardMixin,
         if (tilePack == this.tilePack) return this;
         return new GameState(
             rules, capabilities, players,
-            tilePack, drawnTile, placedTiles, discardedTiles,
+            tilePack, drawnTile, placedTiles, placedTileIndex, openPlacements, discardedTiles,
             featureMap, neutralFigures,
-            deployedMeeples, playerActions,
+            deployedMeeples, meeplesByPlace, playerActions,
             flags, events,
-            phase, turnNumber
+            phase, turnNumber, positionHash, random
         );
     }
 
@@ -170,42 +204,87 @@ public class GameState implements ActionsMixin, BoardMixin,
         if (drawnTile == this.drawnTile) return this;
         return new GameState(
             rules, capabilities, players,
-            tilePack, drawnTile, placedTiles, discardedTiles,
+            tilePack, drawnTile, placedTiles, placedTileIndex, openPlacements, discardedTiles,
             featureMap, neutralFigures,
-            deployedMeeples, playerActions,
+            deployedMeeples, meeplesByPlace, playerActions,
             flags, events,
-            phase, turnNumber
+            phase, turnNumber, positionHash, random
         );
     }
 
+    /**
+     * Replaces all placed tiles. Open placements are rebuilt, prefer {@link #putPlacedTile}
+     * for single tile changes.
+     */
     @Override
     public GameState setPlacedTiles(LinkedHashMap<Position, PlacedTile> placedTiles) {
         if (placedTiles == this.placedTiles) return this;
+        PlacedTileIndex placedTileIndex = PlacedTileIndex.ofAll(placedTiles);
+        HashMap<Position, EdgePattern> openPlacements = HashMap.empty();
+        for (Position pos : placedTiles.keySet()) {
+            openPlacements = updateOpenPlacements(openPlacements, placedTileIndex, pos);
+        }
+        return setPlacedTiles(placedTiles, placedTileIndex, openPlacements);
+    }
+
+    /**
+     * Places tile to board or replaces already placed tile on the same position.
+     * Only open placements around tile position are updated.
+     */
+    public GameState putPlacedTile(PlacedTile placedTile) {
+        Position pos = placedTile.getPosition();
+        LinkedHashMap<Position, PlacedTile> placedTiles = this.placedTiles.put(pos, placedTile);
+        PlacedTileIndex placedTileIndex = this.placedTileIndex.put(pos, placedTile);
+        return setPlacedTiles(placedTiles, placedTileIndex, updateOpenPlacements(openPlacements, placedTileIndex, pos));
+    }
+
+    private static HashMap<Position, EdgePattern> updateOpenPlacements(HashMap<Position, EdgePattern> openPlacements, PlacedTileIndex placedTiles, Position pos) {
+        openPlacements = openPlacements.remove(pos);
+        for (Position offset : Position.ADJACENT.values()) {
+            Position adj = pos.add(offset);
+            if (!placedTiles.contains(adj)) {
+                openPlacements = openPlacements.put(adj, new EdgePattern(
+                    getAdjacentEdge(placedTiles, adj, Location.N),
+                    getAdjacentEdge(placedTiles, adj, Location.E),
+                    getAdjacentEdge(placedTiles, adj, Location.S),
+                    getAdjacentEdge(placedTiles, adj, Location.W)
+                ));
+            }
+        }
+        return openPlacements;
+    }
+
+    private static EdgeType getAdjacentEdge(PlacedTileIndex placedTiles, Position pos, Location side) {
+        PlacedTile adjTile = placedTiles.get(pos.add(side));
+        return adjTile == null ? EdgeType.UNKNOWN : adjTile.getEdgePattern().at(side.rev());
+    }
+
+    private GameState setPlacedTiles(LinkedHashMap<Position, PlacedTile> placedTiles, PlacedTileIndex placedTileIndex, HashMap<Position, EdgePattern> openPlacements) {
         return new GameState(
             rules, capabilities, players,
-            tilePack, drawnTile, placedTiles, discardedTiles,
+            tilePack, drawnTile, placedTiles, placedTileIndex, openPlacements, discardedTiles,
             featureMap, neutralFigures,
-            deployedMeeples, playerActions,
+            deployedMeeples, meeplesByPlace, playerActions,
             flags, events,
-            phase, turnNumber
+            phase, turnNumber, positionHash, random
         );
     }
 
     @Override
-    public GameState setFeatureMap(Map<FeaturePointer, Feature> featureMap) {
+    public GameState setFeatureMap(FeatureMap featureMap) {
         if (featureMap == this.featureMap) return this;
         return new GameState(
             rules, capabilities, players,
-            tilePack, drawnTile, placedTiles, discardedTiles,
+            tilePack, drawnTile, placedTiles, placedTileIndex, openPlacements, discardedTiles,
             featureMap, neutralFigures,
-            deployedMeeples, playerActions,
+            deployedMeeples, meeplesByPlace, playerActions,
             flags, events,
-            phase, turnNumber
+            phase, turnNumber, positionHash, random
         );
     }
 
     @Override
-    public GameState mapFeatureMap(Function<Map<FeaturePointer, Feature>, Map<FeaturePointer, Feature>> fn) {
+    public GameState mapFeatureMap(Function<FeatureMap, FeatureMap> fn) {
         return setFeatureMap(fn.apply(featureMap));
     }
 
@@ -213,11 +292,11 @@ public class GameState implements ActionsMixin, BoardMixin,
         if (discardedTiles == this.discardedTiles) return this;
         return new GameState(
             rules, capabilities, players,
-            tilePack, drawnTile, placedTiles, discardedTiles,
+            tilePack, drawnTile, placedTiles, placedTileIndex, openPlacements, discardedTiles,
             featureMap, neutralFigures,
-            deployedMeeples, playerActions,
+            deployedMeeples, meeplesByPlace, playerActions,
             flags, events,
-            phase, turnNumber
+            phase, turnNumber, positionHash, random
         );
     }
 
@@ -225,11 +304,11 @@ public class GameState implements ActionsMixin, BoardMixin,
         if (neutralFigures == this.neutralFigures) return this;
         return new GameState(
             rules, capabilities, players,
-            tilePack, drawnTile, placedTiles, discardedTiles,
+            tilePack, drawnTile, placedTiles, placedTileIndex, openPlacements, discardedTiles,
             featureMap, neutralFigures,
-            deployedMeeples, playerActions,
+            deployedMeeples, meeplesByPlace, playerActions,
             flags, events,
-            phase, turnNumber
+            phase, turnNumber, positionHash, random
         );
     }
 
@@ -237,15 +316,60 @@ public class GameState implements ActionsMixin, BoardMixin,
         return setNeutralFigures(fn.apply(neutralFigures));
     }
 
+    /**
+     * Replaces all deployed meeples. Meeple index is rebuilt, prefer {@link #deployMeeple}
+     * and {@link #undeployMeeple} for single meeple changes.
+     */
     public GameState setDeployedMeeples(LinkedHashMap<Meeple, FeaturePointer> deployedMeeples) {
         if (deployedMeeples == this.deployedMeeples) return this;
+        HashMap<FeaturePointer, List<Meeple>> meeplesByPlace = HashMap.empty();
+        for (Tuple2<Meeple, FeaturePointer> t : deployedMeeples) {
+            meeplesByPlace = addToIndex(meeplesByPlace, t._1, t._2);
+        }
+        return setDeployedMeeples(deployedMeeples, meeplesByPlace);
+    }
+
+    /**
+     * Deploys meeple to given place. If meeple is already deployed, it is moved.
+     */
+    public GameState deployMeeple(Meeple meeple, FeaturePointer fp) {
+        HashMap<FeaturePointer, List<Meeple>> meeplesByPlace = this.meeplesByPlace;
+        FeaturePointer source = deployedMeeples.get(meeple).getOrNull();
+        if (source != null) {
+            meeplesByPlace = removeFromIndex(meeplesByPlace, meeple, source);
+        }
+        return setDeployedMeeples(
+            deployedMeeples.put(meeple, fp),
+            addToIndex(meeplesByPlace, meeple, fp)
+        );
+    }
+
+    public GameState undeployMeeple(Meeple meeple) {
+        FeaturePointer source = deployedMeeples.get(meeple).getOrNull();
+        if (source == null) return this;
+        return setDeployedMeeples(
+            deployedMeeples.remove(meeple),
+            removeFromIndex(meeplesByPlace, meeple, source)
+        );
+    }
+
+    private static HashMap<FeaturePointer, List<Meeple>> addToIndex(HashMap<FeaturePointer, List<Meeple>> index, Meeple meeple, FeaturePointer fp) {
+        return index.put(fp, index.get(fp).getOrElse(List.empty()).append(meeple));
+    }
+
+    private static HashMap<FeaturePointer, List<Meeple>> removeFromIndex(HashMap<FeaturePointer, List<Meeple>> index, Meeple meeple, FeaturePointer fp) {
+        List<Meeple> meeples = index.get(fp).get().remove(meeple);
+        return meeples.isEmpty() ? index.remove(fp) : index.put(fp, meeples);
+    }
+
+    private GameState setDeployedMeeples(LinkedHashMap<Meeple, FeaturePointer> deployedMeeples, HashMap<FeaturePointer, List<Meeple>> meeplesByPlace) {
         return new GameState(
             rules, capabilities, players,
-            tilePack, drawnTile, placedTiles, discardedTiles,
+            tilePack, drawnTile, placedTiles, placedTileIndex, openPlacements, discardedTiles,
             featureMap, neutralFigures,
-            deployedMeeples, playerActions,
+            deployedMeeples, meeplesByPlace, playerActions,
             flags, events,
-            phase, turnNumber
+            phase, turnNumber, positionHash, random
         );
     }
 
@@ -254,11 +378,11 @@ public class GameState implements ActionsMixin, BoardMixin,
         if (playerActions == this.playerActions) return this;
         return new GameState(
             rules, capabilities, players,
-            tilePack, drawnTile, placedTiles, discardedTiles,
+            tilePack, drawnTile, placedTiles, placedTileIndex, openPlacements, discardedTiles,
             featureMap, neutralFigures,
-            deployedMeeples, playerActions,
+            deployedMeeples, meeplesByPlace, playerActions,
             flags, events,
-            phase, turnNumber
+            phase, turnNumber, positionHash, random
         );
     }
 
@@ -271,24 +395,24 @@ public class GameState implements ActionsMixin, BoardMixin,
         if (flags == this.flags) return this;
         return new GameState(
             rules, capabilities, players,
-            tilePack, drawnTile, placedTiles, discardedTiles,
+            tilePack, drawnTile, placedTiles, placedTileIndex, openPlacements, discardedTiles,
             featureMap, neutralFigures,
-            deployedMeeples, playerActions,
+            deployedMeeples, meeplesByPlace, playerActions,
             flags, events,
-            phase, turnNumber
+            phase, turnNumber, positionHash, random
         );
     }
 
     @Override
-    public GameState setEvents(Queue<PlayEvent> events) {
+    public GameState setEvents(Vector<PlayEvent> events) {
         if (events == this.events) return this;
         return new GameState(
             rules, capabilities, players,
-            tilePack, drawnTile, placedTiles, discardedTiles,
+            tilePack, drawnTile, placedTiles, placedTileIndex, openPlacements, discardedTiles,
             featureMap, neutralFigures,
-            deployedMeeples, playerActions,
+            deployedMeeples, meeplesByPlace, playerActions,
             flags, events,
-            phase, turnNumber
+            phase, turnNumber, positionHash, random
         );
     }
 
@@ -296,11 +420,11 @@ public class GameState implements ActionsMixin, BoardMixin,
         if (phase == this.phase) return this;
         return new GameState(
             rules, capabilities, players,
-            tilePack, drawnTile, placedTiles, discardedTiles,
+            tilePack, drawnTile, placedTiles, placedTileIndex, openPlacements, discardedTiles,
             featureMap, neutralFigures,
-            deployedMeeples, playerActions,
+            deployedMeeples, meeplesByPlace, playerActions,
             flags, events,
-            phase, turnNumber
+            phase, turnNumber, positionHash, random
         );
     }
 
@@ -308,11 +432,35 @@ public class GameState implements ActionsMixin, BoardMixin,
         if (turnNumber == this.turnNumber) return this;
         return new GameState(
             rules, capabilities, players,
-            tilePack, drawnTile, placedTiles, discardedTiles,
+            tilePack, drawnTile, placedTiles, placedTileIndex, openPlacements, discardedTiles,
+            featureMap, neutralFigures,
+            deployedMeeples, meeplesByPlace, playerActions,
+            flags, events,
+            phase, turnNumber, positionHash, random
+        );
+    }
+
+    public GameState setPositionHash(long positionHash) {
+        if (positionHash == this.positionHash) return this;
+        return new GameState(
+            rules, capabilities, players,
+            tilePack, drawnTile, placedTiles, placedTileIndex, openPlacements, discardedTiles,
             featureMap, neutralFigures,
-            deployedMeeples, playerActions,
+            deployedMeeples, meeplesByPlace, playerActions,
             flags, events,
-            phase, turnNumber
+            phase, turnNumber, positionHash, random
+        );
+    }
+
+    public GameState setRandom(RandomGenerator random) {
+        if (random == this.random) return this;
+        return new GameState(
+            rules, capabilities, players,
+            tilePack, drawnTile, placedTiles, placedTileIndex, openPlacements, discardedTiles,
+            featureMap, neutralFigures,
+            deployedMeeples, meeplesByPlace, playerActions,
+            flags, events,
+            phase, turnNumber, positionHash, random
         );
     }
 
@@ -344,12 +492,22 @@ public class GameState implements ActionsMixin, BoardMixin,
         return placedTiles;
     }
 
+    @Override
+    public PlacedTile getPlacedTile(Position pos) {
+        return placedTileIndex.get(pos);
+    }
+
+    @Override
+    public HashMap<Position, EdgePattern> getOpenPlacements() {
+        return openPlacements;
+    }
+
     public List<Tile> getDiscardedTiles() {
         return discardedTiles;
     }
 
     @Override
-    public Map<FeaturePointer, Feature> getFeatureMap() {
+    public FeatureMap getFeatureMap() {
         return featureMap;
     }
 
@@ -361,6 +519,13 @@ public class GameState implements ActionsMixin, BoardMixin,
         return deployedMeeples;
     }
 
+    /**
+     * Gets meeples deployed on given feature place, in deployment order.
+     */
+    public List<Meeple> getMeeplesOnPlace(FeaturePointer fp) {
+        return meeplesByPlace.get(fp).getOrElse(List.empty());
+    }
+
     @Override
     public ActionsState getPlayerActions() {
         return playerActions;
@@ -372,7 +537,7 @@ public class GameState implements ActionsMixin, BoardMixin,
     }
 
     @Override
-    public Queue<PlayEvent> getEvents() {
+    public Vector<PlayEvent> getEvents() {
         return events;
     }
 
@@ -383,4 +548,20 @@ public class GameState implements ActionsMixin, BoardMixin,
     public int getTurnNumber() {
         return turnNumber;
     }
+
+    /**
+     * Returns 64-bit hash of placed tiles, deployed meeples, neutral figures and player scores.
+     * Hash is independent on order of moves which lead to the position.
+     * @see PositionHash
+     */
+    public long getPositionHash() {
+        return positionHash;
+    }
+
+    /**
+     * Returns random generator for the next random decision (tile draw, dice roll).
+     */
+    public RandomGenerator getRandom() {
+        return random;
+    }
 }
@@ -1,16 +1,16 @@
 package com.jcloisterzone.game.state;
 
-import java.util.function.Function;
-
 import io.vavr.Function1;
 
 public class MemoizedValue<T> implements Function1<GameState, T> {
 
-    private final Function<GameState, T> fn;
-    private T cachedValue;
-    private GameState cachedState;
+    private static final long serialVersionUID = 1L;
+
+    private final Function1<GameState, T> fn;
+    private transient T cachedValue;
+    private transient GameState cachedState;
 
-    public MemoizedValue(Function<GameState, T> fn) {
+    public MemoizedValue(Function1<GameState, T> fn) {
         this.fn = fn;
     }
 
@@ -0,0 +1,144 @@
+package com.jcloisterzone.game.state;
+
+import java.io.Serializable;
+
+import com.jcloisterzone.Immutable;
+import com.jcloisterzone.board.Position;
+
+import io.vavr.Tuple2;
+
+/**
+ * Index of placed tiles for position lookups.
+ *
+ * Board is split into 8x8 chunks. Chunks are found in small open addressing table
+ * keyed by packed chunk position (see {@link Position#pack(int, int)}), tile is then read from the chunk
+ * by its offset. Lookup doesn't allocate and doesn't call {@code equals} on positions.
+ * Index is persistent - {@link #put} copies only the chunk it writes to and the chunk table,
+ * which stays small (one entry per 64 board cells), other chunks are shared with previous index.
+ * Ordered view of tiles is still provided by {@link GameState#getPlacedTiles()}.
+ */
+@Immutable
+public final class PlacedTileIndex implements Serializable {
+
+    private static final long serialVersionUID = 2L;
+
+    private static final int CHUNK_BITS = 3;
+    private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+    private static final int CHUNK_SIZE = 1 << (2 * CHUNK_BITS);
+
+    private static final int MIN_CAPACITY = 8;
+    private static final PlacedTileIndex EMPTY = new PlacedTileIndex(new long[MIN_CAPACITY], new PlacedTile[MIN_CAPACITY][], 0, 0);
+
+    private final long[] keys;
+    // null chunk marks free slot
+    private final PlacedTile[][] chunks;
+    private final int chunkCount;
+    private final int size;
+
+    private PlacedTileIndex(long[] keys, PlacedTile[][] chunks, int chunkCount, int size) {
+        this.keys = keys;
+        this.chunks = chunks;
+        this.chunkCount = chunkCount;
+        this.size = size;
+    }
+
+    public static PlacedTileIndex empty() {
+        return EMPTY;
+    }
+
+    public static PlacedTileIndex ofAll(Iterable<Tuple2<Position, PlacedTile>> placedTiles) {
+        PlacedTileIndex index = EMPTY;
+        for (Tuple2<Position, PlacedTile> t : placedTiles) {
+            index = index.put(t._1, t._2);
+        }
+        return index;
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static long chunkKey(int x, int y) {
+        return Position.pack(x >> CHUNK_BITS, y >> CHUNK_BITS);
+    }
+
+    private static int offset(int x, int y) {
+        return ((x & CHUNK_MASK) << CHUNK_BITS) | (y & CHUNK_MASK);
+    }
+
+    /**
+     * Returns slot of chunk containing given cell or free slot where it belongs.
+     */
+    private int findSlot(long key) {
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (chunks[i] != null && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    public PlacedTile get(Position pos) {
+        return get(pos.x, pos.y);
+    }
+
+    public PlacedTile get(int x, int y) {
+        PlacedTile[] chunk = chunks[findSlot(chunkKey(x, y))];
+        return chunk == null ? null : chunk[offset(x, y)];
+    }
+
+    public boolean contains(Position pos) {
+        return get(pos.x, pos.y) != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns index with added tile, tile on the same position is replaced.
+     */
+    public PlacedTileIndex put(Position pos, PlacedTile placedTile) {
+        long key = chunkKey(pos.x, pos.y);
+        int i = findSlot(key);
+        PlacedTile[] chunk = chunks[i];
+        if (chunk == null) {
+            // keep load factor under 1/2
+            if (2 * (chunkCount + 1) > keys.length) {
+                return rehash(keys.length * 2).put(pos, placedTile);
+            }
+            long[] newKeys = keys.clone();
+            newKeys[i] = key;
+            PlacedTile[] newChunk = new PlacedTile[CHUNK_SIZE];
+            newChunk[offset(pos.x, pos.y)] = placedTile;
+            PlacedTile[][] newChunks = chunks.clone();
+            newChunks[i] = newChunk;
+            return new PlacedTileIndex(newKeys, newChunks, chunkCount + 1, size + 1);
+        }
+
+        int offset = offset(pos.x, pos.y);
+        PlacedTile[] newChunk = chunk.clone();
+        newChunk[offset] = placedTile;
+        PlacedTile[][] newChunks = chunks.clone();
+        newChunks[i] = newChunk;
+        // keys are never changed after construction, can be shared
+        return new PlacedTileIndex(keys, newChunks, chunkCount, chunk[offset] == null ? size + 1 : size);
+    }
+
+    private PlacedTileIndex rehash(int capacity) {
+        long[] newKeys = new long[capacity];
+        PlacedTile[][] newChunks = new PlacedTile[capacity][];
+        int mask = capacity - 1;
+        for (int j = 0; j < keys.length; j++) {
+            if (chunks[j] == null) continue;
+            int i = slot(keys[j], mask);
+            while (newChunks[i] != null) {
+                i = (i + 1) & mask;
+            }
+            newKeys[i] = keys[j];
+            newChunks[i] = chunks[j];
+        }
+        return new PlacedTileIndex(newKeys, newChunks, chunkCount, size);
+    }
+}
@@ -0,0 +1,253 @@
+package com.jcloisterzone.game.state;
+
+import com.jcloisterzone.Player;
+import com.jcloisterzone.PlayerScore;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.pointer.BoardPointer;
+import com.jcloisterzone.board.pointer.FeaturePointer;
+import com.jcloisterzone.feature.Castle;
+import com.jcloisterzone.feature.Feature;
+import com.jcloisterzone.feature.Tower;
+import com.jcloisterzone.figure.Meeple;
+import com.jcloisterzone.figure.neutral.NeutralFigure;
+import com.jcloisterzone.game.Token;
+import com.jcloisterzone.game.capability.BridgeCapability;
+import com.jcloisterzone.game.capability.FerriesCapability;
+import com.jcloisterzone.game.capability.FerriesCapabilityModel;
+import com.jcloisterzone.game.capability.GoldminesCapability;
+import com.jcloisterzone.game.capability.LittleBuildingsCapability;
+import com.jcloisterzone.game.capability.LittleBuildingsCapability.LittleBuilding;
+import com.jcloisterzone.game.capability.TunnelCapability;
+
+import io.vavr.Tuple2;
+import io.vavr.collection.Array;
+import io.vavr.collection.Map;
+import io.vavr.collection.Set;
+
+/**
+ * Zobrist-like 64-bit position hash.
+ *
+ * Every position component (placed tile, deployed meeple, neutral figure, player score,
+ * player tokens and pieces placed by capabilities - bridges, castles, tower heights, ferries,
+ * tunnels, gold and little buildings) contributes one pseudo-random key
+ * and the position hash is XOR of all keys.
+ * Result doesn't depend on order in which the position was reached.
+ *
+ * Keys are derived only from values with stable hash codes (ids, positions, location masks)
+ * so same position has same hash in every JVM.
+ */
+public final class PositionHash {
+
+    private static final long TILE = 0x5bd1e9955bd1e995L;
+    private static final long MEEPLE = 0x27d4eb2f165667c5L;
+    private static final long NEUTRAL_FIGURE = 0x94d049bb133111ebL;
+    private static final long SCORE = 0xbf58476d1ce4e5b9L;
+    private static final long TOKEN = 0x9e3779b97f4a7c15L;
+    private static final long BRIDGE = 0xc2b2ae3d27d4eb4fL;
+    private static final long CASTLE = 0x165667b19e3779f9L;
+    private static final long TOWER = 0x85ebca77c2b2ae63L;
+    private static final long FERRY = 0xd6e8feb86659fd93L;
+    private static final long TUNNEL = 0xa0761d6478bd642fL;
+    private static final long GOLD = 0xe7037ed1a0b428dbL;
+    private static final long LITTLE_BUILDING = 0x8ebc6af09c88c6e3L;
+    private static final long TURN = 0x589965cc75374cc3L;
+
+    private PositionHash() {
+    }
+
+    public static long of(GameState state) {
+        long hash = 0L;
+        for (PlacedTile pt : state.getPlacedTiles().values()) {
+            hash ^= placedTile(pt);
+        }
+        for (Tuple2<Meeple, FeaturePointer> t : state.getDeployedMeeples()) {
+            hash ^= meeple(t._1, t._2);
+        }
+        for (Tuple2<NeutralFigure<?>, BoardPointer> t : state.getNeutralFigures().getDeployedNeutralFigures()) {
+            hash ^= neutralFigure(t._1, t._2);
+        }
+        int idx = 0;
+        for (PlayerScore score : state.getPlayers().getScore()) {
+            hash ^= score(idx++, score.getPoints());
+        }
+        idx = 0;
+        for (Map<Token, Integer> tokens : state.getPlayers().getTokens()) {
+            hash ^= tokens(idx++, tokens);
+        }
+        for (Feature feature : state.getFeatureMap().values()) {
+            if (feature instanceof Castle) {
+                hash ^= castle((Castle) feature);
+            } else if (feature instanceof Tower) {
+                hash ^= tower(feature.getPlaces().get(), ((Tower) feature).getHeight());
+            }
+        }
+        Set<FeaturePointer> bridges = state.getCapabilityModel(BridgeCapability.class);
+        if (bridges != null) {
+            for (FeaturePointer fp : bridges) {
+                hash ^= bridge(fp);
+            }
+        }
+        FerriesCapabilityModel ferries = state.getCapabilityModel(FerriesCapability.class);
+        if (ferries != null) {
+            for (FeaturePointer fp : ferries.getFerries()) {
+                hash ^= ferry(fp);
+            }
+        }
+        Map<FeaturePointer, PlacedTunnelToken> tunnels = state.getCapabilityModel(TunnelCapability.class);
+        if (tunnels != null) {
+            for (Tuple2<FeaturePointer, PlacedTunnelToken> t : tunnels) {
+                hash ^= tunnel(t._1, t._2);
+            }
+        }
+        Map<Position, Integer> gold = state.getCapabilityModel(GoldminesCapability.class);
+        if (gold != null) {
+            for (Tuple2<Position, Integer> t : gold) {
+                hash ^= gold(t._1, t._2);
+            }
+        }
+        Map<Position, LittleBuilding> littleBuildings = state.getCapabilityModel(LittleBuildingsCapability.class);
+        if (littleBuildings != null) {
+            for (Tuple2<Position, LittleBuilding> t : littleBuildings) {
+                hash ^= littleBuilding(t._1, t._2);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Position hash extended by phase, turn player and active player. Same position can be reached
+     * in different turn parts and it must be evaluated separately for each of them.
+     */
+    public static long ofTurn(GameState state) {
+        Player turnPlayer = state.getTurnPlayer();
+        Player activePlayer = state.getActivePlayer();
+        long h = mix(TURN ^ state.getPositionHash());
+        h = mix(h ^ (state.getPhase() == null ? 0 : state.getPhase().getName().hashCode()));
+        h = mix(h ^ (turnPlayer == null ? -1 : turnPlayer.getIndex()));
+        return mix(h ^ (activePlayer == null ? -1 : activePlayer.getIndex()));
+    }
+
+    /**
+     * Difference of token keys between two players states. Only maps of players
+     * whose supply changed are rehashed.
+     */
+    public static long tokensChange(PlayersState prev, PlayersState curr) {
+        if (prev == null || curr == null || prev.getTokens() == curr.getTokens()) {
+            return 0L;
+        }
+        Array<Map<Token, Integer>> prevTokens = prev.getTokens();
+        Array<Map<Token, Integer>> currTokens = curr.getTokens();
+        long hash = 0L;
+        for (int i = 0; i < currTokens.length(); i++) {
+            Map<Token, Integer> p = i < prevTokens.length() ? prevTokens.get(i) : null;
+            Map<Token, Integer> c = currTokens.get(i);
+            if (p != c) {
+                hash ^= tokens(i, p) ^ tokens(i, c);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Every rotation has its own key. Rotations of tiles with symmetric edges aren't merged,
+     * because features can still differ (eg. pennant or inn at one side only).
+     */
+    public static long placedTile(PlacedTile pt) {
+        long h = mix(TILE ^ pt.getTile().getId().hashCode());
+        h = mix(h ^ pt.getPosition().hashCode());
+        return mix(h ^ pt.getRotation().ordinal());
+    }
+
+    public static long meeple(Meeple meeple, FeaturePointer fp) {
+        long h = mix(MEEPLE ^ meeple.getId().hashCode());
+        return mix(h ^ fp.hashCode());
+    }
+
+    public static long neutralFigure(NeutralFigure<?> figure, BoardPointer ptr) {
+        long h = mix(NEUTRAL_FIGURE ^ figure.getId().hashCode());
+        return mix(h ^ ptr.hashCode());
+    }
+
+    public static long score(int playerIndex, int points) {
+        long h = mix(SCORE ^ playerIndex);
+        return mix(h ^ points);
+    }
+
+    public static long tokens(int playerIndex, Map<Token, Integer> tokens) {
+        long hash = 0L;
+        if (tokens != null) {
+            for (Tuple2<Token, Integer> t : tokens) {
+                hash ^= token(playerIndex, t._1, t._2);
+            }
+        }
+        return hash;
+    }
+
+    public static long token(int playerIndex, Token token, int count) {
+        long h = mix(TOKEN ^ playerIndex);
+        h = mix(h ^ token.name().hashCode());
+        return mix(h ^ count);
+    }
+
+    public static long bridge(FeaturePointer fp) {
+        return mix(BRIDGE ^ fp.hashCode());
+    }
+
+    /**
+     * Castle is identified by its places, key doesn't depend on their order.
+     */
+    public static long castle(Castle castle) {
+        long h = 0L;
+        for (FeaturePointer fp : castle.getPlaces()) {
+            h ^= mix(CASTLE ^ fp.hashCode());
+        }
+        return mix(h);
+    }
+
+    /**
+     * Empty tower has no key, so placing first tower piece is handled same way as other ones.
+     */
+    public static long tower(FeaturePointer fp, int height) {
+        if (height == 0) {
+            return 0L;
+        }
+        long h = mix(TOWER ^ fp.hashCode());
+        return mix(h ^ height);
+    }
+
+    public static long ferry(FeaturePointer fp) {
+        return mix(FERRY ^ fp.hashCode());
+    }
+
+    /**
+     * Open tunnel end is part of placed tile and it has no key.
+     */
+    public static long tunnel(FeaturePointer fp, PlacedTunnelToken token) {
+        if (token == null) {
+            return 0L;
+        }
+        long h = mix(TUNNEL ^ fp.hashCode());
+        h = mix(h ^ token.getPlayerIndex());
+        return mix(h ^ token.getToken().name().hashCode());
+    }
+
+    public static long gold(Position pos, int count) {
+        if (count == 0) {
+            return 0L;
+        }
+        long h = mix(GOLD ^ pos.hashCode());
+        return mix(h ^ count);
+    }
+
+    public static long littleBuilding(Position pos, LittleBuilding building) {
+        long h = mix(LITTLE_BUILDING ^ pos.hashCode());
+        return mix(h ^ building.name().hashCode());
+    }
+
+    /** SplitMix64 finalizer */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -9,13 +9,13 @@ import com.jcloisterzone.board.Rotation;
 import com.jcloisterzone.board.pointer.FeaturePointer;
 import com.jcloisterzone.feature.Feature;
 import com.jcloisterzone.feature.Structure;
+import com.jcloisterzone.game.state.FeatureMap;
 import com.jcloisterzone.game.state.GameState;
 import com.jcloisterzone.game.state.PlacedTile;
 
 import io.vavr.Predicates;
 import io.vavr.Tuple2;
 import io.vavr.collection.LinkedHashMap;
-import io.vavr.collection.Map;
 import io.vavr.collection.Stream;
 
 public interface BoardMixin {
@@ -23,9 +23,9 @@ public interface BoardMixin {
     LinkedHashMap<Position, PlacedTile> getPlacedTiles();
     GameState setPlacedTiles(LinkedHashMap<Position, PlacedTile> placedTiles);
 
-    Map<FeaturePointer, Feature> getFeatureMap();
-    GameState setFeatureMap(Map<FeaturePointer, Feature> featureMap);
-    GameState mapFeatureMap(Function<Map<FeaturePointer, Feature>, Map<FeaturePointer, Feature>> fn);
+    FeatureMap getFeatureMap();
+    GameState setFeatureMap(FeatureMap featureMap);
+    GameState mapFeatureMap(Function<FeatureMap, FeatureMap> fn);
 
     // Tiles
 
@@ -79,22 +79,20 @@ public interface BoardMixin {
     // Features
 
     default Stream<Feature> getFeatures() {
-        return Stream.ofAll(getFeatureMap().values())
-            .distinct();
+        return Stream.ofAll(getFeatureMap().values());
     }
 
     @SuppressWarnings("unchecked")
     default <T extends Feature> Stream<T> getFeatures(Class<T> cls) {
         return Stream.ofAll(getFeatureMap().values())
             .filter(Predicates.instanceOf(cls))
-            .distinct()
             .map(f -> (T) f);
     }
 
     default Stream<Tuple2<Location, Feature>> getTileFeatures2(Position pos) {
         PlacedTile placedTile = getPlacedTile(pos);
         Rotation rot = placedTile.getRotation();
-        Map<FeaturePointer, Feature> allFeatures = getFeatureMap();
+        FeatureMap allFeatures = getFeatureMap();
         return Stream.ofAll(placedTile.getTile().getInitialFeatures())
             .map(t -> t.update1(t._1.rotateCW(rot)))
             .map(t -> t.update2(
@@ -121,10 +119,8 @@ public interface BoardMixin {
 
     default Feature getFeaturePartOf(FeaturePointer fp) {
         FeaturePointer normFp = fp.getLocation() == Location.MONASTERY ? fp.setLocation(Location.CLOISTER) : fp;
-        return getFeatureMap()
-            .find(t -> normFp.isPartOf(t._1))
-            .map(Tuple2::_2)
-            .getOrNull();
+        Tuple2<FeaturePointer, Feature> t = getFeaturePartOf2(normFp);
+        return t == null ? null : t._2;
     }
 
     default Structure getStructurePartOf(FeaturePointer fp) {
@@ -136,8 +132,8 @@ public interface BoardMixin {
      */
     default Tuple2<FeaturePointer, Feature> getFeaturePartOf2(FeaturePointer fp) {
         FeaturePointer normFp = fp.getLocation() == Location.MONASTERY ? fp.setLocation(Location.CLOISTER) : fp;
-        return getFeatureMap()
-            .find(t -> normFp.isPartOf(t._1))
-            .getOrNull();
+        FeatureMap featureMap = getFeatureMap();
+        FeaturePointer fullFp = featureMap.findPartOf(normFp);
+        return fullFp == null ? null : new Tuple2<>(fullFp, featureMap.get(fullFp).get());
     }
 }
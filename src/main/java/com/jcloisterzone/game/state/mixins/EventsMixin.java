@@ -6,12 +6,16 @@ import com.jcloisterzone.event.play.PlayerTurnEvent;
 import com.jcloisterzone.game.state.GameState;
 
 import io.vavr.collection.List;
-import io.vavr.collection.Queue;
+import io.vavr.collection.Vector;
 
 public interface EventsMixin {
 
-    Queue<PlayEvent> getEvents();
-    GameState setEvents(Queue<PlayEvent> events);
+    /**
+     * Gets append-only log of play events. Index of event in the log is its sequence number,
+     * states derived from each other share the log prefix.
+     */
+    Vector<PlayEvent> getEvents();
+    GameState setEvents(Vector<PlayEvent> events);
 
     default GameState appendEvent(PlayEvent ev) {
         return setEvents(getEvents().append(ev));
@@ -16,35 +16,28 @@ import com.jcloisterzone.game.state.PlacedTile;
 
 import io.vavr.Predicates;
 import io.vavr.Tuple2;
-import io.vavr.collection.Map;
+import io.vavr.collection.HashMap;
 import io.vavr.collection.Set;
 import io.vavr.collection.Stream;
 import io.vavr.collection.Vector;
 
 public interface PlacementsMixin extends BoardMixin, PlayersMixin, CapabilitiesMixin {
 
-    default Stream<Tuple2<Position, EdgePattern>> getAvailablePlacements() {
-        java.util.Set<Position> used = new java.util.HashSet<>();
-        Map<Position, PlacedTile> placedTiles = getPlacedTiles();
+    EdgePattern UNKNOWN_EDGES = EdgePattern.fromString("????");
+
+    /**
+     * Gets empty positions adjacent to placed tiles together with edges required by adjacent tiles.
+     * Maintained by {@link GameState} when tiles are placed, so it's not computed from whole board.
+     */
+    HashMap<Position, EdgePattern> getOpenPlacements();
 
-        if (placedTiles.isEmpty()) {
+    default Stream<Tuple2<Position, EdgePattern>> getAvailablePlacements() {
+        if (getPlacedTiles().isEmpty()) {
             return Stream.of(
-                new Tuple2<>(Position.ZERO, EdgePattern.fromString("????"))
+                new Tuple2<>(Position.ZERO, UNKNOWN_EDGES)
             );
         }
-
-        return Stream.ofAll(placedTiles).flatMap(item -> {
-            Position pos = item._1;
-            java.util.List<Tuple2<Position, EdgePattern>> avail = new java.util.ArrayList<>(4);
-            for (Position offset: Position.ADJACENT.values()) {
-                Position adj = pos.add(offset);
-                if (!used.contains(adj) && !placedTiles.containsKey(adj)) {
-                    avail.add(new Tuple2<Position, EdgePattern>(adj, getEdgePattern(adj)));
-                    used.add(adj);
-                }
-            }
-            return avail;
-        });
+        return Stream.ofAll(getOpenPlacements());
     }
 
     default Stream<Tuple2<Position, EdgePattern>> getHoles() {
@@ -56,19 +49,7 @@ public interface PlacementsMixin extends BoardMixin, PlayersMixin, CapabilitiesM
         if (placed != null) {
             return placed.getEdgePattern();
         }
-
-        return new EdgePattern(
-            Position.ADJACENT.map((loc, offset) -> {
-                Position adj = pos.add(offset);
-                PlacedTile  adjTile = getPlacedTile(adj);
-                if (adjTile == null) {
-                    return new Tuple2<>(loc, EdgeType.UNKNOWN);
-                } else {
-                    EdgeType edge = adjTile.getEdgePattern().at(loc.rev());
-                    return new Tuple2<>(loc, edge);
-                }
-            })
-         );
+        return getOpenPlacements().get(pos).getOrElse(UNKNOWN_EDGES);
     }
 
     default Stream<PlacementOption> getTilePlacements(Tile tile) {
@@ -79,19 +60,23 @@ public interface PlacementsMixin extends BoardMixin, PlayersMixin, CapabilitiesM
         Vector<Tuple2<EdgePattern, Location>> baseBridgePatterns = playerHasBridge ? _This.getBridgePatterns(basePattern) : null;
 
         return getAvailablePlacements().flatMap(avail -> {
+            Position pos = avail._1;
+            EdgePattern border = avail._2;
+            // rotations are taken from precomputed fit table, bit 1 << rot.ordinal() is set for fitting rotation
+            int fitting = basePattern.getMatchingRotations(border);
+            if (fitting == 0 && !playerHasBridge) {
+                return Stream.empty();
+            }
             return Stream.of(Rotation.values())
                 .map(rot -> {
-                    Position pos = avail._1;
-                    EdgePattern border = avail._2;
-                    EdgePattern tilePattern = basePattern.rotate(rot);
-                    if (border.isMatchingExact(tilePattern)) {
+                    int rotBit = 1 << rot.ordinal();
+                    if ((fitting & rotBit) != 0) {
                         return new PlacementOption(pos, rot, null);
                     }
                     if (playerHasBridge) {
                         // check bridges on tile
                         for (Tuple2<EdgePattern, Location> t : baseBridgePatterns) {
-                            EdgePattern tileWithBridgePattern = t._1.rotate(rot);
-                            if (border.isMatchingExact(tileWithBridgePattern)) {
+                            if ((t._1.getMatchingRotations(border) & rotBit) != 0) {
                                 Location bridgeLocation = t._2.rotateCW(rot);
                                 return new PlacementOption(pos, rot, new FeaturePointer(pos, bridgeLocation));
                             }
@@ -117,7 +102,7 @@ public interface PlacementsMixin extends BoardMixin, PlayersMixin, CapabilitiesM
 
                             // and current til edge must be ROAD
                             EdgePattern borderWithBridgePattern = border.replace(side, EdgeType.ROAD);
-                            if (borderWithBridgePattern.isMatchingExact(tilePattern)) {
+                            if ((basePattern.getMatchingRotations(borderWithBridgePattern) & rotBit) != 0) {
                                 return new PlacementOption(pos, rot, bridgePtr);
                             }
                         }
@@ -4,6 +4,7 @@ import com.jcloisterzone.Player;
 import com.jcloisterzone.PlayerScore;
 import com.jcloisterzone.PointCategory;
 import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.game.state.PositionHash;
 
 import io.vavr.collection.Array;
 
@@ -26,12 +27,16 @@ public class AddPoints implements Reducer {
         }
 
         int idx = player.getIndex();
-        return state.mapPlayers(ps -> {
+        int currentPoints = state.getPlayers().getScore().get(idx).getPoints();
+        state = state.mapPlayers(ps -> {
             Array<PlayerScore> score = ps.getScore();
             PlayerScore playerScore = score.get(idx);
             score = score.update(idx, playerScore.addPoints(points, category));
             return ps.setScore(score);
         });
+        return state.setPositionHash(state.getPositionHash()
+            ^ PositionHash.score(idx, currentPoints)
+            ^ PositionHash.score(idx, currentPoints + points));
     }
 
 }
@@ -8,8 +8,8 @@ import com.jcloisterzone.figure.Follower;
 import com.jcloisterzone.figure.Meeple;
 import com.jcloisterzone.game.capability.TowerCapability;
 import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.game.state.PositionHash;
 
-import io.vavr.collection.LinkedHashMap;
 
 public class CaptureMeeple extends UndeployMeeple {
 
@@ -24,8 +24,8 @@ public class CaptureMeeple extends UndeployMeeple {
         if (p.equals(follower.getPlayer())) {
             return super.primaryUndeploy(state, meta, follower, source);
         } else {
-            LinkedHashMap<Meeple, FeaturePointer> deployedMeeples = state.getDeployedMeeples();
-            state = state.setDeployedMeeples(deployedMeeples.remove(follower));
+            state = state.undeployMeeple(follower);
+            state = state.setPositionHash(state.getPositionHash() ^ PositionHash.meeple(follower, source));
             state = state.mapCapabilityModel(TowerCapability.class, model -> {
                 return model.update(p.getIndex(), l -> l.append(follower));
             });
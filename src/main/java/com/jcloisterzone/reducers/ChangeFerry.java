@@ -2,7 +2,6 @@ package com.jcloisterzone.reducers;
 
 import com.jcloisterzone.board.Edge;
 import com.jcloisterzone.board.pointer.FeaturePointer;
-import com.jcloisterzone.feature.Feature;
 import com.jcloisterzone.feature.Road;
 import com.jcloisterzone.feature.Structure;
 import com.jcloisterzone.figure.Builder;
@@ -11,6 +10,7 @@ import com.jcloisterzone.game.capability.FerriesCapability;
 import com.jcloisterzone.game.capability.FerriesCapabilityModel;
 import com.jcloisterzone.game.state.GameState;
 import com.jcloisterzone.game.state.PlacedTile;
+import com.jcloisterzone.game.state.PositionHash;
 
 import io.vavr.Tuple2;
 import io.vavr.collection.List;
@@ -54,6 +54,7 @@ public class ChangeFerry implements Reducer {
         state = state.mapCapabilityModel(FerriesCapability.class, m -> {
             return new FerriesCapabilityModel(m.getFerries().remove(from), m.getMovedFerries());
         });
+        state = state.setPositionHash(state.getPositionHash() ^ PositionHash.ferry(from));
 
         List<FeaturePointer> sides = from.getLocation().splitToSides().map(loc -> from.setLocation(loc));
         Road merged = (Road) state.getFeature(sides.get());
@@ -88,11 +89,7 @@ public class ChangeFerry implements Reducer {
         // in such case, nothing changes for the road
         if (parts.get(0).getPlaces().size() != merged.getPlaces().size()) {
             for (Road part : parts) {
-                state = state.mapFeatureMap(m ->
-                    part.getPlaces()
-                        .toMap(fp -> new Tuple2<FeaturePointer, Feature>(fp, part))
-                        .merge(m)
-                );
+                state = state.mapFeatureMap(m -> m.put(part));
             }
         }
 
@@ -7,6 +7,7 @@ import com.jcloisterzone.feature.Structure;
 import com.jcloisterzone.figure.DeploymentCheckResult;
 import com.jcloisterzone.figure.Meeple;
 import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.game.state.PositionHash;
 
 import io.vavr.collection.LinkedHashMap;
 
@@ -33,7 +34,13 @@ public class DeployMeeple implements Reducer {
         }
 
         LinkedHashMap<Meeple, FeaturePointer> deployedMeeples = state.getDeployedMeeples();
-        state = state.setDeployedMeeples(deployedMeeples.put(meeple, fp));
+        long hash = state.getPositionHash() ^ PositionHash.meeple(meeple, fp);
+        FeaturePointer source = deployedMeeples.get(meeple).getOrNull();
+        if (source != null) {
+            hash ^= PositionHash.meeple(meeple, source);
+        }
+        state = state.deployMeeple(meeple, fp);
+        state = state.setPositionHash(hash);
         state = state.appendEvent(
             new MeepleDeployed(PlayEventMeta.createWithActivePlayer(state), meeple, fp)
         );
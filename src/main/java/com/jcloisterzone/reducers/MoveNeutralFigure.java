@@ -7,6 +7,7 @@ import com.jcloisterzone.event.play.PlayEvent.PlayEventMeta;
 import com.jcloisterzone.figure.neutral.NeutralFigure;
 import com.jcloisterzone.game.state.GameState;
 import com.jcloisterzone.game.state.NeutralFiguresState;
+import com.jcloisterzone.game.state.PositionHash;
 
 public class MoveNeutralFigure<P extends BoardPointer> implements Reducer {
 
@@ -39,7 +40,15 @@ public class MoveNeutralFigure<P extends BoardPointer> implements Reducer {
             );
         }
 
+        long hash = state.getPositionHash();
+        if (from != null) {
+            hash ^= PositionHash.neutralFigure(figure, from);
+        }
+        if (pointer != null) {
+            hash ^= PositionHash.neutralFigure(figure, pointer);
+        }
         state = state.setNeutralFigures(nfState);
+        state = state.setPositionHash(hash);
         state = state.appendEvent(
             new NeutralFigureMoved(PlayEventMeta.createWithPlayer(triggeringPlayer), figure, from, pointer)
         );
@@ -12,6 +12,7 @@ import com.jcloisterzone.game.capability.BridgeCapability;
 import com.jcloisterzone.game.capability.BridgeCapability.BrigeToken;
 import com.jcloisterzone.game.state.GameState;
 import com.jcloisterzone.game.state.PlacedTile;
+import com.jcloisterzone.game.state.PositionHash;
 
 import io.vavr.collection.LinkedHashMap;
 
@@ -38,12 +39,13 @@ public class PlaceBridge implements Reducer {
         PlacedTile ptile = placedTiles.get(bridgePos).get();
         Rotation tileRotation = ptile.getRotation();
         ptile = ptile.mapTile(t -> t.addBridge(bridgeLoc.rotateCCW(tileRotation)));
-        state = state.setPlacedTiles(placedTiles.put(bridgePos, ptile));
+        state = state.putPlacedTile(ptile);
 
         Bridge bridge = new Bridge(bridgeLoc);
         Road bridgeRoad = bridge.placeOnBoard(bridgePos, Rotation.R0); // bridge itself is rotated, placed like tile has no rotation!
         state = state.mapFeatureMap(m -> m.put(ptr, bridgeRoad));
         state = state.mapCapabilityModel(BridgeCapability.class, model -> model.add(ptr));
+        state = state.setPositionHash(state.getPositionHash() ^ PositionHash.bridge(ptr));
         if (!silent) {
             state = state.appendEvent(
                 new TokenPlacedEvent(PlayEventMeta.createWithActivePlayer(state), BrigeToken.BRIDGE, ptr)
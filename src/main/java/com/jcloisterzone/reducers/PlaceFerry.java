@@ -3,13 +3,12 @@ package com.jcloisterzone.reducers;
 import com.jcloisterzone.board.pointer.FeaturePointer;
 import com.jcloisterzone.event.play.PlayEvent.PlayEventMeta;
 import com.jcloisterzone.event.play.TokenPlacedEvent;
-import com.jcloisterzone.feature.Feature;
 import com.jcloisterzone.feature.Road;
 import com.jcloisterzone.game.capability.FerriesCapability;
 import com.jcloisterzone.game.capability.FerriesCapability.FerryToken;
 import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.game.state.PositionHash;
 
-import io.vavr.Tuple2;
 import io.vavr.collection.List;
 
 public class PlaceFerry implements Reducer {
@@ -25,6 +24,7 @@ public class PlaceFerry implements Reducer {
         GameState _state = state;
 
         state = state.mapCapabilityModel(FerriesCapability.class, m -> m.addFerry(ferry));
+        state = state.setPositionHash(state.getPositionHash() ^ PositionHash.ferry(ferry));
 
         List<Road> ends = ferry.getLocation().splitToSides().map(l -> (Road) _state.getFeature(ferry.setLocation(l)));
         assert ends.size() == 2;
@@ -32,11 +32,7 @@ public class PlaceFerry implements Reducer {
         Road r2 = ends.get(1);
         if (r1 != r2) {
             Road merged = r1.merge(r2);
-            state = state.mapFeatureMap(m ->
-                merged.getPlaces()
-                    .toMap(fp -> new Tuple2<FeaturePointer, Feature>(fp, merged))
-                    .merge(m)
-            );
+            state = state.mapFeatureMap(m -> m.union(merged, List.of(r1.getPlaces().get(), r2.getPlaces().get())));
         }
 
         state = state.appendEvent(
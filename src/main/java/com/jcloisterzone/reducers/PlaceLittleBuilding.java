@@ -6,6 +6,7 @@ import com.jcloisterzone.event.play.TokenPlacedEvent;
 import com.jcloisterzone.game.capability.LittleBuildingsCapability;
 import com.jcloisterzone.game.capability.LittleBuildingsCapability.LittleBuilding;
 import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.game.state.PositionHash;
 
 public class PlaceLittleBuilding implements Reducer {
 
@@ -23,6 +24,7 @@ public class PlaceLittleBuilding implements Reducer {
         state = state.mapCapabilityModel(LittleBuildingsCapability.class, placedTokens ->
             placedTokens.put(pos, token)
         );
+        state = state.setPositionHash(state.getPositionHash() ^ PositionHash.littleBuilding(pos, token));
         state = state.appendEvent(new TokenPlacedEvent(PlayEventMeta.createWithActivePlayer(state), token, pos));
         return state;
     }
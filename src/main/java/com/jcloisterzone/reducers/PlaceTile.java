@@ -13,19 +13,19 @@ import com.jcloisterzone.feature.Road;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.capability.AbbeyCapability;
 import com.jcloisterzone.game.capability.TunnelCapability;
+import com.jcloisterzone.game.state.FeatureMap;
 import com.jcloisterzone.game.state.GameState;
 import com.jcloisterzone.game.state.PlacedTile;
 import com.jcloisterzone.game.state.PlacedTunnelToken;
+import com.jcloisterzone.game.state.PositionHash;
 
-import io.vavr.Function3;
 import io.vavr.Tuple2;
 import io.vavr.Tuple3;
-import io.vavr.collection.HashMap;
 import io.vavr.collection.HashSet;
 import io.vavr.collection.LinkedHashMap;
+import io.vavr.collection.List;
 import io.vavr.collection.Map;
 import io.vavr.collection.Set;
-import io.vavr.collection.Stream;
 
 import javax.lang.model.type.ArrayType;
 import java.util.ArrayList;
@@ -50,109 +50,101 @@ public class PlaceTile implements Reducer {
         boolean abbeyPlacement = AbbeyCapability.isAbbey(tile);
 
         PlacedTile placedTile = new PlacedTile(tile, pos, rot);
-        state = state.setPlacedTiles(
-            placedTiles.put(pos, placedTile)
-        );
+        state = state.putPlacedTile(placedTile);
+        state = state.setPositionHash(state.getPositionHash() ^ PositionHash.placedTile(placedTile));
 
         GameState _state = state;
-        java.util.Map<FeaturePointer, Feature> fpUpdate = new java.util.HashMap<>();
+        FeatureMap featureMap = state.getFeatureMap();
         java.util.Set<FeaturePointer> newTunnels = new java.util.HashSet<>();
         java.util.List<Tuple3<FeaturePointer, FeaturePointer, ShortEdge>> multiEdgePairsToMerge = new ArrayList<>();
 
-        Stream.ofAll(tile.getInitialFeatures().values())
-            .map(f -> f.placeOnBoard(pos, rot))
-            .forEach(feature -> {
-                // update TunnelCapability model
-                if (feature instanceof Road) {
-                    Road road = (Road) feature;
-                    newTunnels.addAll(road.getOpenTunnelEnds().toJavaSet());
-                }
+        for (Feature initialFeature : tile.getInitialFeatures().values()) {
+            Feature feature = initialFeature.placeOnBoard(pos, rot);
 
-                // merge features
-                if (feature instanceof MultiTileFeature) {
-                    java.util.Set<Feature> alreadyMerged = new java.util.HashSet<>();
-                    java.util.Set<Edge> mergedEdges = new java.util.HashSet<>();
+            // update TunnelCapability model
+            if (feature instanceof Road) {
+                Road road = (Road) feature;
+                newTunnels.addAll(road.getOpenTunnelEnds().toJavaSet());
+            }
+
+            if (!(feature instanceof MultiTileFeature)) {
+                featureMap = featureMap.put(feature);
+                continue;
+            }
+
+            // merge features
+            java.util.Set<Feature> alreadyMerged = new java.util.HashSet<>();
+            java.util.Set<Edge> mergedEdges = new java.util.HashSet<>();
+            // places of just placed feature and "full" feature pointers of merged adjacent features
+            java.util.List<FeaturePointer> parts = new ArrayList<>(feature.getPlaces().toJavaList());
+
+            MultiTileFeature f = (MultiTileFeature) feature;
+            for (FeaturePointer adjFp : feature.getPlaces().get().getAdjacent(feature.getClass())) {
+                // find adjacent feature part (already placed)
+                Tuple2<FeaturePointer, Feature> adjTuple = _state.getFeaturePartOf2(adjFp);
+                MultiTileFeature adj = adjTuple == null ? null : (MultiTileFeature) adjTuple._2;
+                if (adj != null) {
+                    if (!alreadyMerged.contains(adj)) {
+                        // adjacent tile is not empty and adjacent feature is not same as feature adjacent (already processed) to other side
 
-                    Function3<MultiTileFeature, FeaturePointer, MultiTileFeature, MultiTileFeature> merge = (f, fullFp, adj) -> {
                         // if needs merge, check if state contains recent feature version
-                        MultiTileFeature updatedAdj = adj;
-                        if (fpUpdate.containsKey(fullFp)) { // "full" feature pointer from adjTuple must be used instead of "part of" adjFp
-                            // not recent - adj is going to be replaced by previous iteration of forEach
-                            // (separated feature on the placed tile is merging to same adjacent feature
-                            // Eg. road crossing is closing road ring
-                            //         |
-                            //     ....|....+....
-                            //    .    |    .      <<< just placed
-                            //    .    |    .
-                            // --------+---------
-                            //    .    |    .
-                            //    .    |    .
-                            //     ....|....
-                            //         |
-                        	updatedAdj = (MultiTileFeature) fpUpdate.get(fullFp);
-                        }
+                        // adj can be already merged by previous feature on the placed tile
+                        // Eg. road crossing is closing road ring
+                        //         |
+                        //     ....|....+....
+                        //    .    |    .      <<< just placed
+                        //    .    |    .
+                        // --------+---------
+                        //    .    |    .
+                        //    .    |    .
+                        //     ....|....
+                        //         |
+                        // "full" feature pointer from adjTuple must be used instead of "part of" adjFp
+                        MultiTileFeature updatedAdj = (MultiTileFeature) featureMap.get(adjTuple._1).get();
                         alreadyMerged.add(adj); //still track original adj, because it is compared at the beginning of condition
-                        return f.merge(updatedAdj);
-                    };
-
-                    Stream<FeaturePointer> adjacent = feature.getPlaces().get().getAdjacent(feature.getClass());
-                    feature = adjacent.foldLeft((MultiTileFeature) feature,  (f, adjFp) -> {
-                    	// find adjacent feature part (already placed)
-                        Tuple2<FeaturePointer, Feature> adjTuple = _state.getFeaturePartOf2(adjFp);
-                        MultiTileFeature adj = adjTuple == null ? null : (MultiTileFeature) adjTuple._2;
-                        if (adj != null) {
-                            if (!alreadyMerged.contains(adj)) {
-                                // adjacent tile is not empty and adjacent feature is not same as feature adjacent (already processed) to other side
-                                f = merge.apply(f, adjTuple._1, adj);
-                            }
-
-                            if (f instanceof City) {
-                                // this is needed to get correct open edges when merging HS.CC!.v tile) from two sided to same city
-                                Edge edge = new Edge(pos, adjFp.getPosition());
-                                mergedEdges.add(edge);
-                            }
+                        f = f.merge(updatedAdj);
+                        parts.add(adjTuple._1);
+                    }
 
-                        }
-                        return f;
-                    });
-
-                    // finally handle mutli-tile edge (Hills & Sheep HS.CC!.v tile)
-                    if (feature instanceof City) {
-                    	City city = (City) feature;
-                    	Set<Edge> openEdges = city.getOpenEdges();
-                    	// if mutli-edge reference is no longer between open edges, another city was just merged this edge
-                    	// and we need to merge third city there
-                    	Set<Tuple2<ShortEdge, FeaturePointer>> mutliEdgeToMerge = city.getMultiEdges()
-                                .filter(e -> mergedEdges.contains(e._1.toEdge()));
-
-                    	if (mutliEdgeToMerge.nonEmpty()) {
-                            for (Tuple2<ShortEdge, FeaturePointer> multiEdge : mutliEdgeToMerge) {
-                                FeaturePointer fullFp = multiEdge._2;
-                                City adj = (City) _state.getFeature(fullFp);
-
-                                // finding feature pointer on pos is technicaly not necessary, any place can be used, but let it clear
-                                multiEdgePairsToMerge.add(new Tuple3<FeaturePointer, FeaturePointer, ShortEdge>(
-                                        fullFp,
-                                        feature.getPlaces().find(fp -> fp.getPosition().equals(pos)).get(),
-                                        multiEdge._1
-                                ));
-                            }
-
-                            feature = city;
-                        }
+                    if (f instanceof City) {
+                        // this is needed to get correct open edges when merging HS.CC!.v tile) from two sided to same city
+                        Edge edge = new Edge(pos, adjFp.getPosition());
+                        mergedEdges.add(edge);
                     }
                 }
-                updateRefs(fpUpdate, feature);
-            });
+            }
+            feature = (Feature) f;
+
+            // finally handle mutli-tile edge (Hills & Sheep HS.CC!.v tile)
+            if (feature instanceof City) {
+                City city = (City) feature;
+                // if mutli-edge reference is no longer between open edges, another city was just merged this edge
+                // and we need to merge third city there
+                Set<Tuple2<ShortEdge, FeaturePointer>> mutliEdgeToMerge = city.getMultiEdges()
+                        .filter(e -> mergedEdges.contains(e._1.toEdge()));
+
+                for (Tuple2<ShortEdge, FeaturePointer> multiEdge : mutliEdgeToMerge) {
+                    FeaturePointer fullFp = multiEdge._2;
+
+                    // finding feature pointer on pos is technicaly not necessary, any place can be used, but let it clear
+                    multiEdgePairsToMerge.add(new Tuple3<FeaturePointer, FeaturePointer, ShortEdge>(
+                            fullFp,
+                            feature.getPlaces().find(fp -> fp.getPosition().equals(pos)).get(),
+                            multiEdge._1
+                    ));
+                }
+            }
+            featureMap = featureMap.union(feature, parts);
+        }
 
         // merge hills and sheep multi edge after all normal merges are processed
         for (Tuple3<FeaturePointer, FeaturePointer, ShortEdge> t: multiEdgePairsToMerge) {
-            City c1 = (City) fpUpdate.get(t._1);
-            City c2 = (City) fpUpdate.get(t._2);
+            City c1 = (City) featureMap.get(t._1).get();
+            City c2 = (City) featureMap.get(t._2).get();
             City c = c1 == c2 ? c1 : c1.merge(c2);
 
             c = c.setOpenEdges(c.getOpenEdges().remove(t._3));
-            updateRefs(fpUpdate, c);
+            featureMap = featureMap.union(c, List.of(t._1, t._2));
         }
 
         if (abbeyPlacement) {
@@ -163,16 +155,17 @@ public class PlaceTile implements Reducer {
             Set<FeaturePointer> abbeyNeighboring = HashSet.empty();
             for (Location side : Location.SIDES) {
                 FeaturePointer adjPartOfPtr = new FeaturePointer(pos.add(side), side.rev());
-                CompletableFeature<?> originalAdj = (CompletableFeature) state.getFeaturePartOf(adjPartOfPtr);
-                if (originalAdj == null) {
+                Tuple2<FeaturePointer, Feature> adjTuple = state.getFeaturePartOf2(adjPartOfPtr);
+                if (adjTuple == null) {
                     //farm (or empty tile - which can happen only in debug when non-hole placement is enabled)
                     continue;
                 }
+                CompletableFeature<?> originalAdj = (CompletableFeature) adjTuple._2;
 
                 // when same feature is merged on multiple abbey sides, then use update feature objects
                 // to not lost partial changes
                 CompletableFeature<?> adj = featureReplacement.getOrDefault(originalAdj, originalAdj);
-                FeaturePointer adjPtr = adj.getPlaces().find(fp -> adjPartOfPtr.isPartOf(fp)).get();
+                FeaturePointer adjPtr = adjTuple._1;
 
                 adj = adj.mergeAbbeyEdge(new Edge(pos, side));
                 adj = adj.setNeighboring(adj.getNeighboring().add(abbeyFp));
@@ -193,19 +186,19 @@ public class PlaceTile implements Reducer {
                             city2 = city2.setNeighboring(city2.getNeighboring().add(abbeyFp));
 
                             featureReplacement.put(originalCity2, city2);
-                            updateRefs(fpUpdate, city2);
+                            featureMap = featureMap.put(multiEdgeFp, city2);
                             abbeyNeighboring = abbeyNeighboring.add(multiEdgeFp);
                         }
                     }
                 }
 
                 featureReplacement.put(originalAdj, adj);
-                updateRefs(fpUpdate, adj);
+                featureMap = featureMap.put(adjPtr, adj);
                 abbeyNeighboring = abbeyNeighboring.add(adjPtr);
             }
             if (!abbeyNeighboring.isEmpty()) {
-                Cloister abbey = (Cloister) fpUpdate.get(abbeyFp);
-                fpUpdate.put(abbeyFp, abbey.setNeighboring(abbeyNeighboring));
+                Cloister abbey = (Cloister) featureMap.get(abbeyFp).get();
+                featureMap = featureMap.put(abbeyFp, abbey.setNeighboring(abbeyNeighboring));
             }
         }
 
@@ -216,7 +209,7 @@ public class PlaceTile implements Reducer {
             });
         }
 
-        state = state.mapFeatureMap(m -> HashMap.ofAll(fpUpdate).merge(m));
+        state = state.setFeatureMap(featureMap);
         state = state.appendEvent(
             new TilePlacedEvent(PlayEventMeta.createWithActivePlayer(state), tile, pos, rot)
         );
@@ -226,10 +219,4 @@ public class PlaceTile implements Reducer {
         return state;
     }
 
-    private void updateRefs(java.util.Map<FeaturePointer, Feature> fpUpdate, Feature f) {
-        for (FeaturePointer fp : f.getPlaces()) {
-            fpUpdate.put(fp, f);
-        }
-    }
-
 }
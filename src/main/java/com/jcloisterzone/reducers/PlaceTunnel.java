@@ -4,15 +4,16 @@ import com.jcloisterzone.Player;
 import com.jcloisterzone.board.pointer.FeaturePointer;
 import com.jcloisterzone.event.play.PlayEvent.PlayEventMeta;
 import com.jcloisterzone.event.play.TokenPlacedEvent;
-import com.jcloisterzone.feature.Feature;
 import com.jcloisterzone.feature.Road;
 import com.jcloisterzone.game.capability.TunnelCapability;
 import com.jcloisterzone.game.capability.TunnelCapability.Tunnel;
 import com.jcloisterzone.game.state.Flag;
 import com.jcloisterzone.game.state.GameState;
 import com.jcloisterzone.game.state.PlacedTunnelToken;
+import com.jcloisterzone.game.state.PositionHash;
 
 import io.vavr.Tuple2;
+import io.vavr.collection.List;
 import io.vavr.collection.Map;
 
 public class PlaceTunnel implements Reducer {
@@ -40,14 +41,12 @@ public class PlaceTunnel implements Reducer {
             Road r1 = (Road) state.getFeature(ptr);
             Road r2 = (Road) state.getFeature(secondEnd);
             Road merged = r1.connectTunnels(r2, ptr, secondEnd);
-            Map<FeaturePointer, Feature> featureMapUpdate = merged
-                .getPlaces()
-                .toMap(fp -> new Tuple2<>(fp, merged));
-            state = state.mapFeatureMap(m -> featureMapUpdate.merge(m));
+            state = state.mapFeatureMap(m -> m.union(merged, List.of(ptr, secondEnd)));
         }
 
         state = state.addFlag(Flag.TUNNEL_PLACED);
         state = state.setCapabilityModel(TunnelCapability.class, tunnels.put(ptr, placedToken));
+        state = state.setPositionHash(state.getPositionHash() ^ PositionHash.tunnel(ptr, placedToken));
         state = state.appendEvent(new TokenPlacedEvent(PlayEventMeta.createWithActivePlayer(state), token, ptr));
         return state;
     }
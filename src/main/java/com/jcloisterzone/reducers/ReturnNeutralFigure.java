@@ -7,6 +7,7 @@ import com.jcloisterzone.event.play.PlayEvent.PlayEventMeta;
 import com.jcloisterzone.figure.neutral.NeutralFigure;
 import com.jcloisterzone.game.state.GameState;
 import com.jcloisterzone.game.state.NeutralFiguresState;
+import com.jcloisterzone.game.state.PositionHash;
 
 public class ReturnNeutralFigure implements Reducer {
 
@@ -31,6 +32,9 @@ public class ReturnNeutralFigure implements Reducer {
             nfState.getDeployedNeutralFigures().remove(figure)
         );
         state = state.setNeutralFigures(nfState);
+        if (from != null) {
+            state = state.setPositionHash(state.getPositionHash() ^ PositionHash.neutralFigure(figure, from));
+        }
         state = state.appendEvent(
             new NeutralFigureReturned(PlayEventMeta.createWithPlayer(triggeringPlayer), figure, from)
         );
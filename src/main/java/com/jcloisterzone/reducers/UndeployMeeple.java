@@ -12,9 +12,9 @@ import com.jcloisterzone.figure.Pig;
 import com.jcloisterzone.figure.Shepherd;
 import com.jcloisterzone.game.capability.SheepCapability;
 import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.game.state.PositionHash;
 
 import io.vavr.Tuple2;
-import io.vavr.collection.LinkedHashMap;
 import io.vavr.collection.Stream;
 
 public class UndeployMeeple implements Reducer {
@@ -64,8 +64,8 @@ public class UndeployMeeple implements Reducer {
     }
 
     private GameState undeploy(GameState state, PlayEventMeta meta, Meeple meeple, FeaturePointer source) {
-        LinkedHashMap<Meeple, FeaturePointer> deployedMeeples = state.getDeployedMeeples();
-        state = state.setDeployedMeeples(deployedMeeples.remove(meeple));
+        state = state.undeployMeeple(meeple);
+        state = state.setPositionHash(state.getPositionHash() ^ PositionHash.meeple(meeple, source));
         state = state.appendEvent(
             new MeepleReturned(meta, meeple, source, forced)
         );
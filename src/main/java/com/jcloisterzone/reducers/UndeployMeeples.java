@@ -10,10 +10,9 @@ import com.jcloisterzone.feature.Feature;
 import com.jcloisterzone.figure.Barn;
 import com.jcloisterzone.figure.Meeple;
 import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.game.state.PositionHash;
 
 import io.vavr.Tuple2;
-import io.vavr.collection.HashSet;
-import io.vavr.collection.Set;
 
 
 /**
@@ -32,24 +31,25 @@ public class UndeployMeeples implements Reducer {
 
     @Override
     public GameState apply(GameState state) {
-        Set<FeaturePointer> fps = HashSet.ofAll(feature.getPlaces());
-        ArrayList<Meeple> meeples = new ArrayList<>();
+        ArrayList<Tuple2<Meeple, FeaturePointer>> meeples = new ArrayList<>();
         ArrayList<PlayEvent> events = new ArrayList<>();
         PlayEventMeta eventMeta = PlayEventMeta.createWithoutPlayer();
+        long hash = state.getPositionHash();
 
-        for (Tuple2<Meeple, FeaturePointer> t : state
-                .getDeployedMeeples()
-                .filter(t -> fps.contains(t._2))
-                .filter(t -> !(t._1 instanceof Barn))
-            ) {
-            meeples.add(t._1);
+        for (FeaturePointer fp : feature.getPlaces()) {
+            for (Meeple m : state.getMeeplesOnPlace(fp)) {
+                if (m instanceof Barn) continue;
+                meeples.add(new Tuple2<>(m, fp));
+            }
+        }
+        for (Tuple2<Meeple, FeaturePointer> t : meeples) {
+            state = state.undeployMeeple(t._1);
+            hash ^= PositionHash.meeple(t._1, t._2);
             events.add(
                 new MeepleReturned(eventMeta, t._1, t._2, forced)
             );
         }
-        state = state.setDeployedMeeples(
-            state.getDeployedMeeples().removeAll(meeples)
-        );
+        state = state.setPositionHash(hash);
         state = state.setEvents(
             state.getEvents().appendAll(events)
         );
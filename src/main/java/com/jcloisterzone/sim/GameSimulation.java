@@ -0,0 +1,169 @@
+package com.jcloisterzone.sim;
+
+import java.util.function.LongFunction;
+
+import com.jcloisterzone.Player;
+import com.jcloisterzone.ai.AiPlayer;
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.game.GameSetup;
+import com.jcloisterzone.game.GameStatePhaseReducer;
+import com.jcloisterzone.game.PlayerSlot;
+import com.jcloisterzone.game.PlayerSlot.SlotState;
+import com.jcloisterzone.game.RandomGenerator;
+import com.jcloisterzone.game.phase.GameOverPhase;
+import com.jcloisterzone.game.phase.Phase;
+import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.game.state.GameStateBuilder;
+import com.jcloisterzone.wsio.message.WsInGameMessage;
+
+import io.vavr.collection.Array;
+
+/**
+ * Plays whole game between AI players without client, server or UI.
+ *
+ * Game state and phase reducer are driven directly, in the same way as {@code Game} does
+ * it for messages received from server. Reducer is stateless, so one instance is shared
+ * by all simulations of the same setup.
+ */
+public class GameSimulation {
+
+    /** Guard against AI stuck in endless loop of moves. */
+    public static final int DEFAULT_MAX_MOVES = 20000;
+
+    private final GameSetup setup;
+    private final GameStatePhaseReducer phaseReducer;
+    private final Array<LongFunction<AiPlayer>> aiFactories;
+    private final Array<String> aiNames;
+    private int maxMoves = DEFAULT_MAX_MOVES;
+
+    /**
+     * @param aiFactories creates AI for each player, argument is seed derived from game seed
+     */
+    public GameSimulation(GameSetup setup, Array<String> aiNames, Array<LongFunction<AiPlayer>> aiFactories) {
+        this(setup, new GameStatePhaseReducer(setup), aiNames, aiFactories);
+    }
+
+    public GameSimulation(GameSetup setup, GameStatePhaseReducer phaseReducer, Array<String> aiNames, Array<LongFunction<AiPlayer>> aiFactories) {
+        if (aiNames.length() != aiFactories.length()) {
+            throw new IllegalArgumentException("AI names doesn't match AI factories");
+        }
+        this.setup = setup;
+        this.phaseReducer = phaseReducer;
+        this.aiNames = aiNames;
+        this.aiFactories = aiFactories;
+    }
+
+    public int getMaxMoves() {
+        return maxMoves;
+    }
+
+    public void setMaxMoves(int maxMoves) {
+        this.maxMoves = maxMoves;
+    }
+
+    public GameState createInitialState(long seed) {
+        Array<String> nicknames = aiNames.zipWithIndex().map(t -> t._1 + " " + (t._2 + 1));
+        return createInitialState(setup, phaseReducer, nicknames, seed);
+    }
+
+    /**
+     * Creates state waiting for the first move. All players are own slots,
+     * random generator is seeded, so same seed always leads to same game.
+     */
+    public static GameState createInitialState(GameSetup setup, GameStatePhaseReducer phaseReducer, Array<String> nicknames, long seed) {
+        PlayerSlot[] slots = new PlayerSlot[nicknames.length()];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new PlayerSlot(i);
+            slots[i].setNickname(nicknames.get(i));
+            slots[i].setSerial(i);
+            slots[i].setState(SlotState.OWN);
+        }
+
+        GameStateBuilder builder = new GameStateBuilder(setup, slots, new Config());
+        GameState state = builder.createInitialState();
+
+        Phase firstPhase = phaseReducer.getFirstPhase();
+        state = builder.createReadyState(state).setRandom(new RandomGenerator(seed));
+        state = state.setPhase(firstPhase.getClass());
+        return phaseReducer.applyStepResult(firstPhase.enter(state));
+    }
+
+    /**
+     * Plays one game. Game is fully determined by seed unless AI itself is time bounded.
+     * Runtime exceptions are not propagated, they are reported as result error instead.
+     */
+    public SimulationResult play(long seed) {
+        long started = System.nanoTime();
+        int playersCount = aiFactories.length();
+        long[] moveCount = new long[playersCount];
+        long[] moveNanos = new long[playersCount];
+        long[] maxMoveNanos = new long[playersCount];
+        long reducerNanos = 0;
+        int moves = 0;
+        String error = null;
+
+        GameState state = null;
+        AiPlayer[] ais = new AiPlayer[playersCount];
+        try {
+            state = createInitialState(seed);
+            for (int i = 0; i < playersCount; i++) {
+                ais[i] = aiFactories.get(i).apply(seed * 31 + i);
+                ais[i].onGameStart(setup, state.getPlayers().getPlayer(i));
+            }
+
+            while (state.getPhase() != GameOverPhase.class) {
+                if (moves == maxMoves) {
+                    error = "Move limit " + maxMoves + " exceeded";
+                    break;
+                }
+                Player player = state.getActivePlayer();
+                int idx = player.getIndex();
+
+                long t0 = System.nanoTime();
+                WsInGameMessage msg = ais[idx].apply(state);
+                long t1 = System.nanoTime();
+                state = phaseReducer.apply(state, msg);
+                long t2 = System.nanoTime();
+
+                moveCount[idx]++;
+                moveNanos[idx] += t1 - t0;
+                maxMoveNanos[idx] = Math.max(maxMoveNanos[idx], t1 - t0);
+                reducerNanos += t2 - t1;
+                moves++;
+            }
+        } catch (RuntimeException e) {
+            error = e.getClass().getSimpleName() + (e.getMessage() == null ? "" : ": " + e.getMessage());
+        } finally {
+            for (AiPlayer ai : ais) {
+                if (ai != null) {
+                    ai.onGameOver();
+                }
+            }
+        }
+
+        int[] scores = new int[playersCount];
+        double[] avgMoveMillis = new double[playersCount];
+        double[] maxMoveMillis = new double[playersCount];
+        for (int i = 0; i < playersCount; i++) {
+            if (state != null) {
+                scores[i] = state.getPlayers().getScore().get(i).getPoints();
+            }
+            avgMoveMillis[i] = moveCount[i] == 0 ? 0.0 : moveNanos[i] / 1e6 / moveCount[i];
+            maxMoveMillis[i] = maxMoveNanos[i] / 1e6;
+        }
+
+        return new SimulationResult(
+            seed,
+            aiNames.toJavaArray(String.class),
+            scores,
+            state == null ? 0 : state.getTurnNumber(),
+            moves,
+            moveCount,
+            avgMoveMillis,
+            maxMoveMillis,
+            reducerNanos / 1e6,
+            (System.nanoTime() - started) / 1e6,
+            error
+        );
+    }
+}
@@ -0,0 +1,114 @@
+package com.jcloisterzone.sim;
+
+/**
+ * Outcome of one simulated game. Per player arrays are indexed by player order in game.
+ */
+public class SimulationResult {
+
+    private final long seed;
+    private final String[] players;
+    private final int[] scores;
+    private final int turns;
+    private final int moves;
+    private final long[] moveCount;
+    private final double[] avgMoveMillis;
+    private final double[] maxMoveMillis;
+    private final double reducerMillis;
+    private final double totalMillis;
+    private final String error;
+
+    public SimulationResult(long seed, String[] players, int[] scores, int turns, int moves,
+            long[] moveCount, double[] avgMoveMillis, double[] maxMoveMillis,
+            double reducerMillis, double totalMillis, String error) {
+        this.seed = seed;
+        this.players = players;
+        this.scores = scores;
+        this.turns = turns;
+        this.moves = moves;
+        this.moveCount = moveCount;
+        this.avgMoveMillis = avgMoveMillis;
+        this.maxMoveMillis = maxMoveMillis;
+        this.reducerMillis = reducerMillis;
+        this.totalMillis = totalMillis;
+        this.error = error;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets AI name of each player.
+     */
+    public String[] getPlayers() {
+        return players;
+    }
+
+    /**
+     * Gets final score of each player (partial score if game failed).
+     */
+    public int[] getScores() {
+        return scores;
+    }
+
+    public int getTurns() {
+        return turns;
+    }
+
+    /**
+     * Gets number of moves (messages applied to game state) made by all players.
+     */
+    public int getMoves() {
+        return moves;
+    }
+
+    public long[] getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Gets average time spent by AI deciding one move, for each player.
+     */
+    public double[] getAvgMoveMillis() {
+        return avgMoveMillis;
+    }
+
+    public double[] getMaxMoveMillis() {
+        return maxMoveMillis;
+    }
+
+    /**
+     * Gets total time spent in phase reducer applying moves.
+     */
+    public double getReducerMillis() {
+        return reducerMillis;
+    }
+
+    public double getTotalMillis() {
+        return totalMillis;
+    }
+
+    /**
+     * Gets error description, {@code null} if game was finished.
+     */
+    public String getError() {
+        return error;
+    }
+
+    public boolean isFinished() {
+        return error == null;
+    }
+
+    /**
+     * Gets index of player with highest score. Ties are resolved in favour of earlier player.
+     */
+    public int getWinner() {
+        int winner = 0;
+        for (int i = 1; i < scores.length; i++) {
+            if (scores[i] > scores[winner]) {
+                winner = i;
+            }
+        }
+        return winner;
+    }
+}
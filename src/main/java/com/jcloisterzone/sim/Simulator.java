@@ -0,0 +1,272 @@
+package com.jcloisterzone.sim;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.lang.reflect.Constructor;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongFunction;
+
+import com.google.gson.Gson;
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.ai.AiPlayer;
+import com.jcloisterzone.game.GameSetup;
+import com.jcloisterzone.game.GameStatePhaseReducer;
+import com.jcloisterzone.game.Rule;
+
+import io.vavr.collection.Array;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.Map;
+
+/**
+ * Command line tool running many AI games without UI. Games are played in parallel,
+ * results are written in seed order as CSV or JSON lines, summary is printed to stderr.
+ *
+ * <pre>
+ * java -cp JCloisterZone.jar com.jcloisterzone.sim.Simulator --games 100 --players legacy,dummy --seed 1
+ * </pre>
+ */
+public class Simulator {
+
+    private static final String AI_PACKAGE = "com.jcloisterzone.ai.player.";
+
+    private int games = 100;
+    private long seed = 1L;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private String players = "legacy,legacy";
+    private String expansions = "BASIC";
+    private String format = "csv";
+    private String out;
+    private int maxMoves = GameSimulation.DEFAULT_MAX_MOVES;
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        if (System.getProperty("org.slf4j.simpleLogger.defaultLogLevel") == null) {
+            System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
+        }
+
+        Simulator simulator = new Simulator();
+        try {
+            if (!simulator.parseArgs(args)) {
+                System.out.println("JCloisterZone headless game simulator");
+                printUsage(System.out);
+                return;
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage(System.err);
+            System.exit(1);
+        }
+        simulator.run();
+    }
+
+    private static void printUsage(PrintStream out) {
+        out.println("Usage: Simulator [options]");
+        out.println("  --games N          number of games (default 100)");
+        out.println("  --players A,B,..   AI for each player, simple name from " + AI_PACKAGE
+            + " without AiPlayer suffix or full class name (default legacy,legacy)");
+        out.println("  --expansions X,..  expansion names (default BASIC)");
+        out.println("  --seed S           seed of first game, next games use S+1, S+2, ... (default 1)");
+        out.println("  --threads T        number of games played in parallel (default CPU count)");
+        out.println("  --format csv|json  output format (default csv)");
+        out.println("  --out FILE         output file (default stdout)");
+        out.println("  --max-moves M      abort game after M moves (default " + GameSimulation.DEFAULT_MAX_MOVES + ")");
+    }
+
+    /**
+     * Parses command line options.
+     *
+     * @return {@code false} if only help was requested
+     * @throws IllegalArgumentException for invalid options
+     */
+    boolean parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--help") || arg.equals("-h")) {
+                return false;
+            }
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+            String value = args[++i];
+            try {
+                switch (arg) {
+                case "--games": games = Integer.parseInt(value); break;
+                case "--seed": seed = Long.parseLong(value); break;
+                case "--threads": threads = Integer.parseInt(value); break;
+                case "--players": players = value; break;
+                case "--expansions": expansions = value; break;
+                case "--format": format = value.toLowerCase(Locale.ROOT); break;
+                case "--out": out = value; break;
+                case "--max-moves": maxMoves = Integer.parseInt(value); break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + arg);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number " + value + " for " + arg);
+            }
+        }
+        if (!format.equals("csv") && !format.equals("json")) {
+            throw new IllegalArgumentException("Unknown format " + format);
+        }
+        if (games < 1 || threads < 1) {
+            throw new IllegalArgumentException("Games and threads must be positive");
+        }
+        return true;
+    }
+
+    public static GameSetup createSetup(String expansions) {
+        Map<Expansion, Integer> expansionMap = HashMap.of(Expansion.BASIC, 1);
+        for (String name : expansions.split(",")) {
+            if (!name.trim().isEmpty()) {
+                expansionMap = expansionMap.put(Expansion.valueOf(name.trim().toUpperCase(Locale.ROOT)), 1);
+            }
+        }
+        Map<Rule, Object> rules = Rule.getDefaultRules();
+        return new GameSetup(expansionMap, GameSetup.getCapabilitiesForExpansionsAndRules(expansionMap, rules), rules);
+    }
+
+    /**
+     * Creates factory for given AI name. AI class having constructor with {@code long}
+     * argument is created with game derived seed to make simulation reproducible.
+     */
+    @SuppressWarnings("unchecked")
+    public static LongFunction<AiPlayer> createAiFactory(String name) {
+        String className = name.contains(".") ? name :
+            AI_PACKAGE + Character.toUpperCase(name.charAt(0)) + name.substring(1) + "AiPlayer";
+        Class<? extends AiPlayer> cls;
+        try {
+            cls = (Class<? extends AiPlayer>) Class.forName(className).asSubclass(AiPlayer.class);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IllegalArgumentException("Unknown AI " + name);
+        }
+        Constructor<? extends AiPlayer> seeded;
+        try {
+            seeded = cls.getConstructor(long.class);
+        } catch (NoSuchMethodException e) {
+            seeded = null;
+        }
+        Constructor<? extends AiPlayer> constructor = seeded;
+        return seed -> {
+            try {
+                return constructor == null ? cls.newInstance() : constructor.newInstance(seed);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Can't create AI " + name, e);
+            }
+        };
+    }
+
+    public void run() throws IOException, InterruptedException {
+        GameSetup setup;
+        Array<String> aiNames = Array.of(players.split(",")).map(String::trim);
+        Array<LongFunction<AiPlayer>> aiFactories;
+        try {
+            setup = createSetup(expansions);
+            aiFactories = aiNames.map(Simulator::createAiFactory);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        GameSimulation simulation = new GameSimulation(setup, new GameStatePhaseReducer(setup), aiNames, aiFactories);
+        simulation.setMaxMoves(maxMoves);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "simulator");
+            t.setDaemon(true);
+            return t;
+        });
+        long started = System.nanoTime();
+        List<Future<SimulationResult>> futures = new ArrayList<>(games);
+        for (int i = 0; i < games; i++) {
+            long gameSeed = seed + i;
+            futures.add(executor.submit(() -> simulation.play(gameSeed)));
+        }
+
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(
+            out == null ? System.out : new FileOutputStream(out), StandardCharsets.UTF_8));
+        Gson gson = new Gson();
+        int finished = 0;
+        long moves = 0;
+        int[] wins = new int[aiNames.length()];
+        double[] scoreSum = new double[aiNames.length()];
+        try {
+            if (format.equals("csv")) {
+                writer.println(csvHeader(aiNames.length()));
+            }
+            for (Future<SimulationResult> future : futures) {
+                SimulationResult result;
+                try {
+                    result = future.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+                if (format.equals("csv")) {
+                    writer.println(toCsv(result));
+                } else {
+                    writer.println(gson.toJson(result));
+                }
+                moves += result.getMoves();
+                if (result.isFinished()) {
+                    finished++;
+                    wins[result.getWinner()]++;
+                    for (int i = 0; i < wins.length; i++) {
+                        scoreSum[i] += result.getScores()[i];
+                    }
+                }
+            }
+        } finally {
+            writer.flush();
+            if (out != null) {
+                writer.close();
+            }
+            executor.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.err.println(String.format(Locale.ROOT, "%d games (%d finished) in %.1f s, %.2f games/s, %.0f moves/s, %d threads",
+            games, finished, seconds, games / seconds, moves / seconds, threads));
+        for (int i = 0; i < wins.length; i++) {
+            System.err.println(String.format(Locale.ROOT, "  player %d %-10s wins %5d  avg score %.1f",
+                i + 1, aiNames.get(i), wins[i], finished == 0 ? 0.0 : scoreSum[i] / finished));
+        }
+    }
+
+    public static String csvHeader(int playersCount) {
+        StringBuilder sb = new StringBuilder("seed,turns,moves,total_ms,reducer_ms,winner");
+        for (int i = 1; i <= playersCount; i++) {
+            sb.append(String.format(",p%1$d_ai,p%1$d_score,p%1$d_moves,p%1$d_avg_move_ms,p%1$d_max_move_ms", i));
+        }
+        return sb.append(",error").toString();
+    }
+
+    public static String toCsv(SimulationResult result) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(result.getSeed()).append(',')
+          .append(result.getTurns()).append(',')
+          .append(result.getMoves()).append(',')
+          .append(String.format(Locale.ROOT, "%.3f,%.3f", result.getTotalMillis(), result.getReducerMillis())).append(',')
+          .append(result.isFinished() ? Integer.toString(result.getWinner() + 1) : "");
+        for (int i = 0; i < result.getPlayers().length; i++) {
+            sb.append(',').append(result.getPlayers()[i])
+              .append(',').append(result.getScores()[i])
+              .append(',').append(result.getMoveCount()[i])
+              .append(String.format(Locale.ROOT, ",%.3f,%.3f", result.getAvgMoveMillis()[i], result.getMaxMoveMillis()[i]));
+        }
+        sb.append(',');
+        if (result.getError() != null) {
+            sb.append('"').append(result.getError().replace("\"", "\"\"")).append('"');
+        }
+        return sb.toString();
+    }
+}
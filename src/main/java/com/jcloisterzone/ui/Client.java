@@ -409,6 +409,7 @@ public class Client extends JFrame {
 
                 }
             });
+            server.setConfig(config);
             localServer.set(server);
             server.createGame(savedGame, game, config.getClient_id());
             server.start();
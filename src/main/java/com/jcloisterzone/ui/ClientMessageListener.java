@@ -37,6 +37,7 @@ import com.jcloisterzone.game.Game;
 import com.jcloisterzone.game.GameSetup;
 import com.jcloisterzone.game.PlayerSlot;
 import com.jcloisterzone.game.PlayerSlot.SlotState;
+import com.jcloisterzone.game.ReplayCheckpoint;
 import com.jcloisterzone.game.Rule;
 import com.jcloisterzone.online.Channel;
 import com.jcloisterzone.ui.view.ChannelView;
@@ -217,10 +218,11 @@ public class ClientMessageListener implements MessageListener {
         return gc;
     }
 
-    private void handleGameStarted(final GameController gc, io.vavr.collection.List<WsReplayableMessage> replay) throws InvocationTargetException, InterruptedException {
+    private void handleGameStarted(final GameController gc, io.vavr.collection.List<WsReplayableMessage> replay,
+            io.vavr.collection.List<ReplayCheckpoint> checkpoints) throws InvocationTargetException, InterruptedException {
         conn.getReportingTool().setGame(gc.getGame());
         HashMap<String, Object> annotations = gc.getClient().getSavedGameAnnotations();
-        gc.getGame().start(gc, replay, annotations);
+        gc.getGame().start(gc, replay, checkpoints, annotations);
 
         if (!"false".equals(System.getProperty("showGameDebugModeInfo"))) {
             SwingUtilities.invokeLater(() -> {
@@ -297,7 +299,13 @@ public class ClientMessageListener implements MessageListener {
                 } else {
                     replay = io.vavr.collection.List.ofAll(msg.getReplay());
                 }
-                handleGameStarted(gc, replay);
+                io.vavr.collection.List<ReplayCheckpoint> checkpoints;
+                if (msg.getCheckpoints() == null) {
+                    checkpoints = io.vavr.collection.List.empty();
+                } else {
+                    checkpoints = io.vavr.collection.List.ofAll(msg.getCheckpoints());
+                }
+                handleGameStarted(gc, replay, checkpoints);
                 break;
             }
         }
@@ -469,6 +477,17 @@ public class ClientMessageListener implements MessageListener {
             }
             JOptionPane.showMessageDialog(client, msg, _tr("Incompatible versions"), JOptionPane.ERROR_MESSAGE);
             break;
+        case ErrorMessage.INVALID_MOVE:
+            logger.warn("Move refused by server: {}", err.getMessage());
+            GameController gc = gameControllers.get(err.getArg());
+            if (gc == null || gc.getGame().handleMoveRefused()) {
+                JOptionPane.showMessageDialog(client, err.getMessage(), _tr("Invalid move"), JOptionPane.WARNING_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(client,
+                    _tr("AI player's move was refused by server, game can't continue.") + "\n" + err.getMessage(),
+                    _tr("Invalid move"), JOptionPane.ERROR_MESSAGE);
+            }
+            break;
         case ErrorMessage.INVALID_PASSWORD:
             JOptionPane.showMessageDialog(client, _tr("Invalid password"), _tr("Invalid password"), JOptionPane.WARNING_MESSAGE);
         default:
@@ -58,7 +58,6 @@ import com.jcloisterzone.ui.theme.Theme;
 import io.vavr.Function1;
 import io.vavr.collection.HashMap;
 import io.vavr.collection.Map;
-import io.vavr.collection.Queue;
 import io.vavr.collection.Vector;
 
 public class GameEventsPanel extends JPanel {
@@ -80,7 +79,14 @@ public class GameEventsPanel extends JPanel {
     protected final Theme theme;
     protected final ResourceManager rm;
 
-    private Color turnColor, triggeringColor;
+    private Color turnColor = Color.GRAY, triggeringColor;
+
+    // fold state of processed events
+    private int foldedEvents;
+    private final ArrayList<int[]> turnStarts = new ArrayList<>(); // event index and model size for each turn
+    private boolean ignore = true;
+    private boolean finalScoring;
+    private EventItem dragonItem;
 
     public GameEventsPanel(GameController gc) {
         theme = gc.getClient().getTheme();
@@ -167,8 +173,7 @@ public class GameEventsPanel extends JPanel {
         if (ev.getCategory() == PointCategory.FAIRY || ev.getFeaturePointer() == null) {
             item.setHighlightedPositions(Vector.of(ev.getPosition()));
         } else {
-            Feature feature = state.getFeature(ev.getFeaturePointer());
-            item.setHighlightedFeature(feature);
+            item.setHighlightedFeaturePointer(ev.getFeaturePointer());
         }
         return item;
     }
@@ -180,8 +185,7 @@ public class GameEventsPanel extends JPanel {
         item.setImage(img);
 
         if (ev.getNeutralFigure() instanceof Count) {
-            Feature feature = state.getFeature(ev.getTo().asFeaturePointer());
-            item.setHighlightedFeature(feature);
+            item.setHighlightedFeaturePointer(ev.getTo().asFeaturePointer());
         } else {
             Position from = ev.getFrom() == null ? null : ev.getFrom().getPosition();
             Position to = ev.getTo() == null ? null : ev.getTo().getPosition();
@@ -203,8 +207,7 @@ public class GameEventsPanel extends JPanel {
         ImageEventItem item = new ImageEventItem(ev, turnColor, triggeringColor);
         item.setImage(img);
         item.setDrawCross(true);
-        Feature feature = state.getFeature(ev.getFrom().asFeaturePointer());
-        item.setHighlightedFeature(feature);
+        item.setHighlightedFeaturePointer(ev.getFrom().asFeaturePointer());
         return item;
     }
 
@@ -265,8 +268,7 @@ public class GameEventsPanel extends JPanel {
         item.setImage(img);
         item.setPadding(2);
 
-        Feature feature = state.getFeature(fp);
-        item.setHighlightedFeature(feature);
+        item.setHighlightedFeaturePointer(fp);
         return item;
     }
 
@@ -284,6 +286,9 @@ public class GameEventsPanel extends JPanel {
         EventItem item = model.get(mouseOverIdx);
         Vector<Position> positions = item.getHighlightedPositions();
         Feature feature = item.getHighlightedFeature();
+        if (feature == null && item.getHighlightedFeaturePointer() != null) {
+            feature = state.getFeature(item.getHighlightedFeaturePointer());
+        }
         if (positions != null) {
             eventsOverlayPanel.setHighlightedPositions(state, positions);
         } else if (feature != null) {
@@ -294,69 +299,93 @@ public class GameEventsPanel extends JPanel {
     }
 
     public void handleGameChanged(GameChangedEvent ev) {
+        // event log is append-only, fold only events which differ from already processed state
+        int shared = ev.getPrevState() == state ? ev.getSharedPlayEventsCount() : 0;
         state = ev.getCurrentState();
-        model = prepareModel(state, ev.getCurrentState().getEvents());
+        if (shared < foldedEvents) {
+            rollback(shared);
+        }
+        Vector<PlayEvent> events = state.getEvents();
+        for (int i = foldedEvents; i < events.size(); i++) {
+            foldEvent(i, events.get(i));
+        }
+        foldedEvents = events.size();
         repaint();
     }
 
-    private ArrayList<EventItem> prepareModel(GameState state, Queue<PlayEvent> events) {
-        ArrayList<EventItem> model = new ArrayList<>();
-
-        turnColor = Color.GRAY;
-        triggeringColor = null;
-
-        boolean ignore = true;
-        boolean finalScoring = false;
-        EventItem dragonItem = null;
+    /**
+     * Returns model to the start of the turn containing first removed event.
+     * Fold state is reset on each turn event, so the turn is folded again from its beginning.
+     */
+    private void rollback(int shared) {
+        int i = turnStarts.size() - 1;
+        while (i >= 0 && turnStarts.get(i)[0] >= shared) {
+            i--;
+        }
+        if (i < 0) {
+            model.clear();
+            turnStarts.clear();
+            foldedEvents = 0;
+            turnColor = Color.GRAY;
+            triggeringColor = null;
+            ignore = true;
+        } else {
+            int[] turnStart = turnStarts.get(i);
+            model.subList(turnStart[1], model.size()).clear();
+            turnStarts.subList(i, turnStarts.size()).clear();
+            foldedEvents = turnStart[0];
+        }
+        finalScoring = false;
+        dragonItem = null;
+    }
 
-        for (PlayEvent ev : events) {
-            if (ev instanceof PlayerTurnEvent) {
-                turnColor = getMeepleColor(((PlayerTurnEvent) ev).getPlayer());
-                ignore = false;
-                dragonItem = null;
-                continue;
-            }
-            if (ignore) {
-                continue;
-            }
+    private void foldEvent(int index, PlayEvent ev) {
+        if (ev instanceof PlayerTurnEvent) {
+            turnStarts.add(new int[] { index, model.size() });
+            turnColor = getMeepleColor(((PlayerTurnEvent) ev).getPlayer());
+            ignore = false;
+            dragonItem = null;
+            return;
+        }
+        if (ignore) {
+            return;
+        }
 
-            if (dragonItem != null && isDragonMoveEvent(ev)) {
-                Vector<Position> positions = dragonItem.getHighlightedPositions();
-                positions = positions.append(((NeutralFigureMoved)ev).getTo().getPosition());
-                dragonItem.setHighlightedPositions(positions);
-                continue;
-            }
+        if (dragonItem != null && isDragonMoveEvent(ev)) {
+            Vector<Position> positions = dragonItem.getHighlightedPositions();
+            positions = positions.append(((NeutralFigureMoved)ev).getTo().getPosition());
+            dragonItem.setHighlightedPositions(positions);
+            return;
+        }
 
-            if (!finalScoring) {
-                if (ev instanceof ScoreEvent && ((ScoreEvent) ev).isFinal()) {
-                    turnColor = Color.GRAY;
-                    triggeringColor = null;
-                    finalScoring = true;
+        if (!finalScoring) {
+            if (ev instanceof ScoreEvent && ((ScoreEvent) ev).isFinal()) {
+                turnColor = Color.GRAY;
+                triggeringColor = null;
+                finalScoring = true;
+            } else {
+                Integer idx = ev.getMetadata().getTriggeringPlayerIndex();
+                if (idx == null) {
+                    triggeringColor = turnColor;
                 } else {
-                    Integer idx = ev.getMetadata().getTriggeringPlayerIndex();
-                    if (idx == null) {
-                        triggeringColor = turnColor;
-                    } else {
-                        triggeringColor = getMeepleColor(state.getPlayers().getPlayer(idx));
-                    }
+                    triggeringColor = getMeepleColor(state.getPlayers().getPlayer(idx));
                 }
             }
+        }
 
-            Function1<PlayEvent, EventItem> fn = mapping.get(ev.getClass()).getOrNull();
-            if (fn == null) {
-                logger.warn("Unhandled event {}", ev.getClass());
-            } else {
-                EventItem item = fn.apply(ev);
-                if (item == null) {
-                    continue;
-                }
-                if (isDragonMoveEvent(ev)) {
-                    dragonItem = item;
-                }
-                model.add(item);
+        Function1<PlayEvent, EventItem> fn = mapping.get(ev.getClass()).getOrNull();
+        if (fn == null) {
+            logger.warn("Unhandled event {}", ev.getClass());
+        } else {
+            EventItem item = fn.apply(ev);
+            if (item == null) {
+                return;
+            }
+            if (isDragonMoveEvent(ev)) {
+                dragonItem = item;
             }
+            model.add(item);
         }
-        return model;
     }
 
     private boolean isDragonMoveEvent(PlayEvent ev) {
@@ -8,6 +8,15 @@ public interface GridLayer {
 
     void paint(Graphics2D g2);
 
+    /**
+     * Static layer content depends only on game state, zoom and board rotation
+     * (not on mouse or time), so it can be painted from cached image.
+     * {@link GridPanel} invalidates static layers on game change and layer show or hide.
+     */
+    default boolean isStatic() {
+        return false;
+    }
+
     void zoomChanged(int squareSize);
     void boardRotated(Rotation rotation);
 
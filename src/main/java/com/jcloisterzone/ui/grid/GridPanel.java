@@ -16,6 +16,7 @@ import java.awt.geom.AffineTransform;
 import java.awt.geom.Point2D;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
 
@@ -86,6 +87,7 @@ public class GridPanel extends JPanel implements ForwardBackwardListener, UIEven
     private MoveCenterAnimation moveAnimation;
 
     private List<GridLayer> layers = new ArrayList<GridLayer>();
+    private final LayerCompositor compositor = new LayerCompositor();
     private ErrorMessagePanel errorMsg;
     private String errorCode;
 
@@ -362,6 +364,7 @@ public class GridPanel extends JPanel implements ForwardBackwardListener, UIEven
 
         eventsPanel.handleGameChanged(ev);
 
+        compositor.invalidate(layers);
         repaint();
     }
 
@@ -433,6 +436,7 @@ public class GridPanel extends JPanel implements ForwardBackwardListener, UIEven
 
     void addLayer(GridLayer layer, boolean visible) {
         layers.add(layer);
+        compositor.invalidate(layer);
         if (visible) {
             layer.onShow();
         }
@@ -441,6 +445,7 @@ public class GridPanel extends JPanel implements ForwardBackwardListener, UIEven
     public void showLayer(GridLayer layer) {
         if (!layer.isVisible()) {
             layer.onShow();
+            compositor.invalidate(layers);
             repaint();
         }
     }
@@ -451,12 +456,14 @@ public class GridPanel extends JPanel implements ForwardBackwardListener, UIEven
                 layer.onShow();
             }
         }
+        compositor.invalidate(layers);
         repaint();
     }
 
     public void hideLayer(GridLayer layer) {
         if (layer.isVisible()) {
             layer.onHide();
+            compositor.invalidate(layers);
             repaint();
         }
     }
@@ -467,6 +474,7 @@ public class GridPanel extends JPanel implements ForwardBackwardListener, UIEven
                 layer.onHide();
             }
         }
+        compositor.invalidate(layers);
         repaint();
     }
 
@@ -569,23 +577,19 @@ public class GridPanel extends JPanel implements ForwardBackwardListener, UIEven
         AffineTransform origTransform = g2.getTransform();
         offsetX = calculateCenterX() - (int)(cx * tileWidth);
         offsetY = calculateCenterY() - (int)(cy * tileHeight);
-        g2.translate(offsetX, offsetY);
+        AffineTransform boardTransform = AffineTransform.getTranslateInstance(offsetX, offsetY);
         if (boardRotation != Rotation.R0) {
-            AffineTransform af = boardRotation.getAffineTransform(tileWidth, tileHeight);
-            g2.transform(af);
+            boardTransform.concatenate(boardRotation.getAffineTransform(tileWidth, tileHeight));
         }
+        g2.transform(boardTransform);
 
         g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
         //paint layers
-
-        for (GridLayer layer : layers) {
-            if (layer.isVisible()) {
-                layer.paint(g2);
-            }
-//          profile(layer.getClass().getSimpleName());
-        }
+        List<Object> view = Arrays.asList(getWidth(), getHeight(), tileWidth, tileHeight, boardRotation,
+            offsetX, offsetY, client.getResourceManager().getReloadCount());
+        compositor.paint(g2, layers, view, getWidth(), getHeight(), origTransform, boardTransform);
 
         g2.setTransform(origTransform);
 
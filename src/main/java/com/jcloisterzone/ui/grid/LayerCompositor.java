@@ -0,0 +1,143 @@
+package com.jcloisterzone.ui.grid;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Paints grid layers. Consecutive visible static layers (see {@link GridLayer#isStatic()}) are painted
+ * together into offscreen image which is reused until one of them is invalidated or view changes
+ * (panel size, zoom, board rotation, offset). Dynamic layers are painted directly between cached images,
+ * so mouse feedback and animations doesn't redraw whole board.
+ *
+ * Image is created only when same view is painted repeatedly, view changing on each frame
+ * (eg. moving board by mouse drag) is painted directly.
+ */
+class LayerCompositor {
+
+    private static class CachedRun {
+        List<GridLayer> layers = Collections.emptyList();
+        BufferedImage image;
+        Object view;
+        Object lastView;
+    }
+
+    private final List<CachedRun> runs = new ArrayList<>();
+    private final Set<GridLayer> dirtyLayers = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    public void invalidate(GridLayer layer) {
+        dirtyLayers.add(layer);
+    }
+
+    public void invalidate(List<GridLayer> layers) {
+        dirtyLayers.addAll(layers);
+    }
+
+    /**
+     * Paints visible layers.
+     *
+     * @param g2 graphics with board transformation applied
+     * @param layers all layers in paint order
+     * @param view key of current view, cached images are repainted when it's changed
+     * @param width panel width
+     * @param height panel height
+     * @param origTransform transformation of panel
+     * @param boardTransform transformation from panel to board coordinates
+     */
+    public void paint(Graphics2D g2, List<GridLayer> layers, Object view, int width, int height,
+            AffineTransform origTransform, AffineTransform boardTransform) {
+        // cached image is painted pixel to pixel, can't be used if panel is rotated
+        boolean cacheable = (origTransform.getType() & ~(AffineTransform.TYPE_TRANSLATION | AffineTransform.TYPE_MASK_SCALE)) == 0;
+        int runIdx = 0;
+        List<GridLayer> run = new ArrayList<>();
+        for (GridLayer layer : layers) {
+            if (!layer.isVisible()) continue;
+            if (cacheable && layer.isStatic()) {
+                run.add(layer);
+                continue;
+            }
+            if (!run.isEmpty()) {
+                paintRun(g2, runIdx++, run, view, width, height, origTransform, boardTransform);
+                run = new ArrayList<>();
+            }
+            layer.paint(g2);
+        }
+        if (!run.isEmpty()) {
+            paintRun(g2, runIdx++, run, view, width, height, origTransform, boardTransform);
+        }
+        while (runs.size() > runIdx) {
+            runs.remove(runs.size() - 1);
+        }
+    }
+
+    private void paintRun(Graphics2D g2, int runIdx, List<GridLayer> layers, Object view, int width, int height,
+            AffineTransform origTransform, AffineTransform boardTransform) {
+        if (runs.size() == runIdx) {
+            runs.add(new CachedRun());
+        }
+        CachedRun run = runs.get(runIdx);
+        boolean valid = run.image != null && view.equals(run.view) && layers.equals(run.layers);
+        if (valid) {
+            for (GridLayer layer : layers) {
+                if (dirtyLayers.contains(layer)) {
+                    valid = false;
+                    break;
+                }
+            }
+        }
+
+        if (!valid) {
+            if (!view.equals(run.lastView)) {
+                // view is changing, don't waste time by creating image which is not used again
+                run.lastView = view;
+                run.image = null;
+                for (GridLayer layer : layers) {
+                    layer.paint(g2);
+                }
+                return;
+            }
+            renderRun(g2, run, layers, width, height, origTransform, boardTransform);
+            run.layers = layers;
+            run.view = view;
+            dirtyLayers.removeAll(layers);
+        }
+
+        AffineTransform boardG2Transform = g2.getTransform();
+        g2.setTransform(origTransform);
+        g2.drawImage(run.image, AffineTransform.getScaleInstance(
+            width / (double) run.image.getWidth(), height / (double) run.image.getHeight()), null);
+        g2.setTransform(boardG2Transform);
+    }
+
+    private void renderRun(Graphics2D g2, CachedRun run, List<GridLayer> layers, int width, int height,
+            AffineTransform origTransform, AffineTransform boardTransform) {
+        // on HiDPI screens panel is scaled, image is created in device pixels
+        double scaleX = Math.abs(origTransform.getScaleX()), scaleY = Math.abs(origTransform.getScaleY());
+        int imageWidth = Math.max(1, (int) Math.ceil(width * scaleX));
+        int imageHeight = Math.max(1, (int) Math.ceil(height * scaleY));
+        if (run.image == null || run.image.getWidth() != imageWidth || run.image.getHeight() != imageHeight) {
+            run.image = g2.getDeviceConfiguration().createCompatibleImage(imageWidth, imageHeight, Transparency.TRANSLUCENT);
+        }
+
+        Graphics2D g = run.image.createGraphics();
+        g.setRenderingHints(g2.getRenderingHints());
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 0, imageWidth, imageHeight);
+        g.setComposite(AlphaComposite.SrcOver);
+        g.scale(imageWidth / (double) width, imageHeight / (double) height);
+        // layers use clip bounds to skip invisible parts of board
+        g.setClip(0, 0, width, height);
+        g.transform(boardTransform);
+        for (GridLayer layer : layers) {
+            layer.paint(g);
+        }
+        g.dispose();
+    }
+}
@@ -4,6 +4,7 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 
 import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.pointer.FeaturePointer;
 import com.jcloisterzone.event.play.PlayEvent;
 import com.jcloisterzone.feature.Feature;
 
@@ -15,6 +16,7 @@ public abstract class EventItem {
     private final Color color;
 
     private Feature highlightedFeature;
+    private FeaturePointer highlightedFeaturePointer;
     private Vector<Position> highlightedPositions;
 
     public EventItem(PlayEvent event, Color turnColor, Color color) {
@@ -35,6 +37,18 @@ public abstract class EventItem {
         this.highlightedFeature = highlightedFeature;
     }
 
+    /**
+     * Gets pointer to highlighted feature. Unlike {@link #getHighlightedFeature()}, feature
+     * is resolved in current state, so it reflects board changes after the event.
+     */
+    public FeaturePointer getHighlightedFeaturePointer() {
+        return highlightedFeaturePointer;
+    }
+
+    public void setHighlightedFeaturePointer(FeaturePointer highlightedFeaturePointer) {
+        this.highlightedFeaturePointer = highlightedFeaturePointer;
+    }
+
     public Vector<Position> getHighlightedPositions() {
         return highlightedPositions;
     }
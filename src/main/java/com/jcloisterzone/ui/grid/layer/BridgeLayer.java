@@ -61,6 +61,11 @@ public class BridgeLayer extends AbstractGridLayer {
         });
     }
 
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     @Override
     public void paint(Graphics2D g2) {
         Composite oldComposite = g2.getComposite();
@@ -62,6 +62,11 @@ public class CastleLayer extends AbstractGridLayer {
     }
 
 
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     @Override
     public void paint(Graphics2D g2) {
         for (Edge edge : model.castles) {
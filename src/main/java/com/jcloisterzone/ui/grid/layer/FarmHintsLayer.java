@@ -63,6 +63,11 @@ public class FarmHintsLayer extends AbstractGridLayer {
         }
     }
 
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     @Override
     public void paint(Graphics2D g2) {
         if (!visible) return;
@@ -31,6 +31,11 @@ public class FerriesLayer extends AbstractGridLayer {
         ferries = ev.getCurrentState().getCapabilityModel(FerriesCapability.class).getFerries();
     }
 
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     @Override
     public void paint(Graphics2D g2) {
 
@@ -38,6 +38,11 @@ public class GoldLayer extends AbstractGridLayer {
         placedGold = ev.getCurrentState().getCapabilityModel(GoldminesCapability.class);
     }
 
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     @Override
     public void paint(Graphics2D g2) {
         int size = getTileWidth();
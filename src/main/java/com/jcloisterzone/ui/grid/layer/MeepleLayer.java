@@ -211,6 +211,11 @@ public class MeepleLayer extends AbstractGridLayer {
         }
     }
 
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     @Override
     public void paint(Graphics2D g) {
         paintFigureImages(g, model.outsideBridge);
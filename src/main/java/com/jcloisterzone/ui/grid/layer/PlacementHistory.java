@@ -36,6 +36,11 @@ public class PlacementHistory extends AbstractGridLayer {
         return idx == null ? null : state.getPlayers().getPlayer(idx);
     }
 
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     @Override
     public void paint(Graphics2D g) {
         Composite oldComposite = g.getComposite();
@@ -42,6 +42,11 @@ public class SheepLayer extends AbstractGridLayer {
         		.mapValues(tokens -> tokens.foldLeft(0, (acc, token) -> acc + token.sheepCount()));
     }
 
+	@Override
+	public boolean isStatic() {
+		return true;
+	}
+
 	@Override
 	public void paint(Graphics2D g2) {
 		int width = getTileWidth();
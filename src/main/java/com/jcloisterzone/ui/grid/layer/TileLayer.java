@@ -1,38 +1,65 @@
 package com.jcloisterzone.ui.grid.layer;
 
 import java.awt.Graphics2D;
-import java.util.Comparator;
+import java.awt.Image;
+import java.awt.Insets;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
 
 import com.google.common.eventbus.Subscribe;
 import com.jcloisterzone.board.Position;
 import com.jcloisterzone.board.Rotation;
-import com.jcloisterzone.board.Tile;
 import com.jcloisterzone.event.GameChangedEvent;
 import com.jcloisterzone.game.state.PlacedTile;
 import com.jcloisterzone.ui.GameController;
+import com.jcloisterzone.ui.UiUtils;
 import com.jcloisterzone.ui.grid.GridPanel;
 import com.jcloisterzone.ui.resources.TileImage;
 
 import io.vavr.Tuple2;
-import io.vavr.collection.LinkedHashMap;
-import io.vavr.collection.SortedSet;
-import io.vavr.collection.TreeSet;
 
 public class TileLayer extends AbstractGridLayer {
 
+    /** Max pixels of pre-scaled tile images kept in memory (4 bytes each). */
+    private static final int SCALED_IMAGES_PIXELS = 8 * 1024 * 1024;
+
     private TilePlacementLayer tilePlacementLayer;
 
-    class OrderByRowsComparator implements Comparator<Tuple2<Position, PlacedTile>> {
-        @Override
-        public int compare(Tuple2<Position, PlacedTile> o1, Tuple2<Position, PlacedTile> o2) {
-            if (o1._1 == null) {
-                return o2._1 == null ? 0 : 1;
-            }
-            return o1._1.compareTo(o2._1);
+    /** Placed tiles ordered by rows, visible part of the board is selected by sub maps of rows. */
+    private TreeMap<Position, PlacedTile> placedTiles = new TreeMap<>();
+
+    /** Tile image scaled to current zoom, painted without transformation. */
+    private static class ScaledTileImage {
+        final Image image;
+        final int dx, dy;
+
+        ScaledTileImage(Image image, int dx, int dy) {
+            this.image = image;
+            this.dx = dx;
+            this.dy = dy;
         }
     }
 
-    private SortedSet<Tuple2<Position, PlacedTile>> sortedPlacedTiles = TreeSet.empty();
+    @SuppressWarnings("serial")
+    private final Map<Tuple2<String, Rotation>, ScaledTileImage> scaledImages = new LinkedHashMap<Tuple2<String, Rotation>, ScaledTileImage>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Entry<Tuple2<String, Rotation>, ScaledTileImage> eldest) {
+            return size() * scaledWidth * scaledHeight > SCALED_IMAGES_PIXELS;
+        }
+    };
+    private int scaledWidth, scaledHeight;
+    private int scaledReloadCount;
+    // zoom painted once, scaled images are created when same zoom is painted again
+    private int pendingWidth, pendingHeight;
 
 
     public TileLayer(GridPanel gridPanel, GameController gc) {
@@ -42,34 +69,128 @@ public class TileLayer extends AbstractGridLayer {
     @Subscribe
     public void handleGameChanged(GameChangedEvent ev) {
         if (ev.hasPlacedTilesChanged()) {
-            LinkedHashMap<Position, PlacedTile> placedTiles = ev.getCurrentState().getPlacedTiles();
-            sortedPlacedTiles = placedTiles.toSortedSet(new OrderByRowsComparator());
+            TreeMap<Position, PlacedTile> placedTiles = new TreeMap<>();
+            for (Tuple2<Position, PlacedTile> t : ev.getCurrentState().getPlacedTiles()) {
+                placedTiles.put(t._1, t._2);
+            }
+            this.placedTiles = placedTiles;
             gridPanel.repaint();
         }
     }
 
+    /**
+     * Returns tiles intersecting clip (with one tile margin for border and image insets)
+     * in rows order. All tiles are returned if there is no clip.
+     */
+    private Collection<Entry<Position, PlacedTile>> getVisibleTiles(Rectangle clip) {
+        TreeMap<Position, PlacedTile> placedTiles = this.placedTiles;
+        if (clip == null || placedTiles.isEmpty()) {
+            return placedTiles.entrySet();
+        }
+        int xSize = getTileWidth(),
+            ySize = getTileHeight();
+        int minX = Math.floorDiv(clip.x, xSize) - 1;
+        int maxX = Math.floorDiv(clip.x + clip.width, xSize) + 1;
+        int minY = Math.max(Math.floorDiv(clip.y, ySize) - 1, placedTiles.firstKey().y);
+        int maxY = Math.min(Math.floorDiv(clip.y + clip.height, ySize) + 1, placedTiles.lastKey().y);
+
+        List<Entry<Position, PlacedTile>> result = new ArrayList<>();
+        for (int y = minY; y <= maxY; y++) {
+            result.addAll(placedTiles.subMap(new Position(minX, y), true, new Position(maxX, y), true).entrySet());
+        }
+        return result;
+    }
+
+    /**
+     * Decides if pre-scaled images are used for given tile size. Scaled images are created
+     * only when zoom is painted repeatedly, not for each step of zooming or for screenshot.
+     */
+    private boolean useScaledImages(int xSize, int ySize) {
+        if (scaledReloadCount != rm.getReloadCount()) {
+            scaledReloadCount = rm.getReloadCount();
+            scaledImages.clear();
+        }
+        if (xSize == scaledWidth && ySize == scaledHeight) {
+            return true;
+        }
+        if (xSize == pendingWidth && ySize == pendingHeight) {
+            scaledImages.clear();
+            scaledWidth = xSize;
+            scaledHeight = ySize;
+            return true;
+        }
+        pendingWidth = xSize;
+        pendingHeight = ySize;
+        return false;
+    }
+
+    private ScaledTileImage getScaledTileImage(String tileId, Rotation rot) {
+        Tuple2<String, Rotation> key = new Tuple2<>(tileId, rot);
+        ScaledTileImage scaled = scaledImages.get(key);
+        if (scaled == null) {
+            TileImage tileImg = rm.getTileImage(tileId, rot);
+            Image img = tileImg.getImage();
+            Insets offset = tileImg.getOffset();
+            int width = img.getWidth(null), height = img.getHeight(null);
+            double ratioX = scaledWidth / (double) (width - offset.left - offset.right);
+            double ratioY = scaledHeight / (double) (height - offset.top - offset.bottom);
+            int dx = (int) Math.floor(-offset.left * ratioX);
+            int dy = (int) Math.floor(-offset.top * ratioY);
+
+            AffineTransform at = AffineTransform.getTranslateInstance(-offset.left * ratioX - dx, -offset.top * ratioY - dy);
+            at.scale(ratioX, ratioY);
+            BufferedImage buf = UiUtils.newTransparentImage(
+                (int) Math.ceil((width - offset.left) * ratioX - dx),
+                (int) Math.ceil((height - offset.top) * ratioY - dy)
+            );
+            Graphics2D g2 = buf.createGraphics();
+            g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2.drawImage(img, at, null);
+            g2.dispose();
+
+            scaled = new ScaledTileImage(buf, dx, dy);
+            scaledImages.put(key, scaled);
+        }
+        return scaled;
+    }
+
+    /**
+     * Bridge preview follows mouse, tiles are static otherwise.
+     */
+    @Override
+    public boolean isStatic() {
+        return !tilePlacementLayer.isVisible() || !tilePlacementLayer.hasBridgePreview();
+    }
+
     @Override
     public void paint(Graphics2D g2) {
+        int xSize = getTileWidth(),
+            ySize = getTileHeight();
+        Collection<Entry<Position, PlacedTile>> visibleTiles = getVisibleTiles(g2.getClipBounds());
+
         //TODO nice shadow
         if (!tilePlacementLayer.isVisible()) {
             g2.setColor(getClient().getTheme().getTileBorder());
-            int xSize = getTileWidth(),
-                ySize = getTileHeight(),
-                thickness = xSize / 11;
-            for (Tuple2<Position, PlacedTile> t : sortedPlacedTiles) {
-                Position p = t._1;
+            int thickness = xSize / 11;
+            for (Entry<Position, PlacedTile> t : visibleTiles) {
+                Position p = t.getKey();
                 int x = getOffsetX(p), y = getOffsetY(p);
                 g2.fillRect(x-thickness, y-thickness, xSize+2*thickness, ySize+2*thickness);
             }
         }
 
-
-        for (Tuple2<Position, PlacedTile> t : sortedPlacedTiles) {
-            Position p = t._1;
-            Tile tdef = t._2.getTile();
-            Rotation rot = t._2.getRotation();
-            TileImage tileImg = rm.getTileImage(tdef.getId(), rot);
-            g2.drawImage(tileImg.getImage(), getAffineTransform(tileImg, p), null);
+        boolean scaled = useScaledImages(xSize, ySize);
+        for (Entry<Position, PlacedTile> t : visibleTiles) {
+            Position p = t.getKey();
+            String tileId = t.getValue().getTile().getId();
+            Rotation rot = t.getValue().getRotation();
+            if (scaled) {
+                ScaledTileImage img = getScaledTileImage(tileId, rot);
+                g2.drawImage(img.image, getOffsetX(p) + img.dx, getOffsetY(p) + img.dy, null);
+            } else {
+                TileImage tileImg = rm.getTileImage(tileId, rot);
+                g2.drawImage(tileImg.getImage(), getAffineTransform(tileImg, p), null);
+            }
         }
 
         if (tilePlacementLayer.isVisible()) {
@@ -186,6 +186,10 @@ public class TilePlacementLayer extends AbstractGridLayer implements ActionLayer
         }
     }
 
+    public boolean hasBridgePreview() {
+        return previewBridge != null;
+    }
+
     public void paintBridgePreview(Graphics2D g2) {
         if (previewBridge != null) {
             Composite oldComposite = g2.getComposite();
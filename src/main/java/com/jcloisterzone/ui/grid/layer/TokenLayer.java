@@ -108,6 +108,11 @@ public class TokenLayer extends AbstractGridLayer {
             });
     }
 
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     @Override
     public void paint(Graphics2D g2) {
         AffineTransform originalTransform = g2.getTransform();
@@ -75,6 +75,11 @@ public class TowerLayer extends AbstractGridLayer {
 
 
 
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     @Override
     public void paint(Graphics2D g2) {
         g2.setColor(FILL_COLOR);
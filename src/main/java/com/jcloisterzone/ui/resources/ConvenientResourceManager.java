@@ -13,6 +13,7 @@ public class ConvenientResourceManager implements ResourceManager {
 
     private final ResourceManager manager;
     private final WeakHashMap<String, Object> imageCache = new WeakHashMap<>(64);
+    private int reloadCount;
 
 
     public ConvenientResourceManager(ResourceManager manager) {
@@ -23,6 +24,14 @@ public class ConvenientResourceManager implements ResourceManager {
     public void reload() {
         manager.reload();
         imageCache.clear();
+        reloadCount++;
+    }
+
+    /**
+     * Incremented on each reload, clients holding own copies of images can detect they are outdated.
+     */
+    public int getReloadCount() {
+        return reloadCount;
     }
 
     //delegate methods
@@ -1,7 +1,11 @@
 package com.jcloisterzone.wsio;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,6 +16,16 @@ public class MessageDispatcher {
 
     protected final transient Logger logger = LoggerFactory.getLogger(getClass());
 
+    private static final MethodType HANDLER_TYPE = MethodType.methodType(void.class, Object.class, Object.class, WsMessage.class);
+
+    // target class -> (message class -> handler), handler is resolved once for each pair
+    private static final ClassValue<ConcurrentHashMap<Class<?>, Optional<MethodHandle>>> HANDLERS = new ClassValue<ConcurrentHashMap<Class<?>, Optional<MethodHandle>>>() {
+        @Override
+        protected ConcurrentHashMap<Class<?>, Optional<MethodHandle>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     public void dispatch(WsMessage msg, Object context, Object... targets) {
         if (targets.length == 0) {
             throw new IllegalArgumentException("No targets");
@@ -23,36 +37,47 @@ public class MessageDispatcher {
         }
     }
 
-    //TODO what about cache targets
     private boolean dispatchOn(WsMessage msg, Object context, Object target) {
         Class<?> type = target.getClass();
+        Optional<MethodHandle> handler = HANDLERS.get(type).computeIfAbsent(msg.getClass(), msgType -> findHandler(type, msgType));
+        if (!handler.isPresent()) {
+            return false;
+        }
+        try {
+            handler.get().invokeExact(target, context, msg);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            logger.error(e.getMessage(), e);
+        }
+        return true;
+    }
+
+    /**
+     * Finds first subscribed method accepting given message type and adapts it
+     * to (target, context, message) signature.
+     */
+    private Optional<MethodHandle> findHandler(Class<?> type, Class<?> msgType) {
         for (Method m : type.getMethods()) {
             WsSubscribe handler = m.getAnnotation(WsSubscribe.class);
             if (handler != null) {
                 Class<?> params[] = m.getParameterTypes();
-                @SuppressWarnings("unchecked")
-                Class<? extends WsMessage> cls = (Class<? extends WsMessage>) params[params.length-1];
-                if (cls.isInstance(msg)) {
+                Class<?> cls = params[params.length-1];
+                if (cls.isAssignableFrom(msgType)) {
                     try {
+                        MethodHandle mh = MethodHandles.publicLookup().unreflect(m);
                         if (params.length == 1) {
-                            m.invoke(target, msg);
-                        } else {
-                            m.invoke(target, context, msg);
-                        }
-                    } catch (InvocationTargetException e) {
-                        if (e.getCause() instanceof RuntimeException) {
-                            throw (RuntimeException) e.getCause();
-                        } else {
-                            logger.error(e.getMessage(), e);
+                            mh = MethodHandles.dropArguments(mh, 1, Object.class);
                         }
+                        return Optional.of(mh.asType(HANDLER_TYPE));
                     } catch (IllegalAccessException e) {
                         logger.error(e.getMessage(), e);
+                        return Optional.empty();
                     }
-                    return true;
                 }
             }
         }
-        return false;
+        return Optional.empty();
     }
 
 }
@@ -8,6 +8,7 @@ public class ErrorMessage extends AbstractWsMessage {
     public static final String BAD_VERSION = "badVersion";
     public static final String INVALID_PASSWORD = "invalidPassword";
     public static final String NOT_ALLOWED = "notAllowed";
+    public static final String INVALID_MOVE = "invalidMove";
 
     private String code;
     private String message;
@@ -2,6 +2,7 @@ package com.jcloisterzone.wsio.message;
 
 import java.util.List;
 
+import com.jcloisterzone.game.ReplayCheckpoint;
 import com.jcloisterzone.wsio.WsMessageCommand;
 
 @WsMessageCommand("GAME")
@@ -23,7 +24,7 @@ public class GameMessage extends AbstractWsMessage implements WsInGameMessage {
 
     private long initialSeed;
     private List<WsReplayableMessage> replay;
-
+    private List<ReplayCheckpoint> checkpoints;
 
     public GameMessage() {
     }
@@ -108,4 +109,12 @@ public class GameMessage extends AbstractWsMessage implements WsInGameMessage {
     public void setReplay(List<WsReplayableMessage> replay) {
         this.replay = replay;
     }
+
+    public List<ReplayCheckpoint> getCheckpoints() {
+        return checkpoints;
+    }
+
+    public void setCheckpoints(List<ReplayCheckpoint> checkpoints) {
+        this.checkpoints = checkpoints;
+    }
 }
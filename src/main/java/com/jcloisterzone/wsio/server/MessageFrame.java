@@ -0,0 +1,90 @@
+package com.jcloisterzone.wsio.server;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.jcloisterzone.wsio.MessageParser;
+import com.jcloisterzone.wsio.message.WsMessage;
+
+/**
+ * Message serialized once for all recipients. Only sequence number differs between
+ * connections, it is appended to the end of message payload when frame is written.
+ *
+ * Frames are written to a buffer shared by all connections served by the same thread.
+ * Websocket library copies the payload into outgoing frame, so the buffer is reused
+ * by the next {@link #write(long)} call.
+ */
+public class MessageFrame {
+
+    private static final byte[] SEQUENCE_NUMBER_KEY = "\"sequenceNumber\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] END = "}}".getBytes(StandardCharsets.UTF_8);
+    private static final int MAX_SEQUENCE_NUMBER_LENGTH = 20;
+
+    private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocate(4096));
+
+    private final byte[] head;
+    private final boolean emptyPayload;
+
+    public MessageFrame(MessageParser parser, WsMessage message) {
+        Long originalSequenceNumber = message.getSequenceNumber();
+        message.setSequnceNumber(null);
+        String json;
+        try {
+            json = parser.toJson(message);
+        } finally {
+            message.setSequnceNumber(originalSequenceNumber);
+        }
+        // {"type":"...","payload":{...}} - payload is always last member of the envelope
+        if (!json.endsWith("}}")) {
+            throw new IllegalArgumentException("Unexpected message format: " + json);
+        }
+        head = json.substring(0, json.length() - 2).getBytes(StandardCharsets.UTF_8);
+        emptyPayload = json.endsWith("{}}");
+    }
+
+    /**
+     * Writes frame with given sequence number to shared buffer.
+     *
+     * @return buffer ready to be read, valid until next call from the same thread
+     */
+    public ByteBuffer write(long sequenceNumber) {
+        int size = head.length + 1 + SEQUENCE_NUMBER_KEY.length + MAX_SEQUENCE_NUMBER_LENGTH + END.length;
+        ByteBuffer buffer = BUFFER.get();
+        if (buffer.capacity() < size) {
+            buffer = ByteBuffer.allocate(Math.max(size, buffer.capacity() * 2));
+            BUFFER.set(buffer);
+        }
+        buffer.clear();
+        buffer.put(head);
+        if (!emptyPayload) {
+            buffer.put((byte) ',');
+        }
+        buffer.put(SEQUENCE_NUMBER_KEY);
+        putDecimal(buffer, sequenceNumber);
+        buffer.put(END);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void putDecimal(ByteBuffer buffer, long value) {
+        int start = buffer.position();
+        do {
+            buffer.put((byte) ('0' + value % 10));
+            value /= 10;
+        } while (value != 0);
+        // digits were written from the least significant one
+        for (int i = start, j = buffer.position() - 1; i < j; i++, j--) {
+            byte b = buffer.get(i);
+            buffer.put(i, buffer.get(j));
+            buffer.put(j, b);
+        }
+    }
+
+    /**
+     * Gets frame as string, for logging and tests.
+     */
+    public String asString(long sequenceNumber) {
+        ByteBuffer buffer = write(sequenceNumber);
+        return StandardCharsets.UTF_8.decode(buffer).toString();
+    }
+}
@@ -0,0 +1,218 @@
+package com.jcloisterzone.wsio.server;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.jcloisterzone.action.MeepleAction;
+import com.jcloisterzone.action.PlayerAction;
+import com.jcloisterzone.board.pointer.FeaturePointer;
+import com.jcloisterzone.game.GameStatePhaseReducer;
+import com.jcloisterzone.game.state.ActionsState;
+import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.wsio.MessageParser;
+import com.jcloisterzone.wsio.message.BazaarBidMessage;
+import com.jcloisterzone.wsio.message.CommitMessage;
+import com.jcloisterzone.wsio.message.GameOverMessage;
+import com.jcloisterzone.wsio.message.PassMessage;
+import com.jcloisterzone.wsio.message.PayRansomMessage;
+import com.jcloisterzone.wsio.message.WsInGameMessage;
+import com.jcloisterzone.wsio.message.WsMessage;
+
+import io.vavr.Tuple2;
+import io.vavr.collection.HashSet;
+import io.vavr.collection.Set;
+
+/**
+ * Server side copy of hosted game state. In-game messages are checked against actions
+ * of current state and applied by phase reducer before they are broadcast, so message
+ * from buggy or modified client is refused instead of desynchronizing all clients.
+ *
+ * Message created from action option must match some message which actions of current state
+ * can produce. These messages are collected once for each state, following messages sent
+ * in the same state are validated by hash lookup. Messages not bound to options (pass, commit,
+ * ransom, bazaar bid, game over) are validated only by phase reducer.
+ *
+ * States after recent messages (and periodically after older ones) are kept, so undo
+ * restores nearest kept state instead of replaying whole game.
+ *
+ * Instance is not thread safe, it's accessed while holding game monitor.
+ */
+public class MoveValidator {
+
+    private static final Gson GSON = new MessageParser().getGson();
+
+    /** Messages which are not created from action options. */
+    private static final Set<Class<? extends WsInGameMessage>> NON_OPTION_MESSAGES = HashSet.of(
+        PassMessage.class, CommitMessage.class, PayRansomMessage.class, BazaarBidMessage.class, GameOverMessage.class
+    );
+
+    /** Number of newest states which are all kept. */
+    static final int RECENT_STATES = 32;
+    /** Older states are kept only after each {@code SNAPSHOT_INTERVAL} messages. */
+    static final int SNAPSHOT_INTERVAL = 64;
+
+    private final GameStatePhaseReducer phaseReducer;
+    private GameState state;
+    // number of messages applied to initial state
+    private int appliedCount;
+    // states keyed by number of applied messages
+    private final java.util.TreeMap<Integer, GameState> snapshots = new java.util.TreeMap<>();
+
+    // legal messages are cached for single (current) state
+    private GameState legalMessagesState;
+    private java.util.Set<JsonElement> legalMessages;
+
+    private long validatedCount;
+    private long totalNanos;
+    private long maxNanos;
+    private long lastNanos;
+
+    /**
+     * @param initialState state after first phase is entered
+     */
+    public MoveValidator(GameStatePhaseReducer phaseReducer, GameState initialState) {
+        this.phaseReducer = phaseReducer;
+        this.state = initialState;
+        snapshots.put(0, initialState);
+    }
+
+    public GameState getState() {
+        return state;
+    }
+
+    /**
+     * Sets state to initial one with given messages applied, without validation.
+     * Used for saved games and after undo. Messages must continue messages applied before
+     * or be their prefix (trimmed by undo), so kept state can be restored and only
+     * messages after it are applied.
+     */
+    public void replay(java.util.List<? extends WsInGameMessage> messages) {
+        int size = messages.size();
+        java.util.Map.Entry<Integer, GameState> base = snapshots.floorEntry(Math.min(size, appliedCount));
+        snapshots.tailMap(base.getKey(), false).clear();
+        appliedCount = base.getKey();
+        state = base.getValue();
+        for (WsInGameMessage msg : messages.subList(appliedCount, size)) {
+            state = phaseReducer.apply(state, msg);
+            applied();
+        }
+    }
+
+    private void applied() {
+        appliedCount++;
+        snapshots.put(appliedCount, state);
+        int old = appliedCount - RECENT_STATES;
+        if (old > 0 && old % SNAPSHOT_INTERVAL != 0) {
+            snapshots.remove(old);
+        }
+    }
+
+    /**
+     * Number of messages applied to initial state.
+     */
+    public int getAppliedCount() {
+        return appliedCount;
+    }
+
+    /**
+     * Validates message and applies it on current state. Salt must be already set on salted messages.
+     *
+     * @throws IllegalArgumentException if message is not allowed, state is unchanged then
+     */
+    public void apply(WsInGameMessage msg) {
+        long start = System.nanoTime();
+        try {
+            if (!isAllowed(msg)) {
+                throw new IllegalArgumentException(String.format("%s doesn't match any action in %s.",
+                    msg, state.getPhase().getSimpleName()));
+            }
+            try {
+                state = phaseReducer.apply(state, msg);
+                applied();
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(String.format("%s refused by %s: %s",
+                    msg, state.getPhase().getSimpleName(), e.getMessage()), e);
+            }
+        } finally {
+            lastNanos = System.nanoTime() - start;
+            validatedCount++;
+            totalNanos += lastNanos;
+            maxNanos = Math.max(maxNanos, lastNanos);
+        }
+    }
+
+    /**
+     * Checks message against actions of current state. Doesn't apply message.
+     */
+    public boolean isAllowed(WsInGameMessage msg) {
+        if (NON_OPTION_MESSAGES.contains(msg.getClass())) {
+            return true;
+        }
+        if (legalMessagesState != state) {
+            legalMessages = createLegalMessages(state);
+            legalMessagesState = state;
+        }
+        return legalMessages.contains(toKey(msg));
+    }
+
+    private static java.util.Set<JsonElement> createLegalMessages(GameState state) {
+        java.util.Set<JsonElement> keys = new java.util.HashSet<>();
+        ActionsState as = state.getPlayerActions();
+        if (as != null) {
+            for (PlayerAction<?> action : as.getActions()) {
+                addLegalMessages(keys, action);
+            }
+        }
+        return keys;
+    }
+
+    private static <T> void addLegalMessages(java.util.Set<JsonElement> keys, PlayerAction<T> action) {
+        if (action instanceof MeepleAction) {
+            // any of offered meeples can be deployed, not only the one chosen by select(option)
+            MeepleAction meepleAction = (MeepleAction) action;
+            for (Tuple2<String, Set<FeaturePointer>> t : meepleAction.getMeepleOptions()) {
+                for (FeaturePointer fp : t._2) {
+                    keys.add(toKey(meepleAction.select(fp, t._1)));
+                }
+            }
+            return;
+        }
+        if (action.getOptions() == null) {
+            return; // bazaar actions, messages are not bound to options
+        }
+        for (T option : action.getOptions()) {
+            keys.add(toKey(action.select(option)));
+        }
+    }
+
+    /**
+     * Message serialized without fields assigned by client connection or server.
+     */
+    private static JsonElement toKey(WsInGameMessage msg) {
+        JsonObject key = GSON.toJsonTree(msg, WsMessage.class).getAsJsonObject();
+        JsonObject payload = key.getAsJsonObject("payload");
+        payload.remove("gameId");
+        payload.remove("messageId");
+        payload.remove("sequenceNumber");
+        payload.remove("salt");
+        return key;
+    }
+
+    /** Number of validated messages, including refused ones. */
+    public long getValidatedCount() {
+        return validatedCount;
+    }
+
+    /** Duration of last validation in nanoseconds. */
+    public long getLastNanos() {
+        return lastNanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public long getAverageNanos() {
+        return validatedCount == 0 ? 0 : totalNanos / validatedCount;
+    }
+}
@@ -0,0 +1,53 @@
+package com.jcloisterzone.wsio.server;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.framing.Framedata.Opcode;
+
+/**
+ * Server side state of one websocket connection. Messages to the connection can be sent
+ * from several game threads (game updates, lobby updates), sending is synchronized
+ * to keep sequence numbers in order.
+ */
+public class ServerConnection {
+
+    private final WebSocket ws;
+    private long sequenceNumber = 1L;
+
+    private volatile ServerRemoteClient client;
+    private volatile ServerGame game;
+
+    public ServerConnection(WebSocket ws) {
+        this.ws = ws;
+    }
+
+    public WebSocket getWebSocket() {
+        return ws;
+    }
+
+    /**
+     * Gets client info, {@code null} until HELLO message is received.
+     */
+    public ServerRemoteClient getClient() {
+        return client;
+    }
+
+    public void setClient(ServerRemoteClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Gets joined game, {@code null} when connection is in lobby.
+     */
+    public ServerGame getGame() {
+        return game;
+    }
+
+    public void setGame(ServerGame game) {
+        this.game = game;
+    }
+
+    public synchronized void send(MessageFrame frame) {
+        ws.sendFragmentedFrame(Opcode.TEXT, frame.write(sequenceNumber), true);
+        sequenceNumber++;
+    }
+}
@@ -0,0 +1,796 @@
+package com.jcloisterzone.wsio.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.java_websocket.WebSocket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.KeyUtils;
+import com.jcloisterzone.Player;
+import com.jcloisterzone.ai.AiPlayer;
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.game.Capability;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.GameSetup;
+import com.jcloisterzone.game.GameStatePhaseReducer;
+import com.jcloisterzone.game.PlayerSlot;
+import com.jcloisterzone.game.PlayerSlot.SlotState;
+import com.jcloisterzone.game.RandomGenerator;
+import com.jcloisterzone.game.ReplayCheckpoint;
+import com.jcloisterzone.game.Rule;
+import com.jcloisterzone.game.capability.StandardGameCapability;
+import com.jcloisterzone.game.phase.Phase;
+import com.jcloisterzone.game.save.SavedGame;
+import com.jcloisterzone.game.save.SavedGame.SavedGamePlayerSlot;
+import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.game.state.GameStateBuilder;
+import com.jcloisterzone.wsio.WsSubscribe;
+import com.jcloisterzone.wsio.message.BazaarBidMessage;
+import com.jcloisterzone.wsio.message.BazaarBuyOrSellMessage;
+import com.jcloisterzone.wsio.message.CaptureFollowerMessage;
+import com.jcloisterzone.wsio.message.ChannelMessage.ChannelMessageGame;
+import com.jcloisterzone.wsio.message.ChatMessage;
+import com.jcloisterzone.wsio.message.ClientUpdateMessage;
+import com.jcloisterzone.wsio.message.ClientUpdateMessage.ClientState;
+import com.jcloisterzone.wsio.message.ClockMessage;
+import com.jcloisterzone.wsio.message.CommitMessage;
+import com.jcloisterzone.wsio.message.CornCircleRemoveOrDeployMessage;
+import com.jcloisterzone.wsio.message.DeployFlierMessage;
+import com.jcloisterzone.wsio.message.DeployMeepleMessage;
+import com.jcloisterzone.wsio.message.ErrorMessage;
+import com.jcloisterzone.wsio.message.ExchangeFollowerChoiceMessage;
+import com.jcloisterzone.wsio.message.FlockMessage;
+import com.jcloisterzone.wsio.message.GameMessage;
+import com.jcloisterzone.wsio.message.GameMessage.GameStatus;
+import com.jcloisterzone.wsio.message.GameOverMessage;
+import com.jcloisterzone.wsio.message.GameSetupMessage;
+import com.jcloisterzone.wsio.message.LeaveGameMessage;
+import com.jcloisterzone.wsio.message.LeaveSlotMessage;
+import com.jcloisterzone.wsio.message.MoveNeutralFigureMessage;
+import com.jcloisterzone.wsio.message.PassMessage;
+import com.jcloisterzone.wsio.message.PayRansomMessage;
+import com.jcloisterzone.wsio.message.PlaceTileMessage;
+import com.jcloisterzone.wsio.message.PlaceTokenMessage;
+import com.jcloisterzone.wsio.message.PostChatMessage;
+import com.jcloisterzone.wsio.message.ReturnMeepleMessage;
+import com.jcloisterzone.wsio.message.SetCapabilityMessage;
+import com.jcloisterzone.wsio.message.SetExpansionMessage;
+import com.jcloisterzone.wsio.message.SetRuleMessage;
+import com.jcloisterzone.wsio.message.SlotMessage;
+import com.jcloisterzone.wsio.message.StartGameMessage;
+import com.jcloisterzone.wsio.message.TakeSlotMessage;
+import com.jcloisterzone.wsio.message.ToggleClockMessage;
+import com.jcloisterzone.wsio.message.UndoMessage;
+import com.jcloisterzone.wsio.message.WsInGameMessage;
+import com.jcloisterzone.wsio.message.WsMessage;
+import com.jcloisterzone.wsio.message.WsReplayableMessage;
+import com.jcloisterzone.wsio.message.WsSaltMessage;
+
+import io.vavr.collection.HashMap;
+import io.vavr.collection.Map;
+
+/**
+ * Single game hosted by {@link SimpleServer}. Holds game setup, slots, replay and clocks
+ * and handles all messages sent to the game.
+ *
+ * Running game keeps own copy of game state (see {@link MoveValidator}). In-game message
+ * is broadcast only when it's sent by owner of active player's slot and it's valid in current state.
+ *
+ * Instance is not thread safe, server dispatches messages and connection changes
+ * while holding game monitor. Games don't share any state so different games
+ * are processed in parallel.
+ */
+public class ServerGame {
+
+    protected final transient Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final SimpleServer server;
+
+    private final String gameId;
+    private String name = "";
+    private String password;
+    private GameSetup gameSetup;
+    private long initialSeed;
+    private final ServerPlayerSlot[] slots;
+    private int slotSerial;
+    private List<WsReplayableMessage> replay;
+    private List<ReplayCheckpoint> checkpoints;
+    // null when server side state can't be created, messages are not validated then
+    private MoveValidator validator;
+
+    private SavedGame savedGame;
+    private boolean gameStarted;
+    private boolean removed;
+
+    private long[] clocks;
+    private int runningClock;
+    private long runningSince;
+
+    private Map<WebSocket, ServerRemoteClient> members = HashMap.empty();
+    private final String hostClientId;
+
+    private final Random random = new Random();
+
+    public ServerGame(SimpleServer server, SavedGame savedGame, Game game, String hostClientId) {
+        this.server = server;
+        this.savedGame = savedGame;
+        this.hostClientId = hostClientId;
+        slots = new ServerPlayerSlot[PlayerSlot.COUNT];
+        slotSerial = 0;
+        runningClock = -1;
+        gameStarted = false;
+
+        if (savedGame != null) {
+            gameId = savedGame.getGameId();
+            initialSeed = savedGame.getInitialSeed();
+            gameSetup = savedGame.getSetup().asGameSetup();
+            replay = new ArrayList<>(savedGame.getReplay());
+            checkpoints = savedGame.getCheckpoints() == null ? new ArrayList<>() : new ArrayList<>(savedGame.getCheckpoints());
+            loadSlotsFromSavedGame(savedGame);
+        } else {
+            gameId = KeyUtils.createRandomId();
+            initialSeed = random.nextLong();
+            replay = new ArrayList<>();
+            checkpoints = new ArrayList<>();
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = new ServerPlayerSlot(i);
+            }
+            if (game == null) {
+                gameSetup = new GameSetup(
+                    io.vavr.collection.HashMap.of(Expansion.BASIC, 1),
+                    io.vavr.collection.HashSet.of(StandardGameCapability.class),
+                    Rule.getDefaultRules()
+                );
+            } else {
+                gameSetup = game.getSetup();
+                int maxSerial = 0;
+                for (PlayerSlot slot : game.getPlayerSlots()) {
+                    boolean ownedByCreator = hostClientId != null && hostClientId.equals(slot.getClientId());
+                    if (ownedByCreator || slot.getAiClassName() != null) {
+                        int idx = slot.getNumber();
+                        slots[idx].setAutoAssignClientId(hostClientId);
+                        slots[idx].setNickname(slot.getNickname());
+                        slots[idx].setSerial(slot.getSerial());
+                        slots[idx].setAiClassName(slot.getAiClassName());
+                        if (slot.getAiClassName() != null) {
+                            try {
+                                AiPlayer aiPlayer = (AiPlayer) Class.forName(slot.getAiClassName()).newInstance();
+                                slots[idx].setSupportedSetup(aiPlayer.supportedSetup());
+                            } catch (Exception e) {
+                                logger.error(e.getMessage(), e);
+                            }
+                        }
+                        maxSerial = Math.max(maxSerial, slot.getSerial());
+                    }
+                }
+                slotSerial = maxSerial + 1;
+            }
+        }
+    }
+
+    private void loadSlotsFromSavedGame(SavedGame savedGame) {
+        int maxSerial = 0;
+        for (SavedGamePlayerSlot sgSlot : savedGame.getSlots()) {
+            int idx = sgSlot.getNumber();
+            slots[idx] = new ServerPlayerSlot(idx);
+            slots[idx].setAutoAssignClientId(sgSlot.getClientId());
+            slots[idx].setNickname(sgSlot.getNickname());
+            slots[idx].setSerial(sgSlot.getSerial());
+            slots[idx].setAiClassName(sgSlot.getAiClassName());
+            maxSerial = Math.max(maxSerial, sgSlot.getSerial());
+        }
+        slotSerial = maxSerial + 1;
+    }
+
+    public String getGameId() {
+        return gameId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public boolean isPasswordValid(String password) {
+        return this.password == null || this.password.isEmpty() || this.password.equals(password);
+    }
+
+    public boolean isGameStarted() {
+        return gameStarted;
+    }
+
+    /**
+     * Removed game is no longer listed in lobby and can't be joined.
+     */
+    public boolean isRemoved() {
+        return removed;
+    }
+
+    public void setRemoved() {
+        this.removed = true;
+    }
+
+    public Map<WebSocket, ServerRemoteClient> getMembers() {
+        return members;
+    }
+
+    public ServerPlayerSlot[] getSlots() {
+        return slots;
+    }
+
+    public List<WsReplayableMessage> getReplay() {
+        return replay;
+    }
+
+    private SlotMessage newSlotMessage(ServerPlayerSlot slot) {
+        SlotMessage msg = new SlotMessage(slot.getNumber(), slot.getSerial(), slot.getSessionId(), slot.getClientId(), slot.getNickname());
+        msg.setGameId(gameId);
+        msg.setAiClassName(slot.getAiClassName());
+        msg.setSupportedSetup(slot.getSupportedSetup());
+        return msg;
+    }
+
+    public GameStatus getStatus() {
+        if (removed) {
+            return GameStatus.REMOVED;
+        } else if (gameStarted) {
+            return GameStatus.RUNNING;
+        } else if (savedGame == null) {
+            return GameStatus.OPEN;
+        } else {
+            return GameStatus.PAUSED;
+        }
+    }
+
+    public GameMessage newGameMessage(boolean includeReplay) {
+        return fillGameMessage(new GameMessage(), includeReplay);
+    }
+
+    /**
+     * Creates game list item for lobby. Replay is never included.
+     */
+    public ChannelMessageGame newChannelGameMessage() {
+        ChannelMessageGame gm = fillGameMessage(new ChannelMessageGame(), false);
+        gm.setClients(members.values().map(ServerRemoteClient::asRemoteClient).toJavaArray(RemoteClient.class));
+        return gm;
+    }
+
+    private <T extends GameMessage> T fillGameMessage(T gm, boolean includeReplay) {
+        GameSetupMessage setupMessage = new GameSetupMessage(
+            gameSetup.getRules().toJavaMap(),
+            gameSetup.getCapabilities().toJavaSet(),
+            gameSetup.getExpansions().toJavaMap()
+        );
+        setupMessage.setGameId(gameId);
+
+        gm.setGameId(gameId);
+        gm.setName(name);
+        gm.setStatus(getStatus());
+        gm.setGameSetup(setupMessage);
+        gm.setPasswordProtected(password != null && !password.isEmpty());
+        gm.setInitialSeed(initialSeed);
+        List<SlotMessage> slotMsgs = new ArrayList<>();
+        for (ServerPlayerSlot slot : slots) {
+            if (slot != null) {
+                SlotMessage sm = newSlotMessage(slot);
+                slotMsgs.add(sm);
+            }
+        }
+        gm.setSlots(slotMsgs.toArray(new SlotMessage[slotMsgs.size()]));
+        if (includeReplay) {
+            gm.setReplay(replay);
+            gm.setCheckpoints(checkpoints);
+        }
+        return gm;
+    }
+
+    private boolean isParticipant(String clientId, String secret) {
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != null && clientId.equals(slots[i].getClientId()) && secret.equals(slots[i].getSecret())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Started game can be joined only by clients already owning some slot.
+     */
+    public boolean isJoinAllowed(String clientId, String secret) {
+        return !gameStarted || isParticipant(clientId, secret);
+    }
+
+    private boolean shouldAutoAssign(ServerRemoteClient client, ServerPlayerSlot slot) {
+        if (gameStarted) {
+            return client.getClientId().equals(slot.getClientId()) && client.getSecret().equals(slot.getSecret());
+        } else {
+            if (slot.getSessionId() == null) {
+                boolean isHostClient = client.getClientId().equals(hostClientId);
+                return client.getClientId().equals(slot.getAutoAssignClientId()) || (isHostClient && slot.getAiClassName() != null);
+            } else {
+                return false;
+            }
+        }
+    }
+
+    private long createSalt() {
+        return System.currentTimeMillis();
+    }
+
+    private void closeStaleConnections(String sessionId) {
+        members
+            .filter((ws, client) -> client.getSessionId() == sessionId)
+            .forEach((ws, client) -> { ws.close(); });
+    }
+
+    /**
+     * Adds welcomed connection to the game. Auto assigned slots are paired with
+     * the client and whole game (including replay when running) is sent to it.
+     */
+    public void join(WebSocket ws, ServerRemoteClient client) {
+        String sessionId = client.getSessionId();
+        for (ServerPlayerSlot slot : slots) {
+            if (slot != null && shouldAutoAssign(client, slot)) {
+                if (gameStarted && slot.getSessionId() != null) {
+                    // when already paired with session, close old session and pair with new one
+                    closeStaleConnections(slot.getSessionId());
+                }
+
+                slot.setClientId(client.getClientId());
+                slot.setSessionId(sessionId);
+                slot.setSecret(client.getSecret());
+                broadcast(newSlotMessage(slot));
+            }
+        }
+
+        //add after broadcasting slot update
+        members = members.put(ws, client);
+
+        server.send(ws, newGameMessage(gameStarted));
+        for (ServerRemoteClient rc : members.values()) {
+            if (!rc.getSessionId().equals(sessionId)) {
+                ClientUpdateMessage updateMsg = new ClientUpdateMessage(rc.getSessionId(), rc.getName(), ClientState.ACTIVE);
+                updateMsg.setGameId(gameId);
+                server.send(ws, updateMsg);
+            }
+        }
+        ClientUpdateMessage updateMsg = new ClientUpdateMessage(sessionId, client.getName(), ClientState.ACTIVE);
+        updateMsg.setGameId(gameId);
+        broadcast(updateMsg);
+        if (gameStarted) {
+            long ts = System.currentTimeMillis();
+            long[] clocksCopy = Arrays.copyOf(clocks, clocks.length);
+            if (runningClock != -1) {
+                clocksCopy[runningClock] += ts-runningSince;
+             }
+            ClockMessage clockMsg = new ClockMessage(runningClock == -1 ? null : runningClock, clocksCopy, ts);
+            clockMsg.setGameId(gameId);
+            server.send(ws, clockMsg);
+        }
+    }
+
+    /**
+     * Removes connection from the game. Before game start, slots of leaving client are released.
+     */
+    /**
+     * Removes member. Other members are informed about its slots and offline state if {@code notify} is set.
+     */
+    public void leave(WebSocket ws, boolean notify) {
+        RemoteClient conn = members.get(ws).getOrNull();
+        if (conn == null) {
+            return;
+        }
+        members = members.remove(ws);
+
+        for (ServerPlayerSlot slot : slots) {
+            if (slot != null && conn.getSessionId().equals(slot.getSessionId())) {
+                if (!gameStarted) {
+                    leaveSlot(slot, notify);
+                } else {
+                    slot.setSessionId(null);
+                    if (notify) {
+                        broadcast(newSlotMessage(slot));
+                    }
+                }
+            }
+        }
+        if (notify) {
+            ClientUpdateMessage msg = new ClientUpdateMessage(conn.getSessionId(), null, ClientState.OFFLINE);
+            msg.setGameId(gameId);
+            broadcast(msg);
+        }
+    }
+
+    @WsSubscribe
+    public void handleLeaveGame(WebSocket ws, LeaveGameMessage msg) {
+        server.leaveGame(ws, this);
+    }
+
+    @WsSubscribe
+    public void handleGameSetupMessage(WebSocket ws, GameSetupMessage msg) {
+        if (!msg.getGameId().equals(gameId)) throw new IllegalArgumentException("Invalid game id.");
+        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
+        gameSetup = new GameSetup(
+            io.vavr.collection.HashMap.ofAll(msg.getExpansions()),
+            io.vavr.collection.HashSet.ofAll(msg.getCapabilities()),
+            io.vavr.collection.HashMap.ofAll(msg.getRules())
+        );
+        broadcast(msg);
+    }
+
+    @WsSubscribe
+    public void handleTakeSlot(WebSocket ws, TakeSlotMessage msg) {
+        if (!msg.getGameId().equals(gameId)) throw new IllegalArgumentException("Invalid game id.");
+        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
+        ServerRemoteClient client = members.get(ws).get();
+        String sessionId = client.getSessionId();
+        int number = msg.getNumber();
+        if (number < 0 || number >= slots.length || slots[number] == null) {
+            server.send(ws, new ErrorMessage("TAKE_SLOT", "Invalid slot number"));
+            return;
+        }
+        ServerPlayerSlot slot = slots[number];
+        if (!slot.isOccupied()) {
+            slot.setSerial(++slotSerial);
+        }
+        slot.setNickname(msg.getNickname());
+        slot.setAiClassName(msg.getAiClassName());
+        slot.setSessionId(sessionId);
+        slot.setSupportedSetup(msg.getSupportedSetup());
+        slot.setClientId(client.getClientId());
+        slot.setSecret(client.getSecret());
+        broadcast(newSlotMessage(slot));
+    }
+
+    private void leaveSlot(ServerPlayerSlot slot, boolean notify) {
+        if (savedGame == null) {
+            slot.setNickname(null);
+            slot.setAiClassName(null);
+            slot.setSupportedSetup(null);
+        }
+        slot.setSerial(null);
+        slot.setSessionId(null);
+        slot.setClientId(null);
+        slot.setSecret(null);
+        if (notify) {
+            broadcast(newSlotMessage(slot));
+        }
+    }
+
+    @WsSubscribe
+    public void handleLeaveSlot(WebSocket ws, LeaveSlotMessage msg) {
+        if (!msg.getGameId().equals(gameId)) throw new IllegalArgumentException("Invalid game id.");
+        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
+        int number = msg.getNumber();
+        if (number < 0 || number >= slots.length || slots[number] == null) {
+            server.send(ws, new ErrorMessage("LEAVE_SLOT", "Invalid slot number"));
+            return;
+
+        }
+        ServerPlayerSlot slot = slots[number];
+        leaveSlot(slot, true);
+    }
+
+    @WsSubscribe
+    public void handleSetExpansion(WebSocket ws, SetExpansionMessage msg) {
+        if (!msg.getGameId().equals(gameId)) throw new IllegalArgumentException("Invalid game id.");
+        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
+        Expansion expansion = msg.getExpansion();
+        gameSetup = gameSetup.mapExpansions(expansions ->
+            msg.getCount() > 0 ? expansions.put(expansion, msg.getCount()) : expansions.remove(expansion)
+        );
+        broadcast(msg);
+    }
+
+    @WsSubscribe
+    public void handleSetRule(WebSocket ws, SetRuleMessage msg) {
+        if (!msg.getGameId().equals(gameId)) throw new IllegalArgumentException("Invalid game id.");
+        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
+        Rule rule = msg.getRule();
+        gameSetup = gameSetup.mapRules(rules ->
+            msg.getValue() == null ? rules.remove(rule) : rules.put(rule, msg.getValue())
+        );
+        broadcast(msg);
+    }
+
+    @WsSubscribe
+    public void handleSetCapability(WebSocket ws, SetCapabilityMessage msg) {
+        if (!msg.getGameId().equals(gameId)) throw new IllegalArgumentException("Invalid game id.");
+        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
+        Class<? extends Capability<?>> cap = msg.getCapability();
+        gameSetup = gameSetup.mapCapabilities(cps ->
+            msg.isEnabled() ? cps.add(cap) : cps.remove(cap)
+        );
+        broadcast(msg);
+    }
+
+    @WsSubscribe
+    public void handleStartGame(WebSocket ws, StartGameMessage msg) {
+        if (!msg.getGameId().equals(gameId)) throw new IllegalArgumentException("Invalid game id.");
+        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
+        runningClock = -1;
+        if (savedGame == null) {
+            int playerCount = 0;
+            for (ServerPlayerSlot slot : slots) {
+                if (!slot.isOccupied()) continue;
+                playerCount++;
+//                if (slot.getSupportedExpansions() != null) {
+//                    gameSetup.getExpansions().retainAll(Arrays.asList(slot.getSupportedExpansions()));
+//                }
+                if (gameSetup.getBooleanValue(Rule.RANDOM_SEATING_ORDER)) {
+                    slot.setSerial(random.nextInt());
+                }
+            }
+            clocks = new long[playerCount];
+        } else {
+            // for saved games, CLOCK message is emitted by active client after load
+            clocks = savedGame.getClocks();
+        }
+        gameStarted = true;
+        validator = createValidator();
+        broadcast(newGameMessage(true));
+        server.onGameStarted(this);
+    }
+
+    /**
+     * Creates server copy of game state in the same way as client does it in {@link Game#start}.
+     * If state can't be created (eg. expansion from plugin which is not available to standalone server),
+     * game runs without validation.
+     */
+    private MoveValidator createValidator() {
+        PlayerSlot[] playerSlots = new PlayerSlot[slots.length];
+        for (ServerPlayerSlot slot : slots) {
+            if (slot == null || !slot.isOccupied()) continue;
+            PlayerSlot playerSlot = new PlayerSlot(slot.getNumber());
+            playerSlot.setNickname(slot.getNickname());
+            playerSlot.setSerial(slot.getSerial());
+            playerSlot.setAiClassName(slot.getAiClassName());
+            playerSlot.setState(SlotState.REMOTE);
+            playerSlots[slot.getNumber()] = playerSlot;
+        }
+        try {
+            Config config = server.getConfig();
+            GameStatePhaseReducer phaseReducer = new GameStatePhaseReducer(gameSetup);
+            GameStateBuilder builder = new GameStateBuilder(gameSetup, playerSlots, config);
+            if (savedGame != null) {
+                builder.setGameAnnotations(savedGame.getAnnotations());
+            } else if (config.getDebug() != null) {
+                builder.setGameAnnotations(config.getDebug().getGame_annotation());
+            }
+            GameState state = builder.createInitialState();
+            state = builder.createReadyState(state).setRandom(new RandomGenerator(initialSeed));
+            Phase firstPhase = phaseReducer.getFirstPhase();
+            state = phaseReducer.applyStepResult(firstPhase.enter(state.setPhase(firstPhase.getClass())));
+
+            MoveValidator validator = new MoveValidator(phaseReducer, state);
+            validator.replay(replay);
+            return validator;
+        } catch (RuntimeException e) {
+            logger.warn("Unable to create game state, moves won't be validated", e);
+            return null;
+        }
+    }
+
+    @WsSubscribe
+    public void handleToggleClock(WebSocket ws, ToggleClockMessage msg) {
+        if (!msg.getGameId().equals(gameId)) throw new IllegalArgumentException("Invalid game id.");
+        if (!gameStarted) throw new IllegalArgumentException("Game is not started.");
+        long ts = System.currentTimeMillis();
+        if (runningClock != -1) {
+           clocks[runningClock] += ts-runningSince;
+        }
+        runningSince = ts;
+        runningClock = msg.getRun() == null ? -1 : msg.getRun();
+        long[] clocksCopy = Arrays.copyOf(clocks, clocks.length);
+        ClockMessage clockMsg = new ClockMessage(msg.getRun(), clocksCopy, ts);
+        clockMsg.setGameId(msg.getGameId());
+        broadcast(clockMsg);
+    }
+
+    /**
+     * Broadcasts valid message, invalid one is refused by ERR message sent back to the sender.
+     *
+     * @return {@code true} if message was broadcast
+     */
+    private boolean handleInGameMessage(WebSocket ws, WsReplayableMessage msg) {
+        if (!msg.getGameId().equals(gameId)) throw new IllegalArgumentException("Invalid game id.");
+        if (!gameStarted) throw new IllegalArgumentException("Game is not started.");
+        if (!replay.isEmpty() && msg.getMessageId() != null && msg.getMessageId().equals(replay.get(replay.size() - 1).getMessageId())) {
+            // clients drop it too, don't report it as invalid move
+            logger.warn("Dropping already delivered message {}", msg.getMessageId());
+            return false;
+        }
+        if (msg instanceof WsSaltMessage) {
+            ((WsSaltMessage) msg).setSalt(createSalt());
+        }
+        if (validator != null) {
+            try {
+                validateMove(ws, msg);
+            } catch (IllegalArgumentException e) {
+                logger.warn("Invalid move: {}", e.getMessage());
+                ErrorMessage err = new ErrorMessage(ErrorMessage.INVALID_MOVE, e.getMessage());
+                err.setArg(gameId);
+                server.send(ws, err);
+                return false;
+            }
+        }
+        broadcast(msg);
+        return true;
+    }
+
+    private void validateMove(WebSocket ws, WsInGameMessage msg) {
+        GameState state = validator.getState();
+        Player player = state.getActivePlayer();
+        if (player == null) {
+            // game over message is sent when there are no actions
+            player = state.getTurnPlayer();
+        }
+        RemoteClient member = members.get(ws).getOrNull();
+        if (member == null) {
+            throw new IllegalArgumentException(String.format("%s sent by client which is not game member.", msg));
+        }
+        if (!member.getSessionId().equals(slots[player.getSlot().getNumber()].getSessionId())) {
+            throw new IllegalArgumentException(String.format("%s sent by client not controlling %s.", msg, player.getNick()));
+        }
+        validator.apply(msg);
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} validated in {} us", msg, validator.getLastNanos() / 1000);
+        }
+    }
+
+    @WsSubscribe
+    public void handleDeployFlier(WebSocket ws, DeployFlierMessage msg) {
+        handleInGameMessage(ws, msg);
+    }
+
+    @WsSubscribe
+    public void handleCommit(WebSocket ws, CommitMessage msg) {
+        handleInGameMessage(ws, msg);
+    }
+
+    @WsSubscribe
+    public void handlePass(WebSocket ws, PassMessage msg) {
+        handleInGameMessage(ws, msg);
+    }
+
+    @WsSubscribe
+    public void handlePlaceTile(WebSocket ws, PlaceTileMessage msg) {
+        handleInGameMessage(ws, msg);
+    }
+
+    @WsSubscribe
+    public void handleDeployMeeple(WebSocket ws, DeployMeepleMessage msg) {
+        handleInGameMessage(ws, msg);
+    }
+
+    @WsSubscribe
+    public void handleReturnMeeple(WebSocket ws, ReturnMeepleMessage msg) {
+        handleInGameMessage(ws, msg);
+    }
+
+    @WsSubscribe
+    public void handleMoveNeutralFigureMessage(WebSocket ws, MoveNeutralFigureMessage msg) {
+        handleInGameMessage(ws, msg);
+    }
+
+    @WsSubscribe
+    public void handlePlaceTokenMessage(WebSocket ws, PlaceTokenMessage msg) {
+        handleInGameMessage(ws, msg);
+    }
+
+    @WsSubscribe
+    public void handleCaptureFollowerMessage(WebSocket ws, CaptureFollowerMessage msg) {
+        handleInGameMessage(ws, msg);
+    }
+
+    @WsSubscribe
+    public void handlePayRansomMessage(WebSocket ws, PayRansomMessage msg) {
+        handleInGameMessage(ws, msg);
+    }
+
+    @WsSubscribe
+    public void handleExchangeFollowerChoiceMessage(WebSocket ws, ExchangeFollowerChoiceMessage msg) {
+        handleInGameMessage(ws, msg);
+    }
+
+    @WsSubscribe
+    public void handleBazaarBidMessage(WebSocket ws, BazaarBidMessage msg) {
+        handleInGameMessage(ws, msg);
+    }
+
+    @WsSubscribe
+    public void handleBazaarBuyOrSellMessage(WebSocket ws, BazaarBuyOrSellMessage msg) {
+        handleInGameMessage(ws, msg);
+    }
+
+    @WsSubscribe
+    public void handleCornCircleRemoveOrDeployMessage(WebSocket ws, CornCircleRemoveOrDeployMessage msg) {
+        handleInGameMessage(ws, msg);
+    }
+
+    @WsSubscribe
+    public void hadleFlockMessage(WebSocket ws, FlockMessage msg) {
+    	handleInGameMessage(ws, msg);
+    }
+
+    @WsSubscribe
+    public void handleGameOverMessage(WebSocket ws, GameOverMessage msg) {
+        if (handleInGameMessage(ws, msg)) {
+            if (validator != null) {
+                logger.info("{} moves validated, average {} us, max {} us", validator.getValidatedCount(),
+                    validator.getAverageNanos() / 1000, validator.getMaxNanos() / 1000);
+            }
+            server.onGameOver(this);
+        }
+    }
+
+    @WsSubscribe
+    public void handleUndo(WebSocket ws, UndoMessage msg) {
+        if (!msg.getGameId().equals(gameId)) throw new IllegalArgumentException("Invalid game id.");
+        if (!gameStarted) throw new IllegalArgumentException("Game is not started.");
+
+        List<WsReplayableMessage> trimmed = new ArrayList<>();
+        if (!"".equals(msg.getLastMessageId())) {
+            for (WsReplayableMessage m : replay) {
+                trimmed.add(m);
+                // m.getMessageId() can be null for loaded game!
+                if (msg.getLastMessageId().equals(m.getMessageId())) {
+                    break;
+                }
+            }
+        }
+        replay = trimmed;
+        checkpoints.removeIf(cp -> cp.getReplayIndex() > trimmed.size());
+        if (validator != null) {
+            try {
+                validator.replay(replay);
+            } catch (RuntimeException e) {
+                logger.warn("Unable to restore game state after undo, moves won't be validated", e);
+                validator = null;
+            }
+        }
+        broadcast(msg);
+    }
+
+    @WsSubscribe
+    public void handlePostChat(WebSocket ws, PostChatMessage msg) {
+        if (!msg.getGameId().equals(gameId)) throw new IllegalArgumentException("Invalid game id.");
+        RemoteClient member = members.get(ws).getOrNull();
+        if (member == null) {
+            server.send(ws, new ErrorMessage(ErrorMessage.NOT_ALLOWED, "Not joined to game."));
+            return;
+        }
+        ChatMessage reMsg = new ChatMessage(member.getSessionId(), msg.getText());
+        reMsg.setGameId(msg.getGameId());
+        broadcast(reMsg);
+    }
+
+    public void broadcast(WsMessage msg) {
+        if (gameStarted && msg instanceof WsReplayableMessage) {
+            replay.add((WsReplayableMessage) msg);
+        }
+        MessageFrame frame = server.createFrame(msg);
+        for (WebSocket ws : members.keySet()) {
+            if (ws.isOpen()) { //prevent exception when server is closing
+                server.send(ws, frame);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ServerGame(" + gameId + ")";
+    }
+}
@@ -26,4 +26,11 @@ public class ServerRemoteClient extends RemoteClient {
     public void setSecret(String secret) {
         this.secret = secret;
     }
+
+    /**
+     * Creates copy without client id and secret, safe to be sent to other clients.
+     */
+    public RemoteClient asRemoteClient() {
+        return new RemoteClient(getSessionId(), getName(), getState());
+    }
 }
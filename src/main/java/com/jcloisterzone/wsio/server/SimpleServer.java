@@ -2,9 +2,9 @@ package com.jcloisterzone.wsio.server;
 
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.java_websocket.WebSocket;
 import org.java_websocket.handshake.ClientHandshake;
@@ -12,103 +12,65 @@ import org.java_websocket.server.WebSocketServer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.jcloisterzone.Expansion;
 import com.jcloisterzone.KeyUtils;
 import com.jcloisterzone.VersionComparator;
-import com.jcloisterzone.ai.AiPlayer;
+import com.jcloisterzone.config.Config;
 import com.jcloisterzone.config.ConfigLoader;
-import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
-import com.jcloisterzone.game.GameSetup;
-import com.jcloisterzone.game.PlayerSlot;
-import com.jcloisterzone.game.Rule;
-import com.jcloisterzone.game.capability.StandardGameCapability;
 import com.jcloisterzone.game.save.SavedGame;
-import com.jcloisterzone.game.save.SavedGame.SavedGamePlayerSlot;
 import com.jcloisterzone.ui.JCloisterZone;
 import com.jcloisterzone.wsio.MessageDispatcher;
 import com.jcloisterzone.wsio.MessageParser;
 import com.jcloisterzone.wsio.WsSubscribe;
-import com.jcloisterzone.wsio.message.BazaarBidMessage;
-import com.jcloisterzone.wsio.message.BazaarBuyOrSellMessage;
-import com.jcloisterzone.wsio.message.CaptureFollowerMessage;
-import com.jcloisterzone.wsio.message.ChatMessage;
-import com.jcloisterzone.wsio.message.ClientUpdateMessage;
+import com.jcloisterzone.wsio.message.ChannelMessage;
+import com.jcloisterzone.wsio.message.ChannelMessage.ChannelMessageGame;
 import com.jcloisterzone.wsio.message.ClientUpdateMessage.ClientState;
-import com.jcloisterzone.wsio.message.ClockMessage;
-import com.jcloisterzone.wsio.message.CommitMessage;
-import com.jcloisterzone.wsio.message.CornCircleRemoveOrDeployMessage;
-import com.jcloisterzone.wsio.message.DeployFlierMessage;
-import com.jcloisterzone.wsio.message.DeployMeepleMessage;
+import com.jcloisterzone.wsio.message.CreateGameMessage;
 import com.jcloisterzone.wsio.message.ErrorMessage;
-import com.jcloisterzone.wsio.message.ExchangeFollowerChoiceMessage;
-import com.jcloisterzone.wsio.message.FlockMessage;
-import com.jcloisterzone.wsio.message.GameMessage;
 import com.jcloisterzone.wsio.message.GameMessage.GameStatus;
-import com.jcloisterzone.wsio.message.GameOverMessage;
-import com.jcloisterzone.wsio.message.GameSetupMessage;
+import com.jcloisterzone.wsio.message.GameUpdateMessage;
 import com.jcloisterzone.wsio.message.HelloMessage;
-import com.jcloisterzone.wsio.message.LeaveSlotMessage;
-import com.jcloisterzone.wsio.message.MoveNeutralFigureMessage;
-import com.jcloisterzone.wsio.message.PassMessage;
-import com.jcloisterzone.wsio.message.PayRansomMessage;
+import com.jcloisterzone.wsio.message.JoinGameMessage;
 import com.jcloisterzone.wsio.message.PingMessage;
-import com.jcloisterzone.wsio.message.PlaceTileMessage;
-import com.jcloisterzone.wsio.message.PlaceTokenMessage;
 import com.jcloisterzone.wsio.message.PongMessage;
-import com.jcloisterzone.wsio.message.PostChatMessage;
-import com.jcloisterzone.wsio.message.ReturnMeepleMessage;
-import com.jcloisterzone.wsio.message.SetCapabilityMessage;
-import com.jcloisterzone.wsio.message.SetExpansionMessage;
-import com.jcloisterzone.wsio.message.SetRuleMessage;
-import com.jcloisterzone.wsio.message.SlotMessage;
-import com.jcloisterzone.wsio.message.StartGameMessage;
-import com.jcloisterzone.wsio.message.TakeSlotMessage;
-import com.jcloisterzone.wsio.message.ToggleClockMessage;
-import com.jcloisterzone.wsio.message.UndoMessage;
 import com.jcloisterzone.wsio.message.WelcomeMessage;
 import com.jcloisterzone.wsio.message.WsInGameMessage;
 import com.jcloisterzone.wsio.message.WsMessage;
-import com.jcloisterzone.wsio.message.WsReplayableMessage;
-import com.jcloisterzone.wsio.message.WsSaltMessage;
-
-import io.vavr.collection.HashMap;
-import io.vavr.collection.Map;
 
 public class SimpleServer extends WebSocketServer  {
 
+    /** Channel name of game list in multi game mode. */
+    public static final String LOBBY_CHANNEL = "lobby";
+
     protected final transient Logger logger = LoggerFactory.getLogger(getClass());
 
     private final SimpleServerErrorHandler errHandler;
+    private final boolean multiGame;
+    private volatile Config config = new Config();
 
     private MessageParser parser = new MessageParser();
     private MessageDispatcher dispatcher = new MessageDispatcher();
 
-    private GameSetup gameSetup;
-    private String gameId;
-    private long initialSeed;
-    protected final ServerPlayerSlot[] slots;
-    protected int slotSerial;
-    private List<WsReplayableMessage> replay;
-
-    private SavedGame savedGame;
-    private boolean gameStarted;
-
-    private long[] clocks;
-    private int runningClock;
-    private long runningSince;
-
-    protected Map<WebSocket, ServerRemoteClient> connections = HashMap.empty();
-    protected Map<WebSocket, Long> sequences = HashMap.empty();
-    private String hostClientId;
-
-    private Random random = new Random();
+    // game registry and connections are accessed from all websocket worker threads,
+    // each game is guarded by its own monitor
+    private final ConcurrentHashMap<String, ServerGame> games = new ConcurrentHashMap<>();
+    private volatile ServerGame defaultGame;
+    protected final ConcurrentHashMap<WebSocket, ServerConnection> connections = new ConcurrentHashMap<>();
 
     public interface SimpleServerErrorHandler {
         void onError(WebSocket ws, final Exception ex);
     }
 
     public SimpleServer(InetSocketAddress address, SimpleServerErrorHandler errHandler) {
+        this(address, errHandler, false);
+    }
+
+    /**
+     * @param multiGame when {@code false} server hosts one game created by {@link #createGame},
+     *     every client joins it after HELLO. Otherwise clients get game list (lobby)
+     *     and create or join games by CREATE_GAME and JOIN_GAME messages.
+     */
+    public SimpleServer(InetSocketAddress address, SimpleServerErrorHandler errHandler, boolean multiGame) {
         super(address);
 //        setReuseAddr(true);
 //        if (System.getProperty("hearthbeat") != null) {
@@ -118,101 +80,58 @@ public class SimpleServer extends WebSocketServer  {
 //        }
 
         this.errHandler = errHandler;
-        slots = new ServerPlayerSlot[PlayerSlot.COUNT];
+        this.multiGame = multiGame;
     }
 
-    public void createGame(SavedGame savedGame, Game game, String hostClientId) {
-        slotSerial = 0;
-        runningClock = -1;
-        gameStarted = false;
-        this.savedGame = savedGame;
-        this.hostClientId = hostClientId;
-
-        if (savedGame != null) {
-            gameId = savedGame.getGameId();
-            initialSeed = savedGame.getInitialSeed();
-            gameSetup = savedGame.getSetup().asGameSetup();
-            replay = new ArrayList<>(savedGame.getReplay());
-            loadSlotsFromSavedGame(savedGame);
-        } else {
-            gameId = KeyUtils.createRandomId();
-            initialSeed = random.nextLong();
-            replay = new ArrayList<>();
-            for (int i = 0; i < slots.length; i++) {
-                slots[i] = new ServerPlayerSlot(i);
-            }
-            if (game == null) {
-                gameSetup = new GameSetup(
-                    io.vavr.collection.HashMap.of(Expansion.BASIC, 1),
-                    io.vavr.collection.HashSet.of(StandardGameCapability.class),
-                    Rule.getDefaultRules()
-                );
-            } else {
-                gameSetup = game.getSetup();
-                int maxSerial = 0;
-                for (PlayerSlot slot : game.getPlayerSlots()) {
-                    boolean ownedByCreator = hostClientId != null && hostClientId.equals(slot.getClientId());
-                    if (ownedByCreator || slot.getAiClassName() != null) {
-                        int idx = slot.getNumber();
-                        slots[idx].setAutoAssignClientId(hostClientId);
-                        slots[idx].setNickname(slot.getNickname());
-                        slots[idx].setSerial(slot.getSerial());
-                        slots[idx].setAiClassName(slot.getAiClassName());
-                        if (slot.getAiClassName() != null) {
-                            try {
-                                AiPlayer aiPlayer = (AiPlayer) Class.forName(slot.getAiClassName()).newInstance();
-                                slots[idx].setSupportedSetup(aiPlayer.supportedSetup());
-                            } catch (Exception e) {
-                                logger.error(e.getMessage(), e);
-                            }
-                        }
-                        maxSerial = Math.max(maxSerial, slot.getSerial());
-                    }
-                }
-                slotSerial = maxSerial + 1;
-            }
+    public boolean isMultiGame() {
+        return multiGame;
+    }
 
-        }
+    public Config getConfig() {
+        return config;
+    }
+
+    /**
+     * Sets config used to create server side game state. Hosting client passes its own config
+     * to build the same state (including debug tile definitions and annotations) as its game.
+     */
+    public void setConfig(Config config) {
+        this.config = config;
     }
 
-    private void loadSlotsFromSavedGame(SavedGame savedGame) {
-        int maxSerial = 0;
-        for (SavedGamePlayerSlot sgSlot : savedGame.getSlots()) {
-            int idx = sgSlot.getNumber();
-            slots[idx] = new ServerPlayerSlot(idx);
-            slots[idx].setAutoAssignClientId(sgSlot.getClientId());
-            slots[idx].setNickname(sgSlot.getNickname());
-            slots[idx].setSerial(sgSlot.getSerial());
-            slots[idx].setAiClassName(sgSlot.getAiClassName());
-            maxSerial = Math.max(maxSerial, sgSlot.getSerial());
+    /**
+     * Creates new game. In single game mode, created game replaces previous one.
+     */
+    public ServerGame createGame(SavedGame savedGame, Game game, String hostClientId) {
+        ServerGame serverGame = new ServerGame(this, savedGame, game, hostClientId);
+        if (!multiGame) {
+            games.clear();
+            defaultGame = serverGame;
         }
-        slotSerial = maxSerial + 1;
+        games.put(serverGame.getGameId(), serverGame);
+        return serverGame;
+    }
+
+    public ServerGame getGame(String gameId) {
+        return games.get(gameId);
+    }
+
+    public Collection<ServerGame> getGames() {
+        return games.values();
     }
 
     @Override
     public void onClose(WebSocket ws, int code, String reason, boolean remote) {
-        if (!remote) return;
-        RemoteClient conn = connections.get(ws).getOrNull();
+        ServerConnection conn = connections.get(ws);
         if (conn == null) {
             return;
         }
-
-        connections = connections.remove(ws);
-        sequences = sequences.remove(ws);
-
-        for (ServerPlayerSlot slot : slots) {
-            if (slot != null && conn.getSessionId().equals(slot.getSessionId())) {
-                if (!gameStarted) {
-                    leaveSlot(slot);
-                } else {
-                    slot.setSessionId(null);
-                    broadcast(newSlotMessage(slot));
-                }
-            }
+        ServerGame game = conn.getGame();
+        if (game != null) {
+            // connection closed by server itself (eg. on shutdown) is cleaned up silently
+            leaveGame(ws, game, remote);
         }
-        ClientUpdateMessage msg = new ClientUpdateMessage(conn.getSessionId(), null, ClientState.OFFLINE);
-        msg.setGameId(gameId);
-        broadcast(msg);
+        connections.remove(ws);
     }
 
     @Override
@@ -226,59 +145,30 @@ public class SimpleServer extends WebSocketServer  {
 //    }
 
     @Override
-    synchronized public void onMessage(WebSocket ws, String payload) {
+    public void onMessage(WebSocket ws, String payload) {
         //logger.info(payload);
         WsMessage msg = parser.fromJson(payload);
-        dispatcher.dispatch(msg, ws, this);
+        ServerConnection conn = connections.get(ws);
+        if (conn == null) {
+            return; // already closed
+        }
+        if (msg instanceof WsInGameMessage) {
+            ServerGame game = conn.getGame();
+            String gameId = ((WsInGameMessage) msg).getGameId();
+            if (game == null) throw new IllegalArgumentException("Not joined to game.");
+            if (gameId != null && !gameId.equals(game.getGameId())) throw new IllegalArgumentException("Invalid game id.");
+            synchronized (game) {
+                if (!game.getMembers().containsKey(ws)) throw new IllegalArgumentException("Not joined to game.");
+                dispatcher.dispatch(msg, ws, game);
+            }
+        } else {
+            dispatcher.dispatch(msg, ws, this);
+        }
     }
 
     @Override
     public void onOpen(WebSocket ws, ClientHandshake hs) {
-        sequences = sequences.put(ws, 1L);
-    }
-
-    private String getSessionId(WebSocket ws) {
-        return connections.get(ws).get().getSessionId();
-    }
-
-    private SlotMessage newSlotMessage(ServerPlayerSlot slot) {
-        SlotMessage msg = new SlotMessage(slot.getNumber(), slot.getSerial(), slot.getSessionId(), slot.getClientId(), slot.getNickname());
-        msg.setGameId(gameId);
-        msg.setAiClassName(slot.getAiClassName());
-        msg.setSupportedSetup(slot.getSupportedSetup());
-        return msg;
-    }
-
-    private GameMessage newGameMessage(boolean includeReplay) {
-        GameSetupMessage setupMessage = new GameSetupMessage(
-            gameSetup.getRules().toJavaMap(),
-            gameSetup.getCapabilities().toJavaSet(),
-            gameSetup.getExpansions().toJavaMap()
-        );
-        setupMessage.setGameId(gameId);
-
-        GameStatus status;
-        if (gameStarted) {
-            status = GameStatus.RUNNING;
-        } else if (savedGame == null) {
-            status = GameStatus.OPEN;
-        } else {
-            status = GameStatus.PAUSED;
-        }
-        GameMessage gm = new GameMessage(gameId, "", status, setupMessage);
-        gm.setInitialSeed(initialSeed);
-        List<SlotMessage> slotMsgs = new ArrayList<>();
-        for (ServerPlayerSlot slot : slots) {
-            if (slot != null) {
-                SlotMessage sm = newSlotMessage(slot);
-                slotMsgs.add(sm);
-            }
-        }
-        gm.setSlots(slotMsgs.toArray(new SlotMessage[slotMsgs.size()]));
-        if (includeReplay) {
-            gm.setReplay(replay);
-        }
-        return gm;
+        connections.put(ws, new ServerConnection(ws));
     }
 
     private String getWebsocketHost(WebSocket ws) {
@@ -291,36 +181,15 @@ public class SimpleServer extends WebSocketServer  {
         send(ws, new PongMessage());
     }
 
-    private boolean isParticipant(String clientId, String secret) {
-        for (int i = 0; i < slots.length; i++) {
-            if (slots[i] != null && clientId.equals(slots[i].getClientId()) && secret.equals(slots[i].getSecret())) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private boolean shouldAutoAssign(HelloMessage msg, String sessionId, ServerPlayerSlot slot) {
-        if (gameStarted) {
-            return msg.getClientId().equals(slot.getClientId()) && msg.getSecret().equals(slot.getSecret());
-        } else {
-            if (slot.getSessionId() == null) {
-                boolean isHostClient = msg.getClientId().equals(hostClientId);
-                return msg.getClientId().equals(slot.getAutoAssignClientId()) || (isHostClient && slot.getAiClassName() != null);
-            } else {
-                return false;
-            }
-        }
-    }
-
-    private long createSalt() {
-        return System.currentTimeMillis();
-    }
-
-    private void closeStaleConnections(String sessionId) {
-        connections
-            .filter((ws, client) -> client.getSessionId() == sessionId)
-            .forEach((ws, client) -> { ws.close(); });
+    private ServerRemoteClient welcome(WebSocket ws, HelloMessage msg) {
+        String nickname = msg.getNickname() + '@' + getWebsocketHost(ws);
+        String sessionId = KeyUtils.createRandomId();
+        ServerRemoteClient client = new ServerRemoteClient(sessionId, nickname, ClientState.ACTIVE);
+        client.setClientId(msg.getClientId());
+        client.setSecret(msg.getSecret());
+        connections.get(ws).setClient(client);
+        send(ws, new WelcomeMessage(sessionId, nickname, 120, System.currentTimeMillis()));
+        return client;
     }
 
     @WsSubscribe
@@ -330,334 +199,178 @@ public class SimpleServer extends WebSocketServer  {
             ws.close();
             return;
         }
-        if (gameStarted) {
-            if (!isParticipant(msg.getClientId(), msg.getSecret())) {
+        if (multiGame) {
+            welcome(ws, msg);
+            send(ws, newChannelMessage());
+            return;
+        }
+        ServerGame game = defaultGame;
+        synchronized (game) {
+            if (!game.isJoinAllowed(msg.getClientId(), msg.getSecret())) {
                 send(ws, new ErrorMessage(ErrorMessage.NOT_ALLOWED, "Join not allowed."));
                 ws.close();
                 return;
             }
+            welcome(ws, msg);
+            joinGame(ws, game);
         }
-        String nickname = msg.getNickname() + '@' + getWebsocketHost(ws);
-        String sessionId = KeyUtils.createRandomId();
-        ServerRemoteClient client = new ServerRemoteClient(sessionId, nickname, ClientState.ACTIVE);
-        client.setClientId(msg.getClientId());
-        client.setSecret(msg.getSecret());
-
-        for (ServerPlayerSlot slot : slots) {
-            if (slot != null && shouldAutoAssign(msg, sessionId, slot)) {
-                if (gameStarted && slot.getSessionId() != null) {
-                    // when already paired with session, close old session and pair with new one
-                    closeStaleConnections(slot.getSessionId());
-                }
+    }
 
-                slot.setClientId(msg.getClientId());
-                slot.setSessionId(sessionId);
-                slot.setSecret(msg.getSecret());
-                broadcast(newSlotMessage(slot));
-            }
+    @WsSubscribe
+    public void handleCreateGame(WebSocket ws, CreateGameMessage msg) {
+        if (!multiGame) throw new IllegalArgumentException("Server hosts single game.");
+        ServerConnection conn = connections.get(ws);
+        if (conn.getClient() == null) throw new IllegalArgumentException("Client is not welcomed.");
+        if (conn.getGame() != null) throw new IllegalArgumentException("Already joined to game.");
+        ServerGame game = createGame(null, null, conn.getClient().getClientId());
+        synchronized (game) {
+            game.setName(msg.getName());
+            game.setPassword(msg.getPassword());
+            joinGame(ws, game);
         }
+        notifyLobby(game);
+    }
 
-        //add after broadcasting slot update
-        connections = connections.put(ws, client);
-
-        send(ws, new WelcomeMessage(sessionId, nickname, 120, System.currentTimeMillis()));
-        send(ws, newGameMessage(gameStarted));
-        for (ServerRemoteClient rc : connections.values()) {
-            if (!rc.getSessionId().equals(sessionId)) {
-                ClientUpdateMessage updateMsg = new ClientUpdateMessage(rc.getSessionId(), rc.getName(), ClientState.ACTIVE);
-                updateMsg.setGameId(gameId);
-                send(ws, updateMsg);
+    @WsSubscribe
+    public void handleJoinGame(WebSocket ws, JoinGameMessage msg) {
+        ServerConnection conn = connections.get(ws);
+        if (conn.getClient() == null) throw new IllegalArgumentException("Client is not welcomed.");
+        ServerGame current = conn.getGame();
+        if (current != null) {
+            if (current.getGameId().equals(msg.getGameId())) {
+                return; // already joined after HELLO
             }
+            throw new IllegalArgumentException("Already joined to game.");
         }
-        ClientUpdateMessage updateMsg = new ClientUpdateMessage(sessionId, nickname, ClientState.ACTIVE);
-        updateMsg.setGameId(gameId);
-        broadcast(updateMsg);
-        if (gameStarted) {
-            long ts = System.currentTimeMillis();
-            long[] clocksCopy = Arrays.copyOf(clocks, clocks.length);
-            if (runningClock != -1) {
-                clocksCopy[runningClock] += ts-runningSince;
-             }
-            ClockMessage clockMsg = new ClockMessage(runningClock == -1 ? null : runningClock, clocksCopy, ts);
-            clockMsg.setGameId(gameId);
-            send(ws, clockMsg);
+        ServerGame game = games.get(msg.getGameId());
+        if (game == null) throw new IllegalArgumentException("Invalid game id.");
+        ServerRemoteClient client = conn.getClient();
+        synchronized (game) {
+            // game could be discarded by leaveGame after lookup, checked under same monitor
+            if (game.isRemoved()) {
+                send(ws, new ErrorMessage(ErrorMessage.NOT_ALLOWED, "Join not allowed."));
+                return;
+            }
+            if (!game.isPasswordValid(msg.getPassword())) {
+                send(ws, new ErrorMessage(ErrorMessage.INVALID_PASSWORD, "Invalid password."));
+                return;
+            }
+            if (!game.isJoinAllowed(client.getClientId(), client.getSecret())) {
+                send(ws, new ErrorMessage(ErrorMessage.NOT_ALLOWED, "Join not allowed."));
+                return;
+            }
+            joinGame(ws, game);
         }
     }
 
-
-    @WsSubscribe
-    public void handleGameSetupMessage(WebSocket ws, GameSetupMessage msg) {
-        if (!msg.getGameId().equals(gameId)) throw new IllegalArgumentException("Invalid game id.");
-        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
-        gameSetup = new GameSetup(
-            io.vavr.collection.HashMap.ofAll(msg.getExpansions()),
-            io.vavr.collection.HashSet.ofAll(msg.getCapabilities()),
-            io.vavr.collection.HashMap.ofAll(msg.getRules())
-        );
-        broadcast(msg);
+    private void joinGame(WebSocket ws, ServerGame game) {
+        ServerConnection conn = connections.get(ws);
+        conn.setGame(game);
+        game.join(ws, conn.getClient());
     }
 
+    /**
+     * Removes connection from game. In multi game mode, open game is discarded when last client leaves it.
+     */
+    public void leaveGame(WebSocket ws, ServerGame game) {
+        leaveGame(ws, game, true);
+    }
 
-    @WsSubscribe
-    public void handleTakeSlot(WebSocket ws, TakeSlotMessage msg) {
-        if (!msg.getGameId().equals(gameId)) throw new IllegalArgumentException("Invalid game id.");
-        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
-        ServerRemoteClient client = connections.get(ws).get();
-        String sessionId = client.getSessionId();
-        int number = msg.getNumber();
-        if (number < 0 || number >= slots.length || slots[number] == null) {
-            send(ws, new ErrorMessage("TAKE_SLOT", "Invalid slot number"));
-            return;
+    private void leaveGame(WebSocket ws, ServerGame game, boolean notify) {
+        boolean discarded = false;
+        synchronized (game) {
+            game.leave(ws, notify);
+            // decided and done under game monitor, so no client can join between the check and removal
+            if (multiGame && !game.isRemoved() && game.getMembers().isEmpty() && game.getStatus() == GameStatus.OPEN) {
+                games.remove(game.getGameId(), game);
+                game.setRemoved();
+                discarded = true;
+            }
         }
-        ServerPlayerSlot slot = slots[number];
-        if (!slot.isOccupied()) {
-            slot.setSerial(++slotSerial);
+        ServerConnection conn = connections.get(ws);
+        if (conn != null) {
+            conn.setGame(null);
         }
-        slot.setNickname(msg.getNickname());
-        slot.setAiClassName(msg.getAiClassName());
-        slot.setSessionId(sessionId);
-        slot.setSupportedSetup(msg.getSupportedSetup());
-        slot.setClientId(client.getClientId());
-        slot.setSecret(client.getSecret());
-        broadcast(newSlotMessage(slot));
-    }
-
-    private void leaveSlot(ServerPlayerSlot slot) {
-        if (savedGame == null) {
-            slot.setNickname(null);
-            slot.setAiClassName(null);
-            slot.setSupportedSetup(null);
+        if (discarded && notify) {
+            notifyLobby(game);
         }
-        slot.setSerial(null);
-        slot.setSessionId(null);
-        slot.setClientId(null);
-        slot.setSecret(null);
-        broadcast(newSlotMessage(slot));
     }
 
-    @WsSubscribe
-    public void handleLeaveSlot(WebSocket ws, LeaveSlotMessage msg) {
-        if (!msg.getGameId().equals(gameId)) throw new IllegalArgumentException("Invalid game id.");
-        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
-        int number = msg.getNumber();
-        if (number < 0 || number >= slots.length || slots[number] == null) {
-            send(ws, new ErrorMessage("LEAVE_SLOT", "Invalid slot number"));
-            return;
-
+    /**
+     * Called when game is started, while holding game monitor.
+     */
+    protected void onGameStarted(ServerGame game) {
+        if (multiGame) {
+            notifyLobby(game);
         }
-        ServerPlayerSlot slot = slots[number];
-        leaveSlot(slot);
     }
 
-    @WsSubscribe
-    public void handleSetExpansion(WebSocket ws, SetExpansionMessage msg) {
-        if (!msg.getGameId().equals(gameId)) throw new IllegalArgumentException("Invalid game id.");
-        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
-        Expansion expansion = msg.getExpansion();
-        gameSetup = gameSetup.mapExpansions(expansions ->
-            msg.getCount() > 0 ? expansions.put(expansion, msg.getCount()) : expansions.remove(expansion)
-        );
-        broadcast(msg);
-    }
-
-    @WsSubscribe
-    public void handleSetRule(WebSocket ws, SetRuleMessage msg) {
-        if (!msg.getGameId().equals(gameId)) throw new IllegalArgumentException("Invalid game id.");
-        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
-        Rule rule = msg.getRule();
-        gameSetup = gameSetup.mapRules(rules ->
-            msg.getValue() == null ? rules.remove(rule) : rules.put(rule, msg.getValue())
-        );
-        broadcast(msg);
-    }
-
-    @WsSubscribe
-    public void handleSetCapability(WebSocket ws, SetCapabilityMessage msg) {
-        if (!msg.getGameId().equals(gameId)) throw new IllegalArgumentException("Invalid game id.");
-        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
-        Class<? extends Capability<?>> cap = msg.getCapability();
-        gameSetup = gameSetup.mapCapabilities(cps ->
-            msg.isEnabled() ? cps.add(cap) : cps.remove(cap)
-        );
-        broadcast(msg);
+    /**
+     * Called when game over message is broadcasted, while holding game monitor.
+     */
+    protected void onGameOver(ServerGame game) {
+        if (multiGame) {
+            games.remove(game.getGameId(), game);
+            game.setRemoved();
+            notifyLobby(game);
+        }
     }
 
-    @WsSubscribe
-    public void handleStartGame(WebSocket ws, StartGameMessage msg) {
-        if (!msg.getGameId().equals(gameId)) throw new IllegalArgumentException("Invalid game id.");
-        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
-        runningClock = -1;
-        if (savedGame == null) {
-            int playerCount = 0;
-            for (ServerPlayerSlot slot : slots) {
-                if (!slot.isOccupied()) continue;
-                playerCount++;
-//                if (slot.getSupportedExpansions() != null) {
-//                    gameSetup.getExpansions().retainAll(Arrays.asList(slot.getSupportedExpansions()));
-//                }
-                if (gameSetup.getBooleanValue(Rule.RANDOM_SEATING_ORDER)) {
-                    slot.setSerial(random.nextInt());
+    private ChannelMessage newChannelMessage() {
+        List<ChannelMessageGame> gameMsgs = new ArrayList<>();
+        for (ServerGame game : games.values()) {
+            synchronized (game) {
+                GameStatus status = game.getStatus();
+                if (status == GameStatus.OPEN || status == GameStatus.PAUSED) {
+                    gameMsgs.add(game.newChannelGameMessage());
                 }
             }
-            clocks = new long[playerCount];
-        } else {
-            // for saved games, CLOCK message is emitted by active client after load
-            clocks = savedGame.getClocks();
         }
-        gameStarted = true;
-        broadcast(newGameMessage(true));
-    }
-
-    @WsSubscribe
-    public void handleToggleClock(WebSocket ws, ToggleClockMessage msg) {
-        if (!msg.getGameId().equals(gameId)) throw new IllegalArgumentException("Invalid game id.");
-        if (!gameStarted) throw new IllegalArgumentException("Game is not started.");
-        long ts = System.currentTimeMillis();
-        if (runningClock != -1) {
-           clocks[runningClock] += ts-runningSince;
+        List<RemoteClient> clients = new ArrayList<>();
+        for (ServerConnection conn : connections.values()) {
+            if (conn.getClient() != null && conn.getGame() == null) {
+                clients.add(conn.getClient().asRemoteClient());
+            }
         }
-        runningSince = ts;
-        runningClock = msg.getRun() == null ? -1 : msg.getRun();
-        long[] clocksCopy = Arrays.copyOf(clocks, clocks.length);
-        ClockMessage clockMsg = new ClockMessage(msg.getRun(), clocksCopy, ts);
-        clockMsg.setGameId(msg.getGameId());
-        broadcast(clockMsg);
+        ChannelMessage msg = new ChannelMessage();
+        msg.setName(LOBBY_CHANNEL);
+        msg.setClients(clients.toArray(new RemoteClient[clients.size()]));
+        msg.setGames(gameMsgs.toArray(new ChannelMessageGame[gameMsgs.size()]));
+        return msg;
     }
 
-    private void handleInGameMessage(WsInGameMessage msg) {
-        if (!msg.getGameId().equals(gameId)) throw new IllegalArgumentException("Invalid game id.");
-        if (!gameStarted) throw new IllegalArgumentException("Game is not started.");
-        if (msg instanceof WsSaltMessage) {
-            ((WsSaltMessage) msg).setSalt(createSalt());
+    /**
+     * Sends game status to all clients which are not joined to any game.
+     */
+    private void notifyLobby(ServerGame game) {
+        GameUpdateMessage msg = new GameUpdateMessage();
+        msg.setChannel(LOBBY_CHANNEL);
+        synchronized (game) {
+            msg.setGame(game.newGameMessage(false));
         }
-        broadcast(msg);
-    }
-
-    @WsSubscribe
-    public void handleDeployFlier(WebSocket ws, DeployFlierMessage msg) {
-        handleInGameMessage(msg);
-    }
-
-    @WsSubscribe
-    public void handleCommit(WebSocket ws, CommitMessage msg) {
-        handleInGameMessage(msg);
-    }
-
-    @WsSubscribe
-    public void handlePass(WebSocket ws, PassMessage msg) {
-        handleInGameMessage(msg);
-    }
-
-    @WsSubscribe
-    public void handlePlaceTile(WebSocket ws, PlaceTileMessage msg) {
-        handleInGameMessage(msg);
-    }
-
-    @WsSubscribe
-    public void handleDeployMeeple(WebSocket ws, DeployMeepleMessage msg) {
-        handleInGameMessage(msg);
-    }
-
-    @WsSubscribe
-    public void handleReturnMeeple(WebSocket ws, ReturnMeepleMessage msg) {
-        handleInGameMessage(msg);
-    }
-
-    @WsSubscribe
-    public void handleMoveNeutralFigureMessage(WebSocket ws, MoveNeutralFigureMessage msg) {
-        handleInGameMessage(msg);
-    }
-
-    @WsSubscribe
-    public void handlePlaceTokenMessage(WebSocket ws, PlaceTokenMessage msg) {
-        handleInGameMessage(msg);
-    }
-
-    @WsSubscribe
-    public void handleCaptureFollowerMessage(WebSocket ws, CaptureFollowerMessage msg) {
-        handleInGameMessage(msg);
-    }
-
-    @WsSubscribe
-    public void handlePayRansomMessage(WebSocket ws, PayRansomMessage msg) {
-        handleInGameMessage(msg);
-    }
-
-    @WsSubscribe
-    public void handleExchangeFollowerChoiceMessage(WebSocket ws, ExchangeFollowerChoiceMessage msg) {
-        handleInGameMessage(msg);
-    }
-
-    @WsSubscribe
-    public void handleBazaarBidMessage(WebSocket ws, BazaarBidMessage msg) {
-        handleInGameMessage(msg);
-    }
-
-    @WsSubscribe
-    public void handleBazaarBuyOrSellMessage(WebSocket ws, BazaarBuyOrSellMessage msg) {
-        handleInGameMessage(msg);
-    }
-
-    @WsSubscribe
-    public void handleCornCircleRemoveOrDeployMessage(WebSocket ws, CornCircleRemoveOrDeployMessage msg) {
-        handleInGameMessage(msg);
-    }
-
-    @WsSubscribe
-    public void hadleFlockMessage(WebSocket ws, FlockMessage msg) {
-    	handleInGameMessage(msg);
-    }
-
-    @WsSubscribe
-    public void handleGameOverMessage(WebSocket ws, GameOverMessage msg) {
-        handleInGameMessage(msg);
-    }
-
-    @WsSubscribe
-    public void handleUndo(WebSocket ws, UndoMessage msg) {
-        if (!msg.getGameId().equals(gameId)) throw new IllegalArgumentException("Invalid game id.");
-        if (!gameStarted) throw new IllegalArgumentException("Game is not started.");
-
-        List<WsReplayableMessage> trimmed = new ArrayList<>();
-        if (!"".equals(msg.getLastMessageId())) {
-            for (WsReplayableMessage m : replay) {
-                trimmed.add(m);
-                // m.getMessageId() can be null for loaded game!
-                if (msg.getLastMessageId().equals(m.getMessageId())) {
-                    break;
-                }
+        MessageFrame frame = createFrame(msg);
+        for (ServerConnection conn : connections.values()) {
+            if (conn.getClient() != null && conn.getGame() == null && conn.getWebSocket().isOpen()) {
+                conn.send(frame);
             }
         }
-        replay = trimmed;
-        broadcast(msg);
     }
 
-    @WsSubscribe
-    public void handlePostChat(WebSocket ws, PostChatMessage msg) {
-        if (!msg.getGameId().equals(gameId)) throw new IllegalArgumentException("Invalid game id.");
-        String sessionId = getSessionId(ws);
-        ChatMessage reMsg = new ChatMessage(sessionId, msg.getText());
-        reMsg.setGameId(msg.getGameId());
-        broadcast(reMsg);
+    /**
+     * Serializes message once, frame can be sent to any number of connections.
+     */
+    public MessageFrame createFrame(WsMessage message) {
+        return new MessageFrame(parser, message);
     }
 
     public void send(WebSocket ws, WsMessage message) {
-        long sequenceNumber = sequences.get(ws).get();
-        Long originalSequenceNumber = message.getSequenceNumber();
-        message.setSequnceNumber(sequenceNumber);
-        ws.send(parser.toJson(message));
-        message.setSequnceNumber(originalSequenceNumber);
-        sequences = sequences.put(ws, sequenceNumber + 1);
+        send(ws, createFrame(message));
     }
 
-    public void broadcast(WsMessage msg) {
-        if (gameStarted && msg instanceof WsReplayableMessage) {
-            replay.add((WsReplayableMessage) msg);
-        }
-        for (WebSocket ws : connections.keySet()) {
-            if (ws.isOpen()) { //prevent exception when server is closing
-                send(ws, msg);
-            }
+    public void send(WebSocket ws, MessageFrame frame) {
+        ServerConnection conn = connections.get(ws);
+        if (conn != null) {
+            conn.send(frame);
         }
     }
 
@@ -667,12 +380,20 @@ public class SimpleServer extends WebSocketServer  {
             super(address, errHandler);
         }
 
-        @WsSubscribe
-        public void handleStandaloneGameOver(WebSocket ws, GameOverMessage msg) {
+        public StandaloneSimpleServer(InetSocketAddress address, SimpleServerErrorHandler errHandler, boolean multiGame) {
+            super(address, errHandler, multiGame);
+        }
+
+        @Override
+        protected void onGameOver(ServerGame game) {
+            if (isMultiGame()) {
+                super.onGameOver(game);
+                return;
+            }
             for (WebSocket conn : connections.keySet()) {
                 conn.close();
             }
-            connections = HashMap.empty();
+            connections.clear();
             createGame(null, null, null);
             logger.info("Game finished. Starting a new one.");
         }
@@ -685,14 +406,17 @@ public class SimpleServer extends WebSocketServer  {
         if (portStr != null && portStr.length() > 0) {
             port = Integer.parseInt(portStr);
         }
+        boolean multiGame = Boolean.getBoolean("multiGame");
         StandaloneSimpleServer server = new StandaloneSimpleServer(new InetSocketAddress(port), new SimpleServerErrorHandler() {
             @Override
             public void onError(WebSocket ws, Exception ex) {
                 logger.error(ex.getMessage(), ex);
             }
-        });
-        server.createGame(null, null, null);
+        }, multiGame);
+        if (!multiGame) {
+            server.createGame(null, null, null);
+        }
         server.start();
-        logger.info("Simple server started on port {}", port);
+        logger.info("Simple server started on port {}{}", port, multiGame ? " (multi game mode)" : "");
     }
 }
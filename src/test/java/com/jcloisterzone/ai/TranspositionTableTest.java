@@ -0,0 +1,46 @@
+package com.jcloisterzone.ai;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class TranspositionTableTest {
+
+    @Test
+    public void emptySlotIsMissForAnyKey() {
+        TranspositionTable table = new TranspositionTable(16);
+        assertNull(table.get(0L));
+        assertNull(table.get(Double.doubleToLongBits(0.0)));
+        assertEquals(2, table.getMisses());
+    }
+
+    @Test
+    public void storedValueIsFound() {
+        TranspositionTable table = new TranspositionTable(16);
+        table.put(0L, 0.0);
+        table.put(42L, -1.5);
+        assertEquals(0.0, table.get(0L), 0.0);
+        assertEquals(-1.5, table.get(42L), 0.0);
+        assertEquals(2, table.getHits());
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    public void collidingKeyReplacesEntry() {
+        TranspositionTable table = new TranspositionTable(16);
+        table.put(1L, 1.0);
+        table.put(17L, 17.0); // same slot
+        assertNull(table.get(1L));
+        assertEquals(17.0, table.get(17L), 0.0);
+    }
+
+    @Test
+    public void clearRemovesEntries() {
+        TranspositionTable table = new TranspositionTable(16);
+        table.put(3L, 3.0);
+        table.clear();
+        assertNull(table.get(3L));
+        assertEquals(0, table.size());
+    }
+}
@@ -0,0 +1,81 @@
+package com.jcloisterzone.ai.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.jcloisterzone.game.GameStatePhaseReducer;
+import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.support.SeededGame;
+import com.jcloisterzone.support.SeededGame.SeededRandomAiPlayer;
+import com.jcloisterzone.wsio.message.WsInGameMessage;
+
+public class MctsAiPlayerTest {
+
+    private MctsAiPlayer decide(long timeBudget, int playoutBudget) {
+        SeededGame game = new SeededGame(2, 1L).playUntil(5, 1L);
+        GameState state = game.getState();
+        MctsAiPlayer ai = new MctsAiPlayer();
+        ai.setTimeBudget(timeBudget);
+        ai.setPlayoutBudget(playoutBudget);
+        ai.onGameStart(game.getSetup(), state.getActivePlayer());
+        try {
+            assertNotNull(ai.apply(state));
+        } finally {
+            ai.onGameOver();
+        }
+        return ai;
+    }
+
+    @Test(timeout = 10000)
+    public void decisionEndsWithTimeBudget() {
+        assertTrue(decide(200, 0).getLastPlayouts() > 0);
+    }
+
+    @Test(timeout = 10000)
+    public void decisionEndsWithPlayoutBudget() {
+        assertEquals(30, decide(0, 30).getLastPlayouts());
+    }
+
+    @Test(timeout = 10000)
+    public void decisionEndsWithoutAnyBudget() {
+        // falls back to default time budget
+        assertTrue(decide(0, 0).getLastPlayouts() > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeBudgetIsRejected() {
+        new MctsAiPlayer().setPlayoutBudget(-1);
+    }
+
+    @Test
+    public void turnEndVisitsSampleDifferentDraws() {
+        SeededGame game = new SeededGame(2, 1L).playUntil(5, 1L);
+        GameStatePhaseReducer phaseReducer = game.getPhaseReducer();
+        SeededRandomAiPlayer ai = new SeededRandomAiPlayer(1L);
+
+        // find message which ends turn and draws next tile
+        GameState state = game.getState();
+        WsInGameMessage msg = ai.apply(state);
+        while (phaseReducer.apply(state, msg).getTurnPlayer().equals(state.getTurnPlayer())) {
+            state = phaseReducer.apply(state, msg);
+            msg = ai.apply(state);
+        }
+
+        Set<String> replayed = new HashSet<>();
+        Set<String> sampled = new HashSet<>();
+        Random random = new Random(1L);
+        for (int i = 0; i < 20; i++) {
+            replayed.add(phaseReducer.apply(state, msg).getDrawnTile().getId());
+            sampled.add(MctsAiPlayer.applySampled(phaseReducer, state, msg, random).getDrawnTile().getId());
+        }
+        assertEquals(1, replayed.size());
+        assertTrue(sampled.size() > 1);
+    }
+}
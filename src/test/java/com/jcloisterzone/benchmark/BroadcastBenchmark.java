@@ -0,0 +1,86 @@
+package com.jcloisterzone.benchmark;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+import org.java_websocket.WebSocket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.wsio.MessageParser;
+import com.jcloisterzone.wsio.message.HelloMessage;
+import com.jcloisterzone.wsio.message.PlaceTileMessage;
+import com.jcloisterzone.wsio.server.ServerGame;
+import com.jcloisterzone.wsio.server.SimpleServer;
+
+/**
+ * Latency of broadcasting one move to all game members (players and spectators).
+ * Former server serialized message for each recipient, now it is serialized once and
+ * only sequence number is written per connection. Run with {@code -prof gc} to see allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BroadcastBenchmark {
+
+    @Param({"2", "4", "6"})
+    private int players;
+
+    @Param({"0", "10"})
+    private int spectators;
+
+    private final MessageParser parser = new MessageParser();
+
+    private ServerGame game;
+    private WebSocket[] members;
+    private long sequenceNumber = 1000;
+    private PlaceTileMessage msg;
+
+    @Setup
+    public void setup() {
+        SimpleServer server = new SimpleServer(new InetSocketAddress(0), (ws, ex) -> { throw new IllegalStateException(ex); });
+        game = server.createGame(null, null, null);
+        members = new WebSocket[players + spectators];
+        for (int i = 0; i < members.length; i++) {
+            members[i] = new StubWebSocket(false).getWebSocket();
+            server.onOpen(members[i], null);
+            server.onMessage(members[i], parser.toJson(new HelloMessage("client" + i, "client" + i, "secret")));
+        }
+        msg = new PlaceTileMessage("BA.RCr", Rotation.R90, new Position(-3, 12));
+        msg.setGameId(game.getGameId());
+        msg.setMessageId("rand-24.3");
+    }
+
+    @Benchmark
+    public PlaceTileMessage serializePerRecipient() {
+        // former SimpleServer.send called for each connection
+        for (WebSocket ws : members) {
+            Long originalSequenceNumber = msg.getSequenceNumber();
+            msg.setSequnceNumber(sequenceNumber++);
+            ws.send(parser.toJson(msg));
+            msg.setSequnceNumber(originalSequenceNumber);
+        }
+        return msg;
+    }
+
+    @Benchmark
+    public PlaceTileMessage serializeOnce() {
+        // game is not started, so message is not added to replay
+        game.broadcast(msg);
+        return msg;
+    }
+}
@@ -0,0 +1,100 @@
+package com.jcloisterzone.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.Player;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.GameSetup;
+import com.jcloisterzone.game.GameStatePhaseReducer;
+import com.jcloisterzone.game.PlayerSlot;
+import com.jcloisterzone.game.ReplayCheckpoint;
+import com.jcloisterzone.game.capability.StandardGameCapability;
+import com.jcloisterzone.game.phase.GameOverPhase;
+import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.support.SeededGame;
+import com.jcloisterzone.wsio.message.WsInGameMessage;
+
+import io.vavr.collection.HashMap;
+import io.vavr.collection.HashSet;
+import io.vavr.collection.Vector;
+
+/**
+ * Load time of finished game (three basic game packs), full replay compared
+ * to restoring newest checkpoint from its JSON form and replaying the rest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CheckpointLoadBenchmark {
+
+    private static final long SEED = 1L;
+
+    private final Gson gson = new Gson();
+
+    private GameSetup setup;
+    private Vector<WsInGameMessage> replay;
+    private String checkpointJson;
+    private int checkpointIndex;
+
+    @Setup
+    public void setup() {
+        setup = new GameSetup(HashMap.of(Expansion.BASIC, 3), HashSet.of(StandardGameCapability.class), HashMap.empty());
+        SeededGame game = new SeededGame(setup, 2, SEED);
+        SeededGame.SeededRandomAiPlayer ai = new SeededGame.SeededRandomAiPlayer(SEED);
+        GameStatePhaseReducer phaseReducer = game.getPhaseReducer();
+        GameState state = game.getState();
+        replay = Vector.empty();
+        ReplayCheckpoint checkpoint = null;
+        while (state.getPhase() != GameOverPhase.class) {
+            WsInGameMessage msg = ai.apply(state);
+            replay = replay.append(msg);
+            state = phaseReducer.apply(state, msg);
+            if (replay.size() % Game.CHECKPOINT_INTERVAL == 0) {
+                checkpoint = new ReplayCheckpoint(replay.size(), 0, state);
+            }
+        }
+        checkpointIndex = checkpoint.getReplayIndex();
+        checkpointJson = gson.toJson(checkpoint.pack());
+    }
+
+    @Benchmark
+    public GameState fullReplay() {
+        SeededGame game = new SeededGame(setup, 2, SEED);
+        GameStatePhaseReducer phaseReducer = game.getPhaseReducer();
+        GameState state = game.getState();
+        for (WsInGameMessage msg : replay) {
+            state = phaseReducer.apply(state, msg);
+        }
+        return state;
+    }
+
+    @Benchmark
+    public GameState fromCheckpoint() {
+        SeededGame game = new SeededGame(setup, 2, SEED);
+        GameStatePhaseReducer phaseReducer = game.getPhaseReducer();
+        PlayerSlot[] slots = game.getState().getPlayers().getPlayers().map(Player::getSlot).toJavaArray(PlayerSlot.class);
+        ReplayCheckpoint checkpoint = gson.fromJson(checkpointJson, ReplayCheckpoint.class);
+        checkpoint.unpack(slots);
+        GameState state = checkpoint.getState();
+        for (WsInGameMessage msg : replay.drop(checkpointIndex)) {
+            state = phaseReducer.apply(state, msg);
+        }
+        return state;
+    }
+}
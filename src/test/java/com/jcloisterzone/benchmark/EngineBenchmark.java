@@ -0,0 +1,165 @@
+package com.jcloisterzone.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.ai.player.LegacyRanking;
+import com.jcloisterzone.board.PlacementOption;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.board.TilePack;
+import com.jcloisterzone.game.GameSetup;
+import com.jcloisterzone.game.GameStatePhaseReducer;
+import com.jcloisterzone.game.RandomGenerator;
+import com.jcloisterzone.game.capability.StandardGameCapability;
+import com.jcloisterzone.game.phase.ActionPhase;
+import com.jcloisterzone.game.phase.ScoringPhase;
+import com.jcloisterzone.game.phase.StepResult;
+import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.reducers.PlaceTile;
+import com.jcloisterzone.support.SeededGame;
+import com.jcloisterzone.wsio.message.CommitMessage;
+import com.jcloisterzone.wsio.message.PassMessage;
+import com.jcloisterzone.wsio.message.PlaceTileMessage;
+import com.jcloisterzone.wsio.server.MoveValidator;
+
+import io.vavr.Tuple3;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.HashSet;
+
+/**
+ * Hot paths of game engine (used by every AI search step) measured at several board sizes.
+ * All benchmarks start from the same state - board with {@code placedTiles} tiles (two basic game packs),
+ * waiting for placement of drawn tile.
+ *
+ * Run by {@code mvn -P benchmark test}, which adds GC profiler to report allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EngineBenchmark {
+
+    @Param({"10", "50", "120"})
+    private int placedTiles;
+
+    private GameStatePhaseReducer phaseReducer;
+    private ScoringPhase scoringPhase;
+    private ActionPhase actionPhase;
+    private LegacyRanking ranking;
+
+    private GameState state;
+    private Tile tile;
+    private PlaceTile placeTile;
+    private PlaceTileMessage placeTileMessage;
+    private GameState placedState;
+    private MoveValidator moveValidator;
+
+    @Setup
+    public void setup() {
+        GameSetup setup = new GameSetup(HashMap.of(Expansion.BASIC, 2), HashSet.of(StandardGameCapability.class), HashMap.empty());
+        SeededGame game = new SeededGame(setup, 2, 1L).playUntil(placedTiles, 1L);
+        if (game.isOver()) {
+            throw new IllegalStateException("Game ended before " + placedTiles + " placements");
+        }
+        phaseReducer = game.getPhaseReducer();
+        scoringPhase = (ScoringPhase) phaseReducer.getPhase(ScoringPhase.class);
+        actionPhase = (ActionPhase) phaseReducer.getPhase(ActionPhase.class);
+        ranking = new LegacyRanking(game.getState().getTurnPlayer());
+
+        state = game.getState();
+        tile = state.getDrawnTile();
+        // sorted to be independent on hash set order
+        PlacementOption option = state.getTilePlacements(tile).sorted().get();
+        placeTile = new PlaceTile(tile, option.getPosition(), option.getRotation());
+        placeTileMessage = new PlaceTileMessage(tile.getId(), option.getRotation(), option.getPosition());
+        // turn waiting for meeple deployment
+        placedState = phaseReducer.apply(state, placeTileMessage);
+        moveValidator = new MoveValidator(phaseReducer, state);
+        moveValidator.isAllowed(placeTileMessage);
+    }
+
+    @Benchmark
+    public int getAvailablePlacements() {
+        return state.getAvailablePlacements().size();
+    }
+
+    @Benchmark
+    public int getTilePlacements() {
+        return state.getTilePlacements(tile).size();
+    }
+
+    @Benchmark
+    public GameState placeTile() {
+        return placeTile.apply(state);
+    }
+
+    /**
+     * Tile draw with size check, as done by tile phase.
+     */
+    @Benchmark
+    public Tuple3<Tile, TilePack, RandomGenerator> drawTile() {
+        TilePack pack = placedState.getTilePack();
+        if (pack.isEmpty()) {
+            throw new IllegalStateException();
+        }
+        return pack.drawTile(placedState.getRandom());
+    }
+
+    @Benchmark
+    public StepResult scoringPhaseEnter() {
+        return scoringPhase.enter(placedState);
+    }
+
+    /**
+     * Meeple actions of placed tile (every AI node expansion).
+     */
+    @Benchmark
+    public StepResult actionPhaseEnter() {
+        return actionPhase.enter(placedState);
+    }
+
+    /**
+     * Server check of received placement, legal messages are already collected for the state.
+     */
+    @Benchmark
+    public boolean validateMessage() {
+        return moveValidator.isAllowed(placeTileMessage);
+    }
+
+    /**
+     * First check in new state, includes collecting of all legal placement messages.
+     */
+    @Benchmark
+    public boolean validateMessageUncached() {
+        return new MoveValidator(phaseReducer, state).isAllowed(placeTileMessage);
+    }
+
+    @Benchmark
+    public Double legacyRanking() {
+        return ranking.apply(placedState);
+    }
+
+    /**
+     * Whole turn - tile placement, pass and commit. Includes scoring and drawing of next tile.
+     */
+    @Benchmark
+    public GameState phaseReducerTurn() {
+        GameState s = phaseReducer.apply(state, placeTileMessage);
+        s = phaseReducer.apply(s, new PassMessage());
+        return phaseReducer.apply(s, new CommitMessage());
+    }
+}
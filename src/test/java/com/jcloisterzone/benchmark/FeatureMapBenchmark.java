@@ -0,0 +1,89 @@
+package com.jcloisterzone.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.pointer.FeaturePointer;
+import com.jcloisterzone.feature.Feature;
+import com.jcloisterzone.game.state.FeatureMap;
+import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.support.SeededGame;
+
+import io.vavr.collection.HashMap;
+import io.vavr.collection.List;
+import io.vavr.collection.Map;
+
+/**
+ * Cost of merging new place into largest feature on the board.
+ *
+ * {@code remapPointers} is the former approach, every place of merged feature is written
+ * to the feature pointer map again. {@code union} links new place to the union-find root.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeatureMapBenchmark {
+
+    @Param({"20", "50", "100", "200"})
+    private int placedTiles;
+
+    private FeatureMap featureMap;
+    private Map<FeaturePointer, Feature> pointerMap;
+
+    private FeaturePointer largestFp;
+    private FeaturePointer newPlace;
+    private Feature merged;
+
+    @Setup
+    public void setup() {
+        GameState state = new SeededGame(2, 1L).playUntil(placedTiles, 1L).getState();
+        featureMap = state.getFeatureMap();
+        pointerMap = HashMap.ofEntries(featureMap);
+
+        Feature largest = featureMap.values().maxBy(f -> f.getPlaces().size()).get();
+        largestFp = largest.getPlaces().last();
+        newPlace = new FeaturePointer(new Position(1000, 1000), Location.TOWER);
+        // merged feature content doesn't matter for index cost
+        merged = largest;
+    }
+
+    @Benchmark
+    public Map<FeaturePointer, Feature> remapPointers() {
+        java.util.Map<FeaturePointer, Feature> fpUpdate = new java.util.HashMap<>();
+        for (FeaturePointer fp : merged.getPlaces().append(newPlace)) {
+            fpUpdate.put(fp, merged);
+        }
+        return HashMap.ofAll(fpUpdate).merge(pointerMap);
+    }
+
+    @Benchmark
+    public FeatureMap union() {
+        return featureMap.union(merged, List.of(newPlace, largestFp));
+    }
+
+    @Benchmark
+    public Feature getFromPointerMap() {
+        return pointerMap.get(largestFp).get();
+    }
+
+    @Benchmark
+    public Feature getFromFeatureMap() {
+        return featureMap.get(largestFp).get();
+    }
+}
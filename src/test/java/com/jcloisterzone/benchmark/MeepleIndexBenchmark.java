@@ -0,0 +1,77 @@
+package com.jcloisterzone.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jcloisterzone.board.pointer.FeaturePointer;
+import com.jcloisterzone.feature.Structure;
+import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.support.SeededGame;
+
+import io.vavr.collection.HashSet;
+import io.vavr.collection.Set;
+import io.vavr.collection.Stream;
+
+/**
+ * Occupancy check of all structures on a late game board with 6 players.
+ *
+ * {@code filterDeployedMeeples} is the former {@code Structure.getMeeples2}, which filtered
+ * all deployed meeples for each feature. {@code meepleIndex} uses the per-place index in GameState.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MeepleIndexBenchmark {
+
+    @Param({"40", "70"})
+    private int placedTiles;
+
+    private GameState state;
+    private Structure[] structures;
+
+    @Setup
+    public void setup() {
+        state = new SeededGame(6, 1L).playUntil(placedTiles, 1L).getState();
+        structures = state.getFeatureMap().values()
+            .filter(f -> f instanceof Structure)
+            .map(f -> (Structure) f)
+            .toJavaArray(Structure.class);
+    }
+
+    @Benchmark
+    public int filterDeployedMeeples() {
+        int occupied = 0;
+        for (Structure s : structures) {
+            Set<FeaturePointer> fps = HashSet.ofAll(s.getPlaces());
+            if (!Stream.ofAll(state.getDeployedMeeples()).filter(t -> fps.contains(t._2)).isEmpty()) {
+                occupied++;
+            }
+        }
+        return occupied;
+    }
+
+    @Benchmark
+    public int meepleIndex() {
+        int occupied = 0;
+        for (Structure s : structures) {
+            if (s.isOccupied(state)) {
+                occupied++;
+            }
+        }
+        return occupied;
+    }
+}
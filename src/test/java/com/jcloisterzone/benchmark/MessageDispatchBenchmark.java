@@ -0,0 +1,134 @@
+package com.jcloisterzone.benchmark;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jcloisterzone.game.GameStatePhaseReducer;
+import com.jcloisterzone.game.phase.ActionPhase;
+import com.jcloisterzone.game.phase.Phase;
+import com.jcloisterzone.game.phase.PhaseMessageHandler;
+import com.jcloisterzone.game.phase.StepResult;
+import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.support.SeededGame;
+import com.jcloisterzone.wsio.MessageDispatcher;
+import com.jcloisterzone.wsio.WsSubscribe;
+import com.jcloisterzone.wsio.message.ChatMessage;
+import com.jcloisterzone.wsio.message.PassMessage;
+import com.jcloisterzone.wsio.message.PingMessage;
+import com.jcloisterzone.wsio.message.WsInGameMessage;
+import com.jcloisterzone.wsio.message.WsMessage;
+
+/**
+ * Messages per second dispatched by cached method handles compared to former
+ * reflective lookup (all public methods scanned for annotation on every message).
+ *
+ * Phase benchmarks apply pass message in action phase, so they include
+ * cost of the handler and following phases too.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageDispatchBenchmark {
+
+    private GameStatePhaseReducer phaseReducer;
+    private GameState state;
+    private WsInGameMessage pass = new PassMessage();
+
+    private MessageDispatcher dispatcher = new MessageDispatcher();
+    private SubscriberTarget target = new SubscriberTarget();
+    private WsMessage ping = new PingMessage();
+
+    @Setup
+    public void setup() {
+        SeededGame game = new SeededGame(2, 1L).playUntil(20, 1L);
+        SeededGame.SeededRandomAiPlayer ai = new SeededGame.SeededRandomAiPlayer(1L);
+        phaseReducer = game.getPhaseReducer();
+        state = game.getState();
+        do {
+            state = phaseReducer.apply(state, ai.apply(state));
+        } while (state.getPhase() != ActionPhase.class || !state.getPlayerActions().isPassAllowed());
+    }
+
+    @Benchmark
+    public GameState phaseReflective() {
+        Phase phase = phaseReducer.getPhase(state.getPhase());
+        for (Method m : phase.getClass().getMethods()) {
+            if (m.getAnnotation(PhaseMessageHandler.class) == null) {
+                continue;
+            }
+            if (!m.getParameterTypes()[1].equals(pass.getClass())) {
+                continue;
+            }
+            try {
+                return phaseReducer.applyStepResult((StepResult) m.invoke(phase, state, pass));
+            } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    @Benchmark
+    public GameState phaseCached() {
+        return phaseReducer.apply(state, pass);
+    }
+
+    @Benchmark
+    public int wsReflective() {
+        for (Method m : target.getClass().getMethods()) {
+            if (m.getAnnotation(WsSubscribe.class) != null) {
+                Class<?> params[] = m.getParameterTypes();
+                if (params[params.length - 1].isInstance(ping)) {
+                    try {
+                        m.invoke(target, this, ping);
+                    } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+                        throw new RuntimeException(e);
+                    }
+                    return target.received;
+                }
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    @Benchmark
+    public int wsCached() {
+        dispatcher.dispatch(ping, this, target);
+        return target.received;
+    }
+
+    public static class SubscriberTarget {
+
+        private int received;
+
+        @WsSubscribe
+        public void handleChat(Object context, ChatMessage msg) {
+            received++;
+        }
+
+        @WsSubscribe
+        public void handlePass(Object context, PassMessage msg) {
+            received++;
+        }
+
+        @WsSubscribe
+        public void handlePing(Object context, PingMessage msg) {
+            received++;
+        }
+    }
+}
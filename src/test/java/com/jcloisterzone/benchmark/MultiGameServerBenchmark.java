@@ -0,0 +1,108 @@
+package com.jcloisterzone.benchmark;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.java_websocket.WebSocket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jcloisterzone.wsio.MessageParser;
+import com.jcloisterzone.wsio.message.CreateGameMessage;
+import com.jcloisterzone.wsio.message.HelloMessage;
+import com.jcloisterzone.wsio.message.JoinGameMessage;
+import com.jcloisterzone.wsio.message.PostChatMessage;
+import com.jcloisterzone.wsio.server.ServerGame;
+import com.jcloisterzone.wsio.server.SimpleServer;
+
+/**
+ * Server throughput (messages per millisecond) with several threads sending messages
+ * to {@code games} concurrent games. Every game has 3 connected players and each message
+ * is parsed, dispatched and broadcasted to all of them.
+ *
+ * {@code perGameLock} uses game monitors, {@code globalMonitor} serializes all messages on
+ * the server like former single game server. Run with {@code -t} to change thread count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class MultiGameServerBenchmark {
+
+    private static final int PLAYERS = 3;
+
+    @Param({"1", "4", "16"})
+    private int games;
+
+    private final MessageParser parser = new MessageParser();
+    private final AtomicInteger threadCounter = new AtomicInteger();
+
+    private SimpleServer server;
+    private WebSocket[] senders;
+    private String[] payloads;
+
+    @Setup
+    public void setup() {
+        server = new SimpleServer(new InetSocketAddress(0), (ws, ex) -> { throw new IllegalStateException(ex); }, true);
+        senders = new WebSocket[games];
+        payloads = new String[games];
+        for (int i = 0; i < games; i++) {
+            String gameId = null;
+            for (int p = 0; p < PLAYERS; p++) {
+                WebSocket ws = new StubWebSocket(false).getWebSocket();
+                server.onOpen(ws, null);
+                server.onMessage(ws, parser.toJson(new HelloMessage("player" + p, "client" + i + "-" + p, "secret")));
+                if (p == 0) {
+                    server.onMessage(ws, parser.toJson(new CreateGameMessage("game" + i, SimpleServer.LOBBY_CHANNEL, null)));
+                    ServerGame game = server.getGames().stream().filter(g -> g.getMembers().containsKey(ws)).findFirst().get();
+                    gameId = game.getGameId();
+                    senders[i] = ws;
+                } else {
+                    JoinGameMessage join = new JoinGameMessage();
+                    join.setGameId(gameId);
+                    server.onMessage(ws, parser.toJson(join));
+                }
+            }
+            PostChatMessage chat = new PostChatMessage("Meeple on the road!");
+            chat.setGameId(gameId);
+            payloads[i] = parser.toJson(chat);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Table {
+
+        private int index;
+
+        @Setup
+        public void setup(MultiGameServerBenchmark bench) {
+            index = bench.threadCounter.getAndIncrement() % bench.games;
+        }
+    }
+
+    @Benchmark
+    public void perGameLock(Table table) {
+        server.onMessage(senders[table.index], payloads[table.index]);
+    }
+
+    @Benchmark
+    public void globalMonitor(Table table) {
+        synchronized (server) {
+            server.onMessage(senders[table.index], payloads[table.index]);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.jcloisterzone.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.game.GameSetup;
+import com.jcloisterzone.game.capability.StandardGameCapability;
+import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.reducers.PlaceTile;
+import com.jcloisterzone.support.SeededGame;
+
+import io.vavr.collection.HashMap;
+import io.vavr.collection.HashSet;
+import io.vavr.collection.Vector;
+
+/**
+ * Average cost of single tile placement, measured by replaying placements of 200 tiles game
+ * (three basic game packs) on the empty board.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PlaceTileReplayBenchmark {
+
+    private static final int PLACEMENTS = 200;
+
+    private GameState initialState;
+    private Vector<PlaceTile> placements;
+
+    @Setup
+    public void setup() {
+        GameSetup setup = new GameSetup(HashMap.of(Expansion.BASIC, 3), HashSet.of(StandardGameCapability.class), HashMap.empty());
+        SeededGame game = new SeededGame(setup, 2, 1L);
+        initialState = game.getState();
+        int initialTiles = initialState.getPlacedTiles().size();
+
+        GameState state = game.playUntil(initialTiles + PLACEMENTS, 1L).getState();
+        placements = Vector.ofAll(state.getPlacedTiles().values())
+            .drop(initialTiles)
+            .take(PLACEMENTS)
+            .map(pt -> new PlaceTile(pt.getTile(), pt.getPosition(), pt.getRotation()));
+        if (placements.size() < PLACEMENTS) {
+            throw new IllegalStateException("Game ended after " + placements.size() + " placements");
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PLACEMENTS)
+    public GameState replay() {
+        GameState state = initialState;
+        for (PlaceTile placement : placements) {
+            state = placement.apply(state);
+        }
+        return state;
+    }
+}
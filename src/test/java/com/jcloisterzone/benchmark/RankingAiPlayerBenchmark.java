@@ -0,0 +1,64 @@
+package com.jcloisterzone.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jcloisterzone.Player;
+import com.jcloisterzone.ai.player.LegacyAiPlayer;
+import com.jcloisterzone.game.GameStatePhaseReducer;
+import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.support.SeededGame;
+
+/**
+ * AI turns per second depending on search parallelism.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RankingAiPlayerBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    private int parallelism;
+
+    @Param({"20", "50"})
+    private int placedTiles;
+
+    private GameStatePhaseReducer phaseReducer;
+    private GameState state;
+    private LegacyAiPlayer ai;
+
+    @Setup
+    public void setup() {
+        SeededGame game = new SeededGame(2, 1L).playUntil(placedTiles, 1L);
+        phaseReducer = game.getPhaseReducer();
+        state = game.getState();
+
+        ai = new LegacyAiPlayer();
+        ai.setParallelism(parallelism);
+        ai.onGameStart(game.getSetup(), state.getTurnPlayer());
+    }
+
+    @Benchmark
+    public GameState turn() {
+        GameState s = state;
+        Player turnPlayer = s.getTurnPlayer();
+        while (s.getTurnPlayer() == turnPlayer) {
+            s = phaseReducer.apply(s, ai.apply(s));
+        }
+        return s;
+    }
+}
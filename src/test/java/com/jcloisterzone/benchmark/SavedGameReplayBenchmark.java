@@ -0,0 +1,98 @@
+package com.jcloisterzone.benchmark;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.stream.JsonReader;
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.game.GameSetup;
+import com.jcloisterzone.game.GameStatePhaseReducer;
+import com.jcloisterzone.game.PlayerSlot;
+import com.jcloisterzone.game.PlayerSlot.SlotState;
+import com.jcloisterzone.game.RandomGenerator;
+import com.jcloisterzone.game.phase.Phase;
+import com.jcloisterzone.game.save.SavedGame;
+import com.jcloisterzone.game.save.SavedGame.SavedGamePlayerSlot;
+import com.jcloisterzone.game.save.SavedGameParser;
+import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.game.state.GameStateBuilder;
+import com.jcloisterzone.wsio.message.WsReplayableMessage;
+
+/**
+ * Full load of saved games from {@code src/test/resources/saved-games} - initial state creation
+ * and replay of all recorded messages. File parsing is not measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SavedGameReplayBenchmark {
+
+    @Param({
+        "basic/scoring.jcz",
+        "basic/scoringFarms.jcz",
+        "hills_and_sheep/multi_city_merge_abbey.jcz",
+        "inns_and_cathedrals/cathedralsScoring.jcz",
+        "traders_and_builders/tradeGoodsScoring.jcz"
+    })
+    private String savedGame;
+
+    private final Config config = new Config();
+
+    private SavedGame sg;
+    private GameSetup setup;
+    private GameStatePhaseReducer phaseReducer;
+    private PlayerSlot[] slots;
+
+    @Setup
+    public void setup() throws Exception {
+        try (Reader reader = new InputStreamReader(
+                getClass().getClassLoader().getResourceAsStream("saved-games/" + savedGame), StandardCharsets.UTF_8)) {
+            sg = new SavedGameParser().fromJson(new JsonReader(reader));
+        }
+        setup = sg.getSetup().asGameSetup();
+        phaseReducer = new GameStatePhaseReducer(setup);
+
+        slots = new PlayerSlot[sg.getSlots().size()];
+        int idx = 0;
+        for (SavedGamePlayerSlot sgSlot : sg.getSlots()) {
+            slots[idx] = new PlayerSlot(idx);
+            slots[idx].setNickname(sgSlot.getNickname());
+            slots[idx].setSerial(sgSlot.getSerial());
+            slots[idx].setState(SlotState.OWN);
+            idx++;
+        }
+    }
+
+    @Benchmark
+    public GameState replay() {
+        GameStateBuilder builder = new GameStateBuilder(setup, slots, config);
+        builder.setGameAnnotations(sg.getAnnotations());
+
+        GameState state = builder.createInitialState();
+        Phase firstPhase = phaseReducer.getFirstPhase();
+        state = builder.createReadyState(state).setRandom(new RandomGenerator(sg.getInitialSeed()));
+        state = state.setPhase(firstPhase.getClass());
+        state = phaseReducer.applyStepResult(firstPhase.enter(state));
+        for (WsReplayableMessage msg : sg.getReplay()) {
+            state = phaseReducer.apply(state, msg);
+        }
+        return state;
+    }
+}
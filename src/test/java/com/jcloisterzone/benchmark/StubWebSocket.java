@@ -0,0 +1,115 @@
+package com.jcloisterzone.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.framing.Framedata.Opcode;
+
+/**
+ * In-memory websocket connection for driving server without network.
+ * Implemented as dynamic proxy so it doesn't depend on exact WebSocket interface version.
+ */
+public class StubWebSocket implements InvocationHandler {
+
+    private static int nextPort = 10000;
+
+    private final boolean recording;
+    private final InetSocketAddress address;
+    private final List<String> sent = new ArrayList<>();
+    private long sentCount;
+    private long sentBytes;
+    private boolean closed;
+
+    private final WebSocket ws;
+
+    /**
+     * @param recording if {@code false}, only count of sent frames is kept
+     */
+    public StubWebSocket(boolean recording) {
+        this.recording = recording;
+        synchronized (StubWebSocket.class) {
+            address = new InetSocketAddress(InetAddress.getLoopbackAddress(), nextPort++);
+        }
+        ws = (WebSocket) Proxy.newProxyInstance(WebSocket.class.getClassLoader(), new Class<?>[] { WebSocket.class }, this);
+    }
+
+    public WebSocket getWebSocket() {
+        return ws;
+    }
+
+    public synchronized List<String> getSent() {
+        return new ArrayList<>(sent);
+    }
+
+    public synchronized List<String> drain() {
+        List<String> result = new ArrayList<>(sent);
+        sent.clear();
+        return result;
+    }
+
+    public synchronized long getSentCount() {
+        return sentCount;
+    }
+
+    public synchronized long getSentBytes() {
+        return sentBytes;
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+        case "send":
+            sentCount++;
+            if (args[0] instanceof String) {
+                // like websocket library, encode text before framing
+                byte[] bytes = ((String) args[0]).getBytes(StandardCharsets.UTF_8);
+                sentBytes += bytes.length;
+                if (recording) {
+                    sent.add((String) args[0]);
+                }
+            }
+            return null;
+        case "sendFragmentedFrame":
+            if (args[0] != Opcode.TEXT || !(Boolean) args[2]) {
+                throw new UnsupportedOperationException("Only complete text frames are supported");
+            }
+            sentCount++;
+            ByteBuffer payload = (ByteBuffer) args[1];
+            sentBytes += payload.remaining();
+            if (recording) {
+                sent.add(StandardCharsets.UTF_8.decode(payload.duplicate()).toString());
+            }
+            return null;
+        case "close":
+        case "closeConnection":
+            closed = true;
+            return null;
+        case "isOpen":
+            return !closed;
+        case "isClosed":
+            return closed;
+        case "getRemoteSocketAddress":
+        case "getLocalSocketAddress":
+            return address;
+        case "hashCode":
+            return System.identityHashCode(proxy);
+        case "equals":
+            return proxy == args[0];
+        case "toString":
+            return "StubWebSocket(" + address.getPort() + ")";
+        }
+        return method.getReturnType() == boolean.class ? Boolean.FALSE : null;
+    }
+}
@@ -0,0 +1,64 @@
+package com.jcloisterzone.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jcloisterzone.ai.RankingAiPlayer;
+import com.jcloisterzone.ai.TranspositionTable;
+
+/**
+ * Ranked position lookups per second on a table shared by search threads.
+ * Run with {@code -t 1,2,4,8} to see how lookups scale with thread count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TranspositionTableBenchmark {
+
+    private TranspositionTable table;
+
+    @State(Scope.Thread)
+    public static class Keys {
+        private long next;
+
+        @Setup
+        public void setup() {
+            next = Thread.currentThread().getId();
+        }
+
+        /** Keys repeat, about half of lookups are hits. */
+        long next() {
+            next = (next * 6364136223846793005L + 1442695040888963407L);
+            return (next >>> 17) % (RankingAiPlayer.DEFAULT_TRANSPOSITION_TABLE_SIZE / 2);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        table = new TranspositionTable(RankingAiPlayer.DEFAULT_TRANSPOSITION_TABLE_SIZE);
+    }
+
+    @Benchmark
+    public Double rank(Keys keys) {
+        long key = keys.next();
+        Double value = table.get(key);
+        if (value == null) {
+            value = (double) key;
+            table.put(key, value);
+        }
+        return value;
+    }
+}
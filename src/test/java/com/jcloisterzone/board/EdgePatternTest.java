@@ -39,6 +39,33 @@ public class EdgePatternTest {
         assertTrue(EdgePattern.fromString("????").isMatchingAnyRotation(EdgePattern.fromString("IRIF")));
     }
 
+    @Test
+    public void getMatchingRotations() {
+        assertEquals(0b0100, EdgePattern.fromString("CFFR").getMatchingRotations(EdgePattern.fromString("?RC?")));
+        assertEquals(0b1111, EdgePattern.fromString("CCCC").getMatchingRotations(EdgePattern.fromString("C???")));
+        assertEquals(0, EdgePattern.fromString("CCCC").getMatchingRotations(EdgePattern.fromString("R???")));
+    }
+
+    @Test
+    public void fitTableMatchesRotatedPatterns() {
+        EdgeType[] types = EdgeType.values();
+        for (int t = 0; t < 625; t++) {
+            EdgePattern tile = new EdgePattern(types[t % 5], types[t / 5 % 5], types[t / 25 % 5], types[t / 125]);
+            for (int b = 0; b < 625; b++) {
+                EdgePattern border = new EdgePattern(types[b % 5], types[b / 5 % 5], types[b / 25 % 5], types[b / 125]);
+                int expected = 0;
+                for (Rotation rot : Rotation.values()) {
+                    if (tile.rotate(rot).isMatchingExact(border)) {
+                        expected |= 1 << rot.ordinal();
+                    }
+                }
+                assertEquals(tile + " " + border, expected, tile.getMatchingRotations(border));
+                assertEquals(tile + " " + border, expected != 0, tile.isMatchingAnyRotation(border));
+                assertEquals(tile + " " + border, expected != 0, border.isMatchingAnyRotation(tile));
+            }
+        }
+    }
+
     @Test
     public void getSymmetry() {
         assertEquals(TileSymmetry.S4, EdgePattern.fromString("CCCC").getSymmetry());
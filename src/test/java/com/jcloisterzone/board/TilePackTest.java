@@ -0,0 +1,120 @@
+package com.jcloisterzone.board;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.jcloisterzone.game.RandomGenerator;
+import com.jcloisterzone.support.SeededGame;
+
+import io.vavr.Tuple2;
+import io.vavr.Tuple3;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.LinkedHashMap;
+import io.vavr.collection.Map;
+import io.vavr.collection.Stream;
+import io.vavr.collection.Vector;
+
+public class TilePackTest {
+
+    private TilePack createPack() {
+        Vector<Tile> tiles = Stream.ofAll(new SeededGame(2, 1L).getState().getTilePack().getGroups().values())
+            .flatMap(TileGroup::getTiles)
+            .toVector();
+        int third = tiles.size() / 3;
+        // group "c" is activated when "a" is depleted
+        LinkedHashMap<String, TileGroup> groups = LinkedHashMap.of(
+            "a", new TileGroup("a", tiles.slice(0, third), true, "c"),
+            "b", new TileGroup("b", tiles.slice(third, 2 * third), true),
+            "c", new TileGroup("c", tiles.slice(2 * third, tiles.size()), false)
+        );
+        return new TilePack(groups, 0);
+    }
+
+    /** Draw as implemented by iterating over groups. */
+    private Tile referenceDraw(TilePack pack, RandomGenerator random) {
+        int index = random.nextInt(pack.getGroups().values().filter(TileGroup::isActive).map(TileGroup::size).sum().intValue())._1;
+        for (TileGroup group : pack.getGroups().values().filter(TileGroup::isActive)) {
+            if (index < group.size()) {
+                return group.getTiles().get(index);
+            }
+            index -= group.size();
+        }
+        throw new IllegalStateException();
+    }
+
+    @Test
+    public void drawKeepsOrderAndCounters() {
+        TilePack pack = createPack();
+        RandomGenerator random = new RandomGenerator(11L);
+        EdgePattern[] borders = {
+            EdgePattern.fromString("????"),
+            EdgePattern.fromString("CR??"),
+            EdgePattern.fromString("FFFF"),
+            EdgePattern.fromString("RRRR")
+        };
+        int total = pack.totalSize();
+        while (!pack.isEmpty()) {
+            // patterns are computed before draw to be carried over to next pack
+            pack.getPatterns();
+            pack.getSizeForEdgePattern(borders[0]);
+
+            Tile expected = referenceDraw(pack, random);
+            Tuple3<Tile, TilePack, RandomGenerator> t = pack.drawTile(random);
+            assertSame(expected, t._1);
+            pack = t._2;
+            random = t._3;
+            total--;
+
+            Vector<TileGroup> groups = pack.getGroups().values().toVector();
+            Vector<Tile> active = groups.filter(TileGroup::isActive).flatMap(TileGroup::getTiles);
+            assertEquals(total, pack.totalSize());
+            assertEquals(active.size(), pack.size());
+            Map<EdgePattern, Integer> patterns = groups.flatMap(TileGroup::getTiles)
+                .foldLeft(HashMap.empty(), (m, tile) -> m.put(tile.getEdgePattern().canonize(), m.getOrElse(tile.getEdgePattern().canonize(), 0) + 1));
+            assertEquals(patterns, pack.getPatterns());
+            for (EdgePattern border : borders) {
+                assertEquals(active.count(tile -> border.isMatchingAnyRotation(tile.getEdgePattern())), pack.getSizeForEdgePattern(border));
+            }
+        }
+        assertEquals(0, total);
+        assertTrue(pack.getGroups().isEmpty());
+    }
+
+    @Test
+    public void depletedGroupActivatesSuccessor() {
+        TilePack pack = createPack();
+        int cSize = pack.getGroup("c").size();
+        assertFalse(pack.getGroup("c").isActive());
+        for (Tile tile : pack.getGroup("a").getTiles()) {
+            pack = pack.drawTile("a", tile.getId())._2;
+        }
+        assertFalse(pack.getGroups().containsKey("a"));
+        assertTrue(pack.getGroup("c").isActive());
+        assertEquals(pack.getGroup("b").size() + cSize, pack.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void drawTileOfInactiveGroupIsRefused() {
+        TilePack pack = createPack();
+        Vector<Tile> active = pack.getGroup("a").getTiles().appendAll(pack.getGroup("b").getTiles());
+        String tileId = pack.getGroup("c").getTiles()
+            .map(Tile::getId)
+            .find(id -> !active.exists(t -> t.getId().equals(id)))
+            .get();
+        pack.drawTile(tileId);
+    }
+
+    @Test
+    public void drawTileById() {
+        TilePack pack = createPack();
+        Tile tile = pack.getGroup("b").getTiles().get(0);
+        Tuple2<Tile, TilePack> t = pack.drawTile(tile.getId());
+        assertEquals(tile.getId(), t._1.getId());
+        assertEquals(pack.size() - 1, t._2.size());
+        assertEquals(pack.totalSize() - 1, t._2.totalSize());
+    }
+}
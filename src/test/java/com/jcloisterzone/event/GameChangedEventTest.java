@@ -0,0 +1,76 @@
+package com.jcloisterzone.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.jcloisterzone.event.play.PlayEvent;
+import com.jcloisterzone.event.play.PlayEvent.PlayEventMeta;
+import com.jcloisterzone.event.play.PlayerTurnEvent;
+import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.support.SeededGame;
+
+import io.vavr.collection.Vector;
+
+public class GameChangedEventTest {
+
+    private GameState append(GameState state, int count) {
+        for (int i = 0; i < count; i++) {
+            state = state.appendEvent(new PlayerTurnEvent(PlayEventMeta.createWithoutPlayer(), state.getTurnPlayer()));
+        }
+        return state;
+    }
+
+    @Test
+    public void newEvents() {
+        GameState prev = append(new SeededGame(2, 1L).getState(), 3);
+        GameState curr = append(prev, 2);
+        GameChangedEvent ev = new GameChangedEvent(prev, curr);
+        assertEquals(prev.getEvents().size(), ev.getSharedPlayEventsCount());
+        assertEquals(curr.getEvents().takeRight(2), ev.getNewPlayEvents());
+        assertTrue(ev.getRemovedPlayEvents().isEmpty());
+    }
+
+    @Test
+    public void unchangedStateHasNoEvents() {
+        GameState state = append(new SeededGame(2, 1L).getState(), 2);
+        GameChangedEvent ev = new GameChangedEvent(state, state);
+        assertEquals(state.getEvents().size(), ev.getSharedPlayEventsCount());
+        assertTrue(ev.getNewPlayEvents().isEmpty());
+        assertTrue(ev.getRemovedPlayEvents().isEmpty());
+    }
+
+    @Test
+    public void initialStateHasAllEventsNew() {
+        GameState state = append(new SeededGame(2, 1L).getState(), 2);
+        GameChangedEvent ev = new GameChangedEvent(null, state);
+        assertEquals(0, ev.getSharedPlayEventsCount());
+        assertEquals(state.getEvents(), ev.getNewPlayEvents());
+        assertTrue(ev.getRemovedPlayEvents().isEmpty());
+    }
+
+    @Test
+    public void undoTruncatesLog() {
+        GameState curr = append(new SeededGame(2, 1L).getState(), 3);
+        GameState prev = append(curr, 4);
+        GameChangedEvent ev = new GameChangedEvent(prev, curr);
+        assertEquals(curr.getEvents().size(), ev.getSharedPlayEventsCount());
+        assertTrue(ev.getNewPlayEvents().isEmpty());
+        assertEquals(prev.getEvents().takeRight(4), ev.getRemovedPlayEvents());
+    }
+
+    @Test
+    public void divergedLogs() {
+        GameState base = append(new SeededGame(2, 1L).getState(), 5);
+        int shared = base.getEvents().size();
+        GameState prev = append(base, 3);
+        GameState curr = append(base, 1);
+        GameChangedEvent ev = new GameChangedEvent(prev, curr);
+        assertEquals(shared, ev.getSharedPlayEventsCount());
+        assertEquals(1, ev.getNewPlayEvents().size());
+        assertEquals(3, ev.getRemovedPlayEvents().size());
+        Vector<PlayEvent> sym = ev.getPlayEventsSymmetricDifference().toVector();
+        assertEquals(4, sym.size());
+    }
+}
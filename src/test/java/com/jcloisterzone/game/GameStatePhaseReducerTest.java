@@ -0,0 +1,88 @@
+package com.jcloisterzone.game;
+
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.jcloisterzone.game.phase.GameOverPhase;
+import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.support.SeededGame;
+import com.jcloisterzone.support.SeededGame.SeededRandomAiPlayer;
+import com.jcloisterzone.wsio.message.WsInGameMessage;
+
+import io.vavr.collection.Vector;
+
+public class GameStatePhaseReducerTest {
+
+    private static final int GAMES = 8;
+    private static final int THREADS = 4;
+
+    private static class PlayedGame {
+        GameState initial;
+        Vector<WsInGameMessage> messages = Vector.empty();
+        GameState result;
+    }
+
+    private PlayedGame play(GameStatePhaseReducer phaseReducer, long seed) {
+        PlayedGame game = new PlayedGame();
+        game.initial = new SeededGame(3, seed).getState();
+        SeededRandomAiPlayer ai = new SeededRandomAiPlayer(seed);
+        GameState state = game.initial;
+        while (state.getPhase() != GameOverPhase.class) {
+            WsInGameMessage msg = ai.apply(state);
+            game.messages = game.messages.append(msg);
+            state = phaseReducer.apply(state, msg);
+        }
+        game.result = state;
+        return game;
+    }
+
+    private GameState replay(GameStatePhaseReducer phaseReducer, PlayedGame game) {
+        GameState state = game.initial;
+        for (WsInGameMessage msg : game.messages) {
+            state = phaseReducer.apply(state, msg);
+        }
+        return state;
+    }
+
+    @Test
+    public void parallelReplaysOnSharedReducerMatchSequential() throws Exception {
+        GameStatePhaseReducer phaseReducer = new GameStatePhaseReducer(new SeededGame(3, 0L).getSetup());
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            // games are played concurrently on shared reducer
+            List<Future<PlayedGame>> plays = new ArrayList<>();
+            for (int i = 0; i < GAMES; i++) {
+                long seed = i;
+                plays.add(executor.submit(() -> play(phaseReducer, seed)));
+            }
+            List<PlayedGame> games = new ArrayList<>();
+            for (Future<PlayedGame> play : plays) {
+                games.add(play.get());
+            }
+
+            // each game is replayed several times to interleave same phases of different games
+            List<Future<GameState>> replays = new ArrayList<>();
+            for (int round = 0; round < 3; round++) {
+                for (PlayedGame game : games) {
+                    replays.add(executor.submit(() -> replay(phaseReducer, game)));
+                }
+            }
+
+            for (int i = 0; i < replays.size(); i++) {
+                PlayedGame game = games.get(i % GAMES);
+                GameState sequential = replay(phaseReducer, game);
+                assertNull(ReplayCheckpoint.findDifference(sequential, game.result));
+                assertNull(ReplayCheckpoint.findDifference(sequential, replays.get(i).get()));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
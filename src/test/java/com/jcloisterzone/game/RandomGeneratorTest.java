@@ -0,0 +1,36 @@
+package com.jcloisterzone.game;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import io.vavr.Tuple2;
+
+public class RandomGeneratorTest {
+
+    @Test
+    public void sameSequenceAsJavaUtilRandom() {
+        int[] bounds = { 1, 2, 3, 7, 16, 71, 1000, 1 << 20, Integer.MAX_VALUE / 3 * 2, Integer.MAX_VALUE };
+        for (long seed : new long[] { 0L, 1L, -42L, 1234567890123L }) {
+            Random expected = new Random(seed);
+            RandomGenerator random = new RandomGenerator(seed);
+            for (int i = 0; i < 1000; i++) {
+                int bound = bounds[i % bounds.length];
+                Tuple2<Integer, RandomGenerator> t = random.nextInt(bound);
+                assertEquals(expected.nextInt(bound), (int) t._1);
+                random = t._2;
+            }
+        }
+    }
+
+    @Test
+    public void generatorIsValue() {
+        RandomGenerator random = new RandomGenerator(5L).setSalt(3L);
+        int first = random.nextInt(100)._1;
+        random.nextInt(100);
+        assertEquals(first, (int) random.nextInt(100)._1);
+        assertEquals(random, new RandomGenerator(5L).setSalt(3L));
+    }
+}
@@ -0,0 +1,148 @@
+package com.jcloisterzone.game;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.Player;
+import com.jcloisterzone.game.capability.AbbeyCapability;
+import com.jcloisterzone.game.capability.BarnCapability;
+import com.jcloisterzone.game.capability.BigFollowerCapability;
+import com.jcloisterzone.game.capability.BuilderCapability;
+import com.jcloisterzone.game.capability.CathedralCapability;
+import com.jcloisterzone.game.capability.DragonCapability;
+import com.jcloisterzone.game.capability.FairyCapability;
+import com.jcloisterzone.game.capability.InnCapability;
+import com.jcloisterzone.game.capability.KingAndRobberBaronCapability;
+import com.jcloisterzone.game.capability.MayorCapability;
+import com.jcloisterzone.game.capability.PigCapability;
+import com.jcloisterzone.game.capability.PigHerdCapability;
+import com.jcloisterzone.game.capability.PortalCapability;
+import com.jcloisterzone.game.capability.PrincessCapability;
+import com.jcloisterzone.game.capability.StandardGameCapability;
+import com.jcloisterzone.game.capability.TowerCapability;
+import com.jcloisterzone.game.capability.TradeGoodsCapability;
+import com.jcloisterzone.game.capability.WagonCapability;
+import com.jcloisterzone.game.phase.GameOverPhase;
+import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.support.SeededGame;
+import com.jcloisterzone.wsio.message.WsInGameMessage;
+
+import io.vavr.collection.HashMap;
+import io.vavr.collection.HashSet;
+import io.vavr.collection.Vector;
+
+public class ReplayCheckpointTest {
+
+    private final Gson gson = new Gson();
+
+    private PlayerSlot[] getSlots(GameState state) {
+        return state.getPlayers().getPlayers().map(Player::getSlot).toJavaArray(PlayerSlot.class);
+    }
+
+    @Test
+    public void replayFromCheckpointMatchesFullReplay() {
+        SeededGame game = new SeededGame(3, 5L).playUntil(30, 5L);
+        GameStatePhaseReducer phaseReducer = game.getPhaseReducer();
+        GameState state = game.getState();
+        ReplayCheckpoint checkpoint = new ReplayCheckpoint(1, 0, state).pack();
+
+        SeededGame.SeededRandomAiPlayer ai = new SeededGame.SeededRandomAiPlayer(5L);
+        Vector<WsInGameMessage> tail = Vector.empty();
+        for (int i = 0; i < 100 && state.getPhase() != GameOverPhase.class; i++) {
+            WsInGameMessage msg = ai.apply(state);
+            tail = tail.append(msg);
+            state = phaseReducer.apply(state, msg);
+        }
+
+        // checkpoint goes through JSON like in save file
+        ReplayCheckpoint loaded = gson.fromJson(gson.toJson(checkpoint), ReplayCheckpoint.class);
+        PlayerSlot[] slots = getSlots(state);
+        loaded.unpack(slots);
+        assertSame(slots[0], loaded.getState().getPlayers().getPlayers().get(0).getSlot());
+
+        GameStatePhaseReducer loadedReducer = new GameStatePhaseReducer(game.getSetup());
+        GameState loadedState = loaded.getState();
+        for (WsInGameMessage msg : tail) {
+            loadedState = loadedReducer.apply(loadedState, msg);
+        }
+
+        assertNull(ReplayCheckpoint.findDifference(state, loadedState));
+    }
+
+    private ReplayCheckpoint createCheckpoint(Object content) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(new GZIPOutputStream(bos))) {
+            oos.writeObject(content);
+        }
+        String json = "{\"replayIndex\": 1, \"data\": \"" + Base64.getEncoder().encodeToString(bos.toByteArray()) + "\"}";
+        return gson.fromJson(json, ReplayCheckpoint.class);
+    }
+
+    @Test
+    public void expansionStatesCanBeLoaded() {
+        GameSetup setup = new GameSetup(
+            HashMap.of(Expansion.BASIC, 1, Expansion.INNS_AND_CATHEDRALS, 1, Expansion.TRADERS_AND_BUILDERS, 1,
+                Expansion.PRINCESS_AND_DRAGON, 1, Expansion.TOWER, 1, Expansion.ABBEY_AND_MAYOR, 1,
+                Expansion.KING_AND_ROBBER_BARON, 1),
+            HashSet.of(StandardGameCapability.class, BigFollowerCapability.class, InnCapability.class, CathedralCapability.class,
+                PigCapability.class, BuilderCapability.class, TradeGoodsCapability.class, PigHerdCapability.class,
+                DragonCapability.class, FairyCapability.class, PortalCapability.class, PrincessCapability.class,
+                TowerCapability.class, AbbeyCapability.class, MayorCapability.class, WagonCapability.class,
+                BarnCapability.class, KingAndRobberBaronCapability.class),
+            HashMap.empty()
+        );
+        SeededGame game = new SeededGame(setup, 4, 9L);
+        SeededGame.SeededRandomAiPlayer ai = new SeededGame.SeededRandomAiPlayer(9L);
+        GameState state = game.getState();
+        for (int i = 0; state.getPhase() != GameOverPhase.class; i++) {
+            state = game.getPhaseReducer().apply(state, ai.apply(state));
+            if (i % 40 == 0) {
+                ReplayCheckpoint loaded = gson.fromJson(gson.toJson(new ReplayCheckpoint(i, 0, state).pack()), ReplayCheckpoint.class);
+                loaded.unpack(getSlots(state));
+                assertNull(ReplayCheckpoint.findDifference(state, loaded.getState()));
+            }
+        }
+    }
+
+    @Test(expected = UncheckedIOException.class)
+    public void foreignClassesAreRejected() throws IOException {
+        createCheckpoint(URI.create("http://example.com")).unpack(new PlayerSlot[0]);
+    }
+
+    @Test(expected = UncheckedIOException.class)
+    public void unlistedClassesAreRejected() throws IOException {
+        // package is common in game state, class is not
+        createCheckpoint(new ArrayList<>(Arrays.asList(1, 2, 3))).unpack(new PlayerSlot[0]);
+    }
+
+    @Test(expected = UncheckedIOException.class)
+    public void deepGraphIsRejected() throws IOException {
+        Object[] nested = new Object[1];
+        for (int i = 0; i < ReplayCheckpoint.MAX_DEPTH * 2; i++) {
+            nested = new Object[] { nested };
+        }
+        createCheckpoint(nested).unpack(new PlayerSlot[0]);
+    }
+
+    @Test(expected = UncheckedIOException.class)
+    public void largeDataIsRejected() throws IOException {
+        // compresses to few kB
+        char[] chars = new char[(int) ReplayCheckpoint.MAX_BYTES + 1];
+        Arrays.fill(chars, 'a');
+        createCheckpoint(new String(chars)).unpack(new PlayerSlot[0]);
+    }
+}
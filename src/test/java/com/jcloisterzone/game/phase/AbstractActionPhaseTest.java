@@ -0,0 +1,191 @@
+package com.jcloisterzone.game.phase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.Player;
+import com.jcloisterzone.action.MeepleAction;
+import com.jcloisterzone.action.PlayerAction;
+import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.pointer.FeaturePointer;
+import com.jcloisterzone.feature.Cloister;
+import com.jcloisterzone.feature.Completable;
+import com.jcloisterzone.feature.Structure;
+import com.jcloisterzone.feature.Tower;
+import com.jcloisterzone.figure.BigFollower;
+import com.jcloisterzone.figure.Builder;
+import com.jcloisterzone.figure.DeploymentCheckResult;
+import com.jcloisterzone.figure.Mayor;
+import com.jcloisterzone.figure.Meeple;
+import com.jcloisterzone.figure.Phantom;
+import com.jcloisterzone.figure.Pig;
+import com.jcloisterzone.figure.Shepherd;
+import com.jcloisterzone.figure.SmallFollower;
+import com.jcloisterzone.figure.Special;
+import com.jcloisterzone.figure.Wagon;
+import com.jcloisterzone.game.Capability;
+import com.jcloisterzone.game.GameSetup;
+import com.jcloisterzone.game.capability.AbbeyCapability;
+import com.jcloisterzone.game.capability.BarnCapability;
+import com.jcloisterzone.game.capability.BigFollowerCapability;
+import com.jcloisterzone.game.capability.DragonCapability;
+import com.jcloisterzone.game.capability.FairyCapability;
+import com.jcloisterzone.game.capability.FlierCapability;
+import com.jcloisterzone.game.capability.GermanMonasteriesCapability;
+import com.jcloisterzone.game.capability.MayorCapability;
+import com.jcloisterzone.game.capability.PhantomCapability;
+import com.jcloisterzone.game.capability.PortalCapability;
+import com.jcloisterzone.game.capability.PrincessCapability;
+import com.jcloisterzone.game.capability.StandardGameCapability;
+import com.jcloisterzone.game.capability.WagonCapability;
+import com.jcloisterzone.game.state.Flag;
+import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.game.state.PlacedTile;
+import com.jcloisterzone.support.SeededGame;
+import com.jcloisterzone.support.SeededGame.SeededRandomAiPlayer;
+
+import io.vavr.Tuple2;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.HashSet;
+import io.vavr.collection.List;
+import io.vavr.collection.Map;
+import io.vavr.collection.Set;
+import io.vavr.collection.Stream;
+import io.vavr.collection.Vector;
+
+public class AbstractActionPhaseTest {
+
+    // same as in ActionPhase
+    private static final Vector<Class<? extends Meeple>> MEEPLE_TYPES = Vector.of(
+        SmallFollower.class, BigFollower.class, Phantom.class,
+        Wagon.class, Mayor.class, Builder.class, Pig.class, Shepherd.class
+    );
+
+    private static boolean isMeepleDeploymentAllowedByCapabilities(GameState state, Position pos) {
+        for (Capability<?> cap : state.getCapabilities().toSeq()) {
+            if (!cap.isMeepleDeploymentAllowed(state, pos)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Previous implementation of {@link AbstractActionPhase#prepareMeepleActions}, places were filtered
+     * again for each meeple type.
+     */
+    private static Vector<PlayerAction<?>> prepareMeepleActionsTwoPass(GameState state, Vector<Class<? extends Meeple>> meepleTypes) {
+        Player player = state.getTurnPlayer();
+        Vector<Meeple> availMeeples = player.getMeeplesFromSupply(state, meepleTypes);
+
+        PlacedTile lastPlaced = state.getLastPlaced();
+        Position currentTilePos = lastPlaced.getPosition();
+        Stream<PlacedTile> tiles;
+
+        if (lastPlaced.getTile().hasModifier(PortalCapability.MAGIC_PORTAL) && !state.getFlags().contains(Flag.PORTAL_USED)) {
+            tiles = Stream.ofAll(state.getPlacedTiles().values());
+        } else {
+            tiles = Stream.of(lastPlaced);
+        }
+
+        Stream<Tuple2<FeaturePointer, Structure>> placesFp = tiles.flatMap(tile -> {
+            Position pos = tile.getPosition();
+            boolean isCurrentTile = pos.equals(currentTilePos);
+
+            if (!isMeepleDeploymentAllowedByCapabilities(state, pos)) {
+                return Stream.empty();
+            }
+
+            Stream<Tuple2<Location, Structure>> places = state.getTileFeatures2(pos, Structure.class);
+            places = places.filter(t -> !(t._2 instanceof Tower));
+            places = places.flatMap(t -> {
+               Structure struct = t._2;
+               if (struct instanceof Cloister && ((Cloister)struct).isMonastery()) {
+                   return List.of(t, new Tuple2<>(Location.MONASTERY, t._2));
+               }
+               return List.of(t);
+            });
+
+            if (!isCurrentTile) {
+                places = places.filter(t -> {
+                    if (t._1 == Location.MONASTERY) {
+                        return true;
+                    }
+                    return !(t._2 instanceof Completable) || ((Completable)t._2).isOpen(state);
+                });
+            }
+
+            if (state.hasFlag(Flag.FLYING_MACHINE_USED)) {
+                places = places.filter(t -> t._1 != Location.FLYING_MACHINE);
+            }
+
+            return places.map(t -> t.map1(loc -> new FeaturePointer(pos, loc)));
+        });
+
+        Vector<PlayerAction<?>> actions = availMeeples.map(meeple -> {
+            Set<FeaturePointer> locations = placesFp
+                .filter(t -> {
+                    if (meeple instanceof Special) return true;
+                    Structure struct = t._2;
+                    boolean isMonastery = struct instanceof Cloister && ((Cloister)struct).isMonastery();
+                    if (isMonastery) {
+                        Position pos = t._1.getPosition();
+                        boolean isOccupied = !state.getMeeplesOnPlace(new FeaturePointer(pos, Location.MONASTERY)).isEmpty()
+                           || !state.getMeeplesOnPlace(new FeaturePointer(pos, Location.CLOISTER)).isEmpty();
+                        if (isOccupied) return false;
+                    }
+                    return !t._2.isOccupied(state);
+                })
+                .filter(t -> meeple.isDeploymentAllowed(state, t._1, t._2) == DeploymentCheckResult.OK)
+                .map(t -> t._1)
+                .toSet();
+
+            return new MeepleAction(meeple, locations);
+        });
+
+        return actions.filter(action -> !action.isEmpty());
+    }
+
+    private static Vector<Map<String, Set<FeaturePointer>>> options(Vector<PlayerAction<?>> actions) {
+        return actions.map(action -> ((MeepleAction) action).getMeepleOptions());
+    }
+
+    @Test
+    public void singlePassMatchesTwoPassPlaces() {
+        GameSetup setup = new GameSetup(
+            HashMap.of(Expansion.BASIC, 1, Expansion.PRINCESS_AND_DRAGON, 1, Expansion.ABBEY_AND_MAYOR, 1,
+                Expansion.GERMAN_MONASTERIES, 1, Expansion.FLIER, 1, Expansion.PHANTOM, 1),
+            HashSet.of(StandardGameCapability.class, BigFollowerCapability.class, DragonCapability.class,
+                FairyCapability.class, PortalCapability.class, PrincessCapability.class, AbbeyCapability.class,
+                MayorCapability.class, WagonCapability.class, BarnCapability.class, GermanMonasteriesCapability.class,
+                FlierCapability.class, PhantomCapability.class),
+            HashMap.empty()
+        );
+
+        int portalTurns = 0;
+        int monasteryOptions = 0;
+        for (long seed = 1; seed <= 4; seed++) {
+            SeededGame game = new SeededGame(setup, 3, seed);
+            SeededRandomAiPlayer ai = new SeededRandomAiPlayer(seed);
+            ActionPhase actionPhase = (ActionPhase) game.getPhaseReducer().getPhase(ActionPhase.class);
+            GameState state = game.getState();
+            while (state.getPhase() != GameOverPhase.class) {
+                if (state.getPhase() == ActionPhase.class || state.getPhase() == PhantomPhase.class) {
+                    Vector<Class<? extends Meeple>> types = state.getPhase() == ActionPhase.class ? MEEPLE_TYPES : Vector.of(Phantom.class);
+                    Vector<PlayerAction<?>> actions = actionPhase.prepareMeepleActions(state, types);
+                    assertEquals(options(prepareMeepleActionsTwoPass(state, types)), options(actions));
+
+                    if (state.getLastPlaced().getTile().hasModifier(PortalCapability.MAGIC_PORTAL)) portalTurns++;
+                    monasteryOptions += actions.flatMap(action -> ((MeepleAction) action).getOptions()).count(fp -> fp.getLocation() == Location.MONASTERY);
+                }
+                state = game.getPhaseReducer().apply(state, ai.apply(state));
+            }
+        }
+        assertTrue(portalTurns > 0);
+        assertTrue(monasteryOptions > 0);
+    }
+}
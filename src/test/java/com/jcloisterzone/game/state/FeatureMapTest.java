@@ -0,0 +1,160 @@
+package com.jcloisterzone.game.state;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.jcloisterzone.board.Edge;
+import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.pointer.FeaturePointer;
+import com.jcloisterzone.feature.Castle;
+import com.jcloisterzone.feature.City;
+import com.jcloisterzone.feature.Road;
+import com.jcloisterzone.game.phase.GameOverPhase;
+import com.jcloisterzone.support.SeededGame;
+import com.jcloisterzone.support.SeededGame.SeededRandomAiPlayer;
+
+import io.vavr.collection.HashSet;
+import io.vavr.collection.List;
+
+public class FeatureMapTest {
+
+    private FeaturePointer fp(int x, int y, Location loc) {
+        return new FeaturePointer(new Position(x, y), loc);
+    }
+
+    private Road road(FeaturePointer... places) {
+        return new Road(List.of(places), HashSet.empty());
+    }
+
+    @Test
+    public void unionLinksAllPlaces() {
+        FeaturePointer a = fp(0, 0, Location.WE);
+        FeaturePointer b = fp(1, 0, Location.WE);
+        FeaturePointer c = fp(2, 0, Location.WE);
+        Road ra = road(a);
+        Road rc = road(c);
+        FeatureMap m = FeatureMap.empty().put(ra).put(rc);
+
+        Road merged = road(a, b, c);
+        m = m.union(merged, List.of(b, a, c));
+
+        assertSame(merged, m.get(a).get());
+        assertSame(merged, m.get(b).get());
+        assertSame(merged, m.get(c).get());
+        assertEquals(3, m.size());
+        assertEquals(1, m.values().size());
+    }
+
+    @Test
+    public void unionKeepsRootOfMergedPart() {
+        List<FeaturePointer> big = List.range(0, 100).map(x -> fp(x, 0, Location.WE));
+        List<FeaturePointer> small = List.range(0, 3).map(x -> fp(x, 5, Location.WE));
+        FeaturePointer joint = fp(0, 1, Location.NS);
+        FeatureMap m = FeatureMap.empty().put(new Road(big, HashSet.empty())).put(new Road(small, HashSet.empty()));
+
+        // parts have same rank, first one keeps its root
+        // first place of merged feature is different, re-pointing all places would make it new root
+        Road merged = new Road(small.append(joint).appendAll(big), HashSet.empty());
+        m = m.union(merged, List.of(big.head(), joint, small.head()));
+
+        for (FeaturePointer fp : merged.getPlaces()) {
+            assertEquals(big.head(), m.findRoot(fp));
+            assertSame(merged, m.get(fp).get());
+        }
+        assertEquals(1, m.values().size());
+    }
+
+    @Test
+    public void extendedFeatureKeepsRoot() {
+        FeaturePointer first = fp(0, 0, Location.WE);
+        List<FeaturePointer> places = List.of(first);
+        FeatureMap m = FeatureMap.empty().put(road(first));
+        for (int x = 1; x < 200; x++) {
+            FeaturePointer next = fp(x, 0, Location.WE);
+            places = places.prepend(next);
+            m = m.union(new Road(places, HashSet.empty()), List.of(places.get(1), next));
+        }
+
+        for (FeaturePointer fp : places) {
+            assertEquals(first, m.findRoot(fp));
+        }
+        assertEquals(200, m.size());
+        assertEquals(1, m.values().size());
+    }
+
+    @Test
+    public void placedTilesAreLinkedToExistingRoots() {
+        SeededGame game = new SeededGame(2, 3L);
+        SeededRandomAiPlayer ai = new SeededRandomAiPlayer(3L);
+        GameState state = game.getState();
+        int merges = 0;
+        while (state.getPhase() != GameOverPhase.class) {
+            GameState next = game.getPhaseReducer().apply(state, ai.apply(state));
+            FeatureMap prev = state.getFeatureMap();
+            FeatureMap curr = next.getFeatureMap();
+            if (prev != curr) {
+                // places from previous state are never re-pointed to place of new tile
+                for (FeaturePointer fp : prev.keySet()) {
+                    FeaturePointer root = curr.findRoot(fp);
+                    assertEquals(root, prev.findRoot(root));
+                    if (!root.equals(prev.findRoot(fp))) merges++;
+                }
+            }
+            state = next;
+        }
+        assertTrue(merges > 0);
+    }
+
+    @Test
+    public void putSplitsFeature() {
+        FeaturePointer a = fp(0, 0, Location.WE);
+        FeaturePointer b = fp(1, 0, Location.WE);
+        FeaturePointer c = fp(2, 0, Location.WE);
+        FeatureMap m = FeatureMap.empty().put(road(a, b, c));
+
+        Road r1 = road(a);
+        Road r2 = road(b, c);
+        m = m.put(r1).put(r2);
+
+        assertSame(r1, m.get(a).get());
+        assertSame(r2, m.get(b).get());
+        assertSame(r2, m.get(c).get());
+        assertEquals(2, m.values().size());
+    }
+
+    @Test
+    public void completedCitiesAreIndexed() {
+        FeaturePointer a = fp(0, 0, Location.S);
+        FeaturePointer b = fp(0, 1, Location.N);
+        Edge edge = new Edge(new Position(0, 0), new Position(0, 1));
+        FeatureMap m = FeatureMap.empty().put(new City(List.of(a), HashSet.of(edge), 0));
+        assertNull(m.getCompletedCity(a));
+
+        City completed = new City(List.of(a, b), HashSet.empty(), 0);
+        m = m.union(completed, List.of(a, b));
+        assertSame(completed, m.getCompletedCity(a));
+        assertSame(completed, m.getCompletedCity(b));
+
+        Castle castle = new Castle(List.of(a, b));
+        m = m.put(castle);
+        assertSame(castle, m.getCompletedCity(a));
+        assertSame(castle, m.getCompletedCity(b));
+        assertNull(m.getCompletedCity(fp(0, 0, Location.N)));
+    }
+
+    @Test
+    public void findPartOf() {
+        FeaturePointer we = fp(0, 0, Location.WE);
+        FeatureMap m = FeatureMap.empty().put(road(we));
+
+        assertEquals(we, m.findPartOf(fp(0, 0, Location.W)));
+        assertEquals(we, m.findPartOf(fp(0, 0, Location.E)));
+        assertNull(m.findPartOf(fp(0, 0, Location.N)));
+        assertNull(m.findPartOf(fp(1, 0, Location.W)));
+    }
+}
@@ -0,0 +1,88 @@
+package com.jcloisterzone.game.state;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.pointer.FeaturePointer;
+import com.jcloisterzone.figure.Follower;
+import com.jcloisterzone.figure.Meeple;
+import com.jcloisterzone.game.GameSetup;
+import com.jcloisterzone.game.GameStatePhaseReducer;
+import com.jcloisterzone.game.capability.StandardGameCapability;
+import com.jcloisterzone.game.capability.TowerCapability;
+import com.jcloisterzone.reducers.CaptureMeeple;
+import com.jcloisterzone.reducers.DeployMeeple;
+import com.jcloisterzone.reducers.UndeployMeeple;
+import com.jcloisterzone.support.SeededGame;
+import com.jcloisterzone.support.SeededGame.SeededRandomAiPlayer;
+
+import io.vavr.Tuple2;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.HashSet;
+import io.vavr.collection.LinkedHashMap;
+import io.vavr.collection.List;
+
+public class MeepleIndexTest {
+
+    private void assertIndexConsistent(GameState state) {
+        int indexed = 0;
+        for (FeaturePointer fp : state.getDeployedMeeples().values().distinct()) {
+            indexed += state.getMeeplesOnPlace(fp).size();
+        }
+        assertEquals(state.getDeployedMeeples().size(), indexed);
+        for (Tuple2<Meeple, FeaturePointer> t : state.getDeployedMeeples()) {
+            assertTrue(state.getMeeplesOnPlace(t._2).contains(t._1));
+        }
+    }
+
+    @Test
+    public void indexMatchesDeployedMeeplesDuringRandomGame() {
+        SeededGame game = new SeededGame(6, 3L);
+        GameStatePhaseReducer phaseReducer = game.getPhaseReducer();
+        SeededRandomAiPlayer ai = new SeededRandomAiPlayer(3L);
+        GameState state = game.getState();
+        while (!game.isOver() && state.getPlacedTiles().size() < 60) {
+            state = phaseReducer.apply(state, ai.apply(state));
+            assertIndexConsistent(state);
+        }
+    }
+
+    @Test
+    public void undeployKeepsOtherMeeplesOnPlace() {
+        // tower capability holds captured followers
+        GameSetup setup = new GameSetup(
+            HashMap.of(Expansion.BASIC, 1),
+            HashSet.of(StandardGameCapability.class, TowerCapability.class),
+            HashMap.empty()
+        );
+        GameState state = new SeededGame(setup, 2, 1L).getState();
+        FeaturePointer road = new FeaturePointer(Position.ZERO, Location.WE);
+        Follower m1 = state.getPlayers().getPlayer(0).getFollowers(state).get();
+        Follower m2 = state.getPlayers().getPlayer(1).getFollowers(state).get();
+        state = new DeployMeeple(m1, road).apply(state);
+        state = new DeployMeeple(m2, road).apply(state);
+        assertEquals(List.of(m1, m2).toSet(), state.getMeeplesOnPlace(road).toSet());
+
+        state = new UndeployMeeple(m1, false).apply(state);
+        assertEquals(List.of(m2), state.getMeeplesOnPlace(road));
+        assertIndexConsistent(state);
+
+        state = new CaptureMeeple(m2).apply(state);
+        assertTrue(state.getMeeplesOnPlace(road).isEmpty());
+        assertIndexConsistent(state);
+    }
+
+    @Test
+    public void rebuiltIndexMatchesIncremental() {
+        GameState state = new SeededGame(4, 5L).playUntil(50, 5L).getState();
+        GameState rebuilt = state.setDeployedMeeples(LinkedHashMap.ofEntries(state.getDeployedMeeples()));
+        for (FeaturePointer fp : state.getDeployedMeeples().values()) {
+            assertEquals(state.getMeeplesOnPlace(fp).toSet(), rebuilt.getMeeplesOnPlace(fp).toSet());
+        }
+    }
+}
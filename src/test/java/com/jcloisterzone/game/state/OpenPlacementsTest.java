@@ -0,0 +1,108 @@
+package com.jcloisterzone.game.state;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.board.EdgePattern;
+import com.jcloisterzone.board.EdgeType;
+import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.board.pointer.FeaturePointer;
+import com.jcloisterzone.game.GameSetup;
+import com.jcloisterzone.game.GameStatePhaseReducer;
+import com.jcloisterzone.game.capability.BridgeCapability;
+import com.jcloisterzone.game.capability.StandardGameCapability;
+import com.jcloisterzone.game.phase.GameOverPhase;
+import com.jcloisterzone.reducers.PlaceBridge;
+import com.jcloisterzone.reducers.PlaceTile;
+import com.jcloisterzone.support.SeededGame;
+import com.jcloisterzone.support.SeededGame.SeededRandomAiPlayer;
+
+import io.vavr.collection.HashMap;
+import io.vavr.collection.HashSet;
+import io.vavr.collection.LinkedHashMap;
+import io.vavr.collection.Map;
+
+public class OpenPlacementsTest {
+
+    /** Former getAvailablePlacements, computed from all placed tiles. */
+    private Map<Position, EdgePattern> scanBoard(GameState state) {
+        Map<Position, EdgePattern> result = HashMap.empty();
+        for (Position pos : state.getPlacedTiles().keySet()) {
+            for (Location side : Location.SIDES) {
+                Position adj = pos.add(side);
+                if (state.getPlacedTile(adj) == null) {
+                    EdgeType[] edges = new EdgeType[4];
+                    int i = 0;
+                    for (Location loc : Location.SIDES) {
+                        PlacedTile adjTile = state.getPlacedTile(adj.add(loc));
+                        edges[i++] = adjTile == null ? EdgeType.UNKNOWN : adjTile.getEdgePattern().at(loc.rev());
+                    }
+                    result = result.put(adj, new EdgePattern(edges[0], edges[1], edges[2], edges[3]));
+                }
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void openPlacementsMatchBoardDuringRandomGame() {
+        // bridges without rest of the expansion, generic AI can't play bazaars
+        GameSetup setup = new GameSetup(
+            HashMap.of(Expansion.BASIC, 1),
+            HashSet.of(StandardGameCapability.class, BridgeCapability.class),
+            HashMap.empty()
+        );
+        SeededGame game = new SeededGame(setup, 3, 11L);
+        GameStatePhaseReducer phaseReducer = game.getPhaseReducer();
+        SeededRandomAiPlayer ai = new SeededRandomAiPlayer(11L);
+        GameState state = game.getState();
+        int bridges = 0;
+        while (state.getPhase() != GameOverPhase.class) {
+            state = phaseReducer.apply(state, ai.apply(state));
+            assertEquals(scanBoard(state), state.getOpenPlacements());
+            bridges = Math.max(bridges, state.getCapabilityModel(BridgeCapability.class).size());
+        }
+        assertTrue("no bridge placed, bridge update is not covered", bridges > 0);
+    }
+
+    @Test
+    public void placedTileClosesPlacementAndOpensNeighbours() {
+        GameState state = new SeededGame(2, 1L).getState();
+        Position pos = new Position(0, 1);
+        state = new PlaceTile(state.getTilePack().findTile("BA.RFr").get(), pos, Rotation.R0).apply(state);
+
+        assertFalse(state.getOpenPlacements().containsKey(pos));
+        assertEquals(EdgeType.ROAD, state.getOpenPlacements().get(new Position(1, 1)).get().at(Location.W));
+        assertEquals(EdgeType.FARM, state.getOpenPlacements().get(new Position(0, 2)).get().at(Location.N));
+        assertEquals(scanBoard(state), state.getOpenPlacements());
+    }
+
+    @Test
+    public void bridgeChangesNeighbourEdge() {
+        GameSetup setup = new GameSetup(
+            HashMap.of(Expansion.BASIC, 1),
+            HashSet.of(StandardGameCapability.class, BridgeCapability.class),
+            HashMap.empty()
+        );
+        GameState state = new SeededGame(setup, 2, 1L).getState();
+        Position pos = new Position(0, 1);
+        state = new PlaceTile(state.getTilePack().findTile("BA.RFr").get(), pos, Rotation.R0).apply(state);
+        state = new PlaceBridge(new FeaturePointer(pos, Location.NS)).apply(state);
+
+        assertEquals(EdgeType.ROAD, state.getOpenPlacements().get(new Position(0, 2)).get().at(Location.N));
+        assertEquals(scanBoard(state), state.getOpenPlacements());
+    }
+
+    @Test
+    public void rebuiltOpenPlacementsMatchIncremental() {
+        GameState state = new SeededGame(2, 5L).playUntil(50, 5L).getState();
+        GameState rebuilt = state.setPlacedTiles(LinkedHashMap.ofEntries(state.getPlacedTiles()));
+        assertEquals(state.getOpenPlacements(), rebuilt.getOpenPlacements());
+    }
+}
@@ -0,0 +1,96 @@
+package com.jcloisterzone.game.state;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.support.SeededGame;
+
+import io.vavr.Tuple2;
+import io.vavr.collection.HashMap;
+
+public class PlacedTileIndexTest {
+
+    @Test
+    public void randomPutsMatchHashMap() {
+        Random random = new Random(7L);
+        PlacedTileIndex index = PlacedTileIndex.empty();
+        HashMap<Position, PlacedTile> expected = HashMap.empty();
+        for (int i = 0; i < 500; i++) {
+            // negative coordinates and replacements of already placed positions
+            Position pos = new Position(random.nextInt(41) - 20, random.nextInt(41) - 20);
+            PlacedTile pt = new PlacedTile(null, pos, Rotation.values()[i % 4]);
+            PlacedTileIndex prev = index;
+            PlacedTile prevTile = expected.get(pos).getOrNull();
+            index = index.put(pos, pt);
+            expected = expected.put(pos, pt);
+            assertEquals(expected.size(), index.size());
+            assertSame(pt, index.get(pos));
+            // previous instance is not changed
+            assertSame(prevTile, prev.get(pos));
+            if (i % 50 == 0) {
+                for (Tuple2<Position, PlacedTile> t : expected) {
+                    assertSame(t._2, index.get(t._1));
+                }
+            }
+        }
+        for (int x = -21; x <= 21; x++) {
+            for (int y = -21; y <= 21; y++) {
+                Position pos = new Position(x, y);
+                assertSame(expected.get(pos).getOrNull(), index.get(pos));
+            }
+        }
+        assertNull(index.get(new Position(1 << 20, -(1 << 20))));
+    }
+
+    @Test
+    public void chunkBordersAreSeparated() {
+        int[] coords = { -9, -8, -1, 0, 7, 8 };
+        PlacedTileIndex index = PlacedTileIndex.empty();
+        for (int x : coords) {
+            for (int y : coords) {
+                Position pos = new Position(x, y);
+                index = index.put(pos, new PlacedTile(null, pos, Rotation.R0));
+            }
+        }
+        assertEquals(coords.length * coords.length, index.size());
+        for (int x : coords) {
+            for (int y : coords) {
+                assertEquals(new Position(x, y), index.get(x, y).getPosition());
+            }
+        }
+        // cells next to indexed ones, in the same chunks
+        assertNull(index.get(-7, -7));
+        assertNull(index.get(1, 6));
+        assertNull(index.get(9, -2));
+    }
+
+    @Test
+    public void replacedTileKeepsSize() {
+        Position pos = new Position(3, -5);
+        PlacedTile first = new PlacedTile(null, pos, Rotation.R0);
+        PlacedTile second = new PlacedTile(null, pos, Rotation.R90);
+        PlacedTileIndex index = PlacedTileIndex.empty().put(pos, first);
+        PlacedTileIndex replaced = index.put(pos, second);
+        assertEquals(1, replaced.size());
+        assertSame(second, replaced.get(pos));
+        assertSame(first, index.get(pos));
+    }
+
+    @Test
+    public void indexMatchesPlacedTiles() {
+        GameState state = new SeededGame(2, 5L).playUntil(80, 5L).getState();
+        for (Tuple2<Position, PlacedTile> t : state.getPlacedTiles()) {
+            assertSame(t._2, state.getPlacedTile(t._1));
+        }
+        for (Position pos : state.getOpenPlacements().keySet()) {
+            assertNull(state.getPlacedTile(pos));
+        }
+    }
+}
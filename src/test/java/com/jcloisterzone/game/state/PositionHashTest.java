@@ -0,0 +1,193 @@
+package com.jcloisterzone.game.state;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.Player;
+import com.jcloisterzone.PointCategory;
+import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.board.pointer.FeaturePointer;
+import com.jcloisterzone.figure.Follower;
+import com.jcloisterzone.game.GameSetup;
+import com.jcloisterzone.game.GameStatePhaseReducer;
+import com.jcloisterzone.game.capability.BazaarCapability;
+import com.jcloisterzone.game.capability.BridgeCapability;
+import com.jcloisterzone.game.capability.InnCapability;
+import com.jcloisterzone.game.capability.StandardGameCapability;
+import com.jcloisterzone.game.phase.ActionPhase;
+import com.jcloisterzone.game.phase.GameOverPhase;
+import com.jcloisterzone.integration.IntegrationTest;
+import com.jcloisterzone.reducers.AddPoints;
+import com.jcloisterzone.reducers.DeployMeeple;
+import com.jcloisterzone.reducers.PlaceBridge;
+import com.jcloisterzone.reducers.PlaceTile;
+import com.jcloisterzone.reducers.UndeployMeeple;
+import com.jcloisterzone.support.SeededGame;
+import com.jcloisterzone.support.SeededGame.SeededRandomAiPlayer;
+
+import io.vavr.Tuple;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.HashSet;
+import io.vavr.collection.Stream;
+
+public class PositionHashTest extends IntegrationTest {
+
+    private Tile findTile(GameState state, String id) {
+        return state.getTilePack().findTile(id).get();
+    }
+
+    @Test
+    public void incrementalHashMatchesSavedGames() {
+        String[] games = {
+            "saved-games/basic/scoring.jcz",
+            "saved-games/basic/scoringFarms.jcz",
+            "saved-games/hills_and_sheep/multi_city_merge_abbey.jcz",
+            "saved-games/inns_and_cathedrals/cathedralsScoring.jcz",
+            "saved-games/traders_and_builders/tradeGoodsScoring.jcz"
+        };
+        for (String game : games) {
+            GameState state = createGameState(game);
+            assertEquals(game, PositionHash.of(state), state.getPositionHash());
+        }
+    }
+
+    @Test
+    public void incrementalHashMatchesDuringRandomGame() {
+        SeededGame game = new SeededGame(3, 7L);
+        GameStatePhaseReducer phaseReducer = game.getPhaseReducer();
+        SeededRandomAiPlayer ai = new SeededRandomAiPlayer(7L);
+        GameState state = game.getState();
+        while (!game.isOver() && state.getPlacedTiles().size() < 40) {
+            state = phaseReducer.apply(state, ai.apply(state));
+            assertEquals(PositionHash.of(state), state.getPositionHash());
+        }
+    }
+
+    @Test
+    public void incrementalHashMatchesWithCapabilityPieces() {
+        Expansion[] expansions = {
+            Expansion.BASIC, Expansion.TOWER, Expansion.BRIDGES_CASTLES_AND_BAZAARS, Expansion.TUNNEL,
+            Expansion.FERRIES, Expansion.GOLDMINES, Expansion.LITTLE_BUILDINGS, Expansion.KING_AND_ROBBER_BARON
+        };
+        // AI players can't handle bazaar auctions
+        GameSetup setup = new GameSetup(
+            HashMap.ofEntries(Stream.of(expansions).map(exp -> Tuple.of(exp, 1))),
+            Stream.of(expansions)
+                .flatMap(exp -> Stream.of(exp.getCapabilities()))
+                .filter(cap -> cap != BazaarCapability.class)
+                .toSet()
+                .add(StandardGameCapability.class),
+            HashMap.empty()
+        );
+        for (long seed = 1; seed <= 3; seed++) {
+            SeededGame game = new SeededGame(setup, 3, seed);
+            GameStatePhaseReducer phaseReducer = game.getPhaseReducer();
+            SeededRandomAiPlayer ai = new SeededRandomAiPlayer(seed);
+            GameState state = game.getState();
+            while (state.getPhase() != GameOverPhase.class) {
+                state = phaseReducer.apply(state, ai.apply(state));
+                assertEquals(PositionHash.of(state), state.getPositionHash());
+            }
+        }
+    }
+
+    @Test
+    public void undeployRestoresHash() {
+        GameState state = new SeededGame(2, 1L).getState();
+        Follower follower = state.getPlayers().getPlayer(0).getFollowers(state).get();
+        GameState deployed = new DeployMeeple(follower, new FeaturePointer(Position.ZERO, Location.WE)).apply(state);
+        GameState undeployed = new UndeployMeeple(follower, false).apply(deployed);
+
+        assertNotEquals(state.getPositionHash(), deployed.getPositionHash());
+        assertEquals(state.getPositionHash(), undeployed.getPositionHash());
+    }
+
+    @Test
+    public void bridgeChangesHash() {
+        GameSetup setup = new GameSetup(
+            HashMap.of(Expansion.BASIC, 1, Expansion.BRIDGES_CASTLES_AND_BAZAARS, 1),
+            HashSet.of(StandardGameCapability.class, BridgeCapability.class),
+            HashMap.empty()
+        );
+        GameState state = new SeededGame(setup, 2, 1L).getState();
+        Position pos = new Position(0, 1);
+        state = new PlaceTile(findTile(state, "BA.RFr"), pos, Rotation.R0).apply(state);
+
+        GameState bridged = new PlaceBridge(new FeaturePointer(pos, Location.NS), true).apply(state);
+        assertNotEquals(state.getPositionHash(), bridged.getPositionHash());
+        assertEquals(PositionHash.of(bridged), bridged.getPositionHash());
+    }
+
+    @Test
+    public void turnKeyDependsOnPhaseAndPlayers() {
+        GameState state = new SeededGame(2, 1L).getState();
+        GameState otherPhase = state.setPhase(ActionPhase.class);
+        GameState otherPlayer = state.mapPlayers(ps -> ps.setTurnPlayerIndex(1));
+
+        assertEquals(state.getPositionHash(), otherPhase.getPositionHash());
+        assertEquals(state.getPositionHash(), otherPlayer.getPositionHash());
+        assertNotEquals(PositionHash.ofTurn(state), PositionHash.ofTurn(otherPhase));
+        assertNotEquals(PositionHash.ofTurn(state), PositionHash.ofTurn(otherPlayer));
+    }
+
+    @Test
+    public void tilePlacementOrderDoesNotMatter() {
+        GameState state = new SeededGame(2, 1L).getState();
+        Tile road = findTile(state, "BA.RRRR");
+        Tile city = findTile(state, "BA.Cccc+");
+        Position p1 = new Position(0, 1);
+        Position p2 = new Position(0, -1);
+
+        GameState s1 = new PlaceTile(road, p1, Rotation.R0).apply(state);
+        s1 = new PlaceTile(city, p2, Rotation.R90).apply(s1);
+        GameState s2 = new PlaceTile(city, p2, Rotation.R90).apply(state);
+        s2 = new PlaceTile(road, p1, Rotation.R0).apply(s2);
+
+        assertEquals(s1.getPositionHash(), s2.getPositionHash());
+        assertNotEquals(state.getPositionHash(), s1.getPositionHash());
+    }
+
+    @Test
+    public void rotationsHaveDifferentHash() {
+        GameSetup setup = new GameSetup(
+            HashMap.of(Expansion.BASIC, 1, Expansion.ABBEY_AND_MAYOR, 1, Expansion.INNS_AND_CATHEDRALS, 1),
+            HashSet.of(StandardGameCapability.class, InnCapability.class),
+            HashMap.empty()
+        );
+        GameState state = new SeededGame(setup, 2, 1L).getState();
+        Position pos = new Position(0, 1);
+
+        // symmetric edges, but pennant or inn is on one side only
+        for (String tileId : new String[] { "AM.CCcc+", "IC.RFr.i", "BA.Rr" }) {
+            Tile tile = findTile(state, tileId);
+            java.util.Set<Long> hashes = new java.util.HashSet<>();
+            for (Rotation rot : Rotation.values()) {
+                hashes.add(new PlaceTile(tile, pos, rot).apply(state).getPositionHash());
+            }
+            assertEquals(tileId, 4, hashes.size());
+        }
+    }
+
+    @Test
+    public void scoringOrderDoesNotMatter() {
+        GameState state = new SeededGame(2, 1L).getState();
+        Player alice = state.getPlayers().getPlayer(0);
+        Player bob = state.getPlayers().getPlayer(1);
+
+        GameState s1 = new AddPoints(alice, 3, PointCategory.ROAD).apply(state);
+        s1 = new AddPoints(bob, 2, PointCategory.CITY).apply(s1);
+        GameState s2 = new AddPoints(bob, 2, PointCategory.CITY).apply(state);
+        s2 = new AddPoints(alice, 3, PointCategory.ROAD).apply(s2);
+        GameState s3 = new AddPoints(alice, 2, PointCategory.ROAD).apply(state);
+        s3 = new AddPoints(bob, 3, PointCategory.CITY).apply(s3);
+
+        assertEquals(s1.getPositionHash(), s2.getPositionHash());
+        assertNotEquals(s1.getPositionHash(), s3.getPositionHash());
+    }
+}
@@ -11,6 +11,7 @@ import com.jcloisterzone.config.Config;
 import com.jcloisterzone.game.GameSetup;
 import com.jcloisterzone.game.GameStatePhaseReducer;
 import com.jcloisterzone.game.PlayerSlot;
+import com.jcloisterzone.game.RandomGenerator;
 import com.jcloisterzone.game.PlayerSlot.SlotState;
 import com.jcloisterzone.game.phase.Phase;
 import com.jcloisterzone.game.save.SavedGame;
@@ -19,7 +20,6 @@ import com.jcloisterzone.game.save.SavedGameParser;
 import com.jcloisterzone.game.state.GameState;
 import com.jcloisterzone.game.state.GameStateBuilder;
 import com.jcloisterzone.wsio.message.WsReplayableMessage;
-import com.jcloisterzone.wsio.message.WsSaltMessage;
 
 
 public class IntegrationTest {
@@ -57,20 +57,17 @@ public class IntegrationTest {
 
         GameSetup setup = sg.getSetup().asGameSetup();
         PlayerSlot[] slots = createPlayerSlots(sg);
-        GameStatePhaseReducer phaseReducer = new GameStatePhaseReducer(setup, sg.getInitialSeed());
+        GameStatePhaseReducer phaseReducer = new GameStatePhaseReducer(setup);
         GameStateBuilder builder = new GameStateBuilder(setup, slots, config);
         builder.setGameAnnotations(sg.getAnnotations());
 
         GameState state = builder.createInitialState();
 
         Phase firstPhase = phaseReducer.getFirstPhase();
-        state = builder.createReadyState(state);
+        state = builder.createReadyState(state).setRandom(new RandomGenerator(sg.getInitialSeed()));
         state = state.setPhase(firstPhase.getClass());
         state = phaseReducer.applyStepResult(firstPhase.enter(state));
         for (WsReplayableMessage msg : sg.getReplay()) {
-            if (msg instanceof WsSaltMessage) {
-                phaseReducer.getRandom().setSalt(((WsSaltMessage) msg).getSalt());
-            }
             state = phaseReducer.apply(state, msg);
         }
 
@@ -0,0 +1,86 @@
+package com.jcloisterzone.sim;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+
+import org.junit.Test;
+
+import com.jcloisterzone.ai.AiPlayer;
+import com.jcloisterzone.ai.player.LegacyAiPlayer;
+
+import io.vavr.collection.Array;
+
+public class GameSimulationTest {
+
+    private GameSimulation createSimulation() {
+        Array<String> names = Array.of("dummy", "dummy", "dummy");
+        return new GameSimulation(Simulator.createSetup("BASIC"), names, names.map(Simulator::createAiFactory));
+    }
+
+    @Test
+    public void gameIsPlayedToEnd() {
+        SimulationResult result = createSimulation().play(7L);
+        assertNull(result.getError());
+        assertTrue(result.getTurns() > 0);
+        assertEquals(result.getMoves(), result.getMoveCount()[0] + result.getMoveCount()[1] + result.getMoveCount()[2]);
+        assertTrue(Simulator.toCsv(result).startsWith("7,"));
+    }
+
+    @Test
+    public void seededGameIsReproducible() {
+        GameSimulation simulation = createSimulation();
+        SimulationResult a = simulation.play(42L);
+        SimulationResult b = simulation.play(42L);
+        assertArrayEquals(a.getScores(), b.getScores());
+        assertEquals(a.getMoves(), b.getMoves());
+        assertEquals(a.getTurns(), b.getTurns());
+    }
+
+    @Test
+    public void moveLimitAbortsGame() {
+        GameSimulation simulation = createSimulation();
+        simulation.setMaxMoves(10);
+        SimulationResult result = simulation.play(1L);
+        assertEquals(10, result.getMoves());
+        assertTrue(result.getError().startsWith("Move limit"));
+    }
+
+    @Test
+    public void aiPlayersAreReleasedAfterGame() {
+        List<LegacyAiPlayer> created = new ArrayList<>();
+        LongFunction<AiPlayer> factory = seed -> {
+            LegacyAiPlayer ai = new LegacyAiPlayer();
+            ai.setParallelism(2);
+            created.add(ai);
+            return ai;
+        };
+        GameSimulation simulation = new GameSimulation(Simulator.createSetup("BASIC"),
+            Array.of("legacy", "legacy"), Array.of(factory, factory));
+        simulation.setMaxMoves(6);
+        SimulationResult result = simulation.play(3L);
+        assertTrue(result.getError().startsWith("Move limit"));
+        assertEquals(2, created.size());
+        for (LegacyAiPlayer ai : created) {
+            assertEquals(0, ai.getRankedPositions().size());
+        }
+    }
+
+    @Test
+    public void helpIsNotArgumentError() {
+        assertFalse(new Simulator().parseArgs(new String[] { "--games", "5", "--help" }));
+        assertTrue(new Simulator().parseArgs(new String[] { "--games", "5" }));
+        try {
+            new Simulator().parseArgs(new String[] { "--games" });
+            throw new AssertionError("Missing value must be refused");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.jcloisterzone.support;
+
+import java.util.Random;
+
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.ai.AiPlayer;
+import com.jcloisterzone.game.GameSetup;
+import com.jcloisterzone.game.GameStatePhaseReducer;
+import com.jcloisterzone.game.capability.StandardGameCapability;
+import com.jcloisterzone.game.phase.GameOverPhase;
+import com.jcloisterzone.game.phase.TilePhase;
+import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.sim.GameSimulation;
+import com.jcloisterzone.wsio.message.WsInGameMessage;
+
+import io.vavr.collection.Array;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.HashSet;
+import io.vavr.collection.Vector;
+
+/**
+ * Test and benchmark fixture. Creates game (basic one by default) and plays it by seeded random moves
+ * to get reproducible boards of requested size.
+ */
+public class SeededGame {
+
+    private final GameSetup setup;
+    private final GameStatePhaseReducer phaseReducer;
+    private GameState state;
+
+    public SeededGame(int playersCount, long seed) {
+        this(
+            new GameSetup(HashMap.of(Expansion.BASIC, 1), HashSet.of(StandardGameCapability.class), HashMap.empty()),
+            playersCount,
+            seed
+        );
+    }
+
+    public SeededGame(GameSetup setup, int playersCount, long seed) {
+        this.setup = setup;
+        phaseReducer = new GameStatePhaseReducer(setup);
+        state = GameSimulation.createInitialState(setup, phaseReducer, Array.range(0, playersCount).map(i -> "Player " + i), seed);
+    }
+
+    /**
+     * Plays random moves until {@code placedTiles} tiles are on board (or game is over).
+     * Resulting state always waits for tile placement.
+     */
+    public SeededGame playUntil(int placedTiles, long seed) {
+        SeededRandomAiPlayer ai = new SeededRandomAiPlayer(seed);
+        while (!isOver() && (state.getPlacedTiles().size() < placedTiles || state.getPhase() != TilePhase.class)) {
+            state = phaseReducer.apply(state, ai.apply(state));
+        }
+        return this;
+    }
+
+    public boolean isOver() {
+        return state.getPhase() == GameOverPhase.class;
+    }
+
+    public GameSetup getSetup() {
+        return setup;
+    }
+
+    public GameStatePhaseReducer getPhaseReducer() {
+        return phaseReducer;
+    }
+
+    public GameState getState() {
+        return state;
+    }
+
+    public static class SeededRandomAiPlayer implements AiPlayer {
+
+        private final Random random;
+
+        public SeededRandomAiPlayer(long seed) {
+            random = new Random(seed);
+        }
+
+        @Override
+        public WsInGameMessage apply(GameState state) {
+            Vector<WsInGameMessage> messages = getPossibleActions(state);
+            return messages.get(random.nextInt(messages.length()));
+        }
+    }
+}
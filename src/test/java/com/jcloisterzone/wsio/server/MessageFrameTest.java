@@ -0,0 +1,49 @@
+package com.jcloisterzone.wsio.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import com.jcloisterzone.wsio.MessageParser;
+import com.jcloisterzone.wsio.message.ChatMessage;
+import com.jcloisterzone.wsio.message.PongMessage;
+import com.jcloisterzone.wsio.message.WsMessage;
+
+public class MessageFrameTest {
+
+    private final MessageParser parser = new MessageParser();
+
+    private String expected(WsMessage msg, long sequenceNumber) {
+        msg.setSequnceNumber(sequenceNumber);
+        String json = parser.toJson(msg);
+        msg.setSequnceNumber(null);
+        return json;
+    }
+
+    @Test
+    public void sequenceNumberIsAppendedToPayload() {
+        ChatMessage msg = new ChatMessage("session", "žluťoučký kůň \"quoted\"");
+        msg.setGameId("game");
+        MessageFrame frame = new MessageFrame(parser, msg);
+        assertEquals(expected(msg, 1), frame.asString(1));
+        assertEquals(expected(msg, 1234567890123L), frame.asString(1234567890123L));
+        assertNull(msg.getSequenceNumber());
+    }
+
+    @Test
+    public void emptyPayload() {
+        PongMessage msg = new PongMessage();
+        assertEquals(expected(msg, 42), new MessageFrame(parser, msg).asString(42));
+    }
+
+    @Test
+    public void bufferGrowsForLargeMessage() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            text.append("meeple ");
+        }
+        ChatMessage msg = new ChatMessage("session", text.toString());
+        assertEquals(expected(msg, 7), new MessageFrame(parser, msg).asString(7));
+    }
+}
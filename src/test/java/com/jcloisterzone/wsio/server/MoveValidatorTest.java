@@ -0,0 +1,166 @@
+package com.jcloisterzone.wsio.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.action.MeepleAction;
+import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.PlacementOption;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.board.pointer.FeaturePointer;
+import com.jcloisterzone.figure.Meeple;
+import com.jcloisterzone.game.GameSetup;
+import com.jcloisterzone.game.capability.BigFollowerCapability;
+import com.jcloisterzone.game.capability.DragonCapability;
+import com.jcloisterzone.game.capability.FairyCapability;
+import com.jcloisterzone.game.capability.InnCapability;
+import com.jcloisterzone.game.capability.PrincessCapability;
+import com.jcloisterzone.game.capability.StandardGameCapability;
+import com.jcloisterzone.game.capability.BridgeCapability.BrigeToken;
+import com.jcloisterzone.game.capability.TowerCapability;
+import com.jcloisterzone.game.capability.TowerCapability.TowerToken;
+import com.jcloisterzone.game.phase.GameOverPhase;
+import com.jcloisterzone.game.state.GameState;
+import com.jcloisterzone.game.state.PlacedTile;
+import com.jcloisterzone.support.SeededGame;
+import com.jcloisterzone.support.SeededGame.SeededRandomAiPlayer;
+import com.jcloisterzone.wsio.MessageParser;
+import com.jcloisterzone.wsio.message.DeployMeepleMessage;
+import com.jcloisterzone.wsio.message.GameOverMessage;
+import com.jcloisterzone.wsio.message.PlaceTileMessage;
+import com.jcloisterzone.wsio.message.PlaceTokenMessage;
+import com.jcloisterzone.wsio.message.WsInGameMessage;
+import com.jcloisterzone.wsio.message.WsSaltMessage;
+
+import io.vavr.collection.HashMap;
+import io.vavr.collection.HashSet;
+
+public class MoveValidatorTest {
+
+    private final MessageParser parser = new MessageParser();
+
+    private void assertRefused(MoveValidator validator, WsInGameMessage msg) {
+        GameState state = validator.getState();
+        try {
+            validator.apply(msg);
+            fail(msg + " must be refused");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertSame(state, validator.getState());
+    }
+
+    @Test
+    public void wholeGameIsAccepted() {
+        GameSetup setup = new GameSetup(
+            HashMap.of(Expansion.BASIC, 1, Expansion.INNS_AND_CATHEDRALS, 1, Expansion.PRINCESS_AND_DRAGON, 1, Expansion.TOWER, 1),
+            HashSet.of(StandardGameCapability.class, BigFollowerCapability.class, InnCapability.class,
+                DragonCapability.class, FairyCapability.class, PrincessCapability.class, TowerCapability.class),
+            HashMap.empty()
+        );
+        SeededGame game = new SeededGame(setup, 3, 4L);
+        GameState state = game.getState();
+        MoveValidator validator = new MoveValidator(game.getPhaseReducer(), state);
+        SeededRandomAiPlayer ai = new SeededRandomAiPlayer(4L);
+        long salt = 0;
+        while (state.getPhase() != GameOverPhase.class) {
+            WsInGameMessage msg = ai.apply(state);
+            if (msg instanceof WsSaltMessage) {
+                ((WsSaltMessage) msg).setSalt(++salt);
+            }
+            state = game.getPhaseReducer().apply(state, msg);
+            // message as received by server
+            validator.apply((WsInGameMessage) parser.fromJson(parser.toJson(msg)));
+            assertEquals(state.getPlacedTiles().mapValues(PlacedTile::toString), validator.getState().getPlacedTiles().mapValues(PlacedTile::toString));
+            assertEquals(state.getDeployedMeeples().mapKeys(Meeple::getId), validator.getState().getDeployedMeeples().mapKeys(Meeple::getId));
+        }
+        validator.apply(new GameOverMessage());
+        assertTrue(validator.getValidatedCount() > state.getPlacedTiles().size());
+    }
+
+    @Test
+    public void invalidMovesAreRefused() {
+        SeededGame game = new SeededGame(2, 1L).playUntil(10, 1L);
+        MoveValidator validator = new MoveValidator(game.getPhaseReducer(), game.getState());
+        String tileId = validator.getState().getDrawnTile().getId();
+
+        // occupied position, other than drawn tile, meeple before tile
+        assertRefused(validator, new PlaceTileMessage(tileId, Rotation.R0, Position.ZERO));
+        assertRefused(validator, new PlaceTileMessage("BA.RRRR", Rotation.R0, Position.ZERO));
+        String meepleId = validator.getState().getTurnPlayer().getFollowers(validator.getState()).get().getId();
+        assertRefused(validator, new DeployMeepleMessage(new FeaturePointer(Position.ZERO, Location.CLOISTER), meepleId));
+
+        PlacementOption option = validator.getState().getTilePlacements(validator.getState().getDrawnTile()).sorted().get();
+        PlaceTileMessage msg = new PlaceTileMessage(tileId, option.getRotation(), option.getPosition());
+        assertTrue(validator.isAllowed(msg));
+        validator.apply(msg);
+        assertFalse(validator.isAllowed(msg));
+
+        MeepleAction action = (MeepleAction) validator.getState().getPlayerActions().getActions()
+            .find(a -> a instanceof MeepleAction).getOrNull();
+        FeaturePointer fp = action.getOptions().get();
+        assertTrue(validator.isAllowed(action.select(fp)));
+        assertFalse(validator.isAllowed(new DeployMeepleMessage(fp, "unknown")));
+        assertFalse(validator.isAllowed(new DeployMeepleMessage(new FeaturePointer(option.getPosition().add(new Position(9, 9)), fp.getLocation()), meepleId)));
+        assertEquals(4, validator.getValidatedCount());
+    }
+
+    @Test
+    public void tokenOfMissingCapabilityIsRefused() {
+        SeededGame game = new SeededGame(2, 1L);
+        MoveValidator validator = new MoveValidator(game.getPhaseReducer(), game.getState());
+        assertRefused(validator, new PlaceTokenMessage(BrigeToken.BRIDGE, new FeaturePointer(Position.ZERO, Location.NS)));
+        assertRefused(validator, new PlaceTokenMessage(TowerToken.TOWER_PIECE, new FeaturePointer(Position.ZERO, Location.TOWER)));
+    }
+
+    @Test
+    public void emptyReplayRestoresInitialState() {
+        SeededGame game = new SeededGame(2, 1L);
+        MoveValidator validator = new MoveValidator(game.getPhaseReducer(), game.getState());
+        SeededRandomAiPlayer ai = new SeededRandomAiPlayer(1L);
+        for (int i = 0; i < 5; i++) {
+            validator.apply(ai.apply(validator.getState()));
+        }
+        validator.replay(java.util.Collections.emptyList());
+        assertSame(game.getState(), validator.getState());
+        assertEquals(0, validator.getAppliedCount());
+    }
+
+    @Test
+    public void replayRestoresKeptState() {
+        SeededGame game = new SeededGame(2, 3L);
+        MoveValidator validator = new MoveValidator(game.getPhaseReducer(), game.getState());
+        SeededRandomAiPlayer ai = new SeededRandomAiPlayer(3L);
+        java.util.List<WsInGameMessage> messages = new java.util.ArrayList<>();
+        java.util.List<GameState> states = new java.util.ArrayList<>();
+        states.add(validator.getState());
+        for (int i = 0; i < 150; i++) {
+            WsInGameMessage msg = ai.apply(validator.getState());
+            messages.add(msg);
+            validator.apply(msg);
+            states.add(validator.getState());
+        }
+
+        // recent state is restored without replay
+        validator.replay(messages.subList(0, 148));
+        assertSame(states.get(148), validator.getState());
+        assertEquals(148, validator.getAppliedCount());
+
+        // older one is replayed from periodic snapshot
+        validator.replay(messages.subList(0, 100));
+        assertEquals(100, validator.getAppliedCount());
+        assertEquals(states.get(100).getPlacedTiles().mapValues(PlacedTile::toString), validator.getState().getPlacedTiles().mapValues(PlacedTile::toString));
+        assertEquals(states.get(100).getPhase(), validator.getState().getPhase());
+
+        validator.replay(messages);
+        assertEquals(150, validator.getAppliedCount());
+        assertEquals(states.get(150).getPositionHash(), validator.getState().getPositionHash());
+    }
+}
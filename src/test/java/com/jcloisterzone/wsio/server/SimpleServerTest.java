@@ -0,0 +1,217 @@
+package com.jcloisterzone.wsio.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.jcloisterzone.benchmark.StubWebSocket;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.wsio.MessageParser;
+import com.jcloisterzone.wsio.message.ChannelMessage;
+import com.jcloisterzone.wsio.message.ChatMessage;
+import com.jcloisterzone.wsio.message.CreateGameMessage;
+import com.jcloisterzone.wsio.message.ErrorMessage;
+import com.jcloisterzone.wsio.message.GameMessage;
+import com.jcloisterzone.wsio.message.GameMessage.GameStatus;
+import com.jcloisterzone.wsio.message.GameUpdateMessage;
+import com.jcloisterzone.wsio.message.HelloMessage;
+import com.jcloisterzone.wsio.message.JoinGameMessage;
+import com.jcloisterzone.wsio.message.LeaveGameMessage;
+import com.jcloisterzone.wsio.message.PlaceTileMessage;
+import com.jcloisterzone.wsio.message.PostChatMessage;
+import com.jcloisterzone.wsio.message.StartGameMessage;
+import com.jcloisterzone.wsio.message.TakeSlotMessage;
+import com.jcloisterzone.wsio.message.WelcomeMessage;
+import com.jcloisterzone.wsio.message.WsMessage;
+
+public class SimpleServerTest {
+
+    private final MessageParser parser = new MessageParser();
+
+    private SimpleServer createServer(boolean multiGame) {
+        return new SimpleServer(new InetSocketAddress(0), (ws, ex) -> { throw new AssertionError(ex); }, multiGame);
+    }
+
+    private StubWebSocket connect(SimpleServer server, String clientId) {
+        StubWebSocket ws = new StubWebSocket(true);
+        server.onOpen(ws.getWebSocket(), null);
+        send(server, ws, new HelloMessage(clientId, clientId, "secret-" + clientId));
+        return ws;
+    }
+
+    private void send(SimpleServer server, StubWebSocket ws, WsMessage msg) {
+        server.onMessage(ws.getWebSocket(), parser.toJson(msg));
+    }
+
+    private List<WsMessage> received(StubWebSocket ws) {
+        return ws.drain().stream().map(parser::fromJson).collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends WsMessage> T find(List<WsMessage> messages, Class<T> type) {
+        return (T) messages.stream().filter(type::isInstance).findFirst().orElse(null);
+    }
+
+    private String createGame(SimpleServer server, StubWebSocket ws) {
+        send(server, ws, new CreateGameMessage("table", SimpleServer.LOBBY_CHANNEL, null));
+        return find(received(ws), GameMessage.class).getGameId();
+    }
+
+    private void join(SimpleServer server, StubWebSocket ws, String gameId) {
+        JoinGameMessage msg = new JoinGameMessage();
+        msg.setGameId(gameId);
+        send(server, ws, msg);
+    }
+
+    private PostChatMessage chat(String gameId, String text) {
+        PostChatMessage msg = new PostChatMessage(text);
+        msg.setGameId(gameId);
+        return msg;
+    }
+
+    @Test
+    public void singleGameModeJoinsGameAfterHello() {
+        SimpleServer server = createServer(false);
+        ServerGame game = server.createGame(null, null, "host");
+        StubWebSocket ws = connect(server, "host");
+
+        List<WsMessage> messages = received(ws);
+        assertTrue(messages.get(0) instanceof WelcomeMessage);
+        GameMessage gm = find(messages, GameMessage.class);
+        assertEquals(game.getGameId(), gm.getGameId());
+        assertEquals(GameStatus.OPEN, gm.getStatus());
+        for (int i = 0; i < messages.size(); i++) {
+            assertEquals(Long.valueOf(i + 1), messages.get(i).getSequenceNumber());
+        }
+    }
+
+    @Test
+    public void lobbyCreateAndJoin() {
+        SimpleServer server = createServer(true);
+        StubWebSocket alice = connect(server, "alice");
+        StubWebSocket bob = connect(server, "bob");
+        assertEquals(0, find(received(alice), ChannelMessage.class).getGames().length);
+        assertEquals(2, find(received(bob), ChannelMessage.class).getClients().length);
+
+        String gameId = createGame(server, alice);
+        GameUpdateMessage update = find(received(bob), GameUpdateMessage.class);
+        assertEquals(gameId, update.getGame().getGameId());
+        assertEquals(GameStatus.OPEN, update.getGame().getStatus());
+
+        join(server, bob, gameId);
+        assertEquals(gameId, find(received(bob), GameMessage.class).getGameId());
+
+        send(server, alice, chat(gameId, "hi"));
+        assertEquals("hi", find(received(bob), ChatMessage.class).getText());
+    }
+
+    @Test
+    public void messagesAreRoutedToJoinedGame() {
+        SimpleServer server = createServer(true);
+        StubWebSocket alice = connect(server, "alice");
+        StubWebSocket bob = connect(server, "bob");
+        String aliceGame = createGame(server, alice);
+        String bobGame = createGame(server, bob);
+        received(alice);
+        received(bob);
+
+        send(server, alice, chat(aliceGame, "hi"));
+        assertNull(find(received(bob), ChatMessage.class));
+
+        try {
+            send(server, alice, chat(bobGame, "hi"));
+            throw new AssertionError("Message to foreign game must be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertNull(find(received(bob), ChatMessage.class));
+    }
+
+    @Test
+    public void emptyOpenGameIsRemoved() {
+        SimpleServer server = createServer(true);
+        StubWebSocket alice = connect(server, "alice");
+        StubWebSocket bob = connect(server, "bob");
+        String gameId = createGame(server, alice);
+        received(bob);
+        ServerGame game = server.getGame(gameId);
+
+        send(server, alice, new LeaveGameMessage());
+        GameUpdateMessage update = find(received(bob), GameUpdateMessage.class);
+        assertEquals(GameStatus.REMOVED, update.getGame().getStatus());
+        assertNull(server.getGame(gameId));
+        assertTrue(game.isRemoved());
+        try {
+            join(server, bob, gameId);
+            throw new AssertionError("Removed game can't be joined");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertTrue(game.getMembers().isEmpty());
+    }
+
+    @Test
+    public void serverClosedConnectionLeavesGame() {
+        SimpleServer server = createServer(true);
+        StubWebSocket alice = connect(server, "alice");
+        StubWebSocket bob = connect(server, "bob");
+        String gameId = createGame(server, alice);
+        join(server, bob, gameId);
+        ServerGame game = server.getGame(gameId);
+        received(alice);
+        received(bob);
+
+        server.onClose(alice.getWebSocket(), 1000, "", false);
+        assertFalse(game.getMembers().containsKey(alice.getWebSocket()));
+        assertTrue(game.getMembers().containsKey(bob.getWebSocket()));
+        assertTrue(received(bob).isEmpty());
+
+        server.onClose(bob.getWebSocket(), 1000, "", false);
+        assertTrue(game.isRemoved());
+        assertNull(server.getGame(gameId));
+    }
+
+    @Test
+    public void invalidMoveIsRefused() {
+        SimpleServer server = createServer(false);
+        String gameId = server.createGame(null, null, "host").getGameId();
+        StubWebSocket alice = connect(server, "alice");
+        StubWebSocket bob = connect(server, "bob");
+        TakeSlotMessage takeSlot = new TakeSlotMessage(0, "alice");
+        takeSlot.setGameId(gameId);
+        send(server, alice, takeSlot);
+        takeSlot = new TakeSlotMessage(1, "bob");
+        takeSlot.setGameId(gameId);
+        send(server, bob, takeSlot);
+        StartGameMessage start = new StartGameMessage();
+        start.setGameId(gameId);
+        send(server, alice, start);
+        received(alice);
+        received(bob);
+
+        // position of starting tile
+        PlaceTileMessage msg = new PlaceTileMessage("BA.RRRR", Rotation.R0, Position.ZERO);
+        msg.setGameId(gameId);
+        send(server, alice, msg);
+        ErrorMessage err = find(received(alice), ErrorMessage.class);
+        assertEquals(ErrorMessage.INVALID_MOVE, err.getCode());
+        assertEquals(gameId, err.getArg()); // client looks up refused game by it
+        assertNull(find(received(bob), PlaceTileMessage.class));
+        assertTrue(server.getGame(gameId).getReplay().isEmpty());
+
+        // connection which didn't join game
+        StubWebSocket carol = new StubWebSocket(true);
+        server.onOpen(carol.getWebSocket(), null);
+        server.getGame(gameId).handlePlaceTile(carol.getWebSocket(), msg);
+        assertEquals(ErrorMessage.INVALID_MOVE, find(received(carol), ErrorMessage.class).getCode());
+        assertTrue(server.getGame(gameId).getReplay().isEmpty());
+    }
+}